@@ -1,5 +1,7 @@
 package org.infinispan.commons.util;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.PrimitiveIterator;
 import java.util.Set;
 import java.util.function.IntConsumer;
@@ -209,4 +211,26 @@ public static IntSet concurrentCopyFrom(IntSet intSet, int maxExclusive) {
       intSet.forEach((IntConsumer) cis::set);
       return cis;
    }
+
+   /**
+    * Splits the ints of the set in up to {@code parts} mutable sets of consecutive ints, whose sizes differ by at most
+    * the size of the last one, so that the ranges can be processed in parallel.
+    * @param intSet the set to split
+    * @param parts the maximum number of sets to return
+    * @return the sets, in the iteration order of the given set, or an empty list if the set is empty
+    * @since 15.0
+    */
+   public static List<IntSet> split(IntSet intSet, int parts) {
+      List<IntSet> ranges = new ArrayList<>(parts);
+      int rangeSize = (intSet.size() + parts - 1) / parts;
+      IntSet range = null;
+      for (PrimitiveIterator.OfInt iterator = intSet.iterator(); iterator.hasNext(); ) {
+         if (range == null || range.size() == rangeSize) {
+            range = mutableEmptySet();
+            ranges.add(range);
+         }
+         range.set(iterator.nextInt());
+      }
+      return ranges;
+   }
 }
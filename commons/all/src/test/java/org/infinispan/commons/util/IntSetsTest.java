@@ -0,0 +1,36 @@
+package org.infinispan.commons.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @since 15.0
+ */
+public class IntSetsTest {
+   @Test
+   public void testSplit() {
+      List<IntSet> ranges = IntSets.split(IntSets.immutableRangeSet(10), 4);
+      assertEquals(4, ranges.size());
+      assertEquals(IntSets.immutableOffsetIntSet(0, 3), ranges.get(0));
+      assertEquals(IntSets.immutableOffsetIntSet(3, 6), ranges.get(1));
+      assertEquals(IntSets.immutableOffsetIntSet(6, 9), ranges.get(2));
+      assertEquals(IntSets.immutableSet(9), ranges.get(3));
+   }
+
+   @Test
+   public void testSplitInMorePartsThanInts() {
+      List<IntSet> ranges = IntSets.split(IntSets.mutableSet(2, 7), 4);
+      assertEquals(2, ranges.size());
+      assertEquals(IntSets.immutableSet(2), ranges.get(0));
+      assertEquals(IntSets.immutableSet(7), ranges.get(1));
+   }
+
+   @Test
+   public void testSplitEmptySet() {
+      assertTrue(IntSets.split(IntSets.immutableEmptySet(), 4).isEmpty());
+   }
+}
@@ -19,9 +19,12 @@ public class AsyncStoreConfiguration extends ConfigurationElement<AsyncStoreConf
    @Deprecated(forRemoval=true)
    public static final AttributeDefinition<Integer> THREAD_POOL_SIZE = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.THREAD_POOL_SIZE, 1).immutable().build();
    public static final AttributeDefinition<Boolean> FAIL_SILENTLY = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.FAIL_SILENTLY, false).immutable().build();
+   public static final AttributeDefinition<Integer> MAX_CONCURRENT_BATCHES = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.MAX_CONCURRENT_BATCHES, 1).immutable().build();
+   public static final AttributeDefinition<Long> TARGET_BATCH_LATENCY = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.TARGET_BATCH_LATENCY, 0L).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(AsyncStoreConfiguration.class, ENABLED, MODIFICATION_QUEUE_SIZE, THREAD_POOL_SIZE, FAIL_SILENTLY);
+      return new AttributeSet(AsyncStoreConfiguration.class, ENABLED, MODIFICATION_QUEUE_SIZE, THREAD_POOL_SIZE, FAIL_SILENTLY,
+            MAX_CONCURRENT_BATCHES, TARGET_BATCH_LATENCY);
    }
 
    private final Attribute<Boolean> failSilently;
@@ -60,4 +63,20 @@ public int threadPoolSize() {
    public boolean failSilently() {
       return failSilently.get();
    }
+
+   /**
+    * The maximum number of batches that are written to the underlying store at the same time. Concurrent batches
+    * never contain modifications of the same segment.
+    */
+   public int maxConcurrentBatches() {
+      return attributes.attribute(MAX_CONCURRENT_BATCHES).get();
+   }
+
+   /**
+    * The latency of a batch write to the underlying store, in milliseconds, that the async store aims for by
+    * adapting the number of modifications in each batch. 0 sends all the queued modifications in a single batch.
+    */
+   public long targetBatchLatency() {
+      return attributes.attribute(TARGET_BATCH_LATENCY).get();
+   }
 }
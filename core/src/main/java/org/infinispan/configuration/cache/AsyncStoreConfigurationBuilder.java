@@ -2,8 +2,11 @@
 
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.ENABLED;
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.FAIL_SILENTLY;
+import static org.infinispan.configuration.cache.AsyncStoreConfiguration.MAX_CONCURRENT_BATCHES;
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.MODIFICATION_QUEUE_SIZE;
+import static org.infinispan.configuration.cache.AsyncStoreConfiguration.TARGET_BATCH_LATENCY;
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.THREAD_POOL_SIZE;
+import static org.infinispan.util.logging.Log.CONFIG;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
@@ -91,9 +94,35 @@ public AsyncStoreConfigurationBuilder<S> failSilently(boolean failSilently) {
       return this;
    }
 
+   /**
+    * Sets the maximum number of batches that are written to the underlying store at the same time. Concurrent batches
+    * never contain modifications of the same segment, so the modifications of a segment that is being written wait for
+    * the batch to complete. Defaults to <code>1</code>.
+    */
+   public AsyncStoreConfigurationBuilder<S> maxConcurrentBatches(int maxConcurrentBatches) {
+      attributes.attribute(MAX_CONCURRENT_BATCHES).set(maxConcurrentBatches);
+      return this;
+   }
+
+   /**
+    * Sets the latency of a batch write to the underlying store, in milliseconds, that the async store aims for. The
+    * number of modifications in a batch shrinks when the batches take longer and grows again when they are faster.
+    * Defaults to <code>0</code>, which sends all the queued modifications in a single batch.
+    */
+   public AsyncStoreConfigurationBuilder<S> targetBatchLatency(long targetBatchLatency) {
+      attributes.attribute(TARGET_BATCH_LATENCY).set(targetBatchLatency);
+      return this;
+   }
+
    @Override
    public
    void validate() {
+      if (attributes.attribute(MAX_CONCURRENT_BATCHES).get() < 1) {
+         throw CONFIG.invalidAsyncStoreMaxConcurrentBatches(attributes.attribute(MAX_CONCURRENT_BATCHES).get());
+      }
+      if (attributes.attribute(TARGET_BATCH_LATENCY).get() < 0) {
+         throw CONFIG.invalidAsyncStoreTargetBatchLatency(attributes.attribute(TARGET_BATCH_LATENCY).get());
+      }
    }
 
    @Override
@@ -18,9 +18,10 @@ public class ExpirationConfiguration extends ConfigurationElement<ExpirationConf
    public static final AttributeDefinition<Boolean> REAPER_ENABLED = AttributeDefinition.builder("reaperEnabled", true).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Long> WAKEUP_INTERVAL = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.INTERVAL, TimeUnit.MINUTES.toMillis(1)).build();
    public static final AttributeDefinition<TouchMode> TOUCH = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.TOUCH, TouchMode.SYNC).immutable().build();
+   public static final AttributeDefinition<Boolean> INDEXED = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.INDEXED, false).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(ExpirationConfiguration.class, LIFESPAN, MAX_IDLE, REAPER_ENABLED, WAKEUP_INTERVAL, TOUCH);
+      return new AttributeSet(ExpirationConfiguration.class, LIFESPAN, MAX_IDLE, REAPER_ENABLED, WAKEUP_INTERVAL, TOUCH, INDEXED);
    }
 
    private final Attribute<Long> lifespan;
@@ -28,6 +29,7 @@ static AttributeSet attributeDefinitionSet() {
    private final Attribute<Boolean> reaperEnabled;
    private final Attribute<Long> wakeUpInterval;
    private final Attribute<TouchMode> touch;
+   private final Attribute<Boolean> indexed;
 
    ExpirationConfiguration(AttributeSet attributes) {
       super(Element.EXPIRATION, attributes);
@@ -36,6 +38,7 @@ static AttributeSet attributeDefinitionSet() {
       reaperEnabled = attributes.attribute(REAPER_ENABLED);
       wakeUpInterval = attributes.attribute(WAKEUP_INTERVAL);
       touch = attributes.attribute(TOUCH);
+      indexed = attributes.attribute(INDEXED);
    }
 
    /**
@@ -85,4 +88,15 @@ public long wakeUpInterval() {
    public TouchMode touch() {
       return touch.get();
    }
+
+   /**
+    * Whether the expirable entries held on the heap are indexed by expiration time, so that the reaper only visits the
+    * expired ones instead of all the entries of the container. The index costs some memory per expirable entry and
+    * some time on each write of an expirable entry.
+    *
+    * Default is {@code false}.
+    */
+   public boolean indexed() {
+      return indexed.get();
+   }
 }
@@ -3,6 +3,7 @@
 import static org.infinispan.configuration.cache.ExpirationConfiguration.LIFESPAN;
 import static org.infinispan.configuration.cache.ExpirationConfiguration.MAX_IDLE;
 import static org.infinispan.configuration.cache.ExpirationConfiguration.REAPER_ENABLED;
+import static org.infinispan.configuration.cache.ExpirationConfiguration.INDEXED;
 import static org.infinispan.configuration.cache.ExpirationConfiguration.TOUCH;
 import static org.infinispan.configuration.cache.ExpirationConfiguration.WAKEUP_INTERVAL;
 
@@ -155,6 +156,18 @@ public ExpirationConfigurationBuilder touch(TouchMode touchMode) {
       return this;
    }
 
+   /**
+    * Indexes the expirable entries held on the heap by expiration time, so that the reaper only visits the expired
+    * ones. The index costs some memory per expirable entry and some time on each write of an expirable entry, so it is
+    * worth it for caches with many entries of which few expire at each run of the reaper.
+    *
+    * Default is {@code false}.
+    */
+   public ExpirationConfigurationBuilder indexed(boolean indexed) {
+      attributes.attribute(INDEXED).set(indexed);
+      return this;
+   }
+
    @Override
    public void validate() {
       Attribute<TouchMode> touch = attributes.attribute(TOUCH);
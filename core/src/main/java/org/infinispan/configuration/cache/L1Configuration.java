@@ -6,6 +6,7 @@
 import org.infinispan.commons.configuration.attributes.AttributeDefinition;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.commons.configuration.attributes.ConfigurationElement;
+import org.infinispan.commons.util.ByteQuantity;
 import org.infinispan.configuration.parsing.Element;
 
 /**
@@ -19,15 +20,22 @@ public class L1Configuration extends ConfigurationElement<L1Configuration> {
    public static final AttributeDefinition<Long> LIFESPAN = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.L1_LIFESPAN, TimeUnit.MINUTES.toMillis(10)).immutable().build();
 
    public static final AttributeDefinition<Long> CLEANUP_TASK_FREQUENCY = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.INVALIDATION_CLEANUP_TASK_FREQUENCY, TimeUnit.MINUTES.toMillis(1)).immutable().build();
+   public static final AttributeDefinition<Boolean> HOT_KEYS_ONLY = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.L1_HOT_KEYS_ONLY, false).immutable().build();
+   public static final AttributeDefinition<Long> MAX_COUNT = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.L1_MAX_COUNT, -1L).immutable().build();
+   public static final AttributeDefinition<String> MAX_SIZE = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.L1_MAX_SIZE, null, String.class).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(L1Configuration.class, ENABLED, INVALIDATION_THRESHOLD, LIFESPAN, CLEANUP_TASK_FREQUENCY);
+      return new AttributeSet(L1Configuration.class, ENABLED, INVALIDATION_THRESHOLD, LIFESPAN, CLEANUP_TASK_FREQUENCY,
+            HOT_KEYS_ONLY, MAX_COUNT, MAX_SIZE);
    }
 
    private final Attribute<Boolean> enabled;
    private final Attribute<Integer> invalidationThreshold;
    private final Attribute<Long> lifespan;
    private final Attribute<Long> cleanupTaskFrequency;
+   private final Attribute<Boolean> hotKeysOnly;
+   private final Attribute<Long> maxCount;
+   private final Attribute<String> maxSize;
 
    L1Configuration(AttributeSet attributes) {
       super(Element.L1, attributes);
@@ -35,6 +43,9 @@ static AttributeSet attributeDefinitionSet() {
       invalidationThreshold = attributes.attribute(INVALIDATION_THRESHOLD);
       lifespan = attributes.attribute(LIFESPAN);
       cleanupTaskFrequency = attributes.attribute(CLEANUP_TASK_FREQUENCY);
+      hotKeysOnly = attributes.attribute(HOT_KEYS_ONLY);
+      maxCount = attributes.attribute(MAX_COUNT);
+      maxSize = attributes.attribute(MAX_SIZE);
    }
 
    public boolean enabled() {
@@ -73,4 +84,35 @@ public long cleanupTaskFrequency() {
    public long lifespan() {
       return lifespan.get();
    }
+
+   /**
+    * Whether only the keys detected as hot on this node are placed in the L1 cache. Default false.
+    */
+   public boolean hotKeysOnly() {
+      return hotKeysOnly.get();
+   }
+
+   /**
+    * The maximum number of entries in the L1 cache, or -1 if the number of entries is not bounded. Default -1.
+    */
+   public long maxCount() {
+      return maxCount.get();
+   }
+
+   /**
+    * The maximum amount of memory taken by the entries in the L1 cache, or null if the L1 cache is not bounded in
+    * size. Default null.
+    */
+   public String maxSize() {
+      return maxSize.get();
+   }
+
+   /**
+    * The maximum amount of memory taken by the entries in the L1 cache in bytes, or -1 if the L1 cache is not bounded
+    * in size.
+    */
+   public long maxSizeBytes() {
+      String maxSizeStr = maxSize.get();
+      return maxSizeStr != null ? ByteQuantity.parse(maxSizeStr) : -1;
+   }
 }
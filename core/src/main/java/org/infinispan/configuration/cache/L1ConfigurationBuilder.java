@@ -2,8 +2,11 @@
 
 import static org.infinispan.configuration.cache.L1Configuration.CLEANUP_TASK_FREQUENCY;
 import static org.infinispan.configuration.cache.L1Configuration.ENABLED;
+import static org.infinispan.configuration.cache.L1Configuration.HOT_KEYS_ONLY;
 import static org.infinispan.configuration.cache.L1Configuration.INVALIDATION_THRESHOLD;
 import static org.infinispan.configuration.cache.L1Configuration.LIFESPAN;
+import static org.infinispan.configuration.cache.L1Configuration.MAX_COUNT;
+import static org.infinispan.configuration.cache.L1Configuration.MAX_SIZE;
 import static org.infinispan.util.logging.Log.CONFIG;
 
 import java.util.concurrent.TimeUnit;
@@ -84,6 +87,40 @@ public L1ConfigurationBuilder cleanupTaskFrequency(long frequencyMillis, TimeUni
       return cleanupTaskFrequency(unit.toMillis(frequencyMillis));
    }
 
+   /**
+    * Only places the keys read the most on this node in the L1 cache, instead of every key retrieved from a remote
+    * owner. This spreads the reads of the hottest keys of a skewed workload over the whole cluster while keeping the
+    * L1 cache small, as the number of hot keys is bounded. Requires L1 to be enabled.
+    */
+   public L1ConfigurationBuilder hotKeysOnly(boolean hotKeysOnly) {
+      attributes.attribute(HOT_KEYS_ONLY).set(hotKeysOnly);
+      return this;
+   }
+
+   /**
+    * Limits the number of entries in the L1 cache. Once full, a key retrieved from a remote owner only replaces the
+    * L1 entry chosen for eviction when it is estimated to be read more often, so that keys read once can't push the
+    * popular keys out of the L1 cache. Requires heap storage without eviction, as the L1 entries count towards the
+    * memory bound of the cache otherwise.
+    *
+    * @param maxCount the maximum number of entries in the L1 cache, or -1 for no limit
+    */
+   public L1ConfigurationBuilder maxCount(long maxCount) {
+      attributes.attribute(MAX_COUNT).set(maxCount);
+      return this;
+   }
+
+   /**
+    * Limits the amount of memory taken by the entries in the L1 cache, in the same way as {@link #maxCount(long)}.
+    * Requires a binary heap storage without eviction, as with {@link #maxCount(long)}.
+    *
+    * @param maxSize the maximum size of the L1 cache, in bytes or as a quantity with a unit such as 10MB
+    */
+   public L1ConfigurationBuilder maxSize(String maxSize) {
+      attributes.attribute(MAX_SIZE).set(maxSize);
+      return this;
+   }
+
    public L1ConfigurationBuilder enable() {
       attributes.attribute(ENABLED).set(true);
       return this;
@@ -112,6 +149,26 @@ public void validate() {
          if (memoryConfigurationBuilder.evictionStrategy() == EvictionStrategy.EXCEPTION) {
             throw CONFIG.l1NotValidWithExpirationEviction();
          }
+
+         boolean sizeBounded = attributes.attribute(MAX_SIZE).get() != null;
+         if (sizeBounded || attributes.attribute(MAX_COUNT).get() > 0) {
+            // The off-heap and the bounded data containers keep the L1 entries with the owned ones
+            if (memoryConfigurationBuilder.storageType() == StorageType.OFF_HEAP ||
+                  memoryConfigurationBuilder.isSizeBounded() || memoryConfigurationBuilder.isCountBounded()) {
+               throw CONFIG.l1BoundRequiresUnboundedHeapStorage();
+            }
+         }
+         if (sizeBounded) {
+            if (attributes.attribute(MAX_COUNT).get() != -1L) {
+               throw CONFIG.l1CannotProvideBothSizeAndCount();
+            }
+            boolean storageBinary = encoding().isStorageBinary() || !memoryConfigurationBuilder.storageType().canStoreReferences();
+            if (!storageBinary) {
+               throw CONFIG.l1MaxSizeNotSupportedWithObject();
+            }
+         }
+      } else if (attributes.attribute(HOT_KEYS_ONLY).get()) {
+         throw CONFIG.l1HotKeysOnlyRequiresL1();
       }
    }
 
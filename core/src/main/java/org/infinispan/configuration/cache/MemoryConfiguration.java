@@ -22,11 +22,16 @@ public class MemoryConfiguration extends ConfigurationElement<MemoryConfiguratio
    public static final AttributeDefinition<String> MAX_SIZE = AttributeDefinition.builder(Attribute.MAX_SIZE, null, String.class).build();
    public static final AttributeDefinition<Long> MAX_COUNT = AttributeDefinition.builder(Attribute.MAX_COUNT, -1L).build();
    public static final AttributeDefinition<EvictionStrategy> WHEN_FULL = AttributeDefinition.builder(Attribute.WHEN_FULL, EvictionStrategy.NONE).immutable().build();
+   public static final AttributeDefinition<OffHeapAllocatorType> OFF_HEAP_ALLOCATOR = AttributeDefinition.builder(Attribute.OFF_HEAP_ALLOCATOR, OffHeapAllocatorType.UNPOOLED).immutable().build();
+   public static final AttributeDefinition<Boolean> COMPACT_ENTRIES = AttributeDefinition.builder(Attribute.COMPACT_ENTRIES, false).immutable().build();
+   public static final AttributeDefinition<Integer> COMPRESSION_THRESHOLD = AttributeDefinition.builder(Attribute.COMPRESSION_THRESHOLD, -1).immutable().build();
+   public static final AttributeDefinition<Boolean> COMPRESSION_DICTIONARY = AttributeDefinition.builder(Attribute.COMPRESSION_DICTIONARY, false).immutable().build();
 
    private final MemoryStorageConfiguration memoryStorageConfiguration;
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(MemoryConfiguration.class, STORAGE, MAX_SIZE, MAX_COUNT, WHEN_FULL);
+      return new AttributeSet(MemoryConfiguration.class, STORAGE, MAX_SIZE, MAX_COUNT, WHEN_FULL, OFF_HEAP_ALLOCATOR,
+            COMPACT_ENTRIES, COMPRESSION_THRESHOLD, COMPRESSION_DICTIONARY);
    }
 
    MemoryConfiguration(AttributeSet attributes, MemoryStorageConfiguration memoryStorageConfiguration) {
@@ -149,6 +154,34 @@ public EvictionStrategy whenFull() {
       return attributes.attribute(WHEN_FULL).get();
    }
 
+   /**
+    * @return The {@link OffHeapAllocatorType} used to obtain native memory when the storage is off-heap.
+    */
+   public OffHeapAllocatorType offHeapAllocator() {
+      return attributes.attribute(OFF_HEAP_ALLOCATOR).get();
+   }
+
+   /**
+    * @return Whether entries stored on the heap without eviction are kept in a compact layout.
+    */
+   public boolean compactEntries() {
+      return attributes.attribute(COMPACT_ENTRIES).get();
+   }
+
+   /**
+    * @return The minimum size in bytes of the off-heap values that are compressed, or -1 if compression is disabled.
+    */
+   public int compressionThreshold() {
+      return attributes.attribute(COMPRESSION_THRESHOLD).get();
+   }
+
+   /**
+    * @return Whether compressed values use a dictionary trained from the first values written to the cache.
+    */
+   public boolean compressionDictionary() {
+      return attributes.attribute(COMPRESSION_DICTIONARY).get();
+   }
+
    /**
     * Returns whether remove eviction is in use
     */
@@ -241,6 +241,72 @@ public EvictionStrategy whenFull() {
       return attributes.attribute(MemoryConfiguration.WHEN_FULL).get();
    }
 
+   /**
+    * Selects how native memory is allocated when the storage is {@link StorageType#OFF_HEAP}. This setting has no
+    * effect on heap based storage.
+    * @param allocatorType the allocator type to use
+    * @return this configuration builder
+    */
+   public MemoryConfigurationBuilder offHeapAllocator(OffHeapAllocatorType allocatorType) {
+      attributes.attribute(MemoryConfiguration.OFF_HEAP_ALLOCATOR).set(allocatorType);
+      return this;
+   }
+
+   public OffHeapAllocatorType offHeapAllocator() {
+      return attributes.attribute(MemoryConfiguration.OFF_HEAP_ALLOCATOR).get();
+   }
+
+   /**
+    * Stores entries on the heap in flat per segment tables instead of a hash map node and an entry object for each
+    * of them. Immortal entries without metadata then only take the references to their key and value, at the cost
+    * of allocating a short lived entry every time they are read. This setting only has effect on heap based storage
+    * without eviction.
+    * @param compactEntries whether entries should be stored in the compact layout
+    * @return this configuration builder
+    */
+   public MemoryConfigurationBuilder compactEntries(boolean compactEntries) {
+      attributes.attribute(MemoryConfiguration.COMPACT_ENTRIES).set(compactEntries);
+      return this;
+   }
+
+   public boolean compactEntries() {
+      return attributes.attribute(MemoryConfiguration.COMPACT_ENTRIES).get();
+   }
+
+   /**
+    * Compresses the values stored off-heap that are at least the given amount of bytes, which greatly reduces the
+    * memory used by textual values such as JSON. Values are decompressed every time they are read and eviction
+    * based on memory uses the compressed size. Values that don't become smaller are stored as is. This setting only
+    * has effect on off-heap storage. Defaults to -1, which disables compression.
+    * @param compressionThreshold the minimum size in bytes of the values to compress, or -1 to disable compression
+    * @return this configuration builder
+    */
+   public MemoryConfigurationBuilder compressionThreshold(int compressionThreshold) {
+      attributes.attribute(MemoryConfiguration.COMPRESSION_THRESHOLD).set(compressionThreshold);
+      return this;
+   }
+
+   public int compressionThreshold() {
+      return attributes.attribute(MemoryConfiguration.COMPRESSION_THRESHOLD).get();
+   }
+
+   /**
+    * Compresses values using a dictionary made of samples of the first values written to the cache, which improves
+    * the compression of values sharing the same structure, like small documents with the same fields. Values written
+    * before the dictionary is complete are compressed without it. This setting only has effect when
+    * {@link #compressionThreshold(int)} enables compression.
+    * @param compressionDictionary whether compression should use a trained dictionary
+    * @return this configuration builder
+    */
+   public MemoryConfigurationBuilder compressionDictionary(boolean compressionDictionary) {
+      attributes.attribute(MemoryConfiguration.COMPRESSION_DICTIONARY).set(compressionDictionary);
+      return this;
+   }
+
+   public boolean compressionDictionary() {
+      return attributes.attribute(MemoryConfiguration.COMPRESSION_DICTIONARY).get();
+   }
+
    /**
     * The configured eviction strategy, please see {@link MemoryConfigurationBuilder#evictionStrategy(EvictionStrategy)}.
     * @return the configured eviction stategy
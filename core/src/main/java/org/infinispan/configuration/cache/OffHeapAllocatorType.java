@@ -0,0 +1,20 @@
+package org.infinispan.configuration.cache;
+
+/**
+ * Enumeration defining how native memory is obtained when the cache uses {@link StorageType#OFF_HEAP} storage.
+ *
+ * @since 15.0
+ */
+public enum OffHeapAllocatorType {
+
+   /**
+    * Every entry is allocated and freed directly from the operating system allocator. This is the default.
+    */
+   UNPOOLED,
+
+   /**
+    * Entries are carved out of size-classed slabs which are recycled through per-thread caches, reducing allocator
+    * contention and native memory fragmentation for write heavy workloads.
+    */
+   POOLED
+}
@@ -1,6 +1,7 @@
 package org.infinispan.configuration.cache;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.commons.configuration.attributes.AttributeDefinition;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
@@ -17,9 +18,12 @@ public class PersistenceConfiguration extends ConfigurationElement<PersistenceCo
    public static final AttributeDefinition<Integer> CONNECTION_ATTEMPTS = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.CONNECTION_ATTEMPTS, 10).build();
    @Deprecated(forRemoval=true)
    public static final AttributeDefinition<Integer> CONNECTION_INTERVAL = AttributeDefinition.builder(Attribute.CONNECTION_INTERVAL, 50).immutable().deprecated(15, 0).build();
+   public static final AttributeDefinition<Integer> PRELOAD_PARALLELISM = AttributeDefinition.builder(Attribute.PRELOAD_PARALLELISM, 4).immutable().build();
+   public static final AttributeDefinition<Boolean> TIERED = AttributeDefinition.builder(Attribute.TIERED, false).immutable().build();
+   public static final AttributeDefinition<Long> TIER_DEMOTION_AGE = AttributeDefinition.builder(Attribute.TIER_DEMOTION_AGE, TimeUnit.HOURS.toMillis(1)).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(PersistenceConfiguration.class, PASSIVATION, AVAILABILITY_INTERVAL, CONNECTION_ATTEMPTS, CONNECTION_INTERVAL);
+      return new AttributeSet(PersistenceConfiguration.class, PASSIVATION, AVAILABILITY_INTERVAL, CONNECTION_ATTEMPTS, CONNECTION_INTERVAL, PRELOAD_PARALLELISM, TIERED, TIER_DEMOTION_AGE);
    }
 
    private final List<StoreConfiguration> stores;
@@ -59,6 +63,30 @@ public int connectionInterval() {
       return -1;
    }
 
+   /**
+    * The maximum number of segments of a segmented store that are preloaded at the same time.
+    */
+   public int preloadParallelism() {
+      return attributes.attribute(PRELOAD_PARALLELISM).get();
+   }
+
+   /**
+    * If true, the first store is a hot tier holding the recently accessed entries and the second store is a capacity
+    * tier holding the rest. Writes go to the hot tier, entries read from the capacity tier are promoted to the hot tier
+    * and entries not accessed for {@link #tierDemotionAge()} are demoted to the capacity tier.
+    */
+   public boolean tiered() {
+      return attributes.attribute(TIERED).get();
+   }
+
+   /**
+    * The time, in milliseconds, after which an entry that was not accessed is moved from the hot tier to the capacity
+    * tier.
+    */
+   public long tierDemotionAge() {
+      return attributes.attribute(TIER_DEMOTION_AGE).get();
+   }
+
    public List<StoreConfiguration> stores() {
       return stores;
    }
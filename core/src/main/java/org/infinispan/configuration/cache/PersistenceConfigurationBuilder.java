@@ -3,6 +3,9 @@
 import static org.infinispan.configuration.cache.PersistenceConfiguration.AVAILABILITY_INTERVAL;
 import static org.infinispan.configuration.cache.PersistenceConfiguration.CONNECTION_ATTEMPTS;
 import static org.infinispan.configuration.cache.PersistenceConfiguration.PASSIVATION;
+import static org.infinispan.configuration.cache.PersistenceConfiguration.PRELOAD_PARALLELISM;
+import static org.infinispan.configuration.cache.PersistenceConfiguration.TIERED;
+import static org.infinispan.configuration.cache.PersistenceConfiguration.TIER_DEMOTION_AGE;
 import static org.infinispan.util.logging.Log.CONFIG;
 
 import java.lang.reflect.Constructor;
@@ -62,6 +65,38 @@ public PersistenceConfigurationBuilder connectionAttempts(int attempts) {
       return this;
    }
 
+   /**
+    * @param parallelism The maximum number of segments that are loaded at the same time when preloading a segmented
+    *                    store. Stores that are not segmented are always preloaded sequentially. Defaults to
+    *                    <code>4</code>.
+    */
+   public PersistenceConfigurationBuilder preloadParallelism(int parallelism) {
+      attributes.attribute(PRELOAD_PARALLELISM).set(parallelism);
+      return this;
+   }
+
+   /**
+    * If true, the two configured stores are used as tiers instead of holding copies of the same data. The first store
+    * is the hot tier: it receives the writes and holds the recently accessed entries. The second store is the capacity
+    * tier: it holds the entries that were not accessed for {@link #tierDemotionAge(long)}. An entry read from the
+    * capacity tier is moved back to the hot tier. Both stores must be local, readable, writable and not transactional.
+    * Defaults to <code>false</code>.
+    */
+   public PersistenceConfigurationBuilder tiered(boolean tiered) {
+      attributes.attribute(TIERED).set(tiered);
+      return this;
+   }
+
+   /**
+    * @param age The time, in milliseconds, after which an entry of the hot tier that was not read or written is
+    *            moved to the capacity tier. The hot tier is checked for such entries with the same period.
+    *            Defaults to one hour.
+    */
+   public PersistenceConfigurationBuilder tierDemotionAge(long age) {
+      attributes.attribute(TIER_DEMOTION_AGE).set(age);
+      return this;
+   }
+
    /**
     * @param interval The time, in milliseconds, to wait between subsequent connection attempts on startup. A negative
     *                 or zero value means no wait between connection attempts.
@@ -176,10 +211,25 @@ public void validate() {
          if (storeConfiguration.preload()) {
             numPreload++;
          }
+         if (attributes.attribute(TIERED).get() && (storeConfiguration.shared() || storeConfiguration.transactional() ||
+               storeConfiguration.ignoreModifications() || storeConfiguration.writeOnly())) {
+            throw CONFIG.invalidTierStore(storeConfiguration.getClass().getSimpleName());
+         }
+      }
+      if (attributes.attribute(TIERED).get()) {
+         if (stores.size() != 2) {
+            throw CONFIG.tieredPersistenceRequiresTwoStores(stores.size());
+         }
+         if (attributes.attribute(TIER_DEMOTION_AGE).get() <= 0) {
+            throw CONFIG.invalidTierDemotionAge(attributes.attribute(TIER_DEMOTION_AGE).get());
+         }
       }
       if (numPreload > 1) {
          throw CONFIG.onlyOnePreloadStoreAllowed();
       }
+      if (attributes.attribute(PRELOAD_PARALLELISM).get() < 1) {
+         throw CONFIG.invalidPreloadParallelism(attributes.attribute(PRELOAD_PARALLELISM).get());
+      }
 
       // If a store is present, the reaper expiration thread must be enabled.
       if (!stores.isEmpty()) {
@@ -23,9 +23,10 @@ public class SingleFileStoreConfiguration extends AbstractStoreConfiguration<Sin
    @Deprecated(forRemoval=true)
    public static final AttributeDefinition<Integer> MAX_ENTRIES = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.MAX_ENTRIES, -1).immutable().build();
    public static final AttributeDefinition<Float> FRAGMENTATION_FACTOR = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.FRAGMENTATION_FACTOR, 0.75f).immutable().build();
+   public static final AttributeDefinition<Boolean> OFF_HEAP_INDEX = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.OFF_HEAP_INDEX, false).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(SingleFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), LOCATION, MAX_ENTRIES, FRAGMENTATION_FACTOR);
+      return new AttributeSet(SingleFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), LOCATION, MAX_ENTRIES, FRAGMENTATION_FACTOR, OFF_HEAP_INDEX);
    }
 
    public SingleFileStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async) {
@@ -47,4 +48,12 @@ public int maxEntries() {
    public float fragmentationFactor() {
       return attributes.attribute(FRAGMENTATION_FACTOR).get();
    }
+
+   /**
+    * @return {@code true} if the index of the keys and their position in the file is kept off-heap
+    * @since 15.0
+    */
+   public boolean offHeapIndex() {
+      return attributes.attribute(OFF_HEAP_INDEX).get();
+   }
 }
@@ -4,6 +4,7 @@
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.FRAGMENTATION_FACTOR;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.LOCATION;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.MAX_ENTRIES;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.OFF_HEAP_INDEX;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
@@ -82,6 +83,20 @@ public SingleFileStoreConfigurationBuilder fragmentationFactor(float fragmentati
       return this;
    }
 
+   /**
+    * Keeps the index of the keys and their position in the file outside of the Java heap. The index then only holds
+    * a hash of each key and the position of its entry, so it needs about 16 bytes of native memory per entry instead
+    * of the on-heap key objects. The keys are read from the file when needed, so the lookups and the iteration are
+    * slower.
+    *
+    * Defaults to <code>false</code>. Can't be used with {@link #maxEntries(int)}.
+    * @since 15.0
+    */
+   public SingleFileStoreConfigurationBuilder offHeapIndex(boolean offHeapIndex) {
+      attributes.attribute(OFF_HEAP_INDEX).set(offHeapIndex);
+      return this;
+   }
+
    @Override
    public void validate() {
       Attribute<Boolean> segmentedAttribute = attributes.attribute(SEGMENTED);
@@ -89,6 +104,9 @@ public void validate() {
       if (segmentedAttribute.get() && maxEntriesAttribute.get() > 0) {
          throw Log.CONFIG.segmentedSingleFileStoreDoesNotSupportMaxEntries();
       }
+      if (attributes.attribute(OFF_HEAP_INDEX).get() && maxEntriesAttribute.get() > 0) {
+         throw Log.CONFIG.offHeapIndexSingleFileStoreDoesNotSupportMaxEntries();
+      }
       super.validate();
    }
 
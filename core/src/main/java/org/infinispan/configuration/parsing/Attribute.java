@@ -33,6 +33,7 @@ public enum Attribute {
     BIAS_ACQUISITION,
     BIAS_LIFESPAN,
     BLOCKING_EXECUTOR,
+    BLOOM_FILTER_BITS,
     CACHE_SIZE,
     CACHE_TIMEOUT,
     CALIBRATE_BY_DELETES,
@@ -44,7 +45,12 @@ public enum Attribute {
     CLUSTER,
     COLLECTOR_ENDPOINT,
     COMMIT_INTERVAL,
+    COMPACT_ENTRIES,
+    COMPACTION_PARALLELISM,
+    COMPACTION_RATE_LIMIT,
     COMPACTION_THRESHOLD,
+    COMPRESSION_DICTIONARY,
+    COMPRESSION_THRESHOLD,
     COMPLETED_TX_TIMEOUT("complete-timeout"),
     CONCURRENCY_LEVEL,
     CONFIGURATION,
@@ -84,6 +90,7 @@ public enum Attribute {
     ID,
     INDEX,
     INDEX_QUEUE_LENGTH("max-queue-length"),
+    INDEXED,
     INDEXED_ENTITIES,
     INDEXING_MODE,
     INITIAL_CLUSTER_SIZE,
@@ -91,6 +98,7 @@ public enum Attribute {
     INTERVAL,
     INVALIDATION_BATCH_SIZE,
     INVALIDATION_CLEANUP_TASK_FREQUENCY("l1-cleanup-interval"),
+    IO_BACKEND,
     ISOLATION,
     JNDI_NAME,
     KEEP_ALIVE_TIME("keepalive-time"),
@@ -99,7 +107,10 @@ public enum Attribute {
     KEY_PARTITIONER,
     HASH_FUNCTION,
     HIT_COUNT_ACCURACY,
+    L1_HOT_KEYS_ONLY("l1-hot-keys-only"),
     L1_LIFESPAN("l1-lifespan"),
+    L1_MAX_COUNT("l1-max-count"),
+    L1_MAX_SIZE("l1-max-size"),
     LIFESPAN,
     LISTENER_EXECUTOR,
     LOCATION,
@@ -111,6 +122,7 @@ public enum Attribute {
     MARSHALLER,
     MAX_BATCH_SIZE,
     MAX_CLEANUP_DELAY,
+    MAX_CONCURRENT_BATCHES,
     MAX_COUNT,
     MAX_ENTRIES,
     MAX_FILE_SIZE,
@@ -125,8 +137,10 @@ public enum Attribute {
     MBEAN_SERVER_LOOKUP,
     MERGE_POLICY,
     MEDIA_TYPE,
+    MEMORY_MAPPED,
     MIN_NODE_SIZE,
     MODE,
+    NODE_CACHE_SIZE,
     NODE_NAME,
     MODIFICATION_QUEUE_SIZE,
     MODULE,
@@ -135,6 +149,8 @@ public enum Attribute {
     NAMES_AS_TAGS,
     NON_BLOCKING_EXECUTOR,
     NOTIFICATIONS,
+    OFF_HEAP_ALLOCATOR,
+    OFF_HEAP_INDEX,
     ON_REHASH("onRehash"),
     OPEN_FILES_LIMIT,
     OWNERS,
@@ -146,6 +162,7 @@ public enum Attribute {
     POSITION,
     PREFIX,
     PRELOAD,
+    PRELOAD_PARALLELISM,
     PRIORITY,
     PROPERTIES,
     PURGE,
@@ -194,13 +211,18 @@ public enum Attribute {
     STRIPING,
     STACK,
     STOP_TIMEOUT,
+    SYNC_COMMIT_DELAY,
+    SYNC_COMMIT_SIZE,
     SYNC_WRITES,
     TAKE_BACKUP_OFFLINE_AFTER_FAILURES("after-failures"),
     TAKE_BACKUP_OFFLINE_MIN_WAIT("min-wait"),
+    TARGET_BATCH_LATENCY,
     THREAD_FACTORY,
     THREAD_NAME_PATTERN,
     THREAD_POLICY,
     THREAD_POOL_SIZE,
+    TIERED,
+    TIER_DEMOTION_AGE,
     TIMEOUT,
     TOMBSTONE_MAP_SIZE,
     TOTAL_ORDER_EXECUTOR,
@@ -50,6 +50,7 @@
 import org.infinispan.partitionhandling.PartitionHandling;
 import org.infinispan.persistence.cluster.ClusterLoader;
 import org.infinispan.persistence.file.SingleFileStore;
+import org.infinispan.persistence.sifs.configuration.IOBackend;
 import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
 import org.infinispan.transaction.LockingMode;
 import org.kohsuke.MetaInfServices;
@@ -661,6 +662,11 @@ private void parseExpiration(ConfigurationReader reader, ConfigurationBuilder bu
                builder.expiration().touch(ParseUtils.parseEnum(reader, i, TouchMode.class, value));
                break;
             }
+            case INDEXED: {
+               ParseUtils.introducedFrom(reader, 15, 0);
+               builder.expiration().indexed(ParseUtils.parseBoolean(reader, i, value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -833,6 +839,18 @@ protected void parseDistributedCache(ConfigurationReader reader, ConfigurationBu
                builder.clustering().l1().cleanupTaskFrequency(ParseUtils.parseLong(reader, i, value));
                break;
             }
+            case L1_HOT_KEYS_ONLY: {
+               builder.clustering().l1().hotKeysOnly(ParseUtils.parseBoolean(reader, i, value));
+               break;
+            }
+            case L1_MAX_COUNT: {
+               builder.clustering().l1().maxCount(ParseUtils.parseLong(reader, i, value));
+               break;
+            }
+            case L1_MAX_SIZE: {
+               builder.clustering().l1().maxSize(value);
+               break;
+            }
             case CAPACITY:
                ParseUtils.removedSince(reader, 13, 0);
                CONFIG.configDeprecatedUseOther(Attribute.CAPACITY, Attribute.CAPACITY_FACTOR, reader.getLocation());
@@ -1031,6 +1049,20 @@ protected void parseFileStore(ConfigurationReader reader, ConfigurationBuilderHo
                   throw ParseUtils.unexpectedAttribute(reader, i);
                }
                break;
+            case COMPACTION_PARALLELISM:
+               if (fileStoreBuilder != null) {
+                  fileStoreBuilder.compactionParallelism(ParseUtils.parseInt(reader, i, value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            case COMPACTION_RATE_LIMIT:
+               if (fileStoreBuilder != null) {
+                  fileStoreBuilder.compactionRateLimit(ParseUtils.parseLong(reader, i, value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
             case PURGE: {
                actualStoreConfig.purgeOnStartup(ParseUtils.parseBoolean(reader, i, value));
                break;
@@ -1083,6 +1115,15 @@ private void parseData(ConfigurationReader reader, SoftIndexFileStoreConfigurati
             case SYNC_WRITES:
                builder.syncWrites(ParseUtils.parseBoolean(reader, i, value));
                break;
+            case SYNC_COMMIT_DELAY:
+               builder.syncCommitDelay(ParseUtils.parseLong(reader, i, value));
+               break;
+            case SYNC_COMMIT_SIZE:
+               builder.syncCommitSize(ParseUtils.parseInt(reader, i, value));
+               break;
+            case IO_BACKEND:
+               builder.ioBackend(ParseUtils.parseEnum(reader, i, IOBackend.class, value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -1116,6 +1157,15 @@ private void parseIndex(ConfigurationReader reader, SoftIndexFileStoreConfigurat
             case MAX_NODE_SIZE:
                builder.maxNodeSize(ParseUtils.parseInt(reader, i, value));
                break;
+            case MEMORY_MAPPED:
+               builder.indexMemoryMapped(ParseUtils.parseBoolean(reader, i, value));
+               break;
+            case NODE_CACHE_SIZE:
+               builder.indexNodeCacheSize(ParseUtils.parseInt(reader, i, value));
+               break;
+            case BLOOM_FILTER_BITS:
+               builder.indexBloomFilterBits(ParseUtils.parseInt(reader, i, value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -1146,6 +1196,10 @@ protected void parseSingleFileStore(ConfigurationReader reader, ConfigurationBui
                storeBuilder.fragmentationFactor(Float.parseFloat(value));
                break;
             }
+            case OFF_HEAP_INDEX: {
+               storeBuilder.offHeapIndex(ParseUtils.parseBoolean(reader, i, value));
+               break;
+            }
             default: {
                parseStoreAttribute(reader, i, storeBuilder);
             }
@@ -1239,6 +1293,12 @@ public static void parseStoreWriteBehind(ConfigurationReader reader, AsyncStoreC
             case FAIL_SILENTLY:
                storeBuilder.failSilently(ParseUtils.parseBoolean(reader, i, value));
                break;
+            case MAX_CONCURRENT_BATCHES:
+               storeBuilder.maxConcurrentBatches(ParseUtils.parseInt(reader, i, value));
+               break;
+            case TARGET_BATCH_LATENCY:
+               storeBuilder.targetBatchLatency(ParseUtils.parseLong(reader, i, value));
+               break;
             case THREAD_POOL_SIZE: {
                ParseUtils.removedSince(reader, 11, 0);
                ignoreAttribute(reader, i);
@@ -33,6 +33,8 @@ private void writeStoreWriteBehind(ConfigurationWriter writer, StoreConfiguratio
          writer.writeStartElement(Element.WRITE_BEHIND);
          writeBehind.write(writer, AsyncStoreConfiguration.MODIFICATION_QUEUE_SIZE, Attribute.MODIFICATION_QUEUE_SIZE);
          writeBehind.write(writer, AsyncStoreConfiguration.FAIL_SILENTLY, Attribute.FAIL_SILENTLY);
+         writeBehind.write(writer, AsyncStoreConfiguration.MAX_CONCURRENT_BATCHES, Attribute.MAX_CONCURRENT_BATCHES);
+         writeBehind.write(writer, AsyncStoreConfiguration.TARGET_BATCH_LATENCY, Attribute.TARGET_BATCH_LATENCY);
          writer.writeEndElement();
       }
    }
@@ -675,6 +675,10 @@ private void writeMemory(ConfigurationWriter writer, Configuration configuration
             attributes.write(writer, MemoryConfiguration.MAX_SIZE, Attribute.MAX_SIZE);
          }
          attributes.write(writer, MemoryConfiguration.WHEN_FULL, Attribute.WHEN_FULL);
+         attributes.write(writer, MemoryConfiguration.OFF_HEAP_ALLOCATOR, Attribute.OFF_HEAP_ALLOCATOR);
+         attributes.write(writer, MemoryConfiguration.COMPACT_ENTRIES, Attribute.COMPACT_ENTRIES);
+         attributes.write(writer, MemoryConfiguration.COMPRESSION_THRESHOLD, Attribute.COMPRESSION_THRESHOLD);
+         attributes.write(writer, MemoryConfiguration.COMPRESSION_DICTIONARY, Attribute.COMPRESSION_DICTIONARY);
          writer.writeEndElement();
       }
    }
@@ -768,6 +772,9 @@ private void writePersistence(ConfigurationWriter writer, Configuration configur
          attributes.write(writer, PersistenceConfiguration.AVAILABILITY_INTERVAL, Attribute.AVAILABILITY_INTERVAL);
          attributes.write(writer, PersistenceConfiguration.CONNECTION_ATTEMPTS, Attribute.CONNECTION_ATTEMPTS);
          attributes.write(writer, PersistenceConfiguration.CONNECTION_INTERVAL, Attribute.CONNECTION_INTERVAL);
+         attributes.write(writer, PersistenceConfiguration.PRELOAD_PARALLELISM, Attribute.PRELOAD_PARALLELISM);
+         attributes.write(writer, PersistenceConfiguration.TIERED, Attribute.TIERED);
+         attributes.write(writer, PersistenceConfiguration.TIER_DEMOTION_AGE, Attribute.TIER_DEMOTION_AGE);
          for (StoreConfiguration store : persistence.stores()) {
             writeStore(writer, store);
          }
@@ -847,7 +854,10 @@ private void writeDataElement(ConfigurationWriter writer, SoftIndexFileStoreConf
       configuration.data().attributes().write(writer, Element.DATA.getLocalName(),
             DataConfiguration.DATA_LOCATION,
             DataConfiguration.MAX_FILE_SIZE,
-            DataConfiguration.SYNC_WRITES);
+            DataConfiguration.SYNC_WRITES,
+            DataConfiguration.SYNC_COMMIT_DELAY,
+            DataConfiguration.SYNC_COMMIT_SIZE,
+            DataConfiguration.IO_BACKEND);
    }
 
    private void writeIndexElement(ConfigurationWriter writer, SoftIndexFileStoreConfiguration configuration) {
@@ -856,7 +866,10 @@ private void writeIndexElement(ConfigurationWriter writer, SoftIndexFileStoreCon
             IndexConfiguration.INDEX_QUEUE_LENGTH,
             IndexConfiguration.INDEX_SEGMENTS,
             IndexConfiguration.MIN_NODE_SIZE,
-            IndexConfiguration.MAX_NODE_SIZE);
+            IndexConfiguration.MAX_NODE_SIZE,
+            IndexConfiguration.MEMORY_MAPPED,
+            IndexConfiguration.NODE_CACHE_SIZE,
+            IndexConfiguration.BLOOM_FILTER_BITS);
    }
 
    private void writeSingleFileStore(ConfigurationWriter writer, SingleFileStoreConfiguration configuration) {
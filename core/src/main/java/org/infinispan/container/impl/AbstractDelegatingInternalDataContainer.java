@@ -1,6 +1,8 @@
 package org.infinispan.container.impl;
 
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Spliterator;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
@@ -223,6 +225,26 @@ public long evictionSize() {
       return delegate().evictionSize();
    }
 
+   @Override
+   public long evictionSize(int segment) {
+      return delegate().evictionSize(segment);
+   }
+
+   @Override
+   public CompletionStage<Void> ensureCapacity(int segment, Collection<? extends InternalCacheEntry<?, ?>> entries) {
+      return delegate().ensureCapacity(segment, entries);
+   }
+
+   @Override
+   public boolean hasExpirationIndex() {
+      return delegate().hasExpirationIndex();
+   }
+
+   @Override
+   public List<InternalCacheEntry<K, V>> expiredEntries(int segment, long currentTimeMillis) {
+      return delegate().expiredEntries(segment, currentTimeMillis);
+   }
+
    @Override
    public void resize(long newSize) {
       delegate().resize(newSize);
@@ -18,6 +18,7 @@
 import java.util.function.Predicate;
 
 import org.infinispan.commons.logging.Log;
+import org.infinispan.commons.hash.MurmurHash3;
 import org.infinispan.commons.logging.LogFactory;
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.AbstractIterator;
@@ -27,6 +28,7 @@
 import org.infinispan.commons.util.Util;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ExpirationConfiguration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.distribution.ch.KeyPartitioner;
@@ -36,6 +38,7 @@
 import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.impl.ComponentRef;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
@@ -61,6 +64,8 @@
 @Scope(Scopes.NAMED_CACHE)
 public abstract class AbstractInternalDataContainer<K, V> implements InternalDataContainer<K, V> {
    private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
+   // Entries are found at most this fraction of the expiration wake up interval after they expire
+   private static final int EXPIRATION_BUCKETS_PER_WAKE_UP_INTERVAL = 4;
 
    @Inject protected TimeService timeService;
    @Inject protected EvictionManager<K, V> evictionManager;
@@ -75,6 +80,9 @@
 
    protected final List<Consumer<Iterable<InternalCacheEntry<K, V>>>> listeners = new CopyOnWriteArrayList<>();
 
+   // The expirable entries by expiration time, only kept for heap entries when enabled and the reaper is enabled
+   private ExpirationIndex<K> expirationIndex;
+
    /**
     * A long to keep track of how many entries that {@link InternalCacheEntry#canExpire()} we currently have in the
     * container. All operations that insert or remove the container's expirable entries must update this value.
@@ -84,6 +92,17 @@
    protected abstract PeekableTouchableMap<K, V> getMapForSegment(int segment);
    protected abstract int getSegmentForKey(Object key);
 
+   @Start
+   public void startExpirationIndex() {
+      ExpirationConfiguration expiration = configuration.expiration();
+      // Off-heap containers would have to keep the keys on the heap
+      if (expiration.indexed() && expiration.reaperEnabled() && expiration.wakeUpInterval() > 0 &&
+            !configuration.memory().isOffHeap()) {
+         long bucketInterval = Math.max(1, expiration.wakeUpInterval() / EXPIRATION_BUCKETS_PER_WAKE_UP_INTERVAL);
+         expirationIndex = new ExpirationIndex<>(configuration.clustering().hash().numSegments(), bucketInterval);
+      }
+   }
+
    @Override
    public InternalCacheEntry<K, V> get(int segment, Object k) {
       PeekableTouchableMap<K, V> map = getMapForSegment(segment);
@@ -143,6 +162,8 @@ public void put(int segment, K k, V v, Metadata metadata, PrivateMetadata intern
             log.tracef("Creating new ICE for writing. Existing=%s, metadata=%s, new value=%s", e, metadata, toStr(v));
          }
          final InternalCacheEntry<K, V> copy;
+         // The update may change the existing entry in place, so it must be weighed first
+         long previousWeight = e != null ? weigh(k, e) : 0;
          if (l1Entry) {
             copy = entryFactory.createL1(k, v, metadata);
          } else if (e != null) {
@@ -165,7 +186,7 @@ public void put(int segment, K k, V v, Metadata metadata, PrivateMetadata intern
          if (e != null) entryUpdated(copy, e);
          else entryAdded(copy);
 
-         putEntryInMap(entries, segment, k, copy);
+         putEntryInMap(entries, segment, k, copy, previousWeight);
       } else {
          log.tracef("Insertion attempted for key: %s but there was no map created for it at segment: %d", k, segment);
       }
@@ -283,6 +304,9 @@ public void clear(IntSet segments) {
             segmentRemoved(map);
             map.clear();
          }
+         if (expirationIndex != null) {
+            expirationIndex.clear(segment);
+         }
       });
    }
 
@@ -305,7 +329,24 @@ protected void computeEntryRemoved(K key, InternalCacheEntry<K, V> value) {
       // Do nothing by default
    }
 
-   protected void putEntryInMap(PeekableTouchableMap<K, V> map, int segment, K key, InternalCacheEntry<K, V> ice) {
+   /**
+    * Returns the eviction weight of the entry. Only the bounded containers weigh their entries.
+    *
+    * @param key the key of the entry
+    * @param entry the entry
+    */
+   protected long weigh(K key, InternalCacheEntry<K, V> entry) {
+      return 0;
+   }
+
+   /**
+    * Writes the entry to the map
+    *
+    * @param previousWeight the weight of the entry of the key before it was updated, as the update may change the
+    *                       entry in the map in place
+    */
+   protected void putEntryInMap(PeekableTouchableMap<K, V> map, int segment, K key, InternalCacheEntry<K, V> ice,
+         long previousWeight) {
       map.putNoReturn(key, ice);
    }
 
@@ -328,9 +369,65 @@ public boolean hasExpirable() {
       return expirable.get() > 0;
    }
 
+   @Override
+   public boolean hasExpirationIndex() {
+      return expirationIndex != null;
+   }
+
+   @Override
+   public List<InternalCacheEntry<K, V>> expiredEntries(int segment, long currentTimeMillis) {
+      if (expirationIndex == null) {
+         throw new UnsupportedOperationException();
+      }
+      return expirationIndex.expiredEntries(segment, currentTimeMillis, k -> peek(k));
+   }
+
+   /**
+    * Removes the entries of the given segment from the expiration index, to be invoked when the segment is removed
+    * from the container.
+    */
+   protected final void expirationIndexSegmentRemoved(int segment) {
+      if (expirationIndex != null) {
+         expirationIndex.clear(segment);
+      }
+   }
+
+   /**
+    * Removes all the entries from the expiration index, to be invoked when the container is cleared.
+    */
+   protected final void expirationIndexCleared() {
+      if (expirationIndex != null) {
+         expirationIndex.clear();
+      }
+   }
+
+   private int expirationIndexSegment(Object key) {
+      int segment = getSegmentForKey(key);
+      // Containers that are not segmented still spread their keys over the segments of the index, so that the
+      // expiration reaper can look at them in parallel
+      return segment >= 0 ? segment : Math.floorMod(MurmurHash3.getInstance().hash(key.hashCode()),
+            configuration.clustering().hash().numSegments());
+   }
+
+   private void indexExpirable(InternalCacheEntry<K, V> ice) {
+      if (expirationIndex != null) {
+         K key = ice.getKey();
+         expirationIndex.entryAdded(expirationIndexSegment(key), key, ice.getExpiryTime(),
+               timeService.wallClockTime());
+      }
+   }
+
+   private void unindexExpirable(InternalCacheEntry<K, V> ice) {
+      if (expirationIndex != null) {
+         K key = ice.getKey();
+         expirationIndex.entryRemoved(expirationIndexSegment(key), key, ice.getExpiryTime());
+      }
+   }
+
    protected final void entryAdded(InternalCacheEntry<K, V> ice) {
       if (ice.canExpire()) {
          expirable.incrementAndGet();
+         indexExpirable(ice);
       }
    }
 
@@ -339,6 +436,9 @@ protected final void entryUpdated(InternalCacheEntry<K, V> curr, InternalCacheEn
       if (curr.canExpire()) combination |= 0b01;
       if (prev.canExpire()) combination |= 0b10;
 
+      if (prev.canExpire()) unindexExpirable(prev);
+      if (curr.canExpire()) indexExpirable(curr);
+
       // If both do not expire or if both do expire, then we do nothing.
       switch (combination) {
          // Previous could not expire, but current can.
@@ -357,6 +457,7 @@ protected final void entryUpdated(InternalCacheEntry<K, V> curr, InternalCacheEn
    protected final void entryRemoved(InternalCacheEntry<K, V> ice) {
       if (ice.canExpire()) {
          expirable.decrementAndGet();
+         unindexExpirable(ice);
       }
    }
 
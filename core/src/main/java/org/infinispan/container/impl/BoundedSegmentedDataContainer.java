@@ -5,11 +5,15 @@
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.PrimitiveIterator;
 import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
@@ -18,11 +22,14 @@
 import org.infinispan.commons.util.EntrySizeCalculator;
 import org.infinispan.commons.util.FlattenSpliterator;
 import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.container.entries.CacheEntrySizeCalculator;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.entries.PrimitiveEntrySizeCalculator;
 import org.infinispan.eviction.EvictionType;
 import org.infinispan.marshall.core.WrappedByteArraySizeCalculator;
+import org.infinispan.util.concurrent.AggregateCompletionStage;
+import org.infinispan.util.concurrent.CompletionStages;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
@@ -34,14 +41,26 @@
  * <p>
  * Note this implementation supports both temporary non owned segments and not (L1). This map only utilizes heap based
  * (ie. ConcurrentHashMap) maps internally
+ * <p>
+ * The eviction size of each segment associated with this container is kept up to date along with the segment maps,
+ * so that {@link #ensureCapacity(int, Collection)} can make room for incoming segments by evicting entries of the
+ * heaviest segments first.
  *
  * @author wburns
  * @since 9.3
  */
 public class BoundedSegmentedDataContainer<K, V> extends DefaultSegmentedDataContainer<K, V> {
+   // How many of the coldest entries are looked at per incoming entry when making room for a segment
+   private static final int COLDEST_ENTRIES_PER_INCOMING = 4;
+
    protected final Cache<K, InternalCacheEntry<K, V>> evictionCache;
    protected final PeekableTouchableMap<K, V> entries;
 
+   // The weight of the entries, null when the threshold is a count of entries
+   private final EntrySizeCalculator<? super K, ? super InternalCacheEntry<K, V>> sizeCalculator;
+   // The eviction size of each segment that has a map, updated whenever the map is updated
+   private final AtomicLongArray segmentEvictionSizes;
+
    public BoundedSegmentedDataContainer(int numSegments, long thresholdSize, EvictionType thresholdPolicy) {
       super(PeekableTouchableContainerMap::new, numSegments);
 
@@ -52,46 +71,72 @@ public BoundedSegmentedDataContainer(int numSegments, long thresholdSize, Evicti
             CacheEntrySizeCalculator<K, V> calc = new CacheEntrySizeCalculator<>(new WrappedByteArraySizeCalculator<>(
                   new PrimitiveEntrySizeCalculator()));
             caffeine.weigher((k, v) -> (int) calc.calculateSize(k, v)).maximumWeight(thresholdSize);
+            sizeCalculator = calc;
             break;
          case COUNT:
             caffeine.maximumSize(thresholdSize);
+            sizeCalculator = null;
             break;
          default:
             throw new UnsupportedOperationException("Policy not supported: " + thresholdPolicy);
       }
-      DefaultEvictionListener evictionListener = new DefaultEvictionListener() {
-         @Override
-         void onEntryChosenForEviction(K key, InternalCacheEntry<K, V> value) {
-            super.onEntryChosenForEviction(key, value);
-            computeEntryRemoved(key, value);
-         }
-      };
-      evictionCache = applyListener(caffeine, evictionListener).build();
+      segmentEvictionSizes = new AtomicLongArray(numSegments);
+      evictionCache = applyListener(caffeine, new SegmentEvictionListener()).build();
       entries = new PeekableTouchableCaffeineMap<>(evictionCache);
    }
 
    public BoundedSegmentedDataContainer(int numSegments, long thresholdSize,
          EntrySizeCalculator<? super K, ? super InternalCacheEntry<K, V>> sizeCalculator) {
       super(PeekableTouchableContainerMap::new, numSegments);
-      DefaultEvictionListener evictionListener = new DefaultEvictionListener();
+      this.sizeCalculator = sizeCalculator;
+      segmentEvictionSizes = new AtomicLongArray(numSegments);
 
       evictionCache = applyListener(Caffeine.newBuilder()
             .weigher((K k, InternalCacheEntry<K, V> v) -> (int) sizeCalculator.calculateSize(k, v))
-            .maximumWeight(thresholdSize), evictionListener)
+            .maximumWeight(thresholdSize), new SegmentEvictionListener())
             .build();
 
       entries = new PeekableTouchableCaffeineMap<>(evictionCache);
    }
 
+   /**
+    * Removes the evicted entries from the segment maps as well, which also updates the eviction size of the segment
+    */
+   private class SegmentEvictionListener extends DefaultEvictionListener {
+      @Override
+      void onEntryChosenForEviction(K key, InternalCacheEntry<K, V> value) {
+         super.onEntryChosenForEviction(key, value);
+         computeEntryRemoved(key, value);
+      }
+   }
+
+   @Override
+   protected long weigh(K key, InternalCacheEntry<K, V> value) {
+      return sizeCalculator != null ? sizeCalculator.calculateSize(key, value) : 1;
+   }
+
    @Override
    protected void computeEntryWritten(K key, InternalCacheEntry<K, V> value) {
-      computeEntryWritten(getSegmentForKey(key), key, value);
+      // The compute actions replace the entry instead of updating it in place
+      computeEntryWritten(getSegmentForKey(key), key, value, 0);
    }
 
-   protected void computeEntryWritten(int segment, K key, InternalCacheEntry<K, V> value) {
+   /**
+    * @param previousWeight the weight of the entry before it was updated in place, only used if the map already holds
+    *                       the same instance
+    */
+   protected void computeEntryWritten(int segment, K key, InternalCacheEntry<K, V> value, long previousWeight) {
       ConcurrentMap<K, InternalCacheEntry<K, V>> map = BoundedSegmentedDataContainer.super.getMapForSegment(segment);
       if (map != null) {
-         map.put(key, value);
+         InternalCacheEntry<K, V> prev = map.put(key, value);
+         long delta = weigh(key, value);
+         if (prev == value) {
+            // Weighing the entry again would only give its new weight
+            delta -= previousWeight;
+         } else if (prev != null) {
+            delta -= weigh(key, prev);
+         }
+         segmentEvictionSizes.addAndGet(segment, delta);
       }
    }
 
@@ -102,15 +147,16 @@ protected void computeEntryRemoved(K key, InternalCacheEntry<K, V> value) {
 
    protected void computeEntryRemoved(int segment, K key, InternalCacheEntry<K, V> value) {
       ConcurrentMap<K, InternalCacheEntry<K, V>> map = BoundedSegmentedDataContainer.super.getMapForSegment(segment);
-      if (map != null) {
-         map.remove(key, value);
+      if (map != null && map.remove(key, value)) {
+         segmentEvictionSizes.addAndGet(segment, -weigh(key, value));
       }
    }
 
    @Override
-   protected void putEntryInMap(PeekableTouchableMap<K, V> map, int segment, K key, InternalCacheEntry<K, V> ice) {
+   protected void putEntryInMap(PeekableTouchableMap<K, V> map, int segment, K key, InternalCacheEntry<K, V> ice,
+         long previousWeight) {
       map.compute(key, (k, __) -> {
-         computeEntryWritten(segment, k, ice);
+         computeEntryWritten(segment, k, ice, previousWeight);
          return ice;
       });
    }
@@ -143,18 +189,23 @@ public void clear() {
       for (int i = 0; i < maps.length(); ++i) {
          clearMapIfPresent(i);
       }
+      expirationIndexCleared();
    }
 
    @Override
    public void clear(IntSet segments) {
       clear(segments, false);
-      segments.forEach((IntConsumer) this::clearMapIfPresent);
+      segments.forEach((IntConsumer) segment -> {
+         clearMapIfPresent(segment);
+         expirationIndexSegmentRemoved(segment);
+      });
    }
 
    private void clearMapIfPresent(int segment) {
       ConcurrentMap<?, ?> map = maps.get(segment);
       if (map != null) {
          map.clear();
+         segmentEvictionSizes.set(segment, 0);
       }
    }
 
@@ -237,6 +288,7 @@ private void clear(IntSet segments, boolean keepSegments) {
    public void removeSegments(IntSet segments) {
       // Call super remove segments so the maps are removed more efficiently
       super.removeSegments(segments);
+      segments.forEach((IntConsumer) segment -> segmentEvictionSizes.set(segment, 0));
       // Finally remove the entries from bounded cache
       clear(segments, false);
    }
@@ -269,6 +321,73 @@ public long evictionSize() {
       return evict.weightedSize().orElse(entries.size());
    }
 
+   @Override
+   public long evictionSize(int segment) {
+      return segmentEvictionSizes.get(segment);
+   }
+
+   @Override
+   public CompletionStage<Void> ensureCapacity(int segment, Collection<? extends InternalCacheEntry<?, ?>> incoming) {
+      Policy.Eviction<K, InternalCacheEntry<K, V>> evict = eviction();
+      long excess = evictionSize() - evict.getMaximum();
+      for (InternalCacheEntry<?, ?> entry : incoming) {
+         // The incoming entries are about to be written to this container
+         @SuppressWarnings("unchecked")
+         InternalCacheEntry<K, V> incomingEntry = (InternalCacheEntry<K, V>) entry;
+         excess += weigh(incomingEntry.getKey(), incomingEntry);
+      }
+      if (excess <= 0) {
+         return CompletableFutures.completedNull();
+      }
+      // Only the segments heavier than the average non empty segment give up their entries, so that the segments
+      // end up balanced instead of the incoming entries evicting each other or the entries of a light segment
+      long averageSize = averageSegmentEvictionSize();
+      int limit = (int) Math.min(Integer.MAX_VALUE, (long) incoming.size() * COLDEST_ENTRIES_PER_INCOMING);
+      AggregateCompletionStage<Void> aggregateStage = CompletionStages.aggregateCompletionStage();
+      for (Map.Entry<K, InternalCacheEntry<K, V>> entry : evict.coldest(limit).entrySet()) {
+         K key = entry.getKey();
+         int keySegment = getSegmentForKey(key);
+         if (keySegment == segment || segmentEvictionSizes.get(keySegment) <= averageSize) {
+            continue;
+         }
+         excess -= weigh(key, entry.getValue());
+         aggregateStage.dependsOn(evictToMakeRoom(key));
+         if (excess <= 0) {
+            break;
+         }
+      }
+      // Whatever could not be evicted here is evicted by caffeine as the entries are written
+      return aggregateStage.freeze();
+   }
+
+   private long averageSegmentEvictionSize() {
+      long totalSize = 0;
+      int segmentCount = 0;
+      for (int i = 0; i < segmentEvictionSizes.length(); ++i) {
+         long segmentSize = segmentEvictionSizes.get(i);
+         if (segmentSize > 0) {
+            totalSize += segmentSize;
+            segmentCount++;
+         }
+      }
+      return segmentCount == 0 ? 0 : totalSize / segmentCount;
+   }
+
+   private CompletionStage<Void> evictToMakeRoom(K key) {
+      CompletableFuture<Void> removed = new CompletableFuture<>();
+      ByRef<CompletionStage<Void>> evictionStageRef = new ByRef<>(CompletableFutures.completedNull());
+      entries.computeIfPresent(key, (k, entry) -> {
+         // Same as an eviction chosen by caffeine, concurrent operations on the key are ordered by the orderer
+         evictionStageRef.set(handleEviction(entry, orderer, passivator.running(), evictionManager, this,
+               nonBlockingExecutor, removed));
+         computeEntryRemoved(k, entry);
+         entryRemoved(entry);
+         return null;
+      });
+      removed.complete(null);
+      return evictionStageRef.get();
+   }
+
    @Override
    public void cleanUp() {
       evictionCache.cleanUp();
@@ -53,6 +53,11 @@ public DefaultDataContainer(int concurrencyLevel) {
       evictionCache = null;
    }
 
+   private DefaultDataContainer(PeekableTouchableMap<K, V> entries) {
+      this.entries = entries;
+      evictionCache = null;
+   }
+
    protected DefaultDataContainer(int concurrencyLevel, long thresholdSize, EvictionType thresholdPolicy) {
       DefaultEvictionListener evictionListener = new DefaultEvictionListener();
       Caffeine<K, InternalCacheEntry<K, V>> caffeine = caffeineBuilder();
@@ -101,6 +106,13 @@ protected DefaultDataContainer(long thresholdSize,
       entries = new PeekableTouchableCaffeineMap<>(evictionCache);
    }
 
+   /**
+    * Creates an unbounded container that stores its entries in a {@link PeekableTouchableCompactMap}.
+    */
+   public static <K, V> DefaultDataContainer<K, V> compactDataContainer(int concurrencyLevel) {
+      return new DefaultDataContainer<>(new PeekableTouchableCompactMap<>(concurrencyLevel));
+   }
+
    public static <K, V> DefaultDataContainer<K, V> boundedDataContainer(int concurrencyLevel, long maxEntries,
             EvictionType thresholdPolicy) {
       return new DefaultDataContainer<>(concurrencyLevel, maxEntries, thresholdPolicy);
@@ -167,6 +179,7 @@ public void clear(IntSet segments) {
    public void clear() {
       log.tracef("Clearing data container");
       entries.clear();
+      expirationIndexCleared();
    }
 
    @Override
@@ -216,6 +216,7 @@ public void clear() {
             map.clear();
          }
       }
+      expirationIndexCleared();
    }
 
    @Override
@@ -289,6 +290,7 @@ private void stopMap(int segment, boolean notifyListener) {
             listeners.forEach(c -> c.accept(map.values()));
          }
          segmentRemoved(map);
+         expirationIndexSegmentRemoved(segment);
          if (map instanceof AutoCloseable) {
             try {
                ((AutoCloseable) map).close();
@@ -0,0 +1,108 @@
+package org.infinispan.container.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+import org.infinispan.container.entries.InternalCacheEntry;
+
+/**
+ * Index of the expirable entries of a data container by expiration time, so that the expiration reaper only has to
+ * look at the entries that expired instead of iterating over the whole container.
+ * <p>
+ * Each segment works like a timing wheel with an unbounded number of slots: the keys are placed in buckets that cover
+ * a fixed interval of expiration times, which are sorted so that the buckets that are over can be found directly.
+ * <p>
+ * The index is updated lazily. Writes add the key to the bucket of the new entry, removals remove it from the bucket
+ * of the removed entry, but touching an entry doesn't move its key, as reads must stay cheap. When a bucket is over,
+ * {@link #expiredEntries(int, long, Function)} checks the current entry of each key: keys whose entry is gone are
+ * dropped, keys whose entry was touched or replaced move to the bucket of the current expiration time and the expired
+ * entries are returned. Expired entries keep their key in the bucket until they are removed, so that an expiration
+ * that can't complete right away is retried by the next reaper run.
+ *
+ * @since 15.0
+ */
+class ExpirationIndex<K> {
+   private final long bucketInterval;
+   private final ConcurrentNavigableMap<Long, Set<K>>[] segments;
+
+   @SuppressWarnings("unchecked")
+   ExpirationIndex(int numSegments, long bucketInterval) {
+      this.bucketInterval = bucketInterval;
+      this.segments = new ConcurrentNavigableMap[numSegments];
+      for (int i = 0; i < numSegments; ++i) {
+         segments[i] = new ConcurrentSkipListMap<>();
+      }
+   }
+
+   private long bucket(long time) {
+      return time / bucketInterval;
+   }
+
+   /**
+    * Adds an expirable entry to the index.
+    * @param currentTimeMillis the current time, entries that expire before the end of the current bucket are placed
+    *                          in the next bucket
+    */
+   void entryAdded(int segment, K key, long expiryTime, long currentTimeMillis) {
+      // The reaper only looks at the buckets that are over, so it can't remove a bucket while a key is added to it or
+      // miss a key whose entry is about to be written, unless the writer read the time more than a bucket ago
+      long bucket = Math.max(bucket(expiryTime), bucket(currentTimeMillis) + 1);
+      segments[segment].computeIfAbsent(bucket, ignore -> ConcurrentHashMap.newKeySet()).add(key);
+   }
+
+   void entryRemoved(int segment, K key, long expiryTime) {
+      Set<K> keys = segments[segment].get(bucket(expiryTime));
+      if (keys != null) {
+         keys.remove(key);
+      }
+   }
+
+   void clear(int segment) {
+      segments[segment].clear();
+   }
+
+   void clear() {
+      for (ConcurrentNavigableMap<Long, Set<K>> segment : segments) {
+         segment.clear();
+      }
+   }
+
+   /**
+    * Returns the entries of the segment whose bucket is over and that are expired at the given time.
+    * @param peek returns the current entry of a key without touching it
+    */
+   <V> List<InternalCacheEntry<K, V>> expiredEntries(int segment, long currentTimeMillis,
+         Function<K, InternalCacheEntry<K, V>> peek) {
+      ConcurrentNavigableMap<Long, Set<K>> buckets = segments[segment];
+      long currentBucket = bucket(currentTimeMillis);
+      List<InternalCacheEntry<K, V>> expired = new ArrayList<>();
+      for (Map.Entry<Long, Set<K>> bucketEntry : buckets.headMap(currentBucket).entrySet()) {
+         long bucket = bucketEntry.getKey();
+         Set<K> keys = bucketEntry.getValue();
+         for (Iterator<K> iterator = keys.iterator(); iterator.hasNext(); ) {
+            K key = iterator.next();
+            InternalCacheEntry<K, V> ice = peek.apply(key);
+            if (ice == null || !ice.canExpire()) {
+               iterator.remove();
+            } else if (ice.isExpired(currentTimeMillis)) {
+               expired.add(ice);
+            } else {
+               // The entry was touched or replaced, so it expires in a bucket that is not over yet
+               iterator.remove();
+               entryAdded(segment, key, ice.getExpiryTime(), currentTimeMillis);
+            }
+         }
+         if (keys.isEmpty()) {
+            buckets.remove(bucket, keys);
+         }
+      }
+      return expired;
+   }
+}
@@ -0,0 +1,121 @@
+package org.infinispan.container.impl;
+
+/**
+ * A probabilistic estimate of how often an element was seen recently, used as the admission filter of TinyLFU
+ * eviction policies.
+ * <p>
+ * The sketch is a count-min sketch of depth 4 whose 4-bit counters are packed 16 to a {@code long}. Once the number of
+ * recorded increments reaches ten times the configured capacity all the counters are halved, so that the popularity of
+ * elements decays over time and the sketch keeps up with a changing workload.
+ * <p>
+ * Elements are identified only by their hash code, which must be well distributed as collisions can only over-estimate
+ * the frequency. This class is not thread safe, callers must provide their own synchronization.
+ *
+ * @since 15.0
+ */
+public final class FrequencySketch {
+   private static final long[] SEEDS = {
+         0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+   private static final long RESET_MASK = 0x7777777777777777L;
+   private static final long ONE_MASK = 0x1111111111111111L;
+   private static final int MAX_FREQUENCY = 15;
+
+   private long[] table;
+   private int tableMask;
+   private int sampleSize;
+   private int additions;
+
+   public FrequencySketch(long capacity) {
+      ensureCapacity(capacity);
+   }
+
+   /**
+    * Grows the sketch so that it can accurately estimate the frequencies of up to {@code capacity} elements. All the
+    * frequencies recorded so far are lost if the sketch has to grow.
+    * @param capacity the maximum number of elements expected to be tracked
+    */
+   public void ensureCapacity(long capacity) {
+      int maximum = (int) Math.min(Math.max(capacity, 1), Integer.MAX_VALUE >>> 1);
+      if (table != null && table.length >= maximum) {
+         return;
+      }
+      table = new long[ceilingPowerOfTwo(maximum)];
+      tableMask = table.length - 1;
+      sampleSize = 10 * maximum;
+      if (sampleSize <= 0) {
+         sampleSize = Integer.MAX_VALUE;
+      }
+      additions = 0;
+   }
+
+   /**
+    * Returns the estimated number of times the element was seen, capped at 15.
+    * @param hashCode the hash code of the element
+    * @return the estimated frequency
+    */
+   public int frequency(int hashCode) {
+      int hash = spread(hashCode);
+      int start = (hash & 3) << 2;
+      int frequency = MAX_FREQUENCY;
+      for (int i = 0; i < 4; ++i) {
+         int index = indexOf(hash, i);
+         int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+         frequency = Math.min(frequency, count);
+      }
+      return frequency;
+   }
+
+   /**
+    * Increments the estimated frequency of the element, aging all the frequencies if the sample size was reached.
+    * @param hashCode the hash code of the element
+    */
+   public void increment(int hashCode) {
+      int hash = spread(hashCode);
+      int start = (hash & 3) << 2;
+      boolean added = false;
+      for (int i = 0; i < 4; ++i) {
+         added |= incrementAt(indexOf(hash, i), start + i);
+      }
+      if (added && ++additions == sampleSize) {
+         reset();
+      }
+   }
+
+   private boolean incrementAt(int index, int counter) {
+      int offset = counter << 2;
+      long mask = 0xfL << offset;
+      if ((table[index] & mask) != mask) {
+         table[index] += 1L << offset;
+         return true;
+      }
+      return false;
+   }
+
+   /**
+    * Halves every counter, adjusting the number of additions for the truncation of odd counters.
+    */
+   private void reset() {
+      int oddCounters = 0;
+      for (int i = 0; i < table.length; ++i) {
+         oddCounters += Long.bitCount(table[i] & ONE_MASK);
+         table[i] = (table[i] >>> 1) & RESET_MASK;
+      }
+      additions = (additions >>> 1) - (oddCounters >>> 2);
+   }
+
+   private int indexOf(int hash, int depth) {
+      long index = (hash + SEEDS[depth]) * SEEDS[depth];
+      index += index >>> 32;
+      return ((int) index) & tableMask;
+   }
+
+   private static int spread(int x) {
+      x = ((x >>> 16) ^ x) * 0x45d9f3b;
+      x = ((x >>> 16) ^ x) * 0x45d9f3b;
+      return (x >>> 16) ^ x;
+   }
+
+   private static int ceilingPowerOfTwo(int x) {
+      return 1 << -Integer.numberOfLeadingZeros(x - 1);
+   }
+}
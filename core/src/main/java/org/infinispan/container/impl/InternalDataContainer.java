@@ -1,6 +1,8 @@
 package org.infinispan.container.impl;
 
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Spliterator;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
@@ -8,6 +10,7 @@
 
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.metadata.Metadata;
@@ -283,6 +286,54 @@ default void cleanUp() {
       // Default is to do nothing
    }
 
+   /**
+    * Returns how large the eviction size of the given segment is currently, in the same unit as
+    * {@link #evictionSize()}. Only the segments associated with this container are tracked, so this returns 0 for
+    * other segments.
+    * @param segment the segment to get the eviction size of
+    * @return how large the counted eviction of the segment is or -1 if the container doesn't track it per segment
+    */
+   default long evictionSize(int segment) {
+      return -1;
+   }
+
+   /**
+    * Makes room in a bounded container for entries that are about to be written to the given segment, such as the
+    * entries received during state transfer. If the entries would not fit in the capacity of the container, the
+    * coldest entries of the segments with the highest eviction size are evicted beforehand, so that the incoming
+    * segment doesn't push the container over its capacity. Containers that are not bounded do nothing.
+    * @param segment the segment the entries will be written to
+    * @param entries the entries that will be written
+    * @return stage that when complete all of the evictions are complete
+    */
+   default CompletionStage<Void> ensureCapacity(int segment, Collection<? extends InternalCacheEntry<?, ?>> entries) {
+      return CompletableFutures.completedNull();
+   }
+
+   /**
+    * Whether the container keeps an index of its expirable entries by expiration time, in which case the expired
+    * entries of a segment can be found with {@link #expiredEntries(int, long)} instead of iterating over it.
+    * @return true if the container has an expiration index
+    */
+   default boolean hasExpirationIndex() {
+      return false;
+   }
+
+   /**
+    * Returns the entries of the given segment that are expired at the given time, found through the expiration index.
+    * Entries may be found a bit after their expiration time, as the index groups them by intervals of expiration
+    * times. The entries are not removed, which is left to the expiration manager. Containers that are not segmented
+    * still spread their entries over as many segments as the cache has, but by their hash code instead of the key
+    * partitioner.
+    * @param segment the segment to find the expired entries of
+    * @param currentTimeMillis the current time
+    * @return the expired entries of the segment
+    * @throws UnsupportedOperationException if the container doesn't have an expiration index
+    */
+   default List<InternalCacheEntry<K, V>> expiredEntries(int segment, long currentTimeMillis) {
+      throw new UnsupportedOperationException();
+   }
+
    /**
     * Verify if the container has entries that can expire. This is __not__ the same thing as verifying
     * for expired entries. This method can return true even if entries are not expired.
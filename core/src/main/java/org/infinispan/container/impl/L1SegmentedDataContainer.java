@@ -17,7 +17,14 @@
 import org.infinispan.commons.util.FlattenSpliterator;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
+import org.infinispan.container.entries.CacheEntrySizeCalculator;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.PrimitiveEntrySizeCalculator;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.marshall.core.WrappedByteArraySizeCalculator;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 /**
  * Segmented data container that also allows for non owned segments to be written to a temporary map (L1). This
@@ -25,6 +32,9 @@
  * <p>
  * If the segment is owned, only the owner segment is used. If the segment is not owned it will query the temporary
  * map to see if the object is stored there.
+ * <p>
+ * The temporary map can be bounded, in which case it is a Caffeine cache whose W-TinyLFU policy only admits a new
+ * entry when it is estimated to be read more often than the entry it would evict.
  * @author wburns
  * @since 9.3
  */
@@ -36,6 +46,33 @@ public L1SegmentedDataContainer(Supplier<PeekableTouchableMap<K, V>> mapSupplier
       this.nonOwnedEntries = mapSupplier.get();
    }
 
+   /**
+    * Creates a container whose entries for non owned segments are bounded.
+    * @param mapSupplier supplier of the maps of the owned segments
+    * @param numSegments the number of segments
+    * @param thresholdSize the maximum count or size of the entries of non owned segments
+    * @param thresholdPolicy whether the threshold is a count of entries or an amount of memory
+    */
+   public L1SegmentedDataContainer(Supplier<PeekableTouchableMap<K, V>> mapSupplier, int numSegments,
+         long thresholdSize, EvictionType thresholdPolicy) {
+      super(mapSupplier, numSegments);
+      Caffeine<K, InternalCacheEntry<K, V>> caffeine = caffeineBuilder();
+      switch (thresholdPolicy) {
+         case MEMORY:
+            CacheEntrySizeCalculator<K, V> calc = new CacheEntrySizeCalculator<>(new WrappedByteArraySizeCalculator<>(
+                  new PrimitiveEntrySizeCalculator()));
+            caffeine.weigher((k, v) -> (int) calc.calculateSize(k, v)).maximumWeight(thresholdSize);
+            break;
+         case COUNT:
+            caffeine.maximumSize(thresholdSize);
+            break;
+         default:
+            throw new UnsupportedOperationException("Policy not supported: " + thresholdPolicy);
+      }
+      // L1 entries are evicted silently, the owners keep the requestor until the next invalidation or cleanup
+      this.nonOwnedEntries = new PeekableTouchableCaffeineMap<>(caffeine.executor(new WithinThreadExecutor()).build());
+   }
+
    @Override
    public void stop() {
       super.stop();
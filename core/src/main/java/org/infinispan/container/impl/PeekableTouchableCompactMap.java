@@ -0,0 +1,731 @@
+package org.infinispan.container.impl;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.infinispan.commons.util.Util;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+
+import net.jcip.annotations.GuardedBy;
+
+/**
+ * Map that stores the entries of a heap container in flat arrays, instead of allocating a hash map node and an
+ * {@link InternalCacheEntry} for every entry.
+ * <p>
+ * Keys and values are stored next to each other in an open addressing table that uses linear probing. Entries that
+ * are immortal and have neither metadata nor private metadata only store their value, and a new
+ * {@link ImmortalCacheEntry} view is created every time they are read, like the off-heap containers do. Any other
+ * entry is stored as is. Compared to a {@link ConcurrentHashMap} this saves the node and the entry object of the
+ * most common kind of entry, which is more than half of the overhead per entry when values are small.
+ * <p>
+ * The table is split in stripes, each one guarded by a {@link StampedLock}. Reads are optimistic and only acquire
+ * the read lock when a concurrent write invalidated them. Removed entries leave a tombstone behind, so entries never
+ * move until their stripe is rehashed into a new array, which keeps iteration weakly consistent.
+ * <p>
+ * The functions passed to the compute methods are invoked while holding the write lock of the stripe and must not
+ * access this map.
+ *
+ * @since 15.0
+ */
+public class PeekableTouchableCompactMap<K, V> extends AbstractMap<K, InternalCacheEntry<K, V>>
+      implements PeekableTouchableMap<K, V> {
+   private static final Object TOMBSTONE = new Object();
+   // Initial number of entries in each stripe, must be a power of two
+   private static final int INITIAL_CAPACITY = 16;
+   // Multiplier derived from the golden ratio, so that keys with close hash codes don't share a probe sequence
+   private static final int SPREAD = 0x9E3779B9;
+
+   private final Stripe[] stripes;
+   private final int stripeShift;
+
+   private Set<Map.Entry<K, InternalCacheEntry<K, V>>> entrySet;
+   private Set<K> keySet;
+   private Collection<InternalCacheEntry<K, V>> values;
+
+   public PeekableTouchableCompactMap() {
+      this(1);
+   }
+
+   public PeekableTouchableCompactMap(int concurrencyLevel) {
+      int stripeCount = Util.findNextHighestPowerOfTwo(concurrencyLevel);
+      stripes = new Stripe[stripeCount];
+      for (int i = 0; i < stripeCount; ++i) {
+         stripes[i] = new Stripe();
+      }
+      // The stripe is chosen with the highest bits of the hash and the slot with the lowest bits
+      stripeShift = Integer.SIZE - Integer.numberOfTrailingZeros(stripeCount);
+   }
+
+   private static int hash(Object key) {
+      int h = key.hashCode() * SPREAD;
+      return h ^ (h >>> 16);
+   }
+
+   private Stripe stripeFor(int hash) {
+      return stripes.length == 1 ? stripes[0] : stripes[hash >>> stripeShift];
+   }
+
+   /**
+    * Returns what is stored in the table for the given entry: the value for a plain immortal entry or the entry
+    * itself otherwise.
+    */
+   private static Object encode(InternalCacheEntry<?, ?> entry) {
+      if (entry.getClass() == ImmortalCacheEntry.class && entry.getInternalMetadata() == null) {
+         Object value = entry.getValue();
+         // A value that is an entry itself can't be told apart from a stored entry
+         if (value != null && !(value instanceof InternalCacheEntry)) {
+            return value;
+         }
+      }
+      return entry;
+   }
+
+   @SuppressWarnings("unchecked")
+   private static <K, V> InternalCacheEntry<K, V> decode(Object key, Object stored) {
+      if (stored instanceof InternalCacheEntry) {
+         return (InternalCacheEntry<K, V>) stored;
+      }
+      return new ImmortalCacheEntry(key, stored);
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> peek(Object key) {
+      int hash = hash(key);
+      Stripe stripe = stripeFor(hash);
+      long stamp = stripe.lock.tryOptimisticRead();
+      if (stamp != 0) {
+         try {
+            Object[] slots = stripe.slots;
+            int index = indexOf(slots, key, hash);
+            Object storedKey = index < 0 ? null : slots[index];
+            Object stored = index < 0 ? null : slots[index + 1];
+            if (stripe.lock.validate(stamp)) {
+               return storedKey == null ? null : decode(storedKey, stored);
+            }
+         } catch (RuntimeException e) {
+            // The slots were modified while reading them, retry holding the lock
+         }
+      }
+      stamp = stripe.lock.readLock();
+      try {
+         Object[] slots = stripe.slots;
+         int index = indexOf(slots, key, hash);
+         return index < 0 ? null : decode(slots[index], slots[index + 1]);
+      } finally {
+         stripe.lock.unlockRead(stamp);
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> get(Object key) {
+      return peek(key);
+   }
+
+   @Override
+   public boolean containsKey(Object key) {
+      return peek(key) != null;
+   }
+
+   @Override
+   public boolean touchKey(Object key, long currentTimeMillis) {
+      // Entries that can expire are always stored as is, so touching the returned entry updates the stored one
+      InternalCacheEntry<K, V> entry = peek(key);
+      if (entry != null) {
+         entry.touch(currentTimeMillis);
+         return true;
+      }
+      return false;
+   }
+
+   @Override
+   public void touchAll(long currentTimeMillis) {
+      for (Stripe stripe : stripes) {
+         long stamp = stripe.lock.readLock();
+         try {
+            Object[] slots = stripe.slots;
+            for (int i = 1; i < slots.length; i += 2) {
+               if (slots[i] instanceof InternalCacheEntry) {
+                  ((InternalCacheEntry<?, ?>) slots[i]).touch(currentTimeMillis);
+               }
+            }
+         } finally {
+            stripe.lock.unlockRead(stamp);
+         }
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> put(K key, InternalCacheEntry<K, V> value) {
+      Objects.requireNonNull(value);
+      int hash = hash(key);
+      Stripe stripe = stripeFor(hash);
+      long stamp = stripe.lock.writeLock();
+      try {
+         int index = indexOf(stripe.slots, key, hash);
+         InternalCacheEntry<K, V> previous = index < 0 ? null : decode(stripe.slots[index], stripe.slots[index + 1]);
+         stripe.store(key, hash, index, value);
+         return previous;
+      } finally {
+         stripe.lock.unlockWrite(stamp);
+      }
+   }
+
+   @Override
+   public void putNoReturn(K key, InternalCacheEntry<K, V> value) {
+      Objects.requireNonNull(value);
+      int hash = hash(key);
+      Stripe stripe = stripeFor(hash);
+      long stamp = stripe.lock.writeLock();
+      try {
+         stripe.store(key, hash, indexOf(stripe.slots, key, hash), value);
+      } finally {
+         stripe.lock.unlockWrite(stamp);
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> putIfAbsent(K key, InternalCacheEntry<K, V> value) {
+      Objects.requireNonNull(value);
+      int hash = hash(key);
+      Stripe stripe = stripeFor(hash);
+      long stamp = stripe.lock.writeLock();
+      try {
+         int index = indexOf(stripe.slots, key, hash);
+         if (index >= 0) {
+            return decode(stripe.slots[index], stripe.slots[index + 1]);
+         }
+         stripe.store(key, hash, index, value);
+         return null;
+      } finally {
+         stripe.lock.unlockWrite(stamp);
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> remove(Object key) {
+      int hash = hash(key);
+      Stripe stripe = stripeFor(hash);
+      long stamp = stripe.lock.writeLock();
+      try {
+         int index = indexOf(stripe.slots, key, hash);
+         if (index < 0) {
+            return null;
+         }
+         InternalCacheEntry<K, V> previous = decode(stripe.slots[index], stripe.slots[index + 1]);
+         stripe.removeAt(index);
+         return previous;
+      } finally {
+         stripe.lock.unlockWrite(stamp);
+      }
+   }
+
+   @Override
+   public boolean remove(Object key, Object value) {
+      if (value == null) {
+         return false;
+      }
+      int hash = hash(key);
+      Stripe stripe = stripeFor(hash);
+      long stamp = stripe.lock.writeLock();
+      try {
+         int index = indexOf(stripe.slots, key, hash);
+         if (index < 0 || !value.equals(decode(stripe.slots[index], stripe.slots[index + 1]))) {
+            return false;
+         }
+         stripe.removeAt(index);
+         return true;
+      } finally {
+         stripe.lock.unlockWrite(stamp);
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> replace(K key, InternalCacheEntry<K, V> value) {
+      Objects.requireNonNull(value);
+      int hash = hash(key);
+      Stripe stripe = stripeFor(hash);
+      long stamp = stripe.lock.writeLock();
+      try {
+         int index = indexOf(stripe.slots, key, hash);
+         if (index < 0) {
+            return null;
+         }
+         InternalCacheEntry<K, V> previous = decode(stripe.slots[index], stripe.slots[index + 1]);
+         stripe.store(key, hash, index, value);
+         return previous;
+      } finally {
+         stripe.lock.unlockWrite(stamp);
+      }
+   }
+
+   @Override
+   public boolean replace(K key, InternalCacheEntry<K, V> oldValue, InternalCacheEntry<K, V> newValue) {
+      Objects.requireNonNull(oldValue);
+      Objects.requireNonNull(newValue);
+      int hash = hash(key);
+      Stripe stripe = stripeFor(hash);
+      long stamp = stripe.lock.writeLock();
+      try {
+         int index = indexOf(stripe.slots, key, hash);
+         if (index < 0 || !oldValue.equals(decode(stripe.slots[index], stripe.slots[index + 1]))) {
+            return false;
+         }
+         stripe.store(key, hash, index, newValue);
+         return true;
+      } finally {
+         stripe.lock.unlockWrite(stamp);
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> compute(K key,
+         BiFunction<? super K, ? super InternalCacheEntry<K, V>, ? extends InternalCacheEntry<K, V>> remappingFunction) {
+      Objects.requireNonNull(remappingFunction);
+      int hash = hash(key);
+      Stripe stripe = stripeFor(hash);
+      long stamp = stripe.lock.writeLock();
+      try {
+         int index = indexOf(stripe.slots, key, hash);
+         InternalCacheEntry<K, V> oldValue = index < 0 ? null : decode(stripe.slots[index], stripe.slots[index + 1]);
+         InternalCacheEntry<K, V> newValue = remappingFunction.apply(key, oldValue);
+         stripe.store(key, hash, index, newValue);
+         return newValue;
+      } finally {
+         stripe.lock.unlockWrite(stamp);
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> computeIfPresent(K key,
+         BiFunction<? super K, ? super InternalCacheEntry<K, V>, ? extends InternalCacheEntry<K, V>> remappingFunction) {
+      Objects.requireNonNull(remappingFunction);
+      int hash = hash(key);
+      Stripe stripe = stripeFor(hash);
+      long stamp = stripe.lock.writeLock();
+      try {
+         int index = indexOf(stripe.slots, key, hash);
+         if (index < 0) {
+            return null;
+         }
+         InternalCacheEntry<K, V> newValue = remappingFunction.apply(key,
+               decode(stripe.slots[index], stripe.slots[index + 1]));
+         stripe.store(key, hash, index, newValue);
+         return newValue;
+      } finally {
+         stripe.lock.unlockWrite(stamp);
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> computeIfAbsent(K key,
+         Function<? super K, ? extends InternalCacheEntry<K, V>> mappingFunction) {
+      Objects.requireNonNull(mappingFunction);
+      int hash = hash(key);
+      Stripe stripe = stripeFor(hash);
+      long stamp = stripe.lock.writeLock();
+      try {
+         int index = indexOf(stripe.slots, key, hash);
+         if (index >= 0) {
+            return decode(stripe.slots[index], stripe.slots[index + 1]);
+         }
+         InternalCacheEntry<K, V> newValue = mappingFunction.apply(key);
+         stripe.store(key, hash, index, newValue);
+         return newValue;
+      } finally {
+         stripe.lock.unlockWrite(stamp);
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> merge(K key, InternalCacheEntry<K, V> value,
+         BiFunction<? super InternalCacheEntry<K, V>, ? super InternalCacheEntry<K, V>, ? extends InternalCacheEntry<K, V>> remappingFunction) {
+      Objects.requireNonNull(value);
+      Objects.requireNonNull(remappingFunction);
+      int hash = hash(key);
+      Stripe stripe = stripeFor(hash);
+      long stamp = stripe.lock.writeLock();
+      try {
+         int index = indexOf(stripe.slots, key, hash);
+         InternalCacheEntry<K, V> newValue = index < 0 ? value :
+               remappingFunction.apply(decode(stripe.slots[index], stripe.slots[index + 1]), value);
+         stripe.store(key, hash, index, newValue);
+         return newValue;
+      } finally {
+         stripe.lock.unlockWrite(stamp);
+      }
+   }
+
+   @Override
+   public void clear() {
+      for (Stripe stripe : stripes) {
+         long stamp = stripe.lock.writeLock();
+         try {
+            stripe.clear();
+         } finally {
+            stripe.lock.unlockWrite(stamp);
+         }
+      }
+   }
+
+   @Override
+   public int size() {
+      long size = 0;
+      for (Stripe stripe : stripes) {
+         size += stripe.size;
+      }
+      return (int) Math.min(size, Integer.MAX_VALUE);
+   }
+
+   @Override
+   public boolean isEmpty() {
+      for (Stripe stripe : stripes) {
+         if (stripe.size != 0) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   @Override
+   public Set<Map.Entry<K, InternalCacheEntry<K, V>>> entrySet() {
+      Set<Map.Entry<K, InternalCacheEntry<K, V>>> entrySet = this.entrySet;
+      if (entrySet == null) {
+         this.entrySet = entrySet = new EntrySet();
+      }
+      return entrySet;
+   }
+
+   @Override
+   public Set<K> keySet() {
+      Set<K> keySet = this.keySet;
+      if (keySet == null) {
+         this.keySet = keySet = new KeySet();
+      }
+      return keySet;
+   }
+
+   @Override
+   public Collection<InternalCacheEntry<K, V>> values() {
+      Collection<InternalCacheEntry<K, V>> values = this.values;
+      if (values == null) {
+         this.values = values = new Values();
+      }
+      return values;
+   }
+
+   /**
+    * Returns the index of the slot holding the key, or -1 if the key is not present.
+    */
+   private static int indexOf(Object[] slots, Object key, int hash) {
+      int mask = (slots.length >>> 1) - 1;
+      int i = hash & mask;
+      // Bounded so that a read racing with a write can't loop forever
+      for (int probes = 0; probes <= mask; ++probes) {
+         Object k = slots[i << 1];
+         if (k == null) {
+            return -1;
+         }
+         if (k == key || (k != TOMBSTONE && key.equals(k))) {
+            return i << 1;
+         }
+         i = (i + 1) & mask;
+      }
+      return -1;
+   }
+
+   private static final class Stripe {
+      private final StampedLock lock = new StampedLock();
+      // Keys are stored at even indexes, followed by their value or entry. They are written while holding the write
+      // lock but read optimistically, and a new array is always installed when the stripe is rehashed or cleared
+      private volatile Object[] slots = new Object[INITIAL_CAPACITY << 1];
+      private volatile int size;
+      @GuardedBy("lock#writeLock")
+      private int tombstones;
+
+      /**
+       * Stores the entry for the key, removing the key if the entry is null.
+       * @param index the index of the key as returned by {@link #indexOf(Object[], Object, int)}
+       */
+      @GuardedBy("lock#writeLock")
+      void store(Object key, int hash, int index, InternalCacheEntry<?, ?> entry) {
+         if (entry == null) {
+            if (index >= 0) {
+               removeAt(index);
+            }
+         } else if (index >= 0) {
+            slots[index + 1] = encode(entry);
+         } else {
+            insert(key, hash, encode(entry));
+         }
+      }
+
+      @GuardedBy("lock#writeLock")
+      private void insert(Object key, int hash, Object stored) {
+         Object[] slots = this.slots;
+         int capacity = slots.length >>> 1;
+         // Keep the table at most 3/4 full, counting the tombstones that lengthen the probe sequences
+         if ((size + tombstones + 1) << 2 > capacity * 3) {
+            slots = rehash(size + 1);
+         }
+         int mask = (slots.length >>> 1) - 1;
+         int i = hash & mask;
+         Object k;
+         while ((k = slots[i << 1]) != null && k != TOMBSTONE) {
+            i = (i + 1) & mask;
+         }
+         if (k == TOMBSTONE) {
+            tombstones--;
+         }
+         slots[(i << 1) + 1] = stored;
+         slots[i << 1] = key;
+         size++;
+      }
+
+      @GuardedBy("lock#writeLock")
+      void removeAt(int index) {
+         Object[] slots = this.slots;
+         int mask = slots.length - 1;
+         slots[index + 1] = null;
+         if (slots[(index + 2) & mask] == null) {
+            // No probe sequence continues past this slot, so it can be freed along with the tombstones before it
+            slots[index] = null;
+            int previous = (index - 2) & mask;
+            while (slots[previous] == TOMBSTONE) {
+               slots[previous] = null;
+               tombstones--;
+               previous = (previous - 2) & mask;
+            }
+         } else {
+            slots[index] = TOMBSTONE;
+            tombstones++;
+         }
+         size--;
+      }
+
+      /**
+       * Copies the entries to a new array large enough to hold twice the given number of entries, dropping the
+       * tombstones.
+       */
+      @GuardedBy("lock#writeLock")
+      private Object[] rehash(int minimumSize) {
+         Object[] oldSlots = this.slots;
+         int capacity = INITIAL_CAPACITY;
+         while (capacity < minimumSize << 1) {
+            capacity <<= 1;
+         }
+         Object[] newSlots = new Object[capacity << 1];
+         int mask = capacity - 1;
+         for (int j = 0; j < oldSlots.length; j += 2) {
+            Object k = oldSlots[j];
+            if (k != null && k != TOMBSTONE) {
+               int i = hash(k) & mask;
+               while (newSlots[i << 1] != null) {
+                  i = (i + 1) & mask;
+               }
+               newSlots[i << 1] = k;
+               newSlots[(i << 1) + 1] = oldSlots[j + 1];
+            }
+         }
+         tombstones = 0;
+         this.slots = newSlots;
+         return newSlots;
+      }
+
+      @GuardedBy("lock#writeLock")
+      void clear() {
+         slots = new Object[INITIAL_CAPACITY << 1];
+         size = 0;
+         tombstones = 0;
+      }
+   }
+
+   private final class EntryIterator implements Iterator<Map.Entry<K, InternalCacheEntry<K, V>>> {
+      private int stripeIndex;
+      private Stripe stripe;
+      private Object[] slots;
+      private int slotIndex;
+      private Map.Entry<K, InternalCacheEntry<K, V>> next;
+      private K lastKey;
+
+      @Override
+      public boolean hasNext() {
+         if (next == null) {
+            next = advance();
+         }
+         return next != null;
+      }
+
+      @Override
+      public Map.Entry<K, InternalCacheEntry<K, V>> next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         Map.Entry<K, InternalCacheEntry<K, V>> entry = next;
+         next = null;
+         lastKey = entry.getKey();
+         return entry;
+      }
+
+      @Override
+      public void remove() {
+         if (lastKey == null) {
+            throw new IllegalStateException();
+         }
+         PeekableTouchableCompactMap.this.remove(lastKey);
+         lastKey = null;
+      }
+
+      @SuppressWarnings("unchecked")
+      private Map.Entry<K, InternalCacheEntry<K, V>> advance() {
+         while (true) {
+            if (slots == null || slotIndex >= slots.length) {
+               if (stripeIndex == stripes.length) {
+                  return null;
+               }
+               stripe = stripes[stripeIndex++];
+               // Entries never move within an array, so iterating over the array installed at this point returns
+               // every entry that was present at most once
+               slots = stripe.slots;
+               slotIndex = 0;
+               continue;
+            }
+            int index = slotIndex;
+            slotIndex += 2;
+            long stamp = stripe.lock.tryOptimisticRead();
+            Object key = slots[index];
+            Object stored = slots[index + 1];
+            if (!stripe.lock.validate(stamp)) {
+               stamp = stripe.lock.readLock();
+               try {
+                  key = slots[index];
+                  stored = slots[index + 1];
+               } finally {
+                  stripe.lock.unlockRead(stamp);
+               }
+            }
+            if (key != null && key != TOMBSTONE) {
+               return new SimpleImmutableEntry<>((K) key, decode(key, stored));
+            }
+         }
+      }
+   }
+
+   private final class EntrySet extends AbstractSet<Map.Entry<K, InternalCacheEntry<K, V>>> {
+      @Override
+      public Iterator<Map.Entry<K, InternalCacheEntry<K, V>>> iterator() {
+         return new EntryIterator();
+      }
+
+      @Override
+      public Spliterator<Map.Entry<K, InternalCacheEntry<K, V>>> spliterator() {
+         return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.CONCURRENT | Spliterator.NONNULL |
+               Spliterator.DISTINCT);
+      }
+
+      @Override
+      public int size() {
+         return PeekableTouchableCompactMap.this.size();
+      }
+
+      @Override
+      public void clear() {
+         PeekableTouchableCompactMap.this.clear();
+      }
+   }
+
+   private final class KeySet extends AbstractSet<K> {
+      @Override
+      public Iterator<K> iterator() {
+         Iterator<Map.Entry<K, InternalCacheEntry<K, V>>> iterator = new EntryIterator();
+         return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+               return iterator.hasNext();
+            }
+
+            @Override
+            public K next() {
+               return iterator.next().getKey();
+            }
+
+            @Override
+            public void remove() {
+               iterator.remove();
+            }
+         };
+      }
+
+      @Override
+      public Spliterator<K> spliterator() {
+         return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.CONCURRENT | Spliterator.NONNULL |
+               Spliterator.DISTINCT);
+      }
+
+      @Override
+      public boolean contains(Object o) {
+         return containsKey(o);
+      }
+
+      @Override
+      public int size() {
+         return PeekableTouchableCompactMap.this.size();
+      }
+
+      @Override
+      public void clear() {
+         PeekableTouchableCompactMap.this.clear();
+      }
+   }
+
+   private final class Values extends AbstractCollection<InternalCacheEntry<K, V>> {
+      @Override
+      public Iterator<InternalCacheEntry<K, V>> iterator() {
+         Iterator<Map.Entry<K, InternalCacheEntry<K, V>>> iterator = new EntryIterator();
+         return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+               return iterator.hasNext();
+            }
+
+            @Override
+            public InternalCacheEntry<K, V> next() {
+               return iterator.next().getValue();
+            }
+
+            @Override
+            public void remove() {
+               iterator.remove();
+            }
+         };
+      }
+
+      @Override
+      public Spliterator<InternalCacheEntry<K, V>> spliterator() {
+         return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.CONCURRENT | Spliterator.NONNULL);
+      }
+
+      @Override
+      public int size() {
+         return PeekableTouchableCompactMap.this.size();
+      }
+
+      @Override
+      public void clear() {
+         PeekableTouchableCompactMap.this.clear();
+      }
+   }
+}
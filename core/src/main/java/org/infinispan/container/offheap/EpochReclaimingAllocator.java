@@ -0,0 +1,230 @@
+package org.infinispan.container.offheap;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.commons.util.ProcessorInfo;
+import org.infinispan.commons.util.Util;
+
+import net.jcip.annotations.GuardedBy;
+
+/**
+ * Allocator that defers deallocations until no optimistic reader can still be referencing the memory, using
+ * epoch-based reclamation.
+ * <p>
+ * Readers that access memory without holding a lock must surround those accesses with {@link #enterRead()} and
+ * {@link #exitRead(int)}. Readers register themselves in a striped, padded counter chosen by their thread so that
+ * concurrent readers on different cores do not write to the same cache line. Memory passed to
+ * {@link #deallocate(long, long)} is tagged with the current epoch and only freed once the epoch advanced twice, as
+ * every reader that was active when the memory was retired has exited by then.
+ * <p>
+ * The retired memory is kept in lists striped by thread as well, so that writers holding different locks do not
+ * contend, and any thread can advance the epoch with a compare-and-set once no reader of the previous epoch is left.
+ * The retired memory is still allocated in the underlying allocator until it is freed, and
+ * {@link #getRetiredAmount()} reports how much of it there is.
+ * <p>
+ * Readers <b>MUST NOT</b> block while registered, as {@link #reclaimAll()} waits for them to exit.
+ * @since 15.0
+ */
+class EpochReclaimingAllocator implements OffHeapMemoryAllocator {
+   // Each reader stripe takes 128 bytes, so two stripes never share a cache line (or its adjacent prefetched line)
+   private static final int STRIPE_LENGTH = 16;
+   private static final int STRIPE_COUNT = Util.findNextHighestPowerOfTwo(ProcessorInfo.availableProcessors()) << 1;
+   private static final int STRIPE_MASK = STRIPE_COUNT - 1;
+   // How many blocks a thread retires in an epoch before trying to advance it
+   private static final int RECLAIM_THRESHOLD = 64;
+
+   private final OffHeapMemoryAllocator allocator;
+   // Two counters per stripe, one for the even epochs and one for the odd epochs
+   private final AtomicLongArray readers = new AtomicLongArray(STRIPE_COUNT * STRIPE_LENGTH);
+   private final RetireStripe[] retireStripes = new RetireStripe[STRIPE_COUNT];
+   private final LongAdder retiredAmount = new LongAdder();
+   private final AtomicLong epoch = new AtomicLong();
+
+   EpochReclaimingAllocator(OffHeapMemoryAllocator allocator) {
+      this.allocator = allocator;
+      for (int i = 0; i < STRIPE_COUNT; ++i) {
+         retireStripes[i] = new RetireStripe();
+      }
+   }
+
+   private static int threadStripe() {
+      return (int) Thread.currentThread().getId() & STRIPE_MASK;
+   }
+
+   /**
+    * Registers the current thread as a reader of the current epoch. The returned value must be passed to
+    * {@link #exitRead(int)} when the reader no longer references any memory.
+    * @return the counter the reader was registered in
+    */
+   int enterRead() {
+      int stripe = threadStripe() * STRIPE_LENGTH;
+      while (true) {
+         long currentEpoch = epoch.get();
+         int counter = stripe + (int) (currentEpoch & 1);
+         readers.incrementAndGet(counter);
+         // If the epoch advanced concurrently the reclaimer may not have seen our registration
+         if (epoch.get() == currentEpoch) {
+            return counter;
+         }
+         readers.decrementAndGet(counter);
+      }
+   }
+
+   void exitRead(int counter) {
+      readers.decrementAndGet(counter);
+   }
+
+   @Override
+   public long allocate(long memoryLength) {
+      return allocator.allocate(memoryLength);
+   }
+
+   @Override
+   public void deallocate(long memoryAddress, long size) {
+      RetireStripe stripe = retireStripes[threadStripe()];
+      RetiredBlocks toFree;
+      synchronized (stripe) {
+         if (stripe.current.count >= RECLAIM_THRESHOLD) {
+            tryAdvanceEpoch();
+         }
+         // The epoch is read after the memory was unlinked, so no reader registered afterwards can reference it
+         toFree = stripe.advanceTo(epoch.get());
+         stripe.current.add(memoryAddress, size);
+      }
+      retiredAmount.add(size);
+      free(toFree);
+   }
+
+   /**
+    * Frees all the retired memory, waiting for any registered reader to exit. This is only useful when no new
+    * memory is being retired concurrently, such as when all the write locks are held.
+    */
+   void reclaimAll() {
+      long targetEpoch = epoch.get() + 2;
+      while (epoch.get() < targetEpoch) {
+         if (!tryAdvanceEpoch()) {
+            Thread.onSpinWait();
+         }
+      }
+      for (RetireStripe stripe : retireStripes) {
+         RetiredBlocks toFree;
+         synchronized (stripe) {
+            toFree = stripe.advanceTo(epoch.get());
+         }
+         free(toFree);
+      }
+   }
+
+   /**
+    * Advances the epoch if there are no readers left from the previous epoch.
+    * @return whether the epoch was advanced by this invocation
+    */
+   private boolean tryAdvanceEpoch() {
+      long currentEpoch = epoch.get();
+      int previousParity = (int) ((currentEpoch - 1) & 1);
+      for (int i = 0; i < STRIPE_COUNT; ++i) {
+         if (readers.get(i * STRIPE_LENGTH + previousParity) != 0) {
+            return false;
+         }
+      }
+      // A reader that read the previous epoch after the check sees the epoch changed and registers again
+      return epoch.compareAndSet(currentEpoch, currentEpoch + 1);
+   }
+
+   private void free(RetiredBlocks blocks) {
+      for (; blocks != null; blocks = blocks.next) {
+         for (int i = 0; i < blocks.count; ++i) {
+            allocator.deallocate(blocks.addresses[i], blocks.sizes[i]);
+            retiredAmount.add(-blocks.sizes[i]);
+         }
+      }
+   }
+
+   /**
+    * Returns how many bytes were passed to {@link #deallocate(long, long)} but are not freed yet, as a reader may still
+    * reference them. They are still included in the allocated amount of the underlying allocator.
+    * @return the amount of retired bytes
+    */
+   long getRetiredAmount() {
+      return retiredAmount.sum();
+   }
+
+   @Override
+   public long getAllocatedAmount() {
+      return allocator.getAllocatedAmount() - getRetiredAmount();
+   }
+
+   @Override
+   public long getFreeAmount() {
+      return allocator.getFreeAmount();
+   }
+
+   @Override
+   public long getFragmentedAmount() {
+      return allocator.getFragmentedAmount();
+   }
+
+   /**
+    * The blocks retired by the threads of a stripe in the last two epochs they retired memory in.
+    */
+   private static final class RetireStripe {
+      @GuardedBy("this")
+      private RetiredBlocks current = new RetiredBlocks(0);
+      @GuardedBy("this")
+      private RetiredBlocks previous;
+
+      /**
+       * Makes the given epoch the current one of the stripe, returning the blocks retired at least two epochs before
+       * it, which no reader can reference anymore.
+       */
+      @GuardedBy("this")
+      RetiredBlocks advanceTo(long epoch) {
+         if (current.epoch == epoch) {
+            return null;
+         }
+         RetiredBlocks toFree = null;
+         // The previous blocks are always older than the current ones
+         if (previous != null && previous.epoch <= epoch - 2) {
+            toFree = previous;
+            previous = null;
+         }
+         if (current.count == 0) {
+            current.epoch = epoch;
+         } else if (current.epoch <= epoch - 2) {
+            current.next = toFree;
+            toFree = current;
+            current = new RetiredBlocks(epoch);
+         } else {
+            previous = current;
+            current = new RetiredBlocks(epoch);
+         }
+         return toFree;
+      }
+   }
+
+   private static final class RetiredBlocks {
+      private long epoch;
+      private long[] addresses = new long[RECLAIM_THRESHOLD];
+      private long[] sizes = new long[RECLAIM_THRESHOLD];
+      private int count;
+      // Other blocks freed at the same time
+      private RetiredBlocks next;
+
+      RetiredBlocks(long epoch) {
+         this.epoch = epoch;
+      }
+
+      void add(long address, long size) {
+         if (count == addresses.length) {
+            addresses = Arrays.copyOf(addresses, count << 1);
+            sizes = Arrays.copyOf(sizes, count << 1);
+         }
+         addresses[count] = address;
+         sizes[count] = size;
+         count++;
+      }
+   }
+}
@@ -14,7 +14,11 @@
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.StampedLock;
 import java.util.function.BiFunction;
 import java.util.function.LongConsumer;
@@ -65,7 +69,10 @@
  * This map guarantees consistency under concurrent read ands writes through a {@link StripedLock} where each
  * {@link java.util.concurrent.locks.ReadWriteLock} instance protects an equivalent region of buckets in the underlying
  * memory lookup. Read operations, that is ones that only acquire the read lock for their specific lock region, are
- * ({@code get} and {@code peek}). Iteration on a returned entrySet or value collection will acquire only a single
+ * ({@code get} and {@code peek}). These first attempt an optimistic read of their lock region, which does not write
+ * to the lock, and only acquire the read lock if a concurrent write is detected. To make this safe all native memory
+ * is released through an {@link EpochReclaimingAllocator}, which defers freeing memory until no optimistic reader can
+ * still reference it. Iteration on a returned entrySet or value collection will acquire only a single
  * read lock at a time while inspecting a given lock region for a valid value. Write operations, ones that acquire the
  * write lock for the lock region, are ({@code put}, {@code remove}, {@code replace}, {@code compute}. A clear
  * will acquire all write locks when invoked. This allows the clear to also resize the map down to the initial size.
@@ -113,7 +120,8 @@ public class OffHeapConcurrentMap implements ConcurrentMap<WrappedBytes, Interna
    private final AtomicLong size = new AtomicLong();
    private final StripedLock locks;
 
-   private final OffHeapMemoryAllocator allocator;
+   // All deallocations are deferred until no optimistic reader can reference the memory anymore
+   private final EpochReclaimingAllocator allocator;
    private final OffHeapEntryFactory offHeapEntryFactory;
 
    private final EntryListener listener;
@@ -141,11 +149,35 @@ public class OffHeapConcurrentMap implements ConcurrentMap<WrappedBytes, Interna
    @GuardedBy("locks")
    private int oldMemoryShift;
 
+   // Executor used to transfer lock regions in the background, if null the thread starting a resize transfers them
+   private final Executor resizeExecutor;
+   // Only a single thread may prepare a resize, this is true from then until the resize is complete
+   private final AtomicBoolean resizeInProgress = new AtomicBoolean();
+   private final LongAdder resizeCount = new LongAdder();
+   @GuardedBy("locks#lockAll")
+   private long resizeStartNanos;
+   private volatile long lastResizeDurationNanos;
+
    public OffHeapConcurrentMap(OffHeapMemoryAllocator allocator,
          OffHeapEntryFactory offHeapEntryFactory, EntryListener listener) {
-      this.allocator = Objects.requireNonNull(allocator);
+      this(allocator, offHeapEntryFactory, listener, null);
+   }
+
+   /**
+    * Creates a new map where the lock regions of the memory lookup are transferred in the background during a resize,
+    * with writers cooperating in the transfer of the regions they write to.
+    * @param allocator allocator used for the native memory
+    * @param offHeapEntryFactory factory used to read and write entries in native memory
+    * @param listener listener notified of entry changes, may be null
+    * @param resizeExecutor executor completing the resizes, which must allow blocking as the transfer waits on the
+    *                       locks of the regions in use, if null the thread starting a resize completes it
+    */
+   public OffHeapConcurrentMap(OffHeapMemoryAllocator allocator,
+         OffHeapEntryFactory offHeapEntryFactory, EntryListener listener, Executor resizeExecutor) {
+      this.allocator = new EpochReclaimingAllocator(Objects.requireNonNull(allocator));
       this.offHeapEntryFactory = Objects.requireNonNull(offHeapEntryFactory);
       this.listener = listener;
+      this.resizeExecutor = resizeExecutor;
 
       locks = new StripedLock(LOCK_COUNT);
 
@@ -364,16 +396,25 @@ private boolean sizeMemoryBuckets(int bucketCount) {
             return false;
          }
       }
+      installMemoryLookup(new MemoryAddressHash(bucketCount, allocator));
+      return true;
+   }
 
+   /**
+    * Replaces the memory lookup with the provided one, which must already be accounted for in the listener, keeping
+    * the current one as the old memory lookup.
+    * @param newMemoryLookup the new memory lookup
+    */
+   @GuardedBy("locks#lockAll")
+   private void installMemoryLookup(MemoryAddressHash newMemoryLookup) {
+      int bucketCount = newMemoryLookup.getPointerCount();
       sizeThreshold = computeThreshold(bucketCount);
 
       oldMemoryLookup = memoryLookup;
       oldMemoryShift = memoryShift;
-      memoryLookup = new MemoryAddressHash(bucketCount, allocator);
+      memoryLookup = newMemoryLookup;
       // Max capacity is 2^31 (thus find the bit position that would be like dividing evenly into that)
       memoryShift = 31 - Integer.numberOfTrailingZeros(bucketCount);
-
-      return true;
    }
 
    /**
@@ -393,66 +434,158 @@ StripedLock getLocks() {
    /**
     * This method checks if the map must be resized and if so starts the operation. This caller <b>MUST NOT</b>
     * hold any locks when invoked.
+    * <p>
+    * If a resize is already pending the caller helps by transferring a single lock region, if it can do so without
+    * waiting. When a resize executor is present, the thread starting the resize only prepares the new memory lookup
+    * and the remaining lock regions are transferred in the background, one region per lock acquisition.
     */
    private void checkResize() {
-      // We don't do a resize if we aren't to the boundary or if we are in a pending resize
-      if (size.get() < sizeThreshold || oldMemoryLookup != null) {
+      if (oldMemoryLookup != null) {
+         IntSet localPendingBlocks = this.pendingBlocks;
+         if (localPendingBlocks != null) {
+            helpCompleteTransfer(localPendingBlocks, true, 1);
+         }
+         return;
+      }
+      // We don't do a resize if we aren't to the boundary or if another thread is preparing one
+      if (size.get() < sizeThreshold || !resizeInProgress.compareAndSet(false, true)) {
+         return;
+      }
+      IntSet localPendingBlocks = null;
+      try {
+         localPendingBlocks = startResize();
+      } finally {
+         if (localPendingBlocks == null) {
+            resizeInProgress.set(false);
+         }
+      }
+      if (localPendingBlocks == null) {
          return;
       }
-      boolean onlyHelp = false;
-      IntSet localPendingBlocks;
+
+      if (resizeExecutor != null) {
+         IntSet pendingBlocksToComplete = localPendingBlocks;
+         try {
+            resizeExecutor.execute(() -> completeResize(pendingBlocksToComplete));
+            return;
+         } catch (RejectedExecutionException e) {
+            log.trace("Resize executor rejected transfer, completing it in the caller thread");
+         }
+      }
+      completeResize(localPendingBlocks);
+   }
+
+   /**
+    * Allocates the new memory lookup and installs it, returning the lock regions that must be transferred or null
+    * if the map should not be resized after all.
+    */
+   private IntSet startResize() {
+      MemoryAddressHash currentMemoryLookup = memoryLookup;
+      if (currentMemoryLookup == null) {
+         return null;
+      }
+      int newBucketCount = currentMemoryLookup.getPointerCount() << 1;
+      if (newBucketCount == MAX_ADDRESS_COUNT) {
+         locks.lockAll();
+         try {
+            sizeThreshold = Integer.MAX_VALUE;
+         } finally {
+            locks.unlockAll();
+         }
+         return null;
+      }
+      // Allocating and clearing the new lookup can take a long time for large maps - so it is done before acquiring
+      // the locks to not block any other operation
+      MemoryAddressHash newMemoryLookup = new MemoryAddressHash(newBucketCount, allocator);
       locks.lockAll();
       try {
-         // Don't replace blocks if it was already done - means we had concurrent requests
-         if (oldMemoryLookup != null) {
-            onlyHelp = true;
-            localPendingBlocks = this.pendingBlocks;
-         } else {
-            int newBucketCount = memoryLookup.getPointerCount() << 1;
-            if (newBucketCount == MAX_ADDRESS_COUNT) {
+         // A clear or close may have happened concurrently
+         if (memoryLookup != currentMemoryLookup || size.get() < sizeThreshold ||
+               (listener != null && !listener.resize(newBucketCount))) {
+            if (memoryLookup == currentMemoryLookup && size.get() >= sizeThreshold) {
+               // The listener prevented the resize
                sizeThreshold = Integer.MAX_VALUE;
             }
-
-            // We couldn't resize
-            if (!sizeMemoryBuckets(newBucketCount)) {
-               return;
-            }
-            localPendingBlocks = IntSets.concurrentSet(LOCK_COUNT);
-            for (int i = 0; i < LOCK_COUNT; ++i) {
-               localPendingBlocks.set(i);
-            }
-            this.pendingBlocks = localPendingBlocks;
+            newMemoryLookup.deallocate();
+            return null;
+         }
+         installMemoryLookup(newMemoryLookup);
+         IntSet localPendingBlocks = IntSets.concurrentSet(LOCK_COUNT);
+         for (int i = 0; i < LOCK_COUNT; ++i) {
+            localPendingBlocks.set(i);
          }
+         this.pendingBlocks = localPendingBlocks;
+         resizeStartNanos = System.nanoTime();
+         resizeCount.increment();
+         return localPendingBlocks;
       } finally {
          locks.unlockAll();
       }
+   }
 
+   /**
+    * Transfers all the pending lock regions and then releases the old memory lookup. This method <b>MUST NOT</b> be
+    * invoked while holding any lock.
+    */
+   private void completeResize(IntSet localPendingBlocks) {
       // Try to complete without waiting if possible for locks
-      helpCompleteTransfer(localPendingBlocks, true);
-
-      if (!onlyHelp) {
-         if (!localPendingBlocks.isEmpty()) {
-            // We attempted to transfer without waiting on locks - but we didn't finish them all yet - so now we have
-            // to wait to ensure they are all transferred
-            helpCompleteTransfer(localPendingBlocks, false);
-            // Now everything should be empty for sure
-            assert localPendingBlocks.isEmpty();
-         }
+      helpCompleteTransfer(localPendingBlocks, true, Integer.MAX_VALUE);
+      if (!localPendingBlocks.isEmpty()) {
+         // We attempted to transfer without waiting on locks - but we didn't finish them all yet - so now we have
+         // to wait to ensure they are all transferred
+         helpCompleteTransfer(localPendingBlocks, false, Integer.MAX_VALUE);
+      }
 
-         // Now that all blocks have been transferred we can replace references
-         locks.lockAll();
-         try {
-            // This means that someone else completed the transfer for us - only clear can do that currently
-            if (this.pendingBlocks == null) {
-               return;
-            }
-            transferComplete();
-         } finally {
-            locks.unlockAll();
+      // Now that all blocks have been transferred we can replace references
+      locks.lockAll();
+      try {
+         // This means that someone else completed the transfer for us - only clear can do that currently
+         if (this.pendingBlocks != localPendingBlocks) {
+            return;
          }
+         transferComplete();
+      } finally {
+         locks.unlockAll();
       }
    }
 
+   /**
+    * @return how many times the memory lookup of this map has been resized
+    */
+   public long getResizeCount() {
+      return resizeCount.sum();
+   }
+
+   /**
+    * @return how many lock regions still have to be transferred by the current resize, or 0 if none is in progress
+    */
+   public int getPendingResizeRegions() {
+      IntSet localPendingBlocks = this.pendingBlocks;
+      return localPendingBlocks == null ? 0 : localPendingBlocks.size();
+   }
+
+   /**
+    * @return how many lock regions have to be transferred by a resize
+    */
+   public static int getLockRegionCount() {
+      return LOCK_COUNT;
+   }
+
+   /**
+    * @return how long the last completed resize took in nanoseconds, or 0 if no resize has completed
+    */
+   public long getLastResizeDurationNanos() {
+      return lastResizeDurationNanos;
+   }
+
+   /**
+    * @return how many bytes were removed from this map but are not freed yet, as an optimistic reader may still
+    * reference them
+    */
+   public long getRetiredMemory() {
+      return allocator.getRetiredAmount();
+   }
+
    /**
     * Invoked when a transfer has completed to clean up the old memory lookup
     */
@@ -460,6 +593,8 @@ private void checkResize() {
    private void transferComplete() {
       MemoryAddressHash oldMemoryLookup = this.oldMemoryLookup;
       this.pendingBlocks = null;
+      lastResizeDurationNanos = System.nanoTime() - resizeStartNanos;
+      resizeInProgress.set(false);
       if (listener != null) {
          boolean resized = listener.resize(-oldMemoryLookup.getPointerCount());
          assert resized : "Resize of negative pointers should always work!";
@@ -472,11 +607,13 @@ private void transferComplete() {
    /**
     * This <b>MUST NOT</b>  be invoked while holding any lock
     * @param tryLock whether the lock acquisition only does a try, returning earlier with some lock segments not transferred possibly
+    * @param maxRegions the maximum amount of lock regions to transfer
     */
-   private void helpCompleteTransfer(IntSet pendingBlocks, boolean tryLock) {
+   private void helpCompleteTransfer(IntSet pendingBlocks, boolean tryLock, int maxRegions) {
       if (pendingBlocks != null) {
+         int transferred = 0;
          PrimitiveIterator.OfInt iterator = pendingBlocks.iterator();
-         while (iterator.hasNext()) {
+         while (transferred < maxRegions && iterator.hasNext()) {
             int offset = iterator.nextInt();
             StampedLock lock = locks.getLockWithOffset(offset);
 
@@ -490,9 +627,11 @@ private void helpCompleteTransfer(IntSet pendingBlocks, boolean tryLock) {
                stamp = lock.writeLock();
             }
             try {
-               // Only run it now that we have lock if someone else just didn't finish it
-               if (pendingBlocks.remove(offset)) {
+               // Only run it now that we have lock if someone else just didn't finish it and the resize was not
+               // completed by a clear in the meantime
+               if (this.pendingBlocks == pendingBlocks && pendingBlocks.remove(offset)) {
                   transfer(offset);
+                  transferred++;
                }
             } finally {
                lock.unlockWrite(stamp);
@@ -550,6 +689,7 @@ public void close() {
          actualClear();
          memoryLookup.deallocate();
          memoryLookup = null;
+         allocator.reclaimAll();
       } finally {
          locks.unlockAll();
       }
@@ -622,6 +762,38 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> peekOrGet(WrappedBytes k,
       int hashCode = k.hashCode();
       int lockOffset = getLockOffset(hashCode);
       StampedLock stampedLock = locks.getLockWithOffset(lockOffset);
+      // The listener must be notified of retrievals while holding the read lock, so only use optimistic reads without it
+      if (peek || listener == null) {
+         long optimisticStamp = stampedLock.tryOptimisticRead();
+         if (optimisticStamp != 0) {
+            int readerCounter = allocator.enterRead();
+            try {
+               long actualAddress = optimisticGet(stampedLock, optimisticStamp, k, hashCode, lockOffset);
+               if (actualAddress == 0) {
+                  if (stampedLock.validate(optimisticStamp)) {
+                     return null;
+                  }
+               } else if (actualAddress != -1) {
+                  InternalCacheEntry<WrappedBytes, WrappedBytes> ice;
+                  try {
+                     // Returns null without reading the entry if its header may be torn
+                     ice = offHeapEntryFactory.fromMemory(actualAddress, stampedLock, optimisticStamp);
+                  } catch (RuntimeException e) {
+                     // The metadata may have been rewritten in place while we read it
+                     if (stampedLock.validate(optimisticStamp)) {
+                        throw e;
+                     }
+                     ice = null;
+                  }
+                  if (ice != null && stampedLock.validate(optimisticStamp)) {
+                     return ice;
+                  }
+               }
+            } finally {
+               allocator.exitRead(readerCounter);
+            }
+         }
+      }
       long readStamp = stampedLock.readLock();
       try {
          checkDeallocation();
@@ -656,6 +828,41 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> lockedPeekOrGet(MemoryAdd
       return null;
    }
 
+   /**
+    * Gets the actual address for the given key without holding its lock, returning 0 if it isn't present or -1 if a
+    * write was detected and the lock must be acquired instead. A result different from -1 is only correct if the
+    * stamp is still valid afterwards.
+    * <p>
+    * The caller <b>MUST</b> be registered as reader with the allocator, so that none of the memory read here can be
+    * freed concurrently. Fields guarded by the locks are read only once, as they may be modified concurrently, and
+    * the bucket offset is derived from the lookup read to never address past its end.
+    */
+   private long optimisticGet(StampedLock stampedLock, long stamp, WrappedBytes k, int hashCode, int lockOffset) {
+      MemoryAddressHash memoryLookup = this.memoryLookup;
+      IntSet pendingBlocks = this.pendingBlocks;
+      if (pendingBlocks != null && pendingBlocks.contains(lockOffset)) {
+         memoryLookup = this.oldMemoryLookup;
+      }
+      if (memoryLookup == null) {
+         // Either the map was closed or we saw a partial resize
+         return -1;
+      }
+      int shift = 31 - Integer.numberOfTrailingZeros(memoryLookup.getPointerCount());
+      long address = memoryLookup.getMemoryAddressOffset(getOffset(hashCode, shift));
+      while (address != 0) {
+         // Validating at each step guarantees we never follow a chain that is being modified
+         if (!stampedLock.validate(stamp)) {
+            return -1;
+         }
+         long nextAddress = offHeapEntryFactory.getNext(address);
+         if (offHeapEntryFactory.equalsKey(address, k, hashCode)) {
+            return address;
+         }
+         address = nextAddress;
+      }
+      return 0;
+   }
+
    /**
     * Gets the actual address for the given key in the given bucket or 0 if it isn't present or expired
     * @param bucketHeadAddress the starting address of the bucket
@@ -924,6 +1131,8 @@ public void clear() {
       locks.lockAll();
       try {
          actualClear();
+         // Clear is expected to release the memory right away
+         allocator.reclaimAll();
       } finally {
          locks.unlockAll();
       }
@@ -1,5 +1,7 @@
 package org.infinispan.container.offheap;
 
+import java.util.concurrent.locks.StampedLock;
+
 import org.infinispan.commons.marshall.WrappedBytes;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.impl.KeyValueMetadataSizeCalculator;
@@ -67,6 +69,19 @@ public interface OffHeapEntryFactory extends KeyValueMetadataSizeCalculator<Wrap
     */
    InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address);
 
+   /**
+    * Same as {@link #fromMemory(long)}, for an entry read without holding its lock. The lengths in the entry header
+    * are only used to allocate and copy once the optimistic stamp was validated after reading them.
+    * <p>
+    * The caller must still validate the stamp after this method returns, as the metadata may be rewritten in place
+    * while it is copied.
+    * @param address the address of the entry to read
+    * @param stampedLock the lock of the entry
+    * @param optimisticStamp the stamp returned by {@link StampedLock#tryOptimisticRead()}
+    * @return the entry created on heap from off-heap or null if the stamp was not valid anymore
+    */
+   InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address, StampedLock stampedLock, long optimisticStamp);
+
    /**
     * Returns whether the given key as bytes is the same key as the key stored in the entry for the given address.
     * @param address the address of the entry's key to check
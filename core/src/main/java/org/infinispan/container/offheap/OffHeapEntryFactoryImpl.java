@@ -5,6 +5,7 @@
 
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
 
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.marshall.StreamingMarshaller;
@@ -45,6 +46,8 @@ public class OffHeapEntryFactoryImpl implements OffHeapEntryFactory {
    @Inject Configuration configuration;
 
    private boolean evictionEnabled;
+   // Null when values are not compressed
+   private OffHeapValueCompressor compressor;
 
    // If custom than we just store the metadata as is (no other bits should be used)
    private static final byte CUSTOM = 1;
@@ -63,6 +66,9 @@ public class OffHeapEntryFactoryImpl implements OffHeapEntryFactory {
    // Whether this entry has private metadata or not
    private static final byte HAS_PRIVATE_METADATA = 1 << 6;
 
+   // Whether the value bytes were compressed by the OffHeapValueCompressor
+   private static final byte COMPRESSED_VALUE = (byte) (1 << 7);
+
    /**
     * HEADER is composed of type (byte), hashCode (int), keyLength (int), valueLength (int)
     * Note that metadata is not included as this is now optional
@@ -72,6 +78,10 @@ public class OffHeapEntryFactoryImpl implements OffHeapEntryFactory {
    @Start
    public void start() {
       this.evictionEnabled = configuration.memory().isEvictionEnabled();
+      int compressionThreshold = configuration.memory().compressionThreshold();
+      if (compressionThreshold >= 0) {
+         compressor = new OffHeapValueCompressor(compressionThreshold, configuration.memory().compressionDictionary());
+      }
    }
 
    @Override
@@ -133,6 +143,13 @@ public long create(WrappedBytes key, int hashCode, InternalCacheEntry<WrappedByt
       int keySize = key.getLength();
       int metadataSize = metadataBytes.length;
       WrappedBytes value = ice.getValue();
+      if (value != null && compressor != null) {
+         byte[] compressedBytes = compressor.compress(value);
+         if (compressedBytes != null) {
+            value = new WrappedByteArray(compressedBytes);
+            type |= COMPRESSED_VALUE;
+         }
+      }
       int valueSize = value != null ? value.getLength() : 0;
 
       byte[] internalMetadataBytes;
@@ -297,6 +314,12 @@ public byte[] getKey(long address) {
     */
    @Override
    public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address) {
+      return fromMemory(address, null, 0);
+   }
+
+   @Override
+   public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address, StampedLock stampedLock,
+         long optimisticStamp) {
       // 16 bytes for eviction if needed (optional)
       // 8 bytes for linked pointer
       int offset = evictionEnabled ? 24 : 8;
@@ -305,24 +328,24 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address) {
       offset += 1;
       int hashCode = MEMORY.getInt(address, offset);
       offset += 4;
-      byte[] keyBytes = new byte[MEMORY.getInt(address, offset)];
+      int keyLength = MEMORY.getInt(address, offset);
       offset += 4;
 
-      byte[] metadataBytes;
-      switch (metadataType & (~HAS_PRIVATE_METADATA)) {
+      int metadataLength;
+      switch (metadataType & ~(HAS_PRIVATE_METADATA | COMPRESSED_VALUE)) {
          case IMMORTAL:
-            metadataBytes = Util.EMPTY_BYTE_ARRAY;
+            metadataLength = 0;
             break;
          case MORTAL:
          case TRANSIENT:
-            metadataBytes = new byte[16];
+            metadataLength = 16;
             break;
          case TRANSIENT_MORTAL:
-            metadataBytes = new byte[32];
+            metadataLength = 32;
             break;
          default:
             // This means we had CUSTOM or HAS_VERSION so we have to read it all
-            metadataBytes = new byte[MEMORY.getInt(address, offset)];
+            metadataLength = MEMORY.getInt(address, offset);
             offset += 4;
       }
 
@@ -337,6 +360,21 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address) {
          internalMetadataSize = 0;
       }
 
+      if (stampedLock != null) {
+         // Nothing is allocated or copied until the header is known to be consistent: a torn length could be huge or
+         // point past the end of the entry
+         if (!stampedLock.validate(optimisticStamp)) {
+            return null;
+         }
+         long entrySize = (long) offset + keyLength + metadataLength + valueSize + internalMetadataSize;
+         if ((keyLength | metadataLength | valueSize | internalMetadataSize) < 0 || entrySize > Integer.MAX_VALUE) {
+            return null;
+         }
+      }
+
+      byte[] keyBytes = new byte[keyLength];
+      byte[] metadataBytes = metadataLength == 0 ? Util.EMPTY_BYTE_ARRAY : new byte[metadataLength];
+
       MEMORY.getBytes(address, offset, keyBytes, 0, keyBytes.length);
       offset += keyBytes.length;
       MEMORY.getBytes(address, offset, metadataBytes, 0, metadataBytes.length);
@@ -348,6 +386,9 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address) {
          MEMORY.getBytes(address, offset, valueBytes, 0, valueBytes.length);
          offset += valueBytes.length;
 
+         if ((metadataType & COMPRESSED_VALUE) != 0) {
+            valueBytes = compressor.decompress(valueBytes);
+         }
          valueWrappedBytes = new WrappedByteArray(valueBytes);
       } else {
          valueWrappedBytes = null;
@@ -661,7 +702,7 @@ public long updateMaxIdle(long address, long currentTimeMillis) {
       if (newMetadataSize != metadataSize) {
          // The new marshalled size is different then before, we have to rewrite the object!
          // Offset is still set to the end of the key bytes (before metadata)
-         long newPointer = MEMORY.allocate(newMetadataSize + offset + valueSize + internalMetadataSize);
+         long newPointer = allocator.allocate(newMetadataSize + offset + valueSize + internalMetadataSize);
          // This writes the next pointer, eviction pointers (if applicable),
          // type, hashCode, keyLength, metadataLength, valueLength and key bytes.
          MEMORY.copy(address, 0, newPointer, 0, offset);
@@ -23,4 +23,22 @@ public interface OffHeapMemoryAllocator {
    void deallocate(long memoryAddress, long size);
 
    long getAllocatedAmount();
+
+   /**
+    * Returns how many bytes have been reserved from the operating system but are not currently handed out. Allocators
+    * that do not retain memory always return 0.
+    * @return the amount of retained but unused bytes
+    */
+   default long getFreeAmount() {
+      return 0;
+   }
+
+   /**
+    * Returns how many of the allocated bytes are lost to internal fragmentation, that is the difference between the
+    * size of the blocks handed out and the size that was requested for them.
+    * @return the amount of fragmented bytes
+    */
+   default long getFragmentedAmount() {
+      return 0;
+   }
 }
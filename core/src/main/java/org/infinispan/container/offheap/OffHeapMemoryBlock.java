@@ -0,0 +1,58 @@
+package org.infinispan.container.offheap;
+
+import sun.misc.Unsafe;
+
+/**
+ * A block of memory outside of the Java heap, zeroed when allocated, that must be released with {@link #free()}.
+ * <p>
+ * Unlike a direct buffer the block can be larger than 2 GiB, it is not limited by {@code -XX:MaxDirectMemorySize} and
+ * its memory is returned as soon as it is freed instead of when the garbage collector finds it unreachable. The offsets
+ * are only checked against the size of the block when trace logging is enabled.
+ *
+ * @since 15.0
+ */
+public final class OffHeapMemoryBlock {
+   private static final Unsafe UNSAFE = UnsafeHolder.UNSAFE;
+   private static final OffHeapMemory MEMORY = OffHeapMemory.INSTANCE;
+
+   private final OffHeapMemoryAllocator allocator;
+   private final long size;
+   private long address;
+
+   public OffHeapMemoryBlock(long size, OffHeapMemoryAllocator allocator) {
+      this.allocator = allocator;
+      this.size = size;
+      this.address = allocator.allocate(size);
+      UNSAFE.setMemory(address, size, (byte) 0);
+   }
+
+   public int getInt(long offset) {
+      return MEMORY.getInt(address, offset);
+   }
+
+   public void putInt(long offset, int value) {
+      MEMORY.putInt(address, offset, value);
+   }
+
+   public long getLong(long offset) {
+      return MEMORY.getLong(address, offset);
+   }
+
+   public void putLong(long offset, long value) {
+      MEMORY.putLong(address, offset, value);
+   }
+
+   public long size() {
+      return size;
+   }
+
+   /**
+    * Releases the memory of the block, which must not be accessed afterwards. Freeing the block again has no effect.
+    */
+   public void free() {
+      if (address != 0) {
+         allocator.deallocate(address, size);
+         address = 0;
+      }
+   }
+}
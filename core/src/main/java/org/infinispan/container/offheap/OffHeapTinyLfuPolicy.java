@@ -0,0 +1,260 @@
+package org.infinispan.container.offheap;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+
+import org.infinispan.container.impl.FrequencySketch;
+
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * Window TinyLFU eviction policy whose queues are linked through the native LRU nodes of the entries, so that no
+ * on-heap node is needed per entry.
+ * <p>
+ * New entries are added to a small admission window, which is an LRU queue holding 1% of the maximum size. Entries
+ * that overflow the window move to the probation queue of the main space, where they become candidates. When an
+ * entry has to be evicted the oldest candidate competes against the head of the main space and only the entry with
+ * the highest estimated frequency is kept, so that a scan of entries that are accessed once can't flush the popular
+ * entries out of the cache. The main space is a segmented LRU: entries in probation that are accessed again are
+ * promoted to the protected queue, which holds up to 80% of the main space, and the protected queue demotes its
+ * least recently used entries back to probation when it overflows.
+ * <p>
+ * Frequencies are estimated by a {@link FrequencySketch} keyed by the hash code of the entry, which is the only
+ * on-heap structure. The sketch takes 8 bytes per entry in the container, as it grows with the number of entries
+ * instead of being sized for the maximum up front, and it stops growing at {@value #MAXIMUM_SKETCH_CAPACITY} entries
+ * so that a large container does not need a large heap. The queue each entry belongs to is stored in the free bits of
+ * its previous node pointer, see {@link OffHeapLruNode}.
+ * <p>
+ * All the methods must be invoked while holding the lock protecting the policy.
+ *
+ * @since 15.0
+ */
+@NotThreadSafe
+class OffHeapTinyLfuPolicy {
+   static final int WINDOW = 0;
+   static final int PROBATION = 1;
+   static final int PROTECTED = 2;
+
+   private static final int WINDOW_PERCENTAGE = 1;
+   private static final int PROTECTED_PERCENTAGE = 80;
+   // Candidates with at most this frequency are never admitted unless more popular than the victim
+   private static final int WARM_FREQUENCY = 5;
+   // The sketch grows with the number of entries, up to 32 MB of heap
+   private static final int INITIAL_SKETCH_CAPACITY = 64;
+   static final int MAXIMUM_SKETCH_CAPACITY = 1 << 22;
+
+   private final LongToIntFunction hashFunction;
+   private final LongUnaryOperator sizeFunction;
+   private final long windowMaximum;
+   private final long protectedMaximum;
+   private final FrequencySketch sketch;
+
+   private final long[] heads = new long[3];
+   private final long[] tails = new long[3];
+   private final long[] sizes = new long[3];
+   private long entryCount;
+   // The oldest entry in probation that moved from the window and has not competed for admission yet, all the
+   // entries after it in the probation queue are candidates as well and admitted entries are always linked before it
+   private long candidate;
+   // The last admission decision, kept so that selecting the victim again while its eviction is retried returns the
+   // same entry, and the candidate is only admitted once the victim it beat is removed
+   private long decisionCandidate;
+   private long decisionVictim;
+   private boolean decisionAdmitted;
+
+   /**
+    * @param hashFunction returns the hash code of the entry at a given address
+    * @param sizeFunction returns the size of the entry at a given address, in the same unit as {@code maxSize}
+    * @param maxSize the maximum size of the container
+    */
+   OffHeapTinyLfuPolicy(LongToIntFunction hashFunction, LongUnaryOperator sizeFunction, long maxSize) {
+      this.hashFunction = hashFunction;
+      this.sizeFunction = sizeFunction;
+      this.windowMaximum = maxSize * WINDOW_PERCENTAGE / 100;
+      this.protectedMaximum = (maxSize - windowMaximum) * PROTECTED_PERCENTAGE / 100;
+      this.sketch = new FrequencySketch(INITIAL_SKETCH_CAPACITY);
+   }
+
+   /**
+    * Adds a newly created entry to the admission window.
+    */
+   void entryCreated(long address, long size) {
+      entryCount++;
+      sketch.ensureCapacity(Math.min(entryCount, MAXIMUM_SKETCH_CAPACITY));
+      sketch.increment(hashFunction.applyAsInt(address));
+      link(WINDOW, address, size);
+      evictFromWindow();
+   }
+
+   void entryRemoved(long address, long size) {
+      entryCount--;
+      if (address == decisionVictim && decisionAdmitted && decisionCandidate == candidate) {
+         // The candidate stays in probation and the next candidate will compete against the next victim
+         candidate = OffHeapLruNode.getNext(candidate);
+      }
+      unlink(OffHeapLruNode.getQueue(address), address, size);
+   }
+
+   /**
+    * Replaces the old entry with the new one at the end of the queue the old entry belonged to.
+    */
+   void entryReplaced(long newAddress, long newSize, long oldAddress, long oldSize) {
+      int queue = OffHeapLruNode.getQueue(oldAddress);
+      unlink(queue, oldAddress, oldSize);
+      sketch.increment(hashFunction.applyAsInt(newAddress));
+      if (queue == PROBATION) {
+         linkAdmitted(newAddress, newSize);
+      } else {
+         link(queue, newAddress, newSize);
+      }
+      if (queue == WINDOW) {
+         evictFromWindow();
+      } else if (queue == PROTECTED) {
+         demoteFromProtected();
+      }
+   }
+
+   void entryRetrieved(long address) {
+      sketch.increment(hashFunction.applyAsInt(address));
+      int queue = OffHeapLruNode.getQueue(address);
+      if (queue == PROBATION) {
+         long size = sizeFunction.applyAsLong(address);
+         unlink(PROBATION, address, size);
+         link(PROTECTED, address, size);
+         demoteFromProtected();
+      } else if (tails[queue] != address) {
+         unlink(queue, address, 0);
+         link(queue, address, 0);
+      }
+   }
+
+   /**
+    * Returns the entry that should be evicted next, or 0 if there are no entries. The queues are not modified, so the
+    * caller may fail to remove the returned entry and ask again later, and the same entry is returned as long as the
+    * queues do not change. The candidate is only admitted when the victim it competed against is removed.
+    */
+   long selectVictim() {
+      long victim = heads[PROBATION];
+      if (victim == candidate) {
+         // Probation only holds candidates, so they compete against the protected entries
+         victim = heads[PROTECTED];
+      }
+      if (candidate != 0) {
+         if (victim == 0) {
+            return candidate;
+         }
+         if (decisionCandidate != candidate || decisionVictim != victim) {
+            decisionCandidate = candidate;
+            decisionVictim = victim;
+            decisionAdmitted = admit(candidate, victim);
+         }
+         return decisionAdmitted ? victim : candidate;
+      }
+      return victim != 0 ? victim : heads[WINDOW];
+   }
+
+   private boolean admit(long candidateAddress, long victimAddress) {
+      int candidateFrequency = sketch.frequency(hashFunction.applyAsInt(candidateAddress));
+      int victimFrequency = sketch.frequency(hashFunction.applyAsInt(victimAddress));
+      if (candidateFrequency > victimFrequency) {
+         return true;
+      }
+      if (candidateFrequency <= WARM_FREQUENCY) {
+         return false;
+      }
+      // Admit a small share of warm candidates, so that colliding hash codes can't keep a victim in the cache forever
+      return (ThreadLocalRandom.current().nextInt() & 127) == 0;
+   }
+
+   /**
+    * Moves the least recently used entries of the window to probation until the window fits in its maximum. The most
+    * recently added entry always stays in the window, even if it is larger than the maximum.
+    */
+   private void evictFromWindow() {
+      while (sizes[WINDOW] > windowMaximum && heads[WINDOW] != tails[WINDOW]) {
+         long address = heads[WINDOW];
+         long size = sizeFunction.applyAsLong(address);
+         unlink(WINDOW, address, size);
+         link(PROBATION, address, size);
+         if (candidate == 0) {
+            candidate = address;
+         }
+      }
+   }
+
+   private void demoteFromProtected() {
+      while (sizes[PROTECTED] > protectedMaximum && heads[PROTECTED] != tails[PROTECTED]) {
+         long address = heads[PROTECTED];
+         long size = sizeFunction.applyAsLong(address);
+         unlink(PROTECTED, address, size);
+         linkAdmitted(address, size);
+      }
+   }
+
+   /**
+    * Links an entry that does not have to compete for admission at the end of the probation queue, but before any
+    * candidate.
+    */
+   private void linkAdmitted(long address, long size) {
+      if (candidate == 0) {
+         link(PROBATION, address, size);
+         return;
+      }
+      long previous = OffHeapLruNode.getPrevious(candidate);
+      OffHeapLruNode.setPreviousAndQueue(address, previous, PROBATION);
+      OffHeapLruNode.setNext(address, candidate);
+      OffHeapLruNode.setPrevious(candidate, address);
+      if (previous == 0) {
+         heads[PROBATION] = address;
+      } else {
+         OffHeapLruNode.setNext(previous, address);
+      }
+      sizes[PROBATION] += size;
+   }
+
+   private void link(int queue, long address, long size) {
+      long tail = tails[queue];
+      // The memory may be uninitialized, so the queue has to be written along with the pointer
+      OffHeapLruNode.setPreviousAndQueue(address, tail, queue);
+      OffHeapLruNode.setNext(address, 0);
+      if (tail == 0) {
+         heads[queue] = address;
+      } else {
+         OffHeapLruNode.setNext(tail, address);
+      }
+      tails[queue] = address;
+      sizes[queue] += size;
+   }
+
+   private void unlink(int queue, long address, long size) {
+      long previous = OffHeapLruNode.getPrevious(address);
+      long next = OffHeapLruNode.getNext(address);
+      if (previous == 0) {
+         heads[queue] = next;
+      } else {
+         OffHeapLruNode.setNext(previous, next);
+      }
+      if (next == 0) {
+         tails[queue] = previous;
+      } else {
+         OffHeapLruNode.setPrevious(next, previous);
+      }
+      sizes[queue] -= size;
+      if (address == candidate) {
+         candidate = next;
+      }
+      if (address == decisionCandidate || address == decisionVictim) {
+         decisionCandidate = 0;
+         decisionVictim = 0;
+      }
+   }
+
+   long queueSize(int queue) {
+      return sizes[queue];
+   }
+
+   long entryCount() {
+      return entryCount;
+   }
+}
@@ -0,0 +1,125 @@
+package org.infinispan.container.offheap;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.WrappedBytes;
+
+/**
+ * Compresses the values stored off-heap with deflate. A compressed value is made of the length of the uncompressed
+ * value (int) followed by the deflated bytes.
+ * <p>
+ * When a dictionary is used, it is made of samples of the first values that are compressed and it can't change
+ * afterwards, as it is needed to decompress the values. The values compressed before the dictionary is complete are
+ * compressed without it, which the inflater detects by itself.
+ *
+ * @since 15.0
+ */
+class OffHeapValueCompressor {
+   static final int HEADER_LENGTH = 4;
+   // Deflate can't make use of a dictionary larger than its window
+   static final int DICTIONARY_SIZE = 32 * 1024;
+   // Take the beginning of many values instead of a few values whole, so that the dictionary covers more of them
+   private static final int MAX_SAMPLE_SIZE = 1024;
+
+   private final int threshold;
+   private final ThreadLocal<Deflater> deflaters = ThreadLocal.withInitial(Deflater::new);
+   private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+
+   private volatile byte[] dictionary;
+   // The samples of the dictionary, null once the dictionary is complete or if there is no dictionary
+   private ByteArrayOutputStream samples;
+
+   /**
+    * @param threshold the minimum size of the values to compress
+    * @param useDictionary whether the values are compressed with a dictionary trained from the first values
+    */
+   OffHeapValueCompressor(int threshold, boolean useDictionary) {
+      // The compressed value must have room for the header
+      this.threshold = Math.max(threshold, HEADER_LENGTH + 1);
+      this.samples = useDictionary ? new ByteArrayOutputStream(DICTIONARY_SIZE) : null;
+   }
+
+   /**
+    * Compresses the given value if it is large enough and it becomes smaller once compressed.
+    * @param value the value to compress
+    * @return the compressed value or null if the value should be stored as is
+    */
+   byte[] compress(WrappedBytes value) {
+      int length = value.getLength();
+      if (length < threshold) {
+         return null;
+      }
+      byte[] dictionary = dictionary(value);
+      Deflater deflater = deflaters.get();
+      deflater.reset();
+      if (dictionary != null) {
+         deflater.setDictionary(dictionary);
+      }
+      deflater.setInput(value.getBytes(), value.backArrayOffset(), length);
+      deflater.finish();
+
+      byte[] compressed = new byte[length];
+      Bits.putInt(compressed, 0, length);
+      int compressedLength = HEADER_LENGTH;
+      while (!deflater.finished()) {
+         if (compressedLength == compressed.length) {
+            // Not any smaller than the value
+            return null;
+         }
+         compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+      }
+      return Arrays.copyOf(compressed, compressedLength);
+   }
+
+   /**
+    * @param compressed a value returned by {@link #compress(WrappedBytes)}
+    * @return the uncompressed bytes of the value
+    */
+   byte[] decompress(byte[] compressed) {
+      int length = Bits.getInt(compressed, 0);
+      byte[] value = new byte[length];
+      Inflater inflater = inflaters.get();
+      inflater.reset();
+      inflater.setInput(compressed, HEADER_LENGTH, compressed.length - HEADER_LENGTH);
+      try {
+         int offset = 0;
+         while (offset < length) {
+            int read = inflater.inflate(value, offset, length - offset);
+            if (read == 0) {
+               if (inflater.needsDictionary() && dictionary != null) {
+                  inflater.setDictionary(dictionary);
+               } else {
+                  throw new CacheException("Compressed value is truncated, expected " + length + " bytes but got " + offset);
+               }
+            }
+            offset += read;
+         }
+      } catch (DataFormatException e) {
+         throw new CacheException(e);
+      }
+      return value;
+   }
+
+   private byte[] dictionary(WrappedBytes value) {
+      byte[] dictionary = this.dictionary;
+      if (dictionary != null || samples == null) {
+         return dictionary;
+      }
+      synchronized (this) {
+         if (samples != null) {
+            int sampleSize = Math.min(Math.min(value.getLength(), MAX_SAMPLE_SIZE), DICTIONARY_SIZE - samples.size());
+            samples.write(value.getBytes(), value.backArrayOffset(), sampleSize);
+            if (samples.size() == DICTIONARY_SIZE) {
+               this.dictionary = samples.toByteArray();
+               samples = null;
+            }
+         }
+         return this.dictionary;
+      }
+   }
+}
@@ -0,0 +1,312 @@
+package org.infinispan.container.offheap;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import sun.misc.Unsafe;
+
+/**
+ * Memory allocator that carves allocations out of size-classed slabs instead of asking the operating system for
+ * every entry.
+ * <p>
+ * Requests up to {@link #MAX_POOLED_SIZE} bytes are rounded up to a size class. Every size class owns a list of free
+ * blocks which is linked through the first 8 bytes of each free block, so that no on-heap bookkeeping is needed per
+ * block. Each thread keeps a small cache of free blocks per size class which is refilled from, and drained to, the
+ * shared free list in batches so the shared lock is only acquired once every {@link #THREAD_CACHE_BATCH} operations.
+ * Larger requests are allocated directly like {@link UnpooledOffHeapMemoryAllocator} does.
+ * <p>
+ * Slabs are never returned to the operating system while the cache is running, they are released when the allocator
+ * is stopped. Blocks held in the cache of a thread that terminates are reported as free but are not reused.
+ * @since 15.0
+ */
+@Scope(Scopes.NAMED_CACHE)
+public class PooledOffHeapMemoryAllocator implements OffHeapMemoryAllocator {
+   private static final Log log = LogFactory.getLog(PooledOffHeapMemoryAllocator.class, Log.class);
+   private static final OffHeapMemory MEMORY = OffHeapMemory.INSTANCE;
+   private static final Unsafe UNSAFE = UnsafeHolder.UNSAFE;
+
+   // Sizes up to this limit use a size class every 16 bytes
+   private static final int SMALL_LIMIT = 512;
+   private static final int SMALL_CLASSES = SMALL_LIMIT >>> 4;
+   // Above SMALL_LIMIT every power of two is split in 4 size classes
+   static final int MAX_POOLED_SIZE = 16 * 1024;
+   static final int SIZE_CLASSES = sizeClass(MAX_POOLED_SIZE) + 1;
+   private static final int MIN_SLAB_SIZE = 64 * 1024;
+   private static final int MIN_BLOCKS_PER_SLAB = 64;
+   private static final int THREAD_CACHE_SIZE = 64;
+   private static final int THREAD_CACHE_BATCH = THREAD_CACHE_SIZE / 2;
+
+   private final SizeClass[] sizeClasses = new SizeClass[SIZE_CLASSES];
+   private final Queue<Long> slabs = new ConcurrentLinkedQueue<>();
+   private final ThreadLocal<ThreadCache> threadCache = ThreadLocal.withInitial(ThreadCache::new);
+   // Incremented every time the slabs are released, so stale thread caches can be discarded
+   private volatile int generation;
+
+   // Bytes of the blocks handed out from the slabs
+   private final LongAdder pooledAllocated = new LongAdder();
+   // Bytes that were requested for the blocks handed out from the slabs
+   private final LongAdder pooledRequested = new LongAdder();
+   // Bytes reserved by the slabs themselves
+   private final LongAdder reserved = new LongAdder();
+   // Bytes allocated directly for requests larger than MAX_POOLED_SIZE
+   private final LongAdder directAllocated = new LongAdder();
+
+   public PooledOffHeapMemoryAllocator() {
+      for (int i = 0; i < SIZE_CLASSES; ++i) {
+         sizeClasses[i] = new SizeClass(blockSize(i));
+      }
+   }
+
+   @Override
+   public long allocate(long memoryLength) {
+      if (memoryLength > MAX_POOLED_SIZE) {
+         return allocateDirect(memoryLength);
+      }
+      int sizeClassIndex = sizeClass(memoryLength);
+      SizeClass sizeClass = sizeClasses[sizeClassIndex];
+      ThreadCache cache = localCache();
+      long address = cache.poll(sizeClassIndex);
+      if (address == 0) {
+         address = refill(cache, sizeClassIndex, sizeClass);
+      }
+      MEMORY.trackBlock(address, sizeClass.blockSize);
+      pooledAllocated.add(sizeClass.blockSize);
+      pooledRequested.add(memoryLength);
+      if (log.isTraceEnabled()) {
+         log.tracef("Allocated pooled off-heap memory at 0x%016x with %d bytes for %d requested. Total size: %d",
+               address, sizeClass.blockSize, memoryLength, getAllocatedAmount());
+      }
+      return address;
+   }
+
+   @Override
+   public void deallocate(long memoryAddress, long size) {
+      if (size > MAX_POOLED_SIZE) {
+         deallocateDirect(memoryAddress, size);
+         return;
+      }
+      int sizeClassIndex = sizeClass(size);
+      SizeClass sizeClass = sizeClasses[sizeClassIndex];
+      MEMORY.untrackBlock(memoryAddress);
+      pooledAllocated.add(-sizeClass.blockSize);
+      pooledRequested.add(-size);
+      if (log.isTraceEnabled()) {
+         log.tracef("Deallocating pooled off-heap memory at 0x%016x with %d bytes. Total size: %d", memoryAddress,
+               sizeClass.blockSize, getAllocatedAmount());
+      }
+      ThreadCache cache = localCache();
+      if (!cache.offer(sizeClassIndex, memoryAddress)) {
+         drain(cache, sizeClassIndex, sizeClass);
+         cache.offer(sizeClassIndex, memoryAddress);
+      }
+   }
+
+   @Override
+   public long getAllocatedAmount() {
+      return pooledAllocated.sum() + directAllocated.sum();
+   }
+
+   @Override
+   public long getFreeAmount() {
+      return reserved.sum() - pooledAllocated.sum();
+   }
+
+   @Override
+   public long getFragmentedAmount() {
+      return pooledAllocated.sum() - pooledRequested.sum();
+   }
+
+   /**
+    * Releases all the slabs back to the operating system. All the memory handed out by this allocator must have been
+    * deallocated before this method is invoked.
+    */
+   @Stop
+   public synchronized void stop() {
+      generation++;
+      for (SizeClass sizeClass : sizeClasses) {
+         synchronized (sizeClass) {
+            sizeClass.freeHead = 0;
+         }
+      }
+      Long slab;
+      while ((slab = slabs.poll()) != null) {
+         MEMORY.freeRegion(slab);
+      }
+      reserved.reset();
+      pooledAllocated.reset();
+      pooledRequested.reset();
+   }
+
+   private long allocateDirect(long memoryLength) {
+      long estimatedMemoryLength = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(memoryLength);
+      long memoryLocation = MEMORY.allocate(memoryLength);
+      directAllocated.add(estimatedMemoryLength);
+      if (log.isTraceEnabled()) {
+         log.tracef("Allocated off-heap memory at 0x%016x with %d bytes. Total size: %d", memoryLocation,
+               estimatedMemoryLength, getAllocatedAmount());
+      }
+      return memoryLocation;
+   }
+
+   private void deallocateDirect(long memoryAddress, long size) {
+      long estimatedMemoryLength = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(size);
+      directAllocated.add(-estimatedMemoryLength);
+      if (log.isTraceEnabled()) {
+         log.tracef("Deallocating off-heap memory at 0x%016x with %d bytes. Total size: %d", memoryAddress,
+               estimatedMemoryLength, getAllocatedAmount());
+      }
+      MEMORY.free(memoryAddress);
+   }
+
+   private ThreadCache localCache() {
+      ThreadCache cache = threadCache.get();
+      int currentGeneration = generation;
+      if (cache.generation != currentGeneration) {
+         // The slabs these blocks belonged to were released
+         cache.clear(currentGeneration);
+      }
+      return cache;
+   }
+
+   /**
+    * Moves a batch of blocks from the shared free list to the thread cache, carving a new slab when the free list is
+    * empty, and returns one of the blocks to the caller.
+    */
+   private long refill(ThreadCache cache, int sizeClassIndex, SizeClass sizeClass) {
+      synchronized (sizeClass) {
+         if (sizeClass.freeHead == 0) {
+            carveSlab(sizeClass);
+         }
+         long address = sizeClass.pop();
+         for (int i = 1; i < THREAD_CACHE_BATCH && sizeClass.freeHead != 0; ++i) {
+            cache.offer(sizeClassIndex, sizeClass.pop());
+         }
+         return address;
+      }
+   }
+
+   /**
+    * Moves a batch of blocks from the thread cache back to the shared free list.
+    */
+   private void drain(ThreadCache cache, int sizeClassIndex, SizeClass sizeClass) {
+      synchronized (sizeClass) {
+         for (int i = 0; i < THREAD_CACHE_BATCH; ++i) {
+            long address = cache.poll(sizeClassIndex);
+            if (address == 0) {
+               break;
+            }
+            sizeClass.push(address);
+         }
+      }
+   }
+
+   // Must be invoked while holding the lock on sizeClass
+   private void carveSlab(SizeClass sizeClass) {
+      int blockSize = sizeClass.blockSize;
+      long slabSize = Math.max(MIN_SLAB_SIZE, (long) blockSize * MIN_BLOCKS_PER_SLAB);
+      long blockCount = slabSize / blockSize;
+      long slab = MEMORY.allocateRegion(slabSize);
+      slabs.add(slab);
+      reserved.add(blockCount * blockSize);
+      // Link the blocks in reverse order so that they are handed out in address order
+      for (long i = blockCount - 1; i >= 0; --i) {
+         sizeClass.push(slab + i * blockSize);
+      }
+      if (log.isTraceEnabled()) {
+         log.tracef("Allocated slab at 0x%016x with %d blocks of %d bytes", slab, blockCount, blockSize);
+      }
+   }
+
+   /**
+    * Returns the index of the size class that can hold the given amount of bytes.
+    * @param size the requested size, must be between 1 and {@link #MAX_POOLED_SIZE}
+    * @return the size class index
+    */
+   static int sizeClass(long size) {
+      if (size <= SMALL_LIMIT) {
+         return Math.max(0, (int) ((size + 15) >>> 4) - 1);
+      }
+      int log2 = 63 - Long.numberOfLeadingZeros(size - 1);
+      int subClass = (int) ((size - 1) >>> (log2 - 2)) & 3;
+      return SMALL_CLASSES + (log2 - 9) * 4 + subClass;
+   }
+
+   /**
+    * Returns the size in bytes of the blocks belonging to the given size class.
+    * @param sizeClass the size class index
+    * @return the block size
+    */
+   static int blockSize(int sizeClass) {
+      if (sizeClass < SMALL_CLASSES) {
+         return (sizeClass + 1) << 4;
+      }
+      int largeClass = sizeClass - SMALL_CLASSES;
+      int log2 = 9 + largeClass / 4;
+      return (5 + largeClass % 4) << (log2 - 2);
+   }
+
+   private static final class SizeClass {
+      private final int blockSize;
+      // Guarded by this
+      private long freeHead;
+
+      private SizeClass(int blockSize) {
+         this.blockSize = blockSize;
+      }
+
+      private void push(long address) {
+         // Free blocks are not tracked, so access the memory directly
+         UNSAFE.putLong(address, freeHead);
+         freeHead = address;
+      }
+
+      private long pop() {
+         long address = freeHead;
+         freeHead = UNSAFE.getLong(address);
+         return address;
+      }
+   }
+
+   private static final class ThreadCache {
+      private final long[][] blocks = new long[SIZE_CLASSES][];
+      private final int[] counts = new int[SIZE_CLASSES];
+      private int generation;
+
+      private long poll(int sizeClass) {
+         int count = counts[sizeClass];
+         if (count == 0) {
+            return 0;
+         }
+         counts[sizeClass] = --count;
+         return blocks[sizeClass][count];
+      }
+
+      private boolean offer(int sizeClass, long address) {
+         long[] classBlocks = blocks[sizeClass];
+         if (classBlocks == null) {
+            classBlocks = blocks[sizeClass] = new long[THREAD_CACHE_SIZE];
+         }
+         int count = counts[sizeClass];
+         if (count == THREAD_CACHE_SIZE) {
+            return false;
+         }
+         classBlocks[count] = address;
+         counts[sizeClass] = count + 1;
+         return true;
+      }
+
+      private void clear(int generation) {
+         this.generation = generation;
+         for (int i = 0; i < SIZE_CLASSES; ++i) {
+            counts[i] = 0;
+         }
+      }
+   }
+}
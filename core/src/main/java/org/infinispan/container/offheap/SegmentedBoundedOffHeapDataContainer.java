@@ -33,6 +33,10 @@
 import org.infinispan.util.logging.LogFactory;
 
 /**
+ * Off-heap data container that evicts entries to stay within a maximum count or memory size.
+ * <p>
+ * Entries are ordered by a Window TinyLFU policy, see {@link OffHeapTinyLfuPolicy}, which links them through the
+ * 16 bytes reserved at the start of every entry when eviction is enabled.
  * @author wburns
  * @since 9.4
  */
@@ -52,6 +56,8 @@ public class SegmentedBoundedOffHeapDataContainer extends AbstractDelegatingInte
    @Inject protected DataOperationOrderer orderer;
    @Inject @ComponentName(KnownComponentNames.NON_BLOCKING_EXECUTOR)
    Executor nonBlockingExecutor;
+   @Inject @ComponentName(KnownComponentNames.BLOCKING_EXECUTOR)
+   Executor blockingExecutor;
 
    protected final long maxSize;
    protected final Lock lruLock;
@@ -60,8 +66,8 @@ public class SegmentedBoundedOffHeapDataContainer extends AbstractDelegatingInte
 
    // Must be updated inside lruLock#writeLock - but can be read outside of lock
    protected volatile long currentSize;
-   protected long firstAddress;
-   protected long lastAddress;
+   // Must only be used while holding lruLock
+   private final OffHeapTinyLfuPolicy policy;
 
    protected DefaultSegmentedDataContainer dataContainer;
 
@@ -73,7 +79,9 @@ public SegmentedBoundedOffHeapDataContainer(int numSegments, long maxSize, Evict
       this.useCount = type == EvictionType.COUNT;
       OffHeapMapSupplier offHeapMapSupplier = new OffHeapMapSupplier();
       this.lruLock = new ReentrantLock();
-      firstAddress = 0;
+      // The entry factory is injected later, so it must only be read when the policy is used
+      this.policy = new OffHeapTinyLfuPolicy(address -> offHeapEntryFactory.getHashCode(address), this::getSize,
+            maxSize);
 
       dataContainer = new DefaultSegmentedDataContainer<>(offHeapMapSupplier, numSegments);
    }
@@ -145,19 +153,19 @@ protected OffHeapConcurrentMap getMapThatContainsKey(byte[] key) {
    }
 
    /**
-    * This method repeatedly removes the head of the LRU list until there the current size is less than or equal to
-    * `maxSize`.
+    * This method repeatedly removes the victim chosen by the eviction policy until there the current size is less
+    * than or equal to `maxSize`.
     * <p>
-    * We need to hold the LRU lock in order to check the current size and to read the head entry,
-    * and then we need to hold the head entry's write lock in order to remove it.
+    * We need to hold the LRU lock in order to check the current size and to select the victim entry,
+    * and then we need to hold the victim entry's write lock in order to remove it.
     * The problem is that the correct acquisition order is entry write lock first, LRU lock second,
     * and we need to hold the LRU lock so that we know which entry write lock to acquire.
     * <p>
     * To work around it, we first try to acquire the entry write lock without blocking.
     * If that fails, we release the LRU lock and we acquire the locks in the correct order, hoping that
-    * the LRU head doesn't change while we wait. Because the entry write locks are striped, we actually
-    * tolerate a LRU head change as long as the new head entry is in the same lock stripe.
-    * If the LRU list head changes, we release both locks and try again.
+    * the victim doesn't change while we wait. Because the entry write locks are striped, we actually
+    * tolerate a victim change as long as the new victim entry is in the same lock stripe.
+    * If the victim changes, we release both locks and try again.
     */
    private void ensureSize() {
       // Try reading outside of lock first to allow for less locking for insert that doesn't require eviction
@@ -175,19 +183,20 @@ private void ensureSize() {
             if (currentSize <= maxSize) {
                break;
             }
+            long victimAddress = policy.selectVictim();
             // We shouldn't be able to get into this state
-            assert firstAddress > 0;
+            assert victimAddress > 0;
             // We read the key before hashCode due to how off-heap bytes are written (key requires reading metadata
             // which comes before hashCode, which should keep hashCode bytes in memory register in most cases)
-            byte[] key = offHeapEntryFactory.getKey(firstAddress);
+            byte[] key = offHeapEntryFactory.getKey(victimAddress);
 
             map = getMapThatContainsKey(key);
             if (map != null) {
-               int hashCode = offHeapEntryFactory.getHashCode(firstAddress);
+               int hashCode = offHeapEntryFactory.getHashCode(victimAddress);
                // This is always non null
                stampedLock = map.getStampedLock(hashCode);
                if ((writeStamp = stampedLock.tryWriteLock()) != 0) {
-                  addressToRemove = firstAddress;
+                  addressToRemove = victimAddress;
                } else {
                   addressToRemove = 0;
                }
@@ -211,15 +220,16 @@ private void ensureSize() {
                   if (currentSize <= maxSize) {
                      break;
                   }
-                  // Now that we have locks we have to verify the first address is protected by the same lock still
-                  byte[] key = offHeapEntryFactory.getKey(firstAddress);
+                  // Now that we have locks we have to verify the victim is protected by the same lock still
+                  long victimAddress = policy.selectVictim();
+                  byte[] key = offHeapEntryFactory.getKey(victimAddress);
 
                   OffHeapConcurrentMap protectedMap = getMapThatContainsKey(key);
                   if (protectedMap == map) {
-                     int hashCode = offHeapEntryFactory.getHashCode(firstAddress);
+                     int hashCode = offHeapEntryFactory.getHashCode(victimAddress);
                      StampedLock innerLock = map.getStampedLock(hashCode);
                      if (innerLock == stampedLock) {
-                        addressToRemove = firstAddress;
+                        addressToRemove = victimAddress;
                      }
                   }
                } finally {
@@ -255,7 +265,7 @@ private class OffHeapMapSupplier implements Supplier<PeekableTouchableMap<Wrappe
             WrappedBytes>> {
       @Override
       public PeekableTouchableMap<WrappedBytes, WrappedBytes> get() {
-         return new OffHeapConcurrentMap(allocator, offHeapEntryFactory, offHeapListener);
+         return new OffHeapConcurrentMap(allocator, offHeapEntryFactory, offHeapListener, blockingExecutor);
       }
    }
 
@@ -297,7 +307,7 @@ public void entryCreated(long newAddress) {
          lruLock.lock();
          try {
             currentSize += newSize;
-            addEntryAddressToEnd(newAddress);
+            policy.entryCreated(newAddress, newSize);
          } finally {
             lruLock.unlock();
          }
@@ -310,7 +320,7 @@ public void entryRemoved(long removedAddress) {
          try {
             // Current size has to be updated in the lock
             currentSize -=  removedSize;
-            removeNode(removedAddress);
+            policy.entryRemoved(removedAddress, removedSize);
          } finally {
             lruLock.unlock();
          }
@@ -322,8 +332,7 @@ public void entryReplaced(long newAddress, long oldAddress) {
          long newSize = getSize(newAddress);
          lruLock.lock();
          try {
-            removeNode(oldAddress);
-            addEntryAddressToEnd(newAddress);
+            policy.entryReplaced(newAddress, newSize, oldAddress, oldSize);
 
             currentSize += newSize;
             currentSize -= oldSize;
@@ -337,114 +346,13 @@ public void entryRetrieved(long entryAddress) {
          lruLock.lock();
          try {
             if (log.isTraceEnabled()) {
-               log.tracef("Moving entry 0x%016x to the end of the LRU list", entryAddress);
+               log.tracef("Recording access to entry 0x%016x", entryAddress);
             }
-            moveToEnd(entryAddress);
+            policy.entryRetrieved(entryAddress);
          } finally {
             lruLock.unlock();
          }
       }
-
-      /**
-       * Method to be invoked when adding a new entry address to the end of the lru nodes.  This occurs for newly created
-       * entries.
-       * This method should only be invoked after acquiring the lruLock
-       *
-       * @param entryAddress the new entry address pointer *NOT* the lru node
-       */
-      private void addEntryAddressToEnd(long entryAddress) {
-         if (log.isTraceEnabled()) {
-            log.tracef("Adding entry 0x%016x to the end of the LRU list", entryAddress);
-         }
-         // This means it is the first entry
-         if (lastAddress == 0) {
-            firstAddress = entryAddress;
-            lastAddress = entryAddress;
-            // Have to make sure the memory is cleared so we don't use unitialized values
-            OffHeapLruNode.setPrevious(entryAddress, 0);
-         } else {
-            // Writes back pointer to the old lastAddress
-            OffHeapLruNode.setPrevious(entryAddress, lastAddress);
-            // Write the forward pointer in old lastAddress to point to us
-            OffHeapLruNode.setNext(lastAddress, entryAddress);
-            // Finally make us the last address
-            lastAddress = entryAddress;
-         }
-         // Since we are last there is no pointer after us
-         OffHeapLruNode.setNext(entryAddress, 0);
-      }
-
-      /**
-       * Removes the address node and updates previous and next lru node pointers properly
-       * The {@link BoundedOffHeapDataContainer#lruLock} <b>must</b> be held when invoking this
-       * @param address
-       */
-      private void removeNode(long address) {
-         boolean middleNode = true;
-         if (address == lastAddress) {
-            if (log.isTraceEnabled()) {
-               log.tracef("Removed entry 0x%016x from the end of the LRU list", address);
-            }
-            long previousLRUNode = OffHeapLruNode.getPrevious(address);
-            if (previousLRUNode != 0) {
-               OffHeapLruNode.setNext(previousLRUNode, 0);
-            }
-            lastAddress = previousLRUNode;
-            middleNode = false;
-         }
-         if (address == firstAddress) {
-            if (log.isTraceEnabled()) {
-               log.tracef("Removed entry 0x%016x from the beginning of the LRU list", address);
-            }
-            long nextLRUNode = OffHeapLruNode.getNext(address);
-            if (nextLRUNode != 0) {
-               OffHeapLruNode.setPrevious(nextLRUNode, 0);
-            }
-            firstAddress = nextLRUNode;
-            middleNode = false;
-         }
-         if (middleNode) {
-            if (log.isTraceEnabled()) {
-               log.tracef("Removed entry 0x%016x from the middle of the LRU list", address);
-            }
-            // We are a middle pointer so both of these have to be non zero
-            long previousLRUNode = OffHeapLruNode.getPrevious(address);
-            long nextLRUNode = OffHeapLruNode.getNext(address);
-            assert previousLRUNode != 0;
-            assert nextLRUNode != 0;
-            OffHeapLruNode.setNext(previousLRUNode, nextLRUNode);
-            OffHeapLruNode.setPrevious(nextLRUNode, previousLRUNode);
-         }
-      }
-
-      /**
-       * Method to be invoked when moving an existing lru node to the end.  This occurs when the entry is accessed for this
-       * node.
-       * This method should only be invoked after acquiring the lruLock.
-       *
-       * @param lruNode the node to move to the end
-       */
-      private void moveToEnd(long lruNode) {
-         if (lruNode != lastAddress) {
-            long nextLruNode = OffHeapLruNode.getNext(lruNode);
-            assert nextLruNode != 0;
-            if (lruNode == firstAddress) {
-               OffHeapLruNode.setPrevious(nextLruNode, 0);
-               firstAddress = nextLruNode;
-            } else {
-               long prevLruNode = OffHeapLruNode.getPrevious(lruNode);
-               assert prevLruNode != 0;
-               OffHeapLruNode.setNext(prevLruNode, nextLruNode);
-               OffHeapLruNode.setPrevious(nextLruNode, prevLruNode);
-            }
-            // Link the previous last node to our new last node
-            OffHeapLruNode.setNext(lastAddress, lruNode);
-            // Sets the previous node of our new tail node to the previous tail node
-            OffHeapLruNode.setPrevious(lruNode, lastAddress);
-            OffHeapLruNode.setNext(lruNode, 0);
-            lastAddress = lruNode;
-         }
-      }
    }
 
    public long getSize(long address) {
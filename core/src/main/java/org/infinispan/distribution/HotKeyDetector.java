@@ -0,0 +1,35 @@
+package org.infinispan.distribution;
+
+import java.util.Map;
+
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+
+/**
+ * Estimates which keys are read the most on this node, so that skewed workloads can be diagnosed and the reads of the
+ * hottest keys can be served from L1 instead of always hitting their owners.
+ * <p>
+ * Reads are sampled, so the detector only finds keys that take a noticeable share of the reads of the node.
+ *
+ * @since 15.0
+ */
+@Scope(Scopes.NAMED_CACHE)
+public interface HotKeyDetector {
+
+   /**
+    * Records a read of the given key, which may be ignored if it isn't sampled.
+    * @param key the key that was read
+    */
+   void recordRead(Object key);
+
+   /**
+    * @param key the key to check
+    * @return whether the key is currently one of the hot keys
+    */
+   boolean isHot(Object key);
+
+   /**
+    * @return the current hot keys and the estimated number of sampled reads of each of them
+    */
+   Map<Object, Integer> hotKeys();
+}
@@ -0,0 +1,142 @@
+package org.infinispan.distribution.impl;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.StatisticsConfiguration;
+import org.infinispan.container.impl.FrequencySketch;
+import org.infinispan.distribution.HotKeyDetector;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+
+import net.jcip.annotations.GuardedBy;
+
+/**
+ * Hot key detector that samples one out of every {@link #SAMPLE_RATE} reads into a {@link FrequencySketch}. A key is
+ * hot once its estimated frequency reaches {@link #HOT_FREQUENCY}, which means it took roughly one out of every
+ * thousand reads recently, and it stops being hot once the decay of the sketch brings it back below.
+ * <p>
+ * Reads are only recorded when statistics are enabled or when L1 only caches the hot keys. A sample is dropped if
+ * another thread is recording one, so that recording never blocks a read.
+ *
+ * @since 15.0
+ */
+@Scope(Scopes.NAMED_CACHE)
+@MBean(objectName = "HotKeyDetector", description = "Estimates which keys are read the most on this node")
+public class HotKeyDetectorImpl implements HotKeyDetector {
+   static final int SAMPLE_RATE = 16;
+   static final int HOT_FREQUENCY = 8;
+   // Also the number of distinct keys the sketch is sized for
+   static final int MAX_HOT_KEYS = 64;
+   private static final int SKETCH_CAPACITY = 1024;
+
+   @Inject Configuration configuration;
+
+   private final Lock sketchLock = new ReentrantLock();
+   @GuardedBy("sketchLock")
+   private final FrequencySketch sketch = new FrequencySketch(SKETCH_CAPACITY);
+   @GuardedBy("sketchLock")
+   private int samplesSincePrune;
+   private final Map<Object, Integer> hotKeys = new ConcurrentHashMap<>();
+
+   private volatile boolean enabled;
+
+   @Start
+   public void start() {
+      enabled = configuration.statistics().enabled() || configuration.clustering().l1().hotKeysOnly();
+      configuration.statistics().attributes().attribute(StatisticsConfiguration.ENABLED)
+            .addListener((attribute, ignored) -> enabled = attribute.get() || configuration.clustering().l1().hotKeysOnly());
+   }
+
+   @Override
+   public void recordRead(Object key) {
+      if (!enabled || ThreadLocalRandom.current().nextInt(SAMPLE_RATE) != 0 || !sketchLock.tryLock()) {
+         return;
+      }
+      try {
+         int hashCode = key.hashCode();
+         sketch.increment(hashCode);
+         int frequency = sketch.frequency(hashCode);
+         if (frequency >= HOT_FREQUENCY) {
+            if (hotKeys.size() < MAX_HOT_KEYS || hotKeys.containsKey(key)) {
+               hotKeys.put(key, frequency);
+            } else {
+               replaceColdestKey(key, frequency);
+            }
+         }
+         if (++samplesSincePrune >= SKETCH_CAPACITY) {
+            samplesSincePrune = 0;
+            pruneCooledKeys();
+         }
+      } finally {
+         sketchLock.unlock();
+      }
+   }
+
+   @GuardedBy("sketchLock")
+   private void replaceColdestKey(Object key, int frequency) {
+      hotKeys.entrySet().stream()
+            .min(Map.Entry.comparingByValue())
+            .filter(coldest -> coldest.getValue() < frequency)
+            .ifPresent(coldest -> {
+               hotKeys.remove(coldest.getKey());
+               hotKeys.put(key, frequency);
+            });
+   }
+
+   @GuardedBy("sketchLock")
+   private void pruneCooledKeys() {
+      // Keys that are not read anymore are never sampled again, so they are checked against the decayed sketch
+      hotKeys.replaceAll((key, frequency) -> sketch.frequency(key.hashCode()));
+      hotKeys.values().removeIf(frequency -> frequency < HOT_FREQUENCY);
+   }
+
+   @Override
+   public boolean isHot(Object key) {
+      return hotKeys.containsKey(key);
+   }
+
+   @Override
+   public Map<Object, Integer> hotKeys() {
+      return Map.copyOf(hotKeys);
+   }
+
+   @ManagedAttribute(
+         description = "The keys read the most on this node, with the estimated number of sampled reads of each",
+         displayName = "Hot keys"
+   )
+   public String getHotKeys() {
+      return hotKeys.entrySet().stream()
+            .sorted(Map.Entry.<Object, Integer>comparingByValue(Comparator.reverseOrder()))
+            .map(e -> Util.toStr(e.getKey()) + "=" + e.getValue())
+            .collect(Collectors.joining(", ", "[", "]"));
+   }
+
+   @ManagedAttribute(
+         description = "Number of keys currently considered hot on this node",
+         displayName = "Number of hot keys"
+   )
+   public int getNumberOfHotKeys() {
+      return hotKeys.size();
+   }
+
+   @ManagedOperation(
+         description = "Forgets the hot keys found so far",
+         displayName = "Reset hot keys"
+   )
+   public void resetHotKeys() {
+      hotKeys.clear();
+   }
+}
@@ -3,7 +3,6 @@
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
@@ -49,8 +48,8 @@ public class L1ManagerImpl implements L1Manager, RemoteValueRetrievedListener {
 
    private int threshold;
    private long l1Lifespan;
-   // TODO replace this with a custom, expirable collection
-   private final ConcurrentMap<Object, ConcurrentMap<Address, Long>> requestors;
+   // The requestors of a key are only modified while holding the lock of the key in the map
+   private final ConcurrentMap<Object, L1Requestors> requestors;
    private final ConcurrentMap<Object, L1WriteSynchronizer> synchronizers;
    private ScheduledFuture<?> scheduledRequestorsCleanupTask;
 
@@ -81,38 +80,16 @@ public void stop() {
 
    private void cleanUpRequestors() {
       long expiryTime = timeService.wallClockTime() - l1Lifespan;
-      for (Map.Entry<Object, ConcurrentMap<Address, Long>> entry: requestors.entrySet()) {
-         Object key = entry.getKey();
-         ConcurrentMap<Address, Long> reqs = entry.getValue();
-         prune(reqs, expiryTime);
-         if (reqs.isEmpty()) requestors.remove(key);
-      }
-   }
-
-   private void prune(ConcurrentMap<Address, Long> reqs, long expiryTime) {
-      for (Map.Entry<Address, Long> req: reqs.entrySet()) {
-         if (req.getValue() < expiryTime) reqs.remove(req.getKey());
+      for (Object key : requestors.keySet()) {
+         requestors.computeIfPresent(key, (k, reqs) -> reqs.prune(expiryTime));
       }
    }
 
    @Override
    public void addRequestor(Object key, Address origin) {
-      //we do a plain get first as that's likely to be enough
-      ConcurrentMap<Address, Long> as = requestors.get(key);
       log.tracef("Registering requestor %s for key '%s'", origin, key);
       long now = timeService.wallClockTime();
-      if (as == null) {
-         // only if needed we create a new HashSet, but make sure we don't replace another one being created
-         as = new ConcurrentHashMap<>();
-         as.put(origin, now);
-         ConcurrentMap<Address, Long> previousAs = requestors.putIfAbsent(key, as);
-         if (previousAs != null) {
-            //another thread added it already, so use his copy and discard our proposed instance
-            previousAs.put(origin, now);
-         }
-      } else {
-         as.put(origin, now);
-      }
+      requestors.compute(key, (k, reqs) -> reqs == null ? new L1Requestors(origin, now) : reqs.add(origin, now));
    }
 
    @Override
@@ -149,11 +126,10 @@ private Collection<Address> buildInvalidationAddressList(Collection<Object> keys
       Collection<Address> addresses = new HashSet<>(2);
       boolean originIsInRequestorsList = false;
       for (Object key : keys) {
-         ConcurrentMap<Address, Long> as = requestors.remove(key);
-         if (as != null) {
-            Set<Address> requestorAddresses = as.keySet();
-            addresses.addAll(requestorAddresses);
-            if (assumeOriginKeptEntryInL1 && origin != null && requestorAddresses.contains(origin)) {
+         L1Requestors reqs = requestors.remove(key);
+         if (reqs != null) {
+            reqs.addTo(addresses);
+            if (assumeOriginKeptEntryInL1 && origin != null && reqs.contains(origin)) {
                originIsInRequestorsList = true;
                // re-add the origin as a requestor since the key will still be in the origin's L1 cache
                addRequestor(key, origin);
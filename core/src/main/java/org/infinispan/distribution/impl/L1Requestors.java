@@ -0,0 +1,94 @@
+package org.infinispan.distribution.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.infinispan.remoting.transport.Address;
+
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * The nodes that requested a key and may hold it in their L1 cache, along with the time of their last request.
+ * <p>
+ * Most keys are only requested by a few nodes, so the requestors are kept in two parallel arrays instead of a map.
+ * Instances must only be modified while holding the lock of their key in the requestors map, that is from within
+ * {@code compute} and its variants, and must only be read after being removed from the map.
+ *
+ * @since 15.0
+ */
+@NotThreadSafe
+final class L1Requestors {
+   private Address[] addresses;
+   private long[] requestTimes;
+   private int size;
+
+   L1Requestors(Address origin, long now) {
+      addresses = new Address[]{origin};
+      requestTimes = new long[]{now};
+      size = 1;
+   }
+
+   /**
+    * Registers a request from the given node, updating its request time if it is already present.
+    * @return this instance
+    */
+   L1Requestors add(Address origin, long now) {
+      for (int i = 0; i < size; ++i) {
+         if (addresses[i].equals(origin)) {
+            requestTimes[i] = now;
+            return this;
+         }
+      }
+      if (size == addresses.length) {
+         int newLength = size + Math.max(1, size >> 1);
+         addresses = Arrays.copyOf(addresses, newLength);
+         requestTimes = Arrays.copyOf(requestTimes, newLength);
+      }
+      addresses[size] = origin;
+      requestTimes[size] = now;
+      size++;
+      return this;
+   }
+
+   /**
+    * Removes the nodes whose last request happened before the given time.
+    * @return this instance, or null if there are no requestors left
+    */
+   L1Requestors prune(long expiryTime) {
+      int kept = 0;
+      for (int i = 0; i < size; ++i) {
+         if (requestTimes[i] >= expiryTime) {
+            addresses[kept] = addresses[i];
+            requestTimes[kept] = requestTimes[i];
+            kept++;
+         }
+      }
+      Arrays.fill(addresses, kept, size, null);
+      size = kept;
+      return size == 0 ? null : this;
+   }
+
+   boolean contains(Address address) {
+      for (int i = 0; i < size; ++i) {
+         if (addresses[i].equals(address)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   void addTo(Collection<Address> collection) {
+      for (int i = 0; i < size; ++i) {
+         collection.add(addresses[i]);
+      }
+   }
+
+   int size() {
+      return size;
+   }
+
+   @Override
+   public String toString() {
+      return Arrays.toString(Arrays.copyOf(addresses, size));
+   }
+}
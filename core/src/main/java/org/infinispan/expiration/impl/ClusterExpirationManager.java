@@ -3,6 +3,7 @@
 import static org.infinispan.commons.util.Util.toStr;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
@@ -12,6 +13,8 @@
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.commons.util.IntSet;
@@ -20,6 +23,7 @@
 import org.infinispan.configuration.cache.ClusteringConfiguration;
 import org.infinispan.container.entries.ExpiryHelper;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.context.Flag;
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.distribution.LocalizedCacheTopology;
@@ -125,8 +129,11 @@ private boolean purgeInMemoryContents(LocalizedCacheTopology topology) {
             segments = IntSets.immutableEmptySet();
          }
 
-         for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.running().iteratorIncludingExpired(segments);
-              purgeCandidates.hasNext();) {
+         InternalDataContainer<K, V> container = dataContainer.running();
+         Iterator<InternalCacheEntry<K, V>> purgeCandidates = container.hasExpirationIndex() ?
+               indexedPurgeCandidates(container, segments, currentTimeMillis) :
+               container.iteratorIncludingExpired(segments);
+         while (purgeCandidates.hasNext()) {
             InternalCacheEntry<K, V> ice = purgeCandidates.next();
             if (ice.canExpire()) {
                // Have to synchronize on the entry to make sure we see the value and metadata at the same time
@@ -180,6 +187,22 @@ private boolean purgeInMemoryContents(LocalizedCacheTopology topology) {
       return false;
    }
 
+   /**
+    * Returns the expired entries of the given segments found through the expiration index of the container, one
+    * segment at a time. The other segments are looked at as well, so that the index can drop the keys of the entries
+    * that were removed by their primary owner.
+    */
+   private Iterator<InternalCacheEntry<K, V>> indexedPurgeCandidates(InternalDataContainer<K, V> container,
+         IntSet segments, long currentTimeMillis) {
+      return IntStream.range(0, configuration.clustering().hash().numSegments())
+            .boxed()
+            .flatMap(segment -> {
+               List<InternalCacheEntry<K, V>> expired = container.expiredEntries(segment, currentTimeMillis);
+               return segments.contains((int) segment) ? expired.stream() : Stream.empty();
+            })
+            .iterator();
+   }
+
    /**
     * This is a separate method to document the fact that this is invoked in a separate thread and also for code
     * augmentation to find this method if needed
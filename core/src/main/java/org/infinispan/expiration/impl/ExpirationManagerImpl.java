@@ -9,6 +9,7 @@
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -41,6 +42,9 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import net.jcip.annotations.ThreadSafe;
 
 @ThreadSafe
@@ -58,6 +62,8 @@
    @Inject protected KeyPartitioner keyPartitioner;
    @Inject protected ComponentRef<AdvancedCache<K, V>> cacheRef;
    @Inject BlockingManager blockingManager;
+   @Inject @ComponentName(KnownComponentNames.NON_BLOCKING_EXECUTOR)
+   protected Executor nonBlockingExecutor;
 
    protected boolean enabled;
    protected String cacheName;
@@ -105,11 +111,16 @@ public void processExpiration() {
                start = timeService.time();
             }
             long currentTimeMillis = timeService.wallClockTime();
-            for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.running().iteratorIncludingExpired();
-                 purgeCandidates.hasNext();) {
-               InternalCacheEntry<K, V> e = purgeCandidates.next();
-               if (e.isExpired(currentTimeMillis)) {
-                  CompletionStages.join(entryExpiredInMemory(e, currentTimeMillis, false));
+            InternalDataContainer<K, V> container = dataContainer.running();
+            if (container.hasExpirationIndex()) {
+               CompletionStages.join(purgeIndexedEntries(container, currentTimeMillis));
+            } else {
+               for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = container.iteratorIncludingExpired();
+                    purgeCandidates.hasNext();) {
+                  InternalCacheEntry<K, V> e = purgeCandidates.next();
+                  if (e.isExpired(currentTimeMillis)) {
+                     CompletionStages.join(entryExpiredInMemory(e, currentTimeMillis, false));
+                  }
                }
             }
             if (log.isTraceEnabled()) {
@@ -126,6 +137,28 @@ public void processExpiration() {
       }
    }
 
+   /**
+    * Removes the expired entries found through the expiration index of the container. The segments are looked at in
+    * parallel on the non blocking executor, while the expired entries of a segment are removed one after the other so
+    * that a large number of expired entries can't flood the blocking executor.
+    */
+   private CompletionStage<Void> purgeIndexedEntries(InternalDataContainer<K, V> container, long currentTimeMillis) {
+      return Flowable.range(0, configuration.clustering().hash().numSegments())
+            .parallel()
+            .runOn(Schedulers.from(nonBlockingExecutor))
+            .flatMap(segment -> Flowable.fromIterable(container.expiredEntries(segment, currentTimeMillis))
+                  .concatMapSingle(e -> Single.fromCompletionStage(entryExpiredInMemory(e, currentTimeMillis, false))))
+            .sequential()
+            .filter(Boolean::booleanValue)
+            .count()
+            .toCompletionStage()
+            .thenAccept(removed -> {
+               if (log.isTraceEnabled()) {
+                  log.tracef("Removed %d expired entries from the data container", removed);
+               }
+            });
+   }
+
    @Override
    public boolean isEnabled() {
       return enabled;
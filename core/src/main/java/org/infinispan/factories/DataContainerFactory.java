@@ -1,9 +1,11 @@
 package org.infinispan.factories;
 
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 import org.infinispan.commons.marshall.WrappedBytes;
 import org.infinispan.configuration.cache.ClusteringConfiguration;
+import org.infinispan.configuration.cache.L1Configuration;
 import org.infinispan.configuration.cache.MemoryConfiguration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.impl.BoundedSegmentedDataContainer;
@@ -11,6 +13,7 @@
 import org.infinispan.container.impl.DefaultSegmentedDataContainer;
 import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.container.impl.L1SegmentedDataContainer;
+import org.infinispan.container.impl.PeekableTouchableCompactMap;
 import org.infinispan.container.impl.PeekableTouchableContainerMap;
 import org.infinispan.container.impl.PeekableTouchableMap;
 import org.infinispan.container.offheap.BoundedOffHeapDataContainer;
@@ -20,6 +23,7 @@
 import org.infinispan.container.offheap.OffHeapMemoryAllocator;
 import org.infinispan.container.offheap.SegmentedBoundedOffHeapDataContainer;
 import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.eviction.EvictionType;
 import org.infinispan.factories.annotations.DefaultFactoryFor;
 
 /**
@@ -59,13 +63,23 @@ public Object construct(String componentName) {
                return new OffHeapDataContainer();
             }
          } else if (shouldSegment) {
-            Supplier<PeekableTouchableMap<Object, Object>> mapSupplier =
-                  PeekableTouchableContainerMap::new;
+            Supplier<PeekableTouchableMap<Object, Object>> mapSupplier = memoryConfiguration.compactEntries() ?
+                  PeekableTouchableCompactMap::new : PeekableTouchableContainerMap::new;
             int segments = clusteringConfiguration.hash().numSegments();
-            if (clusteringConfiguration.l1().enabled()) {
+            L1Configuration l1Configuration = clusteringConfiguration.l1();
+            if (l1Configuration.enabled()) {
+               if (l1Configuration.maxSize() != null) {
+                  return new L1SegmentedDataContainer<>(mapSupplier, segments, l1Configuration.maxSizeBytes(),
+                        EvictionType.MEMORY);
+               } else if (l1Configuration.maxCount() > 0) {
+                  return new L1SegmentedDataContainer<>(mapSupplier, segments, l1Configuration.maxCount(),
+                        EvictionType.COUNT);
+               }
                return new L1SegmentedDataContainer<>(mapSupplier, segments);
             }
             return new DefaultSegmentedDataContainer<>(mapSupplier, segments);
+         } else if (memoryConfiguration.compactEntries()) {
+            return DefaultDataContainer.compactDataContainer(level);
          } else {
             return DefaultDataContainer.unBoundedDataContainer(level);
          }
@@ -105,6 +119,7 @@ public Object construct(String componentName) {
    OffHeapConcurrentMap createAndStartOffHeapConcurrentMap() {
       OffHeapEntryFactory entryFactory = componentRegistry.getOrCreateComponent(OffHeapEntryFactory.class);
       OffHeapMemoryAllocator memoryAllocator = componentRegistry.getOrCreateComponent(OffHeapMemoryAllocator.class);
-      return new OffHeapConcurrentMap(memoryAllocator, entryFactory, null);
+      Executor blockingExecutor = componentRegistry.getComponent(Executor.class, KnownComponentNames.BLOCKING_EXECUTOR);
+      return new OffHeapConcurrentMap(memoryAllocator, entryFactory, null, blockingExecutor);
    }
 }
@@ -41,6 +41,7 @@
 import org.infinispan.context.impl.FlagBitSets;
 import org.infinispan.context.impl.TxInvocationContext;
 import org.infinispan.distribution.DistributionInfo;
+import org.infinispan.distribution.HotKeyDetector;
 import org.infinispan.distribution.LocalizedCacheTopology;
 import org.infinispan.distribution.RemoteValueRetrievedListener;
 import org.infinispan.distribution.ch.ConsistentHash;
@@ -86,6 +87,7 @@ public abstract class BaseDistributionInterceptor extends ClusteringInterceptor
    @Inject protected KeyPartitioner keyPartitioner;
    @Inject protected TimeService timeService;
    @Inject protected InternalExpirationManager<Object, Object> expirationManager;
+   @Inject protected HotKeyDetector hotKeyDetector;
 
    protected boolean isL1Enabled;
    protected boolean isReplicated;
@@ -602,6 +604,8 @@ protected Object[] unwrapFunctionalManyResultOnOrigin(InvocationContext ctx, Lis
    }
 
    private Object visitGetCommand(InvocationContext ctx, AbstractDataCommand command) throws Throwable {
+      // Both the local reads and the remote gets of the keys we own are recorded
+      hotKeyDetector.recordRead(command.getKey());
       if (ctx.lookupEntry(command.getKey()) != null) {
          return invokeNext(ctx, command);
       }
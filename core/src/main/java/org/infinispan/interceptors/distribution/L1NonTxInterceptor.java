@@ -48,6 +48,7 @@
 import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.impl.FlagBitSets;
+import org.infinispan.distribution.HotKeyDetector;
 import org.infinispan.distribution.L1Manager;
 import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.factories.annotations.Inject;
@@ -80,9 +81,11 @@ public class L1NonTxInterceptor extends BaseRpcInterceptor {
    @Inject protected StateTransferLock stateTransferLock;
    @Inject protected KeyPartitioner keyPartitioner;
    @Inject protected BlockingManager blockingManager;
+   @Inject protected HotKeyDetector hotKeyDetector;
 
    private long l1Lifespan;
    private long replicationTimeout;
+   private boolean hotKeysOnly;
 
    /**
     *  This map holds all the current write synchronizers registered for a given key.  This map is only added to when an
@@ -112,6 +115,7 @@ public class L1NonTxInterceptor extends BaseRpcInterceptor {
    @Start
    public void start() {
       l1Lifespan = cacheConfiguration.clustering().l1().lifespan();
+      hotKeysOnly = cacheConfiguration.clustering().l1().hotKeysOnly();
       replicationTimeout = cacheConfiguration.clustering().remoteTimeout();
       cacheConfiguration.clustering()
                    .attributes().attribute(ClusteringConfiguration.REMOTE_TIMEOUT)
@@ -222,7 +226,7 @@ private Object performL1Lookup(InvocationContext ctx, VisitableCommand command,
    protected boolean skipL1Lookup(FlagAffectedCommand command, Object key) {
       return command.hasAnyFlag(FlagBitSets.CACHE_MODE_LOCAL) || command.hasAnyFlag(FlagBitSets.SKIP_REMOTE_LOOKUP)
             || command.hasAnyFlag(FlagBitSets.IGNORE_RETURN_VALUES) || cdl.getCacheTopology().isWriteOwner(key)
-            || dataContainer.containsKey(key);
+            || dataContainer.containsKey(key) || (hotKeysOnly && !hotKeyDetector.isHot(key));
    }
 
    @Override
@@ -7,7 +7,9 @@
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
@@ -46,7 +48,6 @@
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
-import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.configuration.cache.StoreConfiguration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.entries.CacheEntry;
@@ -174,7 +175,17 @@ public Object visitComputeIfAbsentCommand(InvocationContext ctx, ComputeIfAbsent
 
    private Object visitManyDataCommand(InvocationContext ctx, FlagAffectedCommand command, Collection<?> keys) {
       AggregateCompletionStage<Void> stage = null;
+      // The keys of a read command are loaded together, so that the stores can load them in bulk
+      Map<Object, Integer> keysToLoad = canBulkLoad() && keys.size() > 1 && !(command instanceof WriteCommand) ?
+            new HashMap<>() : null;
       for (Object key : keys) {
+         if (keysToLoad != null) {
+            int segment = SegmentSpecificCommand.extractSegment(command, key, partitioner);
+            if (!skipLoad(ctx, key, segment, command)) {
+               keysToLoad.put(key, segment);
+            }
+            continue;
+         }
          CompletionStage<?> innerStage = loadIfNeeded(ctx, key, command);
          if (innerStage != null && !CompletionStages.isCompletedSuccessfully(innerStage)) {
             if (stage == null) {
@@ -183,6 +194,13 @@ private Object visitManyDataCommand(InvocationContext ctx, FlagAffectedCommand c
             stage.dependsOn(innerStage);
          }
       }
+      if (keysToLoad != null && !keysToLoad.isEmpty()) {
+         CompletionStage<Void> bulkStage = loadAllInContext(ctx, keysToLoad, command);
+         if (!CompletionStages.isCompletedSuccessfully(bulkStage)) {
+            stage = CompletionStages.aggregateCompletionStage();
+            stage.dependsOn(bulkStage);
+         }
+      }
       if (stage != null) {
          return asyncInvokeNext(ctx, command, stage.freeze());
       }
@@ -352,6 +370,86 @@ protected CompletionStage<?> loadInContext(InvocationContext ctx, Object key, in
       return cf;
    }
 
+   /**
+    * Same as {@link #loadInContext(InvocationContext, Object, int, FlagAffectedCommand)} for several keys, which are
+    * loaded from the persistence stores with a single bulk load.
+    * @param ctx context for this invocation
+    * @param keysToLoad the keys to load with their segment
+    * @param cmd the command that initiated this load
+    * @return a stage that when complete will have the entries loaded into the provided context
+    */
+   private CompletionStage<Void> loadAllInContext(InvocationContext ctx, Map<Object, Integer> keysToLoad,
+         FlagAffectedCommand cmd) {
+      AggregateCompletionStage<Void> stage = CompletionStages.aggregateCompletionStage();
+      Map<Object, CompletableFuture<InternalCacheEntry<K, V>>> loads = new HashMap<>();
+      for (Map.Entry<Object, Integer> keyToLoad : keysToLoad.entrySet()) {
+         Object key = keyToLoad.getKey();
+         int segment = keyToLoad.getValue();
+         InternalCacheEntry<K, V> entry = dataContainer.peek(segment, key);
+         if (entry != null) {
+            if (!entry.canExpire() || !entry.isExpired(timeService.wallClockTime())) {
+               putInContext(ctx, key, cmd, entry);
+            } else {
+               // Expired entries are only loaded from the loaders that are not stores
+               stage.dependsOn(loadInContext(ctx, key, segment, cmd));
+            }
+            continue;
+         }
+         CompletableFuture<InternalCacheEntry<K, V>> cf = new CompletableFuture<>();
+         CompletionStage<InternalCacheEntry<K, V>> otherCF = pendingLoads.putIfAbsent(key, cf);
+         if (otherCF != null) {
+            if (log.isTraceEnabled()) {
+               log.tracef("Piggybacking on concurrent load for key %s", key);
+            }
+            stage.dependsOn(otherCF.thenAcceptAsync(value -> putInContext(ctx, key, cmd, value), nonBlockingExecutor));
+            continue;
+         }
+         loads.put(key, cf);
+         stage.dependsOn(cf);
+      }
+      if (loads.isEmpty()) {
+         return stage.freeze();
+      }
+
+      if (log.isTraceEnabled()) {
+         log.tracef("Loading entries for keys %s", loads.keySet());
+      }
+      CompletionStage<Void> loadStage;
+      try {
+         loadStage = persistenceManager.<K, V>loadAllFromAllStores(loads.keySet(), ctx.isOriginLocal(), true)
+               .thenCompose(entries -> {
+                  AggregateCompletionStage<Void> storeStage = CompletionStages.aggregateCompletionStage();
+                  for (Map.Entry<Object, CompletableFuture<InternalCacheEntry<K, V>>> load : loads.entrySet()) {
+                     Object key = load.getKey();
+                     storeStage.dependsOn(storeInDataContainer(ctx, key, keysToLoad.get(key), cmd, entries.get(key))
+                           .whenComplete((value, throwable) ->
+                                 finishLoadInContext(ctx, key, cmd, load.getValue(), value, throwable)));
+                  }
+                  return storeStage.freeze();
+               });
+      } catch (Throwable t) {
+         loadStage = CompletableFuture.failedFuture(t);
+      }
+      loadStage.whenComplete((ignore, throwable) -> {
+         if (throwable != null) {
+            for (Map.Entry<Object, CompletableFuture<InternalCacheEntry<K, V>>> load : loads.entrySet()) {
+               if (!load.getValue().isDone()) {
+                  pendingLoads.remove(load.getKey(), load.getValue());
+                  load.getValue().completeExceptionally(throwable);
+               }
+            }
+         }
+      });
+      return stage.freeze();
+   }
+
+   /**
+    * Whether the keys of a multi-key read command may be loaded with a single bulk load instead of one load per key.
+    */
+   protected boolean canBulkLoad() {
+      return true;
+   }
+
    private void finishLoadInContext(InvocationContext ctx, Object key, FlagAffectedCommand cmd, CompletableFuture<InternalCacheEntry<K, V>> cf, InternalCacheEntry<K, V> value, Throwable throwable) {
       // Make sure we clean up our pendingLoads properly and before completing any responses
       pendingLoads.remove(key);
@@ -388,55 +486,56 @@ public CompletionStage<InternalCacheEntry<K, V>> loadAndStoreInDataContainer(Inv
       if (log.isTraceEnabled()) {
          log.tracef("Loading entry for key %s", key);
       }
-      CompletionStage<InternalCacheEntry<K, V>> resultStage = persistenceManager.<K, V>loadFromAllStores(key, segment,
-            ctx.isOriginLocal(), includeStores).thenApply(me -> {
-         if (me != null) {
-            InternalCacheEntry<K, V> ice = PersistenceUtil.convert(me, iceFactory);
-            if (getStatisticsEnabled()) {
-               cacheLoads.incrementAndGet();
-            }
-            if (log.isTraceEnabled()) {
-               log.tracef("Loaded entry: %s for key %s from store and attempting to insert into data container",
-                     ice, key);
-            }
+      return persistenceManager.<K, V>loadFromAllStores(key, segment, ctx.isOriginLocal(), includeStores)
+            .thenCompose(me -> storeInDataContainer(ctx, key, segment, cmd, me));
+   }
+
+   private CompletionStage<InternalCacheEntry<K, V>> storeInDataContainer(InvocationContext ctx, Object key, int segment,
+         FlagAffectedCommand cmd, MarshallableEntry<K, V> me) {
+      InternalCacheEntry<K, V> loadedEntry = putInDataContainer(key, segment, me);
+      if (loadedEntry != null &&
+            (notifier.hasListener(CacheEntryLoaded.class) || notifier.hasListener(CacheEntryActivated.class))) {
+         V value = loadedEntry.getValue();
+         CompletionStage<Void> notificationStage = sendNotification(key, value, true, ctx, cmd);
+         notificationStage = notificationStage.thenCompose(v -> sendNotification(key, value, false, ctx, cmd));
+         return notificationStage.thenApply(ignore -> loadedEntry);
+      }
+      return CompletableFuture.completedFuture(loadedEntry);
+   }
 
-            DataContainer.ComputeAction<K, V> putIfAbsentOrExpired = (k, oldEntry, factory) -> {
-               if (oldEntry != null &&
-                     (!oldEntry.canExpire() || !oldEntry.isExpired(timeService.wallClockTime()))) {
-                  return oldEntry;
-               }
-               if (ice.canExpire()) {
-                  ice.touch(timeService.wallClockTime());
-               }
-               return ice;
-            };
+   private InternalCacheEntry<K, V> putInDataContainer(Object key, int segment, MarshallableEntry<K, V> me) {
+      if (me != null) {
+         InternalCacheEntry<K, V> ice = PersistenceUtil.convert(me, iceFactory);
+         if (getStatisticsEnabled()) {
+            cacheLoads.incrementAndGet();
+         }
+         if (log.isTraceEnabled()) {
+            log.tracef("Loaded entry: %s for key %s from store and attempting to insert into data container",
+                  ice, key);
+         }
 
-            dataContainer.compute(segment, (K) key, putIfAbsentOrExpired);
-            return ice;
-         } else {
-            if (log.isTraceEnabled()) {
-               log.tracef("Missed entry load for key %s from store", key);
+         DataContainer.ComputeAction<K, V> putIfAbsentOrExpired = (k, oldEntry, factory) -> {
+            if (oldEntry != null &&
+                  (!oldEntry.canExpire() || !oldEntry.isExpired(timeService.wallClockTime()))) {
+               return oldEntry;
             }
-            if (getStatisticsEnabled()) {
-               cacheMisses.incrementAndGet();
+            if (ice.canExpire()) {
+               ice.touch(timeService.wallClockTime());
             }
-            return null;
-         }
-      });
+            return ice;
+         };
 
-      if (notifier.hasListener(CacheEntryLoaded.class) || notifier.hasListener(CacheEntryActivated.class)) {
-         return resultStage.thenCompose(ice -> {
-            if (ice != null) {
-               V value = ice.getValue();
-               CompletionStage<Void> notificationStage = sendNotification(key, value, true, ctx, cmd);
-               notificationStage = notificationStage.thenCompose(v -> sendNotification(key, value, false, ctx, cmd));
-               return notificationStage.thenApply(ignore -> ice);
-            } else {
-               return CompletableFutures.completedNull();
-            }
-         });
+         dataContainer.compute(segment, (K) key, putIfAbsentOrExpired);
+         return ice;
+      } else {
+         if (log.isTraceEnabled()) {
+            log.tracef("Missed entry load for key %s from store", key);
+         }
+         if (getStatisticsEnabled()) {
+            cacheMisses.incrementAndGet();
+         }
+         return null;
       }
-      return resultStage;
    }
 
    private boolean skipLoad(InvocationContext ctx, Object key, int segment, FlagAffectedCommand cmd) {
@@ -11,6 +11,9 @@
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import org.infinispan.AdvancedCache;
@@ -49,6 +52,7 @@
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.impl.InternalDataContainer;
+import org.infinispan.container.offheap.OffHeapConcurrentMap;
 import org.infinispan.container.offheap.OffHeapMemoryAllocator;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
@@ -783,12 +787,108 @@ public long getDataMemoryUsed() {
       return -1L;
    }
 
+   @ManagedAttribute(
+         description = "Amount of memory in bytes allocated for use in eviction for data in the heaviest segment " +
+                       "of the cache",
+         displayName = "Memory used by data in the heaviest segment"
+   )
+   public long getDataMemoryUsedHeaviestSegment() {
+      if (cacheConfiguration.memory().isEvictionEnabled() && cacheConfiguration.memory().maxSizeBytes() > 0) {
+         long heaviest = -1L;
+         int numSegments = cacheConfiguration.clustering().hash().numSegments();
+         for (int i = 0; i < numSegments; ++i) {
+            heaviest = Math.max(heaviest, dataContainer.evictionSize(i));
+         }
+         return heaviest;
+      }
+      return -1L;
+   }
+
    @ManagedAttribute(
          description = "Amount off-heap memory used by this cache (bytes)",
          displayName = "Off-Heap memory used"
    )
    public long getOffHeapMemoryUsed() {
-      return allocator.getAllocatedAmount();
+      return allocator.getAllocatedAmount() - getOffHeapMemoryRetired();
+   }
+
+   @ManagedAttribute(
+         description = "Amount of off-heap memory removed from this cache but not freed yet, as a concurrent reader " +
+                       "may still access it (bytes)",
+         displayName = "Off-Heap memory retired"
+   )
+   public long getOffHeapMemoryRetired() {
+      if (!cacheConfiguration.memory().isOffHeap()) {
+         return 0;
+      }
+      LongAdder retired = new LongAdder();
+      forEachOffHeapMap(map -> retired.add(map.getRetiredMemory()));
+      return retired.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Amount of off-heap memory reserved by this cache but not currently used by entries (bytes)",
+         displayName = "Off-Heap memory free"
+   )
+   public long getOffHeapMemoryFree() {
+      return allocator.getFreeAmount();
+   }
+
+   @ManagedAttribute(
+         description = "Amount of off-heap memory used by this cache that is lost to allocation rounding (bytes)",
+         displayName = "Off-Heap memory fragmented"
+   )
+   public long getOffHeapMemoryFragmented() {
+      return allocator.getFragmentedAmount();
+   }
+
+   @ManagedAttribute(
+         description = "Number of times the off-heap memory lookups of this cache were resized",
+         displayName = "Off-Heap resizes",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getOffHeapResizeCount() {
+      if (!cacheConfiguration.memory().isOffHeap()) {
+         return 0;
+      }
+      LongAdder resizes = new LongAdder();
+      forEachOffHeapMap(map -> resizes.add(map.getResizeCount()));
+      return resizes.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of off-heap lock regions still pending transfer by ongoing resizes",
+         displayName = "Off-Heap regions pending resize"
+   )
+   public long getOffHeapPendingResizeRegions() {
+      if (!cacheConfiguration.memory().isOffHeap()) {
+         return 0;
+      }
+      LongAdder pending = new LongAdder();
+      forEachOffHeapMap(map -> pending.add(map.getPendingResizeRegions()));
+      return pending.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Longest duration of the last completed resize of the off-heap memory lookups",
+         displayName = "Off-Heap last resize duration",
+         units = Units.MILLISECONDS
+   )
+   public long getOffHeapLastResizeDuration() {
+      if (!cacheConfiguration.memory().isOffHeap()) {
+         return 0;
+      }
+      LongAccumulator duration = new LongAccumulator(Math::max, 0);
+      forEachOffHeapMap(map -> duration.accumulate(map.getLastResizeDurationNanos()));
+      return TimeUnit.NANOSECONDS.toMillis(duration.get());
+   }
+
+   private void forEachOffHeapMap(Consumer<OffHeapConcurrentMap> consumer) {
+      dataContainer.forEachSegment((map, segment) -> {
+         if (map instanceof OffHeapConcurrentMap) {
+            consumer.accept((OffHeapConcurrentMap) map);
+         }
+      });
    }
 
    @ManagedAttribute(
@@ -44,6 +44,12 @@ public CompletionStage<InternalCacheEntry<K, V>> loadAndStoreInDataContainer(Inv
       }
    }
 
+   @Override
+   protected boolean canBulkLoad() {
+      // Every load must be ordered with the passivation of its key and followed by its activation
+      return false;
+   }
+
    static <K, V> void activateAfterLoad(Object key, int segment, DataOperationOrderer orderer, ActivationManager activationManager, CompletableFuture<Operation> future, InternalCacheEntry<K, V> value, Throwable t) {
       if (value != null) {
          if (log.isTraceEnabled()) {
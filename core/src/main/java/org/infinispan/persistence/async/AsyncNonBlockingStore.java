@@ -2,8 +2,12 @@
 
 import java.lang.invoke.MethodHandles;
 import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -25,12 +29,15 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.PersistenceConfiguration;
 import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.jmx.CacheJmxRegistration;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.NonBlockingStore;
 import org.infinispan.persistence.support.DelegatingNonBlockingStore;
 import org.infinispan.persistence.support.SegmentPublisherWrapper;
+import org.infinispan.persistence.support.SingleSegmentPublisher;
 import org.infinispan.security.actions.SecurityActions;
 import org.infinispan.util.concurrent.CompletionStages;
 import org.infinispan.util.logging.Log;
@@ -39,21 +46,25 @@
 
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.flowables.ConnectableFlowable;
 import io.reactivex.rxjava3.functions.Function;
 import net.jcip.annotations.GuardedBy;
 
 /**
  * A delegating NonBlockingStore implementation that batches write operations and runs the resulting batches on the
- * delegate store in a non overlapping manner. That is that only a single batch will be running at a time.
+ * delegate store in a non overlapping manner. That is that up to {@link AsyncStoreConfiguration#maxConcurrentBatches()}
+ * batches will be running at a time, and the running batches never contain modifications of the same segment.
  * <p>
  * Whenever a write operation is performed it will also attempt to start a batch write immediately to the delegate store.
  * Any concurrent writes during this time may be included in the batch. Any additional writes will be enqueued until
- * the batch completes in which case it will automatically submit the pending batch, if there is one.  Write operations
+ * a batch completes in which case it will automatically submit the pending batches, if there are any. Write operations
  * to the same key in the same batch will be coalesced with only the last write being written to the underlying store.
- * If the number of enqueued pending write operations becomes equal or larger than the modification queue, then any
- * subsequent write will be added to the queue, but the returned Stage will not complete until the current batch completes
- * in an attempt to provide some backpressure to slow writes.
+ * If {@link AsyncStoreConfiguration#targetBatchLatency()} is set, the number of modifications in a batch is halved
+ * whenever a batch takes longer than the target and is raised again by a quarter after each full batch that doesn't.
+ * If the number of enqueued pending write operations becomes larger than the modification queue, then any
+ * subsequent write will be added to the queue, but the returned Stage will not complete until the queue has room
+ * again in an attempt to provide some backpressure to slow writes.
  * <p>
  * Read operations may be resolved by this store immediately if the given key is still being updated in the
  * delegate store or if it is enqueued for the next batch. If the key is in neither it will query the underlying store
@@ -67,20 +78,27 @@
    private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
    private final NonBlockingStore<K, V> actual;
 
+   private final AsyncStoreStatistics statistics;
+
    private Executor nonBlockingExecutor;
    private int segmentCount;
    private int modificationQueueSize;
+   private int maxConcurrentBatches;
+   private long targetBatchLatencyNanos;
    private PersistenceConfiguration persistenceConfiguration;
    private AsyncStoreConfiguration asyncConfiguration;
 
    // "Non blocking" scheduler used for the purpose of delaying retry batch operations on failures
    private ScheduledExecutorService scheduler;
 
-   // This variable will be non null if there is a pending batch being sent to the underlying store
-   // If a request causes the modification queue to overflow it will receive a stage back that is only complete
-   // when this future is completed (aka. previous replication has completed)
+   // This variable will be non null if a request caused the modification queue to overflow, the request receives
+   // this future back and it is completed when a batch completes and the queue has room again
+   @GuardedBy("this")
+   private CompletableFuture<Void> queueAvailableFuture;
+
+   // This variable will be non null if the store is waiting for all the pending modifications to be replicated
    @GuardedBy("this")
-   private CompletableFuture<Void> batchFuture;
+   private CompletableFuture<Void> quiescenceFuture;
 
    // This variable will be non null if the underlying store has been found to be not available
    // Note that the async store will still be available as long as the queue size (ie. modificationMap.size) is not
@@ -94,19 +112,29 @@
    // If there is a pending clear this will be true
    @GuardedBy("this")
    private boolean hasPendingClear;
-   // The next two variables are held temporarily until a replication of the values is complete. We need to retain
-   // these values until we are sure the entries are actually in the store - note these variables are only written to
-   // via reference (thus the map is safe to read outside of this lock, but the reference must be read in synchronized)
-   // This map contains all the modifications currently being replicated to the delegating store
+   // The next variables are held temporarily until a replication of the values is complete. We need to retain
+   // these values until we are sure the entries are actually in the store - note the list is only written to
+   // via reference (thus the list is safe to read outside of this lock, but the reference must be read in synchronized)
+   // This list contains all the batches currently being replicated to the delegating store
    @GuardedBy("this")
-   private Map<Object, Modification> replicatingModifications = Collections.emptyMap();
+   private List<Batch> replicatingBatches = Collections.emptyList();
+   // The segments of the modifications in the batches currently being replicated
+   @GuardedBy("this")
+   private final BitSet replicatingSegments = new BitSet();
+   // The number of modifications in the batches currently being replicated
+   @GuardedBy("this")
+   private int replicatingCount;
    // True if there is an outstanding clear that is being ran on the delegating store
    @GuardedBy("this")
    private boolean isReplicatingClear;
+   // The maximum number of modifications in a new batch
+   @GuardedBy("this")
+   private int batchSizeLimit;
    private volatile boolean stopped = true;
 
    public AsyncNonBlockingStore(NonBlockingStore<K, V> actual) {
       this.actual = actual;
+      this.statistics = new AsyncStoreStatistics(this);
    }
 
    @Override
@@ -127,7 +155,15 @@ public CompletionStage<Void> start(InitializationContext ctx) {
       segmentCount = storeConfiguration.segmented() ? cacheConfiguration.clustering().hash().numSegments() : 1;
       asyncConfiguration = storeConfiguration.async();
       modificationQueueSize = asyncConfiguration.modificationQueueSize();
+      maxConcurrentBatches = asyncConfiguration.maxConcurrentBatches();
+      targetBatchLatencyNanos = TimeUnit.MILLISECONDS.toNanos(asyncConfiguration.targetBatchLatency());
+      synchronized (this) {
+         batchSizeLimit = targetBatchLatencyNanos > 0 ? modificationQueueSize : Integer.MAX_VALUE;
+      }
       nonBlockingExecutor = ctx.getNonBlockingExecutor();
+      if (cacheConfiguration.statistics().enabled()) {
+         registerMBean(ctx);
+      }
       stopped = false;
       return actual.start(ctx);
    }
@@ -148,63 +184,146 @@ public CompletionStage<Void> stop() {
       });
    }
 
+   private void registerMBean(InitializationContext ctx) {
+      CacheJmxRegistration jmxRegistration = ComponentRegistry.of(ctx.getCache()).getComponent(CacheJmxRegistration.class);
+      if (jmxRegistration != null && jmxRegistration.enabled()) {
+         try {
+            // Unregistered along with the other MBeans of the cache
+            jmxRegistration.registerMBean(statistics);
+         } catch (Exception e) {
+            log.debugf(e, "Unable to register the MBean %s", statistics);
+         }
+      }
+   }
+
+   /**
+    * @return the statistics of the modification queue and of the batches written to the delegate store
+    */
+   public AsyncStoreStatistics getStatistics() {
+      return statistics;
+   }
+
    /**
     * Returns a stage that when complete, this store has submitted and completed all pending modifications
     */
    private CompletionStage<Void> awaitQuiescence() {
       CompletionStage<Void> stage;
       synchronized (this) {
-         stage = batchFuture;
-      }
-      if (stage == null) {
-         return CompletableFutures.completedNull();
+         if (replicatingBatches.isEmpty() && pendingModifications.isEmpty() && !hasPendingClear) {
+            return CompletableFutures.completedNull();
+         }
+         if (quiescenceFuture == null) {
+            quiescenceFuture = new CompletableFuture<>();
+         }
+         stage = quiescenceFuture;
       }
       if (log.isTraceEnabled()) {
-         log.tracef("Must wait until prior batch completes for %s", actual);
+         log.tracef("Must wait until prior batches complete for %s", actual);
       }
-      return stage.thenCompose(ignore -> awaitQuiescence());
+      return stage;
    }
 
    void putModification(Object key, Modification modification) {
-      pendingModifications.put(key, modification);
+      if (pendingModifications.put(key, modification) != null) {
+         statistics.recordCoalescedWrites(1);
+      }
    }
 
    void putClearModification() {
+      statistics.recordCoalescedWrites(pendingModifications.size());
       pendingModifications.clear();
       hasPendingClear = true;
    }
 
+   synchronized int queueDepth() {
+      return pendingModifications.size() + replicatingCount;
+   }
+
+   synchronized int runningBatches() {
+      return replicatingBatches.size();
+   }
+
+   synchronized int batchSizeLimit() {
+      return batchSizeLimit;
+   }
+
    /**
-    * This method submits a batch of modifications to the underlying store and completes {@code batchFuture}
-    * when the modifications are done.
-    *
-    * If there are any pending modifications at that time, it automatically submits a new batch,
-    * otherwise it sets {@code batchFuture} to null.
-    *
-    * Callers must atomically check that {@code batchFuture} is null and set it to a non-null value,
-    * to ensure that only one batch is being processed at any time.
+    * Takes the next batch of modifications that can be replicated to the underlying store, if there is one. A batch
+    * only contains modifications of segments that are not being replicated by the running batches, so that
+    * modifications of the same key are always replicated in order. A clear is only replicated once all the running
+    * batches have completed, along with all the modifications that were enqueued after it.
+    * <p>
+    * Callers must submit the returned batch with {@link #submitBatches(Batch)}.
     */
-   private void submitTask() {
-      Map<Object, Modification> newMap = new HashMap<>();
-      if (log.isTraceEnabled()) {
-         log.tracef("Starting new batch with id %s", System.identityHashCode(newMap));
+   @GuardedBy("this")
+   private Batch nextBatch() {
+      if (isReplicatingClear || replicatingBatches.size() >= maxConcurrentBatches) {
+         return null;
       }
-      boolean ourClearToReplicate;
-      Map<Object, Modification> ourModificationsToReplicate;
-      synchronized (this) {
-         // The isReplicatingClear would be true or replicatingModifications non empty if an update was currently pending
-         // But we should only allow one at a time
-         assert replicatingModifications.isEmpty() && !isReplicatingClear;
-         replicatingModifications = pendingModifications;
-         ourModificationsToReplicate = pendingModifications;
-         pendingModifications = newMap;
-         isReplicatingClear = hasPendingClear;
-         ourClearToReplicate = hasPendingClear;
+      Batch batch;
+      if (hasPendingClear) {
+         if (!replicatingBatches.isEmpty()) {
+            return null;
+         }
+         batch = new Batch(pendingModifications, true);
+         pendingModifications = new HashMap<>();
          hasPendingClear = false;
+         isReplicatingClear = true;
+      } else if (replicatingBatches.isEmpty() && pendingModifications.size() <= batchSizeLimit) {
+         if (pendingModifications.isEmpty()) {
+            return null;
+         }
+         batch = new Batch(pendingModifications, false);
+         pendingModifications = new HashMap<>();
+      } else {
+         Map<Object, Modification> modifications = new HashMap<>();
+         Iterator<Map.Entry<Object, Modification>> iterator = pendingModifications.entrySet().iterator();
+         while (iterator.hasNext() && modifications.size() < batchSizeLimit) {
+            Map.Entry<Object, Modification> entry = iterator.next();
+            if (!replicatingSegments.get(entry.getValue().getSegment())) {
+               modifications.put(entry.getKey(), entry.getValue());
+               iterator.remove();
+            }
+         }
+         if (modifications.isEmpty()) {
+            return null;
+         }
+         batch = new Batch(modifications, false);
+      }
+      List<Batch> batches = new ArrayList<>(replicatingBatches.size() + 1);
+      batches.addAll(replicatingBatches);
+      batches.add(batch);
+      replicatingBatches = batches;
+      replicatingSegments.or(batch.segments);
+      replicatingCount += batch.modifications.size();
+      return batch;
+   }
+
+   /**
+    * Submits the given batch, if not null, and then any other batch that can run concurrently with it.
+    */
+   private void submitBatches(Batch batch) {
+      while (batch != null) {
+         submitTask(batch);
+         synchronized (this) {
+            batch = nextBatch();
+         }
+      }
+   }
+
+   /**
+    * This method submits a batch of modifications to the underlying store and once the modifications are done it
+    * submits the pending batches that were waiting for it, if there are any.
+    */
+   private void submitTask(Batch batch) {
+      Map<Object, Modification> ourModificationsToReplicate = batch.modifications;
+      if (log.isTraceEnabled()) {
+         log.tracef("Starting new batch with id %s", System.identityHashCode(ourModificationsToReplicate));
       }
+      long startNanos = System.nanoTime();
 
       CompletionStage<Void> asyncBatchStage;
-      if (ourClearToReplicate) {
+      if (batch.clear) {
          if (log.isTraceEnabled()) {
             log.tracef("Sending clear to underlying store for id %s", System.identityHashCode(ourModificationsToReplicate));
          }
@@ -223,12 +342,7 @@ private void submitTask() {
                log.tracef("Sending batch of %d write/remove operations to underlying store with id %s", ourModificationsToReplicate.size(),
                      System.identityHashCode(ourModificationsToReplicate));
             }
-            return retry(() -> replicateModifications(ourModificationsToReplicate), persistenceConfiguration.connectionAttempts())
-                  .whenComplete((ignore2, t) -> {
-               synchronized (this) {
-                  replicatingModifications = Collections.emptyMap();
-               }
-            });
+            return retry(() -> replicateModifications(ourModificationsToReplicate), persistenceConfiguration.connectionAttempts());
          });
       }
 
@@ -236,27 +350,89 @@ private void submitTask() {
          if (log.isTraceEnabled()) {
             log.tracef("Async operations completed for id %s", System.identityHashCode(ourModificationsToReplicate));
          }
-         boolean submitNewBatch;
-         CompletableFuture<Void> future;
+         long durationNanos = System.nanoTime() - startNanos;
+         int batchSize = ourModificationsToReplicate.size();
+         statistics.recordBatch(batchSize, durationNanos);
+         Batch pendingBatch;
+         CompletableFuture<Void> queueFuture = null;
+         CompletableFuture<Void> quiescentFuture = null;
          synchronized (this) {
-            submitNewBatch = !pendingModifications.isEmpty() || hasPendingClear;
-            future = batchFuture;
-            batchFuture = submitNewBatch ? new CompletableFuture<>() : null;
-         }
-         if (t != null) {
-            future.completeExceptionally(t);
-         } else {
-            future.complete(null);
-         }
-         if (submitNewBatch) {
-            if (log.isTraceEnabled()) {
-               log.trace("Submitting new batch after completion of prior");
+            if (replicatingBatches.size() == 1) {
+               replicatingBatches = Collections.emptyList();
+            } else {
+               List<Batch> batches = new ArrayList<>(replicatingBatches);
+               batches.remove(batch);
+               replicatingBatches = batches;
+            }
+            replicatingSegments.andNot(batch.segments);
+            replicatingCount -= batchSize;
+            if (!batch.clear) {
+               adaptBatchSizeLimit(batchSize, durationNanos);
+            }
+            if (queueAvailableFuture != null && pendingModifications.size() + replicatingCount <= modificationQueueSize) {
+               queueFuture = queueAvailableFuture;
+               queueAvailableFuture = null;
+            }
+            pendingBatch = nextBatch();
+            // No batch can be running only if there are no pending modifications
+            if (quiescenceFuture != null && replicatingBatches.isEmpty()) {
+               quiescentFuture = quiescenceFuture;
+               quiescenceFuture = null;
             }
-            submitTask();
          }
+         completeFuture(queueFuture, t);
+         completeFuture(quiescentFuture, t);
+         if (pendingBatch != null && log.isTraceEnabled()) {
+            log.trace("Submitting new batch after completion of prior");
+         }
+         submitBatches(pendingBatch);
       });
    }
 
+   private static void completeFuture(CompletableFuture<Void> future, Throwable t) {
+      if (future == null) {
+         return;
+      }
+      if (t != null) {
+         future.completeExceptionally(t);
+      } else {
+         future.complete(null);
+      }
+   }
+
+   /**
+    * Halves the size of the next batches if the last one took longer than the target latency, otherwise raises it by
+    * a quarter if the last batch was full.
+    */
+   @GuardedBy("this")
+   private void adaptBatchSizeLimit(int batchSize, long durationNanos) {
+      if (targetBatchLatencyNanos <= 0) {
+         return;
+      }
+      if (durationNanos > targetBatchLatencyNanos) {
+         batchSizeLimit = Math.max(1, batchSizeLimit / 2);
+      } else if (batchSize >= batchSizeLimit) {
+         batchSizeLimit = Math.min(modificationQueueSize, batchSizeLimit + Math.max(1, batchSizeLimit / 4));
+      }
+   }
+
+   /**
+    * The modifications replicated together to the underlying store, along with their segments.
+    */
+   private static class Batch {
+      final Map<Object, Modification> modifications;
+      final boolean clear;
+      final BitSet segments = new BitSet();
+
+      Batch(Map<Object, Modification> modifications, boolean clear) {
+         this.modifications = modifications;
+         this.clear = clear;
+         for (Modification modification : modifications.values()) {
+            segments.set(modification.getSegment());
+         }
+      }
+   }
+
    /**
     * Attempts to run the given supplier, checking the stage if it contains an error. It will rerun the Supplier
     * until a supplied stage doesn't contain an exception or it has encountered retries amount of exceptions. In the
@@ -395,18 +571,21 @@ private <E> Publisher<E> abstractPublish(IntSet segments, Predicate<? super K> f
 
    private Map.Entry<Boolean, Map<Object, Modification>> flattenModificationMaps() {
       Map<Object, Modification> modificationCopy;
-      Map<Object, Modification> modificationsToReplicate;
+      List<Batch> batchesToReplicate;
       boolean clearToReplicate;
       synchronized (this) {
          modificationCopy = new HashMap<>(pendingModifications);
          if (hasPendingClear) {
             return new AbstractMap.SimpleImmutableEntry<>(Boolean.TRUE, modificationCopy);
          }
-         modificationsToReplicate = this.replicatingModifications;
+         batchesToReplicate = this.replicatingBatches;
          clearToReplicate = this.isReplicatingClear;
       }
 
-      modificationCopy.putAll(modificationsToReplicate);
+      // The pending modifications are newer than the ones being replicated
+      for (Batch batch : batchesToReplicate) {
+         batch.modifications.forEach(modificationCopy::putIfAbsent);
+      }
       return new AbstractMap.SimpleImmutableEntry<>(clearToReplicate, modificationCopy);
    }
 
@@ -420,9 +599,35 @@ public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
       return actual.load(segment, key);
    }
 
+   @Override
+   public Publisher<MarshallableEntry<K, V>> bulkLoad(int publisherCount, Publisher<SegmentedPublisher<Object>> keyPublisher) {
+      assertNotStopped();
+      // The keys with a pending modification are answered from it, the others are loaded in bulk from the actual store
+      return Flowable.defer(() -> {
+         // Each subscriber needs its own list, as the pending modifications are checked again when subscribing
+         List<CompletionStage<MarshallableEntry<K, V>>> pendingStages = new ArrayList<>();
+         return Flowable.fromPublisher(keyPublisher)
+               .concatMapSingle(sp -> Flowable.fromPublisher(sp)
+                     .filter(key -> {
+                        CompletionStage<MarshallableEntry<K, V>> pendingStage = getStageFromPending(key);
+                        if (pendingStage == null) {
+                           return true;
+                        }
+                        pendingStages.add(pendingStage);
+                        return false;
+                     })
+                     .toList()
+                     .map(keys -> SingleSegmentPublisher.singleSegment(sp.getSegment(), Flowable.fromIterable(keys))))
+               .toList()
+               .flatMapPublisher(segmentedKeys -> Flowable.concat(
+                     Flowable.fromIterable(pendingStages).concatMapMaybe(Maybe::fromCompletionStage),
+                     actual.bulkLoad(publisherCount, Flowable.fromIterable(segmentedKeys))));
+      });
+   }
+
    private CompletionStage<MarshallableEntry<K, V>> getStageFromPending(Object key) {
       Object wrappedKey = wrapKeyIfNeeded(key);
-      Map<Object, Modification> modificationsToReplicate;
+      List<Batch> batchesToReplicate;
       boolean clearToReplicate;
       synchronized (this) {
          // Note that writes to this map are done only in synchronized block, so we have to do same for get
@@ -439,17 +644,21 @@ private CompletionStage<MarshallableEntry<K, V>> getStageFromPending(Object key)
             }
             return CompletableFutures.completedNull();
          }
-         // This map is never written to so just reading reference in synchronized block is sufficient
-         modificationsToReplicate = this.replicatingModifications;
+         // This list is never written to so just reading reference in synchronized block is sufficient
+         batchesToReplicate = this.replicatingBatches;
          clearToReplicate = this.isReplicatingClear;
       }
-      Modification modification = modificationsToReplicate.get(wrappedKey);
-      if (modification != null) {
-         if (log.isTraceEnabled()) {
-            log.tracef("Found entry was replicating write in async store: %s", modification);
+      // The running batches never contain the same key
+      for (Batch batch : batchesToReplicate) {
+         Modification modification = batch.modifications.get(wrappedKey);
+         if (modification != null) {
+            if (log.isTraceEnabled()) {
+               log.tracef("Found entry was replicating write in async store: %s", modification);
+            }
+            return modification.asStage();
          }
-         return modification.asStage();
-      } else if (clearToReplicate) {
+      }
+      if (clearToReplicate) {
          if (log.isTraceEnabled()) {
             log.trace("There is a clear being replicated from async store, returning null");
          }
@@ -474,37 +683,38 @@ public CompletionStage<Void> batch(int publisherCount, Publisher<SegmentedPublis
 
    CompletionStage<Void> submitModification(Modification modification) {
       boolean isTraceEnabled = log.isTraceEnabled();
-      boolean startNewBatch;
-      CompletionStage<Void> submitStage;
+      Batch batch;
+      CompletionStage<Void> submitStage = null;
       synchronized (this) {
-         int previousBatchId;
          if (isTraceEnabled) {
-            previousBatchId = System.identityHashCode(replicatingModifications);
             int currentBatchId = System.identityHashCode(pendingModifications);
             log.tracef("Adding modification %s to batch %s", modification, currentBatchId);
-         } else {
-            previousBatchId = 0;
          }
          modification.apply(this);
 
-         startNewBatch = batchFuture == null;
-         if (startNewBatch) {
-            batchFuture = new CompletableFuture<>();
-         }
+         // A modification of a segment being replicated can't be replicated until the batch completes, and then
+         // the completed batch submits it
+         batch = modification == ClearModification.INSTANCE || !replicatingSegments.get(modification.getSegment()) ?
+               nextBatch() : null;
 
-         int queueSize = pendingModifications.size() + replicatingModifications.size();
-         submitStage = queueSize > modificationQueueSize ? batchFuture : null;
-         if (submitStage != null && isTraceEnabled) {
-            log.tracef("Too many modifications queued (%d), operation must wait until previous batch %d completes",
-                       queueSize, previousBatchId);
+         int queueSize = pendingModifications.size() + replicatingCount;
+         if (queueSize > modificationQueueSize) {
+            if (queueAvailableFuture == null) {
+               queueAvailableFuture = new CompletableFuture<>();
+            }
+            submitStage = queueAvailableFuture;
+            if (isTraceEnabled) {
+               log.tracef("Too many modifications queued (%d), operation must wait until the queue has room", queueSize);
+            }
          }
       }
 
-      if (startNewBatch) {
-         submitTask();
+      submitBatches(batch);
+      if (submitStage == null) {
+         return CompletableFutures.completedNull();
       }
-      return submitStage == null ? CompletableFutures.completedNull() :
-             submitStage.thenApplyAsync(CompletableFutures.toNullFunction(), nonBlockingExecutor);
+      statistics.recordDelayedWrite();
+      return submitStage.thenApplyAsync(CompletableFutures.toNullFunction(), nonBlockingExecutor);
    }
 
    @Override
@@ -594,7 +804,7 @@ public CompletionStage<Boolean> isAvailable() {
          boolean isReplicating;
          int queueSize;
          synchronized (this) {
-            isReplicating = !replicatingModifications.isEmpty() || isReplicatingClear;
+            isReplicating = !replicatingBatches.isEmpty();
             queueSize = pendingModifications.size();
             if (delegateUnavailable = delegateAvailableFuture == null) {
                delegateAvailableFuture = new CompletableFuture<>();
@@ -0,0 +1,139 @@
+package org.infinispan.persistence.async;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.Units;
+
+/**
+ * Statistics of the modification queue of the {@link AsyncNonBlockingStore} and of the batches it writes to the
+ * underlying store.
+ *
+ * @since 15.0
+ */
+@MBean(objectName = "AsyncStore", description = "Modification queue and batches of the write-behind store")
+public class AsyncStoreStatistics {
+   private final AsyncNonBlockingStore<?, ?> store;
+   private final LongAdder coalescedWrites = new LongAdder();
+   private final LongAdder delayedWrites = new LongAdder();
+   private final LongAdder batches = new LongAdder();
+   private final LongAdder batchedModifications = new LongAdder();
+   private final LongAdder batchNanos = new LongAdder();
+   private final AtomicLong maxBatchNanos = new AtomicLong();
+
+   AsyncStoreStatistics(AsyncNonBlockingStore<?, ?> store) {
+      this.store = store;
+   }
+
+   void recordCoalescedWrites(int count) {
+      coalescedWrites.add(count);
+   }
+
+   void recordDelayedWrite() {
+      delayedWrites.increment();
+   }
+
+   void recordBatch(int size, long durationNanos) {
+      batches.increment();
+      batchedModifications.add(size);
+      batchNanos.add(durationNanos);
+      maxBatchNanos.accumulateAndGet(durationNanos, Math::max);
+   }
+
+   @ManagedAttribute(
+         description = "Number of modifications that are queued or being written to the underlying store",
+         displayName = "Queue depth",
+         dataType = DataType.MEASUREMENT
+   )
+   public int getQueueDepth() {
+      return store.queueDepth();
+   }
+
+   @ManagedAttribute(
+         description = "Number of batches that are being written to the underlying store",
+         displayName = "Running batches",
+         dataType = DataType.MEASUREMENT
+   )
+   public int getRunningBatches() {
+      return store.runningBatches();
+   }
+
+   @ManagedAttribute(
+         description = "Maximum number of modifications in the next batch, adapted to the latency of the underlying store",
+         displayName = "Batch size limit",
+         dataType = DataType.MEASUREMENT
+   )
+   public int getBatchSizeLimit() {
+      return store.batchSizeLimit();
+   }
+
+   @ManagedAttribute(
+         description = "Number of queued modifications that were replaced by a later modification of the same key or by a clear",
+         displayName = "Coalesced writes"
+   )
+   public long getCoalescedWrites() {
+      return coalescedWrites.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of modifications that had to wait for room in the modification queue",
+         displayName = "Delayed writes"
+   )
+   public long getDelayedWrites() {
+      return delayedWrites.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of batches written to the underlying store",
+         displayName = "Number of batches"
+   )
+   public long getBatches() {
+      return batches.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Average number of modifications in a batch",
+         displayName = "Average batch size"
+   )
+   public double getAverageBatchSize() {
+      long batches = getBatches();
+      return batches == 0 ? 0 : (double) batchedModifications.sum() / batches;
+   }
+
+   @ManagedAttribute(
+         description = "Average duration of a batch write to the underlying store",
+         displayName = "Average batch latency",
+         units = Units.MICROSECONDS
+   )
+   public long getAverageBatchLatency() {
+      long batches = getBatches();
+      return batches == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(batchNanos.sum() / batches);
+   }
+
+   @ManagedAttribute(
+         description = "Maximum duration of a batch write to the underlying store",
+         displayName = "Maximum batch latency",
+         units = Units.MICROSECONDS
+   )
+   public long getMaxBatchLatency() {
+      return TimeUnit.NANOSECONDS.toMicros(maxBatchNanos.get());
+   }
+
+   @ManagedOperation(
+         description = "Resets the async store statistics",
+         displayName = "Reset statistics"
+   )
+   public void resetStatistics() {
+      coalescedWrites.reset();
+      delayedWrites.reset();
+      batches.reset();
+      batchedModifications.reset();
+      batchNanos.reset();
+      maxBatchNanos.set(0);
+   }
+}
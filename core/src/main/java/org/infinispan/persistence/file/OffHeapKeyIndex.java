@@ -0,0 +1,518 @@
+package org.infinispan.persistence.file;
+
+import static org.infinispan.persistence.file.SingleFileStore.KEY_POS_LATEST;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.infinispan.commons.hash.MurmurHash3;
+import org.infinispan.container.offheap.OffHeapMemoryAllocator;
+import org.infinispan.container.offheap.OffHeapMemoryBlock;
+import org.infinispan.persistence.file.SingleFileStore.FileEntry;
+
+/**
+ * Index of the keys of a segment of the {@link SingleFileStore} that is kept outside of the Java heap.
+ * <p>
+ * The index is an open addressing hash table with linear probing, whose slots hold the hash of the serialized key and
+ * the offset of the entry in the file, 12 bytes per slot. The slots are allocated with the off-heap memory allocator of
+ * the store rather than in direct buffers, so that the table is not limited by {@code -XX:MaxDirectMemorySize}, and the
+ * old table is freed as soon as it is rehashed. The memory must be released with {@link #close()} once the index is
+ * discarded.
+ * <p>
+ * Neither the keys nor the {@link FileEntry} instances are kept in memory: a lookup reads the header and the key of each
+ * entry with the same hash from the file to verify that the keys match, and the iteration reads the keys from the file
+ * only when they are requested. The lookups read the file without holding the monitor of the index, and check
+ * afterwards that the slots with the same hash did not change meanwhile, otherwise they read them again.
+ * <p>
+ * Since the {@link FileEntry} instances are created again on every lookup, a locked entry is pinned until all its
+ * readers unlock it, so that the lookups return the same instance and the store waits for its readers before reusing
+ * its space in the file.
+ * <p>
+ * Like the maps returned by {@link java.util.Collections#synchronizedMap(Map)}, the operations synchronize on the index
+ * itself and the iteration requires holding its monitor. Removed keys leave a tombstone that is only dropped
+ * when the table is rehashed, so the iteration may remove the current entry.
+ *
+ * @since 15.0
+ */
+class OffHeapKeyIndex<K> extends AbstractMap<K, FileEntry> {
+   // 4 bytes hash + 8 bytes offset
+   private static final int SLOT_BYTES = 4 + 8;
+   private static final int INITIAL_CAPACITY = 16;
+   private static final float LOAD_FACTOR = 0.75f;
+   // The file starts with the magic bytes, so no entry is at offset 0
+   private static final long EMPTY = 0;
+   private static final long REMOVED = -1;
+
+   private final SingleFileStore<K, ?> store;
+   private final OffHeapMemoryAllocator allocator;
+   private final Map<Long, IndexedEntry> pinned = new HashMap<>();
+   private Table table;
+   private int size;
+   private int removed;
+   // Incremented whenever an offset leaves the table, as the space of its entry may then be reused by another key with
+   // the same hash, which a lookup comparing the offsets with the same hash could not tell apart
+   private long version;
+   private Set<Entry<K, FileEntry>> entrySet;
+
+   OffHeapKeyIndex(SingleFileStore<K, ?> store, OffHeapMemoryAllocator allocator) {
+      this.store = store;
+      this.allocator = allocator;
+      this.table = new Table(INITIAL_CAPACITY, allocator);
+   }
+
+   private static int hash(byte[] serializedKey) {
+      return MurmurHash3.getInstance().hash(serializedKey);
+   }
+
+   @Override
+   public synchronized int size() {
+      return size;
+   }
+
+   @Override
+   public boolean containsKey(Object key) {
+      return get(key) != null;
+   }
+
+   @Override
+   public FileEntry get(Object key) {
+      return get(key, false);
+   }
+
+   /**
+    * Same as {@link #get(Object)}, but locks the entry before any other thread can remove the key if {@code lock} is
+    * {@code true}. The caller must not hold the monitor of the index, as the keys are read from the file.
+    */
+   FileEntry get(Object key, boolean lock) {
+      KeyLookup lookup = new KeyLookup(store.marshallKey(key));
+      while (true) {
+         lookup.readCandidates();
+         synchronized (this) {
+            if (lookup.isCurrent()) {
+               FileEntry entry = lookup.entry();
+               if (entry != null && lock) {
+                  entry.lock();
+               }
+               return entry;
+            }
+         }
+      }
+   }
+
+   @Override
+   public FileEntry put(K key, FileEntry value) {
+      return putSerialized(store.marshallKey(key), value);
+   }
+
+   /**
+    * Same as {@link #put(Object, FileEntry)}, for callers that have the serialized key already.
+    */
+   FileEntry putSerialized(byte[] serializedKey, FileEntry value) {
+      KeyLookup lookup = new KeyLookup(serializedKey);
+      while (true) {
+         lookup.readCandidates();
+         synchronized (this) {
+            if (lookup.isCurrent()) {
+               FileEntry previous = lookup.entry();
+               if (previous != null) {
+                  table.set(lookup.slot(), lookup.hash, value.offset);
+                  version++;
+               } else {
+                  insert(lookup.hash, value.offset);
+               }
+               return previous;
+            }
+         }
+      }
+   }
+
+   @Override
+   public FileEntry remove(Object key) {
+      KeyLookup lookup = new KeyLookup(store.marshallKey(key));
+      while (true) {
+         lookup.readCandidates();
+         synchronized (this) {
+            if (lookup.isCurrent()) {
+               FileEntry entry = lookup.entry();
+               if (entry != null) {
+                  removeSlot(lookup.slot());
+               }
+               return entry;
+            }
+         }
+      }
+   }
+
+   /**
+    * Frees the memory of the table, after which the index must not be used anymore.
+    */
+   synchronized void close() {
+      table.free();
+      size = 0;
+      removed = 0;
+      version++;
+   }
+
+   /**
+    * Removes all the keys once the readers of the pinned entries are done, without reading the entries from the file.
+    */
+   @Override
+   public synchronized void clear() {
+      // The readers don't need the monitor to unlock an entry
+      for (IndexedEntry entry : pinned.values()) {
+         entry.waitUnlocked();
+      }
+      pinned.clear();
+      table.free();
+      table = new Table(INITIAL_CAPACITY, allocator);
+      size = 0;
+      removed = 0;
+      version++;
+   }
+
+   @Override
+   public Set<Entry<K, FileEntry>> entrySet() {
+      Set<Entry<K, FileEntry>> entrySet = this.entrySet;
+      if (entrySet == null) {
+         this.entrySet = entrySet = new EntrySet();
+      }
+      return entrySet;
+   }
+
+   /**
+    * @return the offsets of the entries whose key has the hash, in the order of their slots
+    */
+   private long[] candidates(int hash) {
+      long[] candidates = null;
+      int count = 0;
+      for (int slot = table.firstSlot(hash); ; slot = table.nextSlot(slot)) {
+         long offset = table.offset(slot);
+         if (offset == EMPTY) {
+            return candidates == null ? new long[0] : Arrays.copyOf(candidates, count);
+         }
+         if (offset != REMOVED && table.hash(slot) == hash) {
+            if (candidates == null) {
+               candidates = new long[1];
+            } else if (count == candidates.length) {
+               candidates = Arrays.copyOf(candidates, count * 2);
+            }
+            candidates[count++] = offset;
+         }
+      }
+   }
+
+   private int slotOf(int hash, long offset) {
+      for (int slot = table.firstSlot(hash); ; slot = table.nextSlot(slot)) {
+         if (table.offset(slot) == offset) {
+            return slot;
+         }
+      }
+   }
+
+   private void insert(int hash, long offset) {
+      int slot = table.firstSlot(hash);
+      long slotOffset;
+      while ((slotOffset = table.offset(slot)) != EMPTY && slotOffset != REMOVED) {
+         slot = table.nextSlot(slot);
+      }
+      if (slotOffset == REMOVED) {
+         // Reusing a tombstone
+         removed--;
+      }
+      table.set(slot, hash, offset);
+      size++;
+      if (size + removed > table.capacity * LOAD_FACTOR) {
+         rehash();
+      }
+   }
+
+   private void removeSlot(int slot) {
+      table.set(slot, table.hash(slot), REMOVED);
+      size--;
+      removed++;
+      version++;
+   }
+
+   private void rehash() {
+      int capacity = table.capacity;
+      if (size > capacity * LOAD_FACTOR / 2) {
+         // Otherwise dropping the tombstones frees enough slots
+         capacity <<= 1;
+      }
+      Table oldTable = table;
+      Table newTable = new Table(capacity, allocator);
+      for (int slot = 0; slot < oldTable.capacity; ++slot) {
+         long offset = oldTable.offset(slot);
+         if (offset != EMPTY && offset != REMOVED) {
+            int hash = oldTable.hash(slot);
+            int newSlot = newTable.firstSlot(hash);
+            while (newTable.offset(newSlot) != EMPTY) {
+               newSlot = newTable.nextSlot(newSlot);
+            }
+            newTable.set(newSlot, hash, offset);
+         }
+      }
+      table = newTable;
+      oldTable.free();
+      removed = 0;
+   }
+
+   private FileEntry entryAt(long offset) {
+      IndexedEntry pinnedEntry = pinned.get(offset);
+      return pinnedEntry != null ? pinnedEntry : new IndexedEntry(offset, store.readFromFile(offset, KEY_POS_LATEST));
+   }
+
+   private synchronized void pin(IndexedEntry entry) {
+      pinned.putIfAbsent(entry.offset, entry);
+   }
+
+   private synchronized void unpin(IndexedEntry entry) {
+      // A lookup may have locked the entry again before this thread acquired the monitor
+      if (!entry.isLocked()) {
+         pinned.remove(entry.offset, entry);
+      }
+   }
+
+   /**
+    * Looks up a key by reading the entries with the same hash from the file without holding the monitor of the index.
+    */
+   private final class KeyLookup {
+      final byte[] serializedKey;
+      final int hash;
+      long[] candidates;
+      long candidatesVersion;
+      IndexedEntry match;
+
+      KeyLookup(byte[] serializedKey) {
+         this.serializedKey = serializedKey;
+         this.hash = hash(serializedKey);
+      }
+
+      void readCandidates() {
+         synchronized (OffHeapKeyIndex.this) {
+            candidates = candidates(hash);
+            candidatesVersion = version;
+         }
+         match = null;
+         for (long offset : candidates) {
+            // Reads the header and the key with a single read
+            ByteBuffer buf = store.readFromFile(offset, KEY_POS_LATEST + serializedKey.length);
+            // The entry may have been removed and the file truncated meanwhile
+            if (buf.remaining() == KEY_POS_LATEST + serializedKey.length && keyMatches(offset, buf)) {
+               return;
+            }
+         }
+      }
+
+      private boolean keyMatches(long offset, ByteBuffer buf) {
+         IndexedEntry entry = new IndexedEntry(offset, buf);
+         if (entry.keyLen != serializedKey.length) {
+            return false;
+         }
+         for (byte b : serializedKey) {
+            if (buf.get() != b) {
+               return false;
+            }
+         }
+         match = entry;
+         return true;
+      }
+
+      /**
+       * Must be invoked while holding the monitor of the index.
+       *
+       * @return whether the entries read from the file are still the entries with the same hash
+       */
+      boolean isCurrent() {
+         return candidatesVersion == version && Arrays.equals(candidates, candidates(hash));
+      }
+
+      /**
+       * Must be invoked while holding the monitor of the index, after {@link #isCurrent()} returned {@code true}.
+       *
+       * @return the entry of the key, or {@code null} if the key is not in the index
+       */
+      FileEntry entry() {
+         if (match == null) {
+            return null;
+         }
+         IndexedEntry pinnedEntry = pinned.get(match.offset);
+         return pinnedEntry != null ? pinnedEntry : match;
+      }
+
+      /**
+       * Must be invoked while holding the monitor of the index, if {@link #entry()} returned an entry.
+       */
+      int slot() {
+         return slotOf(hash, match.offset);
+      }
+   }
+
+   private final class IndexedEntry extends FileEntry {
+      IndexedEntry(long offset, ByteBuffer header) {
+         super(offset, header);
+      }
+
+      @Override
+      void lock() {
+         // Entries are locked while holding the index monitor, so a lookup can't miss the pinned entry
+         synchronized (OffHeapKeyIndex.this) {
+            super.lock();
+            pin(this);
+         }
+      }
+
+      @Override
+      void unlock() {
+         super.unlock();
+         unpin(this);
+      }
+   }
+
+   private final class EntrySet extends AbstractSet<Entry<K, FileEntry>> {
+      @Override
+      public Iterator<Entry<K, FileEntry>> iterator() {
+         return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+         return OffHeapKeyIndex.this.size();
+      }
+   }
+
+   private final class EntryIterator implements Iterator<Entry<K, FileEntry>> {
+      private final Table iterationTable = table;
+      private int nextSlot = -1;
+      private int currentSlot = -1;
+
+      EntryIterator() {
+         advance();
+      }
+
+      private void advance() {
+         do {
+            nextSlot++;
+         } while (nextSlot < iterationTable.capacity && !isUsed(nextSlot));
+      }
+
+      private boolean isUsed(int slot) {
+         long offset = iterationTable.offset(slot);
+         return offset != EMPTY && offset != REMOVED;
+      }
+
+      @Override
+      public boolean hasNext() {
+         return nextSlot < iterationTable.capacity;
+      }
+
+      private void checkForComodification() {
+         // The memory of the iteration table is freed when it is replaced
+         if (iterationTable != table) {
+            throw new ConcurrentModificationException();
+         }
+      }
+
+      @Override
+      public Entry<K, FileEntry> next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         checkForComodification();
+         currentSlot = nextSlot;
+         advance();
+         return new IndexEntry(entryAt(iterationTable.offset(currentSlot)));
+      }
+
+      @Override
+      public void remove() {
+         checkForComodification();
+         if (currentSlot < 0 || !isUsed(currentSlot)) {
+            throw new IllegalStateException();
+         }
+         removeSlot(currentSlot);
+      }
+   }
+
+   /**
+    * Reads the key from the file only when requested.
+    */
+   private final class IndexEntry implements Entry<K, FileEntry> {
+      private final FileEntry fileEntry;
+      private K key;
+
+      IndexEntry(FileEntry fileEntry) {
+         this.fileEntry = fileEntry;
+      }
+
+      @Override
+      public K getKey() {
+         if (key == null) {
+            key = store.unmarshallKey(store.readFromFile(fileEntry.offset + KEY_POS_LATEST, fileEntry.keyLen));
+         }
+         return key;
+      }
+
+      @Override
+      public FileEntry getValue() {
+         return fileEntry;
+      }
+
+      @Override
+      public FileEntry setValue(FileEntry value) {
+         throw new UnsupportedOperationException();
+      }
+   }
+
+   /**
+    * The offsets of all the slots followed by their hashes, so that every value is aligned.
+    */
+   private static final class Table {
+      final int capacity;
+      final int mask;
+      final long hashesPosition;
+      final OffHeapMemoryBlock slots;
+
+      Table(int capacity, OffHeapMemoryAllocator allocator) {
+         this.capacity = capacity;
+         this.mask = capacity - 1;
+         this.hashesPosition = (long) capacity * 8;
+         // The block is zeroed, that is every slot is EMPTY
+         this.slots = new OffHeapMemoryBlock((long) capacity * SLOT_BYTES, allocator);
+      }
+
+      int firstSlot(int hash) {
+         // The hash is already well distributed
+         return hash & mask;
+      }
+
+      int nextSlot(int slot) {
+         return (slot + 1) & mask;
+      }
+
+      int hash(int slot) {
+         return slots.getInt(hashesPosition + (long) slot * 4);
+      }
+
+      long offset(int slot) {
+         return slots.getLong((long) slot * 8);
+      }
+
+      void set(int slot, int hash, long offset) {
+         slots.putInt(hashesPosition + (long) slot * 4, hash);
+         slots.putLong((long) slot * 8, offset);
+      }
+
+      void free() {
+         slots.free();
+      }
+   }
+}
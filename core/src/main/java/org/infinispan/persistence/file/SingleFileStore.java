@@ -48,6 +48,8 @@
 import org.infinispan.configuration.cache.SingleFileStoreConfiguration;
 import org.infinispan.configuration.cache.TransactionConfiguration;
 import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.container.offheap.OffHeapMemoryAllocator;
+import org.infinispan.container.offheap.UnpooledOffHeapMemoryAllocator;
 import org.infinispan.container.versioning.SimpleClusteredVersion;
 import org.infinispan.container.versioning.irac.IracEntryVersion;
 import org.infinispan.container.versioning.irac.TopologyIracVersion;
@@ -97,6 +99,10 @@
  * data loss, and data can be recomputed or re-queried from the original data
  * source.
  * <p/>
+ * Alternatively the index can be kept off-heap with {@link SingleFileStoreConfiguration#offHeapIndex()}:
+ * it then needs about 16 bytes of native memory per cache entry, which is not limited by
+ * {@code -XX:MaxDirectMemorySize}, but the keys are read from the file on each lookup.
+ * <p/>
  * This class is fully thread safe, yet allows for concurrent load / store
  * of individual cache entries.
  *
@@ -158,6 +164,9 @@
    private boolean segmented;
    private int actualNumSegments;
    private int maxEntries;
+   private boolean offHeapIndex;
+   // The memory of the off-heap indexes, freed when they are discarded
+   private final OffHeapMemoryAllocator indexAllocator = new UnpooledOffHeapMemoryAllocator();
 
    public static File getStoreFile(String directoryPath, String cacheName) {
       return new File(new File(directoryPath), cacheName + ".dat");
@@ -173,6 +182,8 @@ public CompletionStage<Void> start(InitializationContext ctx) {
 
       keyPartitioner = ctx.getKeyPartitioner();
       maxEntries = configuration.maxEntries();
+      // The index is moved off-heap once the store file has been migrated
+      offHeapIndex = false;
       segmented = configuration.segmented();
       if (segmented) {
          actualNumSegments = ctx.getCache().getCacheConfiguration().clustering().hash().numSegments();
@@ -202,13 +213,17 @@ private void blockingStart() {
             byte[] magicHeader = validateExistingFile(channel, file.getAbsolutePath());
             if (magicHeader != null) {
                migrateNonSegmented(magicHeader);
+               rebuildOffHeapIndexAfterMigration();
             } else {
+               useOffHeapIndex();
                rebuildIndex();
                processFreeEntries();
             }
          } else if (hasAnyComposedSegmentedFiles()) {
             migrateFromComposedSegmentedLoadWriteStore();
+            rebuildOffHeapIndexAfterMigration();
          } else {
+            useOffHeapIndex();
             // No existing files
             if (!readOnly) {
                File dir = file.getParentFile();
@@ -229,6 +244,35 @@ private void blockingStart() {
       }
    }
 
+   /**
+    * Replaces the maps of the owned segments with off-heap indexes, if configured.
+    *
+    * @return {@code true} if the index is kept off-heap
+    */
+   private boolean useOffHeapIndex() {
+      if (!configuration.offHeapIndex()) {
+         return false;
+      }
+      offHeapIndex = true;
+      for (int segment = 0; segment < entries.length; segment++) {
+         if (entries[segment] != null) {
+            entries[segment] = new OffHeapKeyIndex<>(this, indexAllocator);
+         }
+      }
+      return true;
+   }
+
+   /**
+    * The migrations keep the index on-heap, as the off-heap index can only read the keys from the store file, so the
+    * off-heap index is built from the migrated file afterwards.
+    */
+   private void rebuildOffHeapIndexAfterMigration() throws Exception {
+      if (useOffHeapIndex()) {
+         freeList.clear();
+         rebuildIndex();
+      }
+   }
+
    private boolean hasAnyComposedSegmentedFiles() {
       int numSegments = ctx.getCache().getCacheConfiguration().clustering().hash().numSegments();
       for (int segment = 0; segment < numSegments; segment++) {
@@ -335,6 +379,13 @@ private void blockingStop() {
             // reset state
             channel.close();
             channel = null;
+            if (offHeapIndex) {
+               for (Map<K, FileEntry> segmentEntries : entries) {
+                  if (segmentEntries != null) {
+                     ((OffHeapKeyIndex<K>) segmentEntries).close();
+                  }
+               }
+            }
             entries = null;
             freeList = null;
          }
@@ -387,10 +438,12 @@ private void rebuildIndex() throws Exception {
 
             // deserialize key and add to entries map
             // Marshaller should allow for provided type return for safety
-            K key = (K) ctx.getPersistenceMarshaller().objectFromByteBuffer(buf.array(), 0, fe.keyLen);
+            // The off-heap index only needs the key to find its segment
+            K key = offHeapIndex && !segmented ? null :
+                  (K) ctx.getPersistenceMarshaller().objectFromByteBuffer(buf.array(), 0, fe.keyLen);
             // We start by owning all the segments
             Map<K, FileEntry> segmentEntries = getSegmentEntries(getSegment(key));
-            segmentEntries.put(key, fe);
+            putEntry(segmentEntries, key, buf.array(), 0, fe.keyLen, fe);
          } else {
             // add to free list
             freeList.add(fe);
@@ -807,8 +860,8 @@ private ByteBuffer allocate(ByteBuffer buf, int length) {
     */
    @Override
    public CompletionStage<Boolean> containsKey(int segment, Object key) {
-      // Avoid switching threads if there is nothing to load
-      long stamp = resizeLock.tryReadLock();
+      // Avoid switching threads if there is nothing to load, the off-heap index reads the keys from the file
+      long stamp = offHeapIndex ? 0 : resizeLock.tryReadLock();
       if (stamp != 0) {
          // Acquires the FileEntry lock and releases the read lock
          FileEntry fe = getFileEntryWithReadLock(segment, key, stamp, false);
@@ -975,7 +1028,8 @@ private void write(int segment, MarshallableEntry<? extends K, ? extends V> mars
             log.tracef("Wrote entry %s:%d at %d:%d", marshalledEntry.getKey(), len, newEntry.offset, newEntry.size);
 
          // add the new entry to in-memory index
-         FileEntry oldEntry = segmentEntries.put(marshalledEntry.getKey(), newEntry);
+         FileEntry oldEntry = putEntry(segmentEntries, marshalledEntry.getKey(), key.getBuf(), key.getOffset(),
+               key.getLength(), newEntry);
 
          // if we added an entry, check if we need to evict something
          if (oldEntry == null)
@@ -990,6 +1044,18 @@ private void write(int segment, MarshallableEntry<? extends K, ? extends V> mars
       }
    }
 
+   /**
+    * Adds the entry to the map of its segment, the off-heap index avoids marshalling the key again.
+    */
+   @SuppressWarnings("unchecked")
+   private FileEntry putEntry(Map<K, FileEntry> segmentEntries, K key, byte[] keyBuf, int keyOffset, int keyLength,
+                              FileEntry fe) {
+      if (offHeapIndex) {
+         return ((OffHeapKeyIndex<K>) segmentEntries).putSerialized(Arrays.copyOfRange(keyBuf, keyOffset, keyOffset + keyLength), fe);
+      }
+      return segmentEntries.put(key, fe);
+   }
+
    /**
     * Try to evict an entry if the capacity of the cache store is reached.
     *
@@ -1027,8 +1093,11 @@ private void blockingClear() {
                continue;
 
             synchronized (segmentEntries) {
-               for (FileEntry fe : segmentEntries.values())
-                  fe.waitUnlocked();
+               // The off-heap index only waits for the locked entries, without reading all the entries from the file
+               if (!offHeapIndex) {
+                  for (FileEntry fe : segmentEntries.values())
+                     fe.waitUnlocked();
+               }
 
                segmentEntries.clear();
             }
@@ -1057,7 +1126,7 @@ private void blockingClear() {
 
    @Override
    public CompletionStage<Boolean> delete(int segment, Object key) {
-      long stamp = resizeLock.tryReadLock();
+      long stamp = offHeapIndex ? 0 : resizeLock.tryReadLock();
       if (stamp != 0) {
          FileEntry fe = deleteWithReadLock(segment, key);
          if (fe == null) {
@@ -1103,8 +1172,8 @@ private FileEntry deleteWithReadLock(int segment, Object key) {
 
    @Override
    public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
-      // Avoid switching threads if there is nothing to load
-      long stamp = resizeLock.tryReadLock();
+      // Avoid switching threads if there is nothing to load, the off-heap index reads the keys from the file
+      long stamp = offHeapIndex ? 0 : resizeLock.tryReadLock();
       if (stamp != 0) {
          // Acquires the FileEntry lock and releases the read lock
          FileEntry fe = getFileEntryWithReadLock(segment, key, stamp, true);
@@ -1139,6 +1208,21 @@ private FileEntry getFileEntryWithReadLock(int segment, Object key, long stamp,
          if (segmentEntries == null)
             return null;
 
+         if (offHeapIndex) {
+            // The off-heap index reads the keys from the file, so the lookup must not hold its monitor
+            fe = ((OffHeapKeyIndex<K>) segmentEntries).get(key, lockFileEntry);
+            if (fe == null)
+               return null;
+
+            if (fe.isExpired(timeService.wallClockTime())) {
+               if (lockFileEntry) {
+                  fe.unlock();
+               }
+               return null;
+            }
+            return fe;
+         }
+
          synchronized (segmentEntries) {
             // lookup FileEntry of the key
             fe = segmentEntries.get(key);
@@ -1248,7 +1332,7 @@ public Publisher<K> publishKeys(IntSet segments, Predicate<? super K> filter) {
    }
 
    private Publisher<K> publishSegmentKeys(Predicate<? super K> filter, int segment) {
-      long stamp = resizeLock.tryReadLock();
+      long stamp = offHeapIndex ? 0 : resizeLock.tryReadLock();
       if (stamp != 0) {
          return publishSegmentKeysWithReadLock(filter, segment, stamp);
       } else {
@@ -1584,6 +1668,41 @@ Map<K, FileEntry> getEntries() {
       }
    }
 
+   /**
+    * Reads up to {@code length} bytes of the file, for the {@link OffHeapKeyIndex}.
+    */
+   ByteBuffer readFromFile(long offset, int length) {
+      ByteBuffer buf = ByteBuffer.allocate(length);
+      try {
+         while (buf.hasRemaining() && channel.read(buf, offset + buf.position()) >= 0) {
+            // Keep reading until the buffer is full or the end of the file
+         }
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      }
+      return buf.flip();
+   }
+
+   byte[] marshallKey(Object key) {
+      try {
+         return ctx.getPersistenceMarshaller().objectToBuffer(key).trim();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new PersistenceException(e);
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   @SuppressWarnings("unchecked")
+   K unmarshallKey(ByteBuffer buf) {
+      try {
+         return (K) ctx.getPersistenceMarshaller().objectFromByteBuffer(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+      } catch (IOException | ClassNotFoundException e) {
+         throw new PersistenceException(e);
+      }
+   }
+
    SortedSet<FileEntry> getFreeList() {
       return freeList;
    }
@@ -1611,6 +1730,11 @@ private void blockingAddSegments(IntSet segments) {
             if (entries[segment] != null)
                continue;
 
+            if (offHeapIndex) {
+               entries[segment] = new OffHeapKeyIndex<>(this, indexAllocator);
+               continue;
+            }
+
             // Only use LinkedHashMap (LRU) for entries when cache store is bounded
             Map<K, FileEntry> entryMap = configuration.maxEntries() > 0 ?
                   new LinkedHashMap<>(16, 0.75f, true) :
@@ -1647,8 +1771,13 @@ private void blockingRemoveSegments(IntSet segments) {
 
       try {
          for (Map<K, FileEntry> removedSegment : removedSegments) {
-            for (FileEntry fileEntry : removedSegment.values()) {
-               free(fileEntry);
+            synchronized (removedSegment) {
+               for (FileEntry fileEntry : removedSegment.values()) {
+                  free(fileEntry);
+               }
+               if (offHeapIndex) {
+                  ((OffHeapKeyIndex<K>) removedSegment).close();
+               }
             }
          }
       } catch (IOException e) {
@@ -1674,7 +1803,7 @@ private void blockingRemoveSegments(IntSet segments) {
     * <li>{@link #metadataLen} bytes: serialized key</li>
     * </ul>
     */
-   private static class FileEntry implements Comparable<FileEntry> {
+   static class FileEntry implements Comparable<FileEntry> {
       /**
        * File offset of this block.
        */
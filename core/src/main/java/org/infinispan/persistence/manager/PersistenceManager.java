@@ -1,8 +1,10 @@
 package org.infinispan.persistence.manager;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
 
@@ -17,6 +19,8 @@
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.transaction.impl.AbstractCacheTransaction;
+import org.infinispan.util.concurrent.AggregateCompletionStage;
+import org.infinispan.util.concurrent.CompletionStages;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.reactivestreams.Publisher;
 
@@ -45,6 +49,11 @@ public interface PersistenceManager extends Lifecycle {
     */
    Flowable<MarshallableEntry<Object, Object>> preloadPublisher();
 
+   /**
+    * Loads the data of the given segments from the external store into memory during cache startup.
+    */
+   Flowable<MarshallableEntry<Object, Object>> preloadPublisher(IntSet segments);
+
    /**
     * Marks the given storage as disabled.
     */
@@ -193,6 +202,32 @@ default <K, V> CompletionStage<MarshallableEntry<K, V>> loadFromAllStores(Object
       return loadFromAllStores(key, localInvocation, includeStores);
    }
 
+   /**
+    * Same as {@link #loadFromAllStores(Object, boolean, boolean)} for several keys, which the stores supporting it
+    * load in bulk.
+    * @param keys keys to read the entries from
+    * @param localInvocation whether this invocation is a local invocation. Some loaders may be ignored if it is not local
+    * @param includeStores if a loader that is also a store can be loaded from
+    * @return the entries found, the keys without an entry are not present in the map
+    * @implSpec default implementation invokes {@link #loadFromAllStores(Object, boolean, boolean)} for each key
+    * @since 15.0
+    */
+   default <K, V> CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAllFromAllStores(Collection<?> keys,
+         boolean localInvocation, boolean includeStores) {
+      Map<Object, MarshallableEntry<K, V>> entries = new ConcurrentHashMap<>();
+      AggregateCompletionStage<Map<Object, MarshallableEntry<K, V>>> stage =
+            CompletionStages.aggregateCompletionStage(entries);
+      for (Object key : keys) {
+         stage.dependsOn(this.<K, V>loadFromAllStores(key, localInvocation, includeStores)
+               .thenAccept(entry -> {
+                  if (entry != null) {
+                     entries.put(key, entry);
+                  }
+               }));
+      }
+      return stage.freeze();
+   }
+
    /**
     * Returns an approximate count of how many entries are persisted in the given segments.
     *
@@ -12,9 +12,11 @@
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -125,6 +127,9 @@ public class PersistenceManagerImpl implements PersistenceManager {
    private volatile boolean enabled;
    private volatile boolean clearOnStop;
    private volatile AutoCloseable availabilityTask;
+   private volatile AutoCloseable demotionTask;
+   // Not null if the stores are the tiers of a tiered persistence
+   private volatile TieredStores tiers;
    private volatile String unavailableExceptionMessage;
 
    // Writes to an invalidation cache skip the shared check
@@ -236,6 +241,64 @@ private Completable startManagerAndStores(Collection<StoreConfiguration> storeCo
          }
 
          allSegmentedOrShared = allStoresSegmentedOrShared();
+
+         if (configuration.persistence().tiered() && tiers == null) {
+            startTiers();
+         }
+      });
+   }
+
+   @GuardedBy("lock#writeLock")
+   private void startTiers() {
+      for (StoreStatus storeStatus : stores) {
+         if (!storeStatus.hasCharacteristic(Characteristic.BULK_READ)) {
+            throw CONFIG.invalidTierStore(storeStatus.store.getClass().getSimpleName());
+         }
+      }
+      tiers = new TieredStores(stores.get(0), stores.get(1), cache.wired().getName(), keyPartitioner, segmentCount);
+      long demotionAge = configuration.persistence().tierDemotionAge();
+      demotionTask = nonBlockingManager.scheduleWithFixedDelay(this::demoteColdEntries, demotionAge, demotionAge,
+            MILLISECONDS, t -> !(t instanceof Error));
+   }
+
+   private void stopTiers() {
+      TieredStores tiersToStop = tiers;
+      if (tiersToStop == null) {
+         return;
+      }
+      tiersToStop.stop();
+      tiers = null;
+      try {
+         demotionTask.close();
+      } catch (Exception e) {
+         log.warn("There was a problem stopping the tier demotion task", e);
+      }
+   }
+
+   /**
+    * Moves the entries of the hot tier that were not accessed recently to the capacity tier.
+    * <p>
+    * Like {@link #pollStoreAvailability()}, this method is not invoked until the previous invocation's stage completed.
+    */
+   private CompletionStage<Void> demoteColdEntries() {
+      TieredStores tiersToDemote = tiers;
+      if (!enabled || !isAvailable() || tiersToDemote == null) {
+         return CompletableFutures.completedNull();
+      }
+      // The read lock is only held while a batch is moved, so that it doesn't block a store change for the whole scan
+      return tiersToDemote.demoteColdEntries(demotion -> {
+         long stamp = acquireReadLock();
+         if (!enabled || !isAvailable() || tiers != tiersToDemote) {
+            releaseReadLock(stamp);
+            return CompletableFutures.completedNull();
+         }
+         try {
+            return demotion.get()
+                  .whenComplete((ignore, t) -> releaseReadLock(stamp));
+         } catch (Throwable t) {
+            releaseReadLock(stamp);
+            throw t;
+         }
       });
    }
 
@@ -407,6 +470,8 @@ private CompletionStage<Void> updatePersistenceAvailability(NonBlockingStore<?,
    @Stop
    public void stop() {
       AggregateCompletionStage<Void> allStage = CompletionStages.aggregateCompletionStage();
+      // Interrupts a running demotion before waiting for it to release the lock
+      stopTiers();
       long stamp = acquireWriteLock();
       try {
          stopAvailabilityTask();
@@ -466,14 +531,18 @@ public boolean hasStore(Predicate<StoreConfiguration> test) {
 
    @Override
    public Flowable<MarshallableEntry<Object, Object>> preloadPublisher() {
+      return preloadPublisher(IntSets.immutableRangeSet(segmentCount));
+   }
+
+   @Override
+   public Flowable<MarshallableEntry<Object, Object>> preloadPublisher(IntSet segments) {
       long stamp = acquireReadLock();
       NonBlockingStore<Object, Object> nonBlockingStore = getStoreLocked(status -> status.config.preload());
       if (nonBlockingStore == null) {
          releaseReadLock(stamp);
          return Flowable.empty();
       }
-      Publisher<MarshallableEntry<Object, Object>> publisher = nonBlockingStore.publishEntries(
-            IntSets.immutableRangeSet(segmentCount), null, true);
+      Publisher<MarshallableEntry<Object, Object>> publisher = nonBlockingStore.publishEntries(segments, null, true);
 
       return Flowable.fromPublisher(publisher)
                      .doFinally(() -> releaseReadLock(stamp));
@@ -571,6 +640,10 @@ public CompletionStage<Void> disableStore(String storeType) {
             unavailableExceptionMessage = null;
          }
          allSegmentedOrShared = allStoresSegmentedOrShared();
+         TieredStores currentTiers = tiers;
+         if (currentTiers != null && (!stores.contains(currentTiers.hot) || !stores.contains(currentTiers.capacity))) {
+            stopTiers();
+         }
          listeners.forEach(l -> l.storeChanged(createStatus()));
 
          if (!stillHasAStore) {
@@ -731,34 +804,15 @@ public CompletionStage<Boolean> deleteFromAllStores(Object key, int segment, Pre
          if (stores.isEmpty())
             return CompletableFutures.completedFalse();
 
-         // Let the write work in parallel across the stores
-         AtomicBoolean removedAny = new AtomicBoolean();
-         AggregateCompletionStage<AtomicBoolean> stageBuilder = CompletionStages.aggregateCompletionStage(removedAny);
-         for (StoreStatus storeStatus : stores) {
-            if (!storeStatus.hasCharacteristic(Characteristic.READ_ONLY)
-                  && predicate.test(storeStatus.config)) {
-               stageBuilder.dependsOn(storeStatus.store.delete(segment, key)
-                     .thenAccept(removed -> {
-                        // If a store doesn't say, pretend it was removed
-                        if (removed == null || removed) {
-                           removedAny.set(true);
-                        }
-                     }));
-            }
-         }
-         CompletionStage<AtomicBoolean> stage = stageBuilder.freeze();
+         TieredStores currentTiers = tiers;
+         CompletionStage<Boolean> stage = currentTiers == null ?
+               deleteFromStores(key, segment, predicate) :
+               currentTiers.sequence(key, () -> deleteFromStores(key, segment, predicate));
          if (CompletionStages.isCompletedSuccessfully(stage)) {
-            return CompletableFutures.booleanStage(removedAny.get());
+            return stage;
          } else {
             release = false;
-            return stage.handle((removed, throwable) -> {
-               releaseReadLock(stamp);
-               if (throwable != null) {
-                  throw CompletableFutures.asCompletionException(throwable);
-               }
-
-               return removed.get();
-            });
+            return stage.whenComplete((removed, throwable) -> releaseReadLock(stamp));
          }
       } finally {
          if (release) {
@@ -767,6 +821,30 @@ public CompletionStage<Boolean> deleteFromAllStores(Object key, int segment, Pre
       }
    }
 
+   private CompletionStage<Boolean> deleteFromStores(Object key, int segment,
+         Predicate<? super StoreConfiguration> predicate) {
+      // Let the write work in parallel across the stores
+      AtomicBoolean removedAny = new AtomicBoolean();
+      AggregateCompletionStage<AtomicBoolean> stageBuilder = CompletionStages.aggregateCompletionStage(removedAny);
+      for (StoreStatus storeStatus : stores) {
+         if (!storeStatus.hasCharacteristic(Characteristic.READ_ONLY)
+               && predicate.test(storeStatus.config)) {
+            stageBuilder.dependsOn(storeStatus.store.delete(segment, key)
+                  .thenAccept(removed -> {
+                     // If a store doesn't say, pretend it was removed
+                     if (removed == null || removed) {
+                        removedAny.set(true);
+                     }
+                  }));
+         }
+      }
+      CompletionStage<AtomicBoolean> stage = stageBuilder.freeze();
+      if (CompletionStages.isCompletedSuccessfully(stage)) {
+         return CompletableFutures.booleanStage(removedAny.get());
+      }
+      return stage.thenApply(AtomicBoolean::get);
+   }
+
    @Override
    public <K, V> Publisher<MarshallableEntry<K, V>> publishEntries(boolean fetchValue, boolean fetchMetadata) {
       return publishEntries(k -> true, fetchValue, fetchMetadata, k -> true);
@@ -789,17 +867,16 @@ public <K, V> Publisher<MarshallableEntry<K, V>> publishEntries(IntSet segments,
                if (log.isTraceEnabled()) {
                   log.tracef("Publishing entries for segments %s", segments);
                }
+               TieredStores currentTiers = tiers;
+               if (currentTiers != null) {
+                  return publishFromTiers(currentTiers, predicate, storeStatus ->
+                        storeStatus.<K, V>store().publishEntries(segments, filterFor(storeStatus, segments, filter),
+                              fetchValue));
+               }
                for (StoreStatus storeStatus : stores) {
-                  Set<Characteristic> characteristics = storeStatus.characteristics;
-                  if (characteristics.contains(Characteristic.BULK_READ) && predicate.test(storeStatus.config)) {
-                     Predicate<? super K> filterToUse;
-                     if (!characteristics.contains(Characteristic.SEGMENTABLE) &&
-                           !segments.containsAll(IntSets.immutableRangeSet(segmentCount))) {
-                        filterToUse = PersistenceUtil.combinePredicate(segments, keyPartitioner, filter);
-                     } else {
-                        filterToUse = filter;
-                     }
-                     return storeStatus.<K, V>store().publishEntries(segments, filterToUse, fetchValue);
+                  if (storeStatus.hasCharacteristic(Characteristic.BULK_READ) && predicate.test(storeStatus.config)) {
+                     return storeStatus.<K, V>store().publishEntries(segments, filterFor(storeStatus, segments, filter),
+                           fetchValue);
                   }
                }
                return Flowable.empty();
@@ -822,19 +899,17 @@ public <K> Publisher<K> publishKeys(IntSet segments, Predicate<? super K> filter
                                if (log.isTraceEnabled()) {
                                   log.tracef("Publishing keys for segments %s", segments);
                                }
+                               TieredStores currentTiers = tiers;
+                               if (currentTiers != null) {
+                                  return publishFromTiers(currentTiers, predicate, storeStatus ->
+                                        storeStatus.<K, Object>store().publishKeys(segments,
+                                              filterFor(storeStatus, segments, filter)));
+                               }
                                for (StoreStatus storeStatus : stores) {
-                                  Set<Characteristic> characteristics = storeStatus.characteristics;
-                                  if (characteristics.contains(Characteristic.BULK_READ) &&
+                                  if (storeStatus.hasCharacteristic(Characteristic.BULK_READ) &&
                                         predicate.test(storeStatus.config)) {
-                                     Predicate<? super K> filterToUse;
-                                     if (!characteristics.contains(Characteristic.SEGMENTABLE) &&
-                                           !segments.containsAll(IntSets.immutableRangeSet(segmentCount))) {
-                                        filterToUse =
-                                              PersistenceUtil.combinePredicate(segments, keyPartitioner, filter);
-                                     } else {
-                                        filterToUse = filter;
-                                     }
-                                     return storeStatus.<K, Object>store().publishKeys(segments, filterToUse);
+                                     return storeStatus.<K, Object>store().publishKeys(segments,
+                                           filterFor(storeStatus, segments, filter));
                                   }
                                }
                                return Flowable.empty();
@@ -842,6 +917,28 @@ public <K> Publisher<K> publishKeys(IntSet segments, Predicate<? super K> filter
                             this::releaseReadLock);
    }
 
+   private <K> Predicate<? super K> filterFor(StoreStatus storeStatus, IntSet segments, Predicate<? super K> filter) {
+      if (!storeStatus.hasCharacteristic(Characteristic.SEGMENTABLE) &&
+            !segments.containsAll(IntSets.immutableRangeSet(segmentCount))) {
+         return PersistenceUtil.combinePredicate(segments, keyPartitioner, filter);
+      }
+      return filter;
+   }
+
+   /**
+    * Publishes the values of the capacity tier and then those of the hot tier, with the demotions suspended so that no
+    * entry is missed.
+    */
+   private <E> Flowable<E> publishFromTiers(TieredStores currentTiers, Predicate<? super StoreConfiguration> predicate,
+         Function<StoreStatus, Publisher<E>> publisherFunction) {
+      Flowable<E> flowable = Flowable.fromArray(currentTiers.capacity, currentTiers.hot)
+            .filter(storeStatus -> predicate.test(storeStatus.config))
+            .concatMap(publisherFunction);
+      return Flowable.using(currentTiers::beginIteration,
+            demotion -> Completable.fromCompletionStage(demotion).andThen(flowable),
+            ignore -> currentTiers.endIteration());
+   }
+
    @Override
    public <K, V> CompletionStage<MarshallableEntry<K, V>> loadFromAllStores(Object key, boolean localInvocation,
                                                                             boolean includeStores) {
@@ -861,8 +958,10 @@ public <K, V> CompletionStage<MarshallableEntry<K, V>> loadFromAllStores(Object
             log.tracef("Loading entry for key %s with segment %d", key, segment);
          }
          Iterator<StoreStatus> iterator = stores.iterator();
-         CompletionStage<MarshallableEntry<K, V>> stage =
-               loadFromStoresIterator(key, segment, iterator, localInvocation, includeStores);
+         TieredStores currentTiers = tiers;
+         CompletionStage<MarshallableEntry<K, V>> stage = currentTiers == null ?
+               loadFromStoresIterator(key, segment, iterator, localInvocation, includeStores) :
+               currentTiers.sequenceRead(key, () -> loadFromStoresIterator(key, segment, iterator, localInvocation, includeStores));
          if (CompletionStages.isCompletedSuccessfully(stage)) {
             return stage;
          } else {
@@ -889,11 +988,13 @@ private <K, V> CompletionStage<MarshallableEntry<K, V>> loadFromStoresIterator(O
          CompletionStage<MarshallableEntry<K, V>> loadStage = store.load(segmentOrZero(storeStatus, segment), key);
          return loadStage.thenCompose(e -> {
             if (e != null) {
-               // Read only we apply lifespan expiration to the entry, so it can be reread later
-               // Max Idle is only allowed when the store has passivation, so it can't be read only
-               if (storeStatus.hasCharacteristic(Characteristic.READ_ONLY) && configuration.expiration().lifespan() > 0) {
-                  e = marshallableEntryFactory.cloneWithExpiration((MarshallableEntry) e, timeService.wallClockTime(),
-                        configuration.expiration().lifespan());
+               e = applyReadOnlyExpiration(storeStatus, e);
+               TieredStores currentTiers = tiers;
+               if (currentTiers != null) {
+                  currentTiers.recordAccess(key);
+                  if (currentTiers.isCapacity(storeStatus)) {
+                     currentTiers.promote(key, segment);
+                  }
                }
                return CompletableFuture.completedFuture(e);
             } else {
@@ -904,6 +1005,81 @@ private <K, V> CompletionStage<MarshallableEntry<K, V>> loadFromStoresIterator(O
       return CompletableFutures.completedNull();
    }
 
+   private <K, V> MarshallableEntry<K, V> applyReadOnlyExpiration(StoreStatus storeStatus, MarshallableEntry<K, V> e) {
+      // Read only we apply lifespan expiration to the entry, so it can be reread later
+      // Max Idle is only allowed when the store has passivation, so it can't be read only
+      if (storeStatus.hasCharacteristic(Characteristic.READ_ONLY) && configuration.expiration().lifespan() > 0) {
+         return marshallableEntryFactory.cloneWithExpiration((MarshallableEntry) e, timeService.wallClockTime(),
+               configuration.expiration().lifespan());
+      }
+      return e;
+   }
+
+   @Override
+   public <K, V> CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAllFromAllStores(Collection<?> keys,
+         boolean localInvocation, boolean includeStores) {
+      if (tiers != null) {
+         // The loads of a tiered persistence are sequenced per key and may promote the entries
+         return PersistenceManager.super.loadAllFromAllStores(keys, localInvocation, includeStores);
+      }
+      long stamp = acquireReadLock();
+      boolean release = true;
+      try {
+         if (!checkStoreAvailability()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+         }
+         if (log.isTraceEnabled()) {
+            log.tracef("Loading entries for keys %s", keys);
+         }
+         Map<Object, MarshallableEntry<K, V>> entries = new ConcurrentHashMap<>();
+         CompletionStage<Map<Object, MarshallableEntry<K, V>>> stage =
+               loadAllFromStoresIterator(new ArrayList<>(keys), stores.iterator(), entries, localInvocation,
+                     includeStores);
+         if (CompletionStages.isCompletedSuccessfully(stage)) {
+            return stage;
+         } else {
+            release = false;
+            return stage.whenComplete((e, throwable) -> releaseReadLock(stamp));
+         }
+      } finally {
+         if (release) {
+            releaseReadLock(stamp);
+         }
+      }
+   }
+
+   private <K, V> CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAllFromStoresIterator(List<Object> keys,
+         Iterator<StoreStatus> iterator, Map<Object, MarshallableEntry<K, V>> entries, boolean localInvocation,
+         boolean includeStores) {
+      while (iterator.hasNext()) {
+         StoreStatus storeStatus = iterator.next();
+         if (!allowLoad(storeStatus, localInvocation, includeStores)) {
+            continue;
+         }
+         boolean segmented = storeStatus.hasCharacteristic(Characteristic.SEGMENTABLE);
+         Publisher<MarshallableEntry<K, V>> publisher = storeStatus.<K, V>store().bulkLoad(segmentCount(segmented),
+               segmentedPublishers(Flowable.fromIterable(keys), segmented));
+         return Flowable.fromPublisher(publisher)
+               .doOnNext(e -> entries.put(e.getKey(), applyReadOnlyExpiration(storeStatus, e)))
+               .ignoreElements()
+               .toCompletionStage(null)
+               .thenCompose(ignore -> {
+                  // The next store is only asked for the keys that were not found
+                  List<Object> missingKeys = new ArrayList<>(keys.size() - entries.size());
+                  for (Object key : keys) {
+                     if (!entries.containsKey(key)) {
+                        missingKeys.add(key);
+                     }
+                  }
+                  if (missingKeys.isEmpty()) {
+                     return CompletableFuture.completedFuture(entries);
+                  }
+                  return loadAllFromStoresIterator(missingKeys, iterator, entries, localInvocation, includeStores);
+               });
+      }
+      return CompletableFuture.completedFuture(entries);
+   }
+
    private boolean allowLoad(StoreStatus storeStatus, boolean localInvocation, boolean includeStores) {
       return !storeStatus.hasCharacteristic(Characteristic.WRITE_ONLY) &&
             (localInvocation || !isLocalOnlyLoader(storeStatus.store)) &&
@@ -954,22 +1130,14 @@ public CompletionStage<Long> approximateSize(Predicate<? super StoreConfiguratio
             return NonBlockingStore.SIZE_UNAVAILABLE_FUTURE;
          }
 
-         if (log.isTraceEnabled()) {
-            log.tracef("Obtaining approximate size from store %s", firstStoreStatus.store);
-         }
+         TieredStores currentTiers = tiers;
          CompletionStage<Long> stage;
-         if (firstStoreStatus.hasCharacteristic(Characteristic.SEGMENTABLE)) {
-            stage = firstStoreStatus.store.approximateSize(segments);
+         if (currentTiers != null && predicate.test(currentTiers.hot.config) &&
+               predicate.test(currentTiers.capacity.config)) {
+            stage = sumTierSizes(approximateSize(currentTiers.capacity, segments),
+                  approximateSize(currentTiers.hot, segments));
          } else {
-            stage = firstStoreStatus.store.approximateSize(IntSets.immutableRangeSet(segmentCount))
-                  .thenApply(size -> {
-                     // Counting only the keys in the given segments would be expensive,
-                     // so we compute an estimate assuming that each segment has a similar number of entries
-                     LocalizedCacheTopology cacheTopology = distributionManager.getCacheTopology();
-                     int storeSegments = firstStoreStatus.hasCharacteristic(Characteristic.SHAREABLE) ?
-                           segmentCount : cacheTopology.getLocalWriteSegmentsCount();
-                     return storeSegments > 0 ? size * segments.size() / storeSegments : size;
-                  });
+            stage = approximateSize(firstStoreStatus, segments);
          }
          return stage.whenComplete((ignore, ignoreT) -> releaseReadLock(stamp));
       } catch (Throwable t) {
@@ -978,6 +1146,31 @@ public CompletionStage<Long> approximateSize(Predicate<? super StoreConfiguratio
       }
    }
 
+   private CompletionStage<Long> approximateSize(StoreStatus storeStatus, IntSet segments) {
+      if (log.isTraceEnabled()) {
+         log.tracef("Obtaining approximate size from store %s", storeStatus.store);
+      }
+      if (storeStatus.hasCharacteristic(Characteristic.SEGMENTABLE)) {
+         return storeStatus.store.approximateSize(segments);
+      }
+      return storeStatus.store.approximateSize(IntSets.immutableRangeSet(segmentCount))
+            .thenApply(size -> {
+               // Counting only the keys in the given segments would be expensive,
+               // so we compute an estimate assuming that each segment has a similar number of entries
+               LocalizedCacheTopology cacheTopology = distributionManager.getCacheTopology();
+               int storeSegments = storeStatus.hasCharacteristic(Characteristic.SHAREABLE) ?
+                     segmentCount : cacheTopology.getLocalWriteSegmentsCount();
+               return storeSegments > 0 ? size * segments.size() / storeSegments : size;
+            });
+   }
+
+   /**
+    * The tiers hold disjoint entries, so the size of the cache is the sum of their sizes, unless one is unavailable.
+    */
+   private static CompletionStage<Long> sumTierSizes(CompletionStage<Long> capacitySize, CompletionStage<Long> hotSize) {
+      return capacitySize.thenCombine(hotSize, (capacity, hot) -> capacity < 0 || hot < 0 ? -1L : capacity + hot);
+   }
+
    @Override
    public CompletionStage<Long> size(Predicate<? super StoreConfiguration> predicate, IntSet segments) {
       long stamp = acquireReadLock();
@@ -995,8 +1188,15 @@ public CompletionStage<Long> size(Predicate<? super StoreConfiguration> predicat
          if (segments == null) {
             segments = IntSets.immutableRangeSet(segmentCount);
          }
-         return nonBlockingStore.size(segments)
-               .whenComplete((ignore, ignoreT) -> releaseReadLock(stamp));
+         TieredStores currentTiers = tiers;
+         CompletionStage<Long> stage;
+         if (currentTiers != null && predicate.test(currentTiers.hot.config) &&
+               predicate.test(currentTiers.capacity.config)) {
+            stage = sumTierSizes(currentTiers.capacity.store.size(segments), currentTiers.hot.store.size(segments));
+         } else {
+            stage = nonBlockingStore.size(segments);
+         }
+         return stage.whenComplete((ignore, ignoreT) -> releaseReadLock(stamp));
       } catch (Throwable t) {
          releaseReadLock(stamp);
          throw t;
@@ -1025,14 +1225,15 @@ public CompletionStage<Void> writeToAllNonTxStores(MarshallableEntry marshalledE
          if (log.isTraceEnabled()) {
             log.tracef("Writing entry %s for with segment: %d", marshalledEntry, segment);
          }
-         // Let the write work in parallel across the stores
-         AggregateCompletionStage<Void> stageBuilder = CompletionStages.aggregateCompletionStage();
-         for (StoreStatus storeStatus : stores) {
-            if (shouldWrite(storeStatus, predicate, flags)) {
-               stageBuilder.dependsOn(storeStatus.store.write(segment, marshalledEntry));
-            }
+         TieredStores currentTiers = tiers;
+         CompletionStage<Void> stage;
+         if (currentTiers == null) {
+            stage = writeToStores(marshalledEntry, segment, predicate, flags, null);
+         } else {
+            Object key = marshalledEntry.getKey();
+            currentTiers.recordAccess(key);
+            stage = currentTiers.sequence(key, () -> writeToStores(marshalledEntry, segment, predicate, flags, currentTiers));
          }
-         CompletionStage<Void> stage = stageBuilder.freeze();
          if (CompletionStages.isCompletedSuccessfully(stage)) {
             return stage;
          } else {
@@ -1046,6 +1247,38 @@ public CompletionStage<Void> writeToAllNonTxStores(MarshallableEntry marshalledE
       }
    }
 
+   private CompletionStage<Void> writeToStores(MarshallableEntry marshalledEntry, int segment,
+         Predicate<? super StoreConfiguration> predicate, long flags, TieredStores currentTiers) {
+      // Let the write work in parallel across the stores
+      AggregateCompletionStage<Void> stageBuilder = CompletionStages.aggregateCompletionStage();
+      CompletionStage<Void> hotStage = null;
+      for (StoreStatus storeStatus : stores) {
+         if (currentTiers != null && currentTiers.isCapacity(storeStatus)) {
+            continue;
+         }
+         if (shouldWrite(storeStatus, predicate, flags)) {
+            CompletionStage<Void> writeStage = storeStatus.store.write(segment, marshalledEntry);
+            if (currentTiers != null && currentTiers.isHot(storeStatus)) {
+               hotStage = writeStage;
+            }
+            stageBuilder.dependsOn(writeStage);
+         }
+      }
+      if (currentTiers != null) {
+         StoreStatus capacity = currentTiers.capacity;
+         if (shouldWrite(capacity, predicate, flags)) {
+            if (hotStage != null) {
+               // The entry now lives in the hot tier, it is removed from the capacity tier once written there
+               Object key = marshalledEntry.getKey();
+               stageBuilder.dependsOn(hotStage.thenCompose(ignore -> capacity.store.delete(segment, key)));
+            } else {
+               stageBuilder.dependsOn(capacity.store.write(segment, marshalledEntry));
+            }
+         }
+      }
+      return stageBuilder.freeze();
+   }
+
    private int segmentOrZero(StoreStatus storeStatus, int segment) {
       return storeStatus.hasCharacteristic(Characteristic.SEGMENTABLE) ? segment : 0;
    }
@@ -1152,23 +1385,43 @@ public <K, V> CompletionStage<Void> writeEntries(Iterable<MarshallableEntry<K, V
                if (log.isTraceEnabled()) {
                   log.trace("Writing entries to stores");
                }
-               return Flowable.fromIterable(stores)
+               TieredStores currentTiers = tiers;
+               Flowable<StoreStatus> storeFlowable = Flowable.fromIterable(stores)
                      .filter(storeStatus -> shouldWrite(storeStatus, predicate) &&
-                           !storeStatus.hasCharacteristic(Characteristic.TRANSACTIONAL))
-                     // Let the write work in parallel across the stores
-                     .flatMapCompletable(storeStatus -> {
-                        boolean segmented = storeStatus.hasCharacteristic(Characteristic.SEGMENTABLE);
-                        Flowable<NonBlockingStore.SegmentedPublisher<MarshallableEntry<K, V>>> flowable;
-                        if (segmented) {
-                           flowable = Flowable.fromIterable(iterable)
-                                 .groupBy(groupingFunction(MarshallableEntry::getKey))
-                                 .map(SegmentPublisherWrapper::wrap);
-                        } else {
-                           flowable = Flowable.just(SingleSegmentPublisher.singleSegment(Flowable.fromIterable(iterable)));
-                        }
-                        return Completable.fromCompletionStage(storeStatus.<K, V>store().batch(segmentCount(segmented),
-                              Flowable.empty(), flowable));
-                     });
+                           !storeStatus.hasCharacteristic(Characteristic.TRANSACTIONAL));
+               Function<StoreStatus, Completable> storeBatch = storeStatus -> {
+                  boolean segmented = storeStatus.hasCharacteristic(Characteristic.SEGMENTABLE);
+                  if (currentTiers != null && currentTiers.isCapacity(storeStatus)) {
+                     // The entries written to the hot tier are removed from the capacity tier
+                     Flowable<NonBlockingStore.SegmentedPublisher<Object>> removeFlowable =
+                           segmentedPublishers(Flowable.fromIterable(iterable).<Object>map(MarshallableEntry::getKey),
+                                 segmented);
+                     return Completable.fromCompletionStage(storeStatus.<K, V>store().batch(segmentCount(segmented),
+                           removeFlowable, Flowable.empty()));
+                  }
+                  Flowable<NonBlockingStore.SegmentedPublisher<MarshallableEntry<K, V>>> flowable;
+                  if (segmented) {
+                     flowable = Flowable.fromIterable(iterable)
+                           .groupBy(groupingFunction(MarshallableEntry::getKey))
+                           .map(SegmentPublisherWrapper::wrap);
+                  } else {
+                     flowable = Flowable.just(SingleSegmentPublisher.singleSegment(Flowable.fromIterable(iterable)));
+                  }
+                  return Completable.fromCompletionStage(storeStatus.<K, V>store().batch(segmentCount(segmented),
+                        Flowable.empty(), flowable));
+               };
+               if (currentTiers == null) {
+                  // Let the write work in parallel across the stores
+                  return storeFlowable.flatMapCompletable(storeBatch);
+               }
+               // The hot tier is written before the entries are removed from the capacity tier
+               List<Object> keys = new ArrayList<>();
+               iterable.forEach(entry -> {
+                  keys.add(entry.getKey());
+                  currentTiers.recordAccess(entry.getKey());
+               });
+               return Completable.fromCompletionStage(currentTiers.sequenceAll(keys,
+                     () -> storeFlowable.concatMapCompletable(storeBatch).toCompletionStage(null)));
             },
             this::releaseReadLock
       ).toCompletionStage(null);
@@ -1212,42 +1465,64 @@ private <K, V> CompletionStage<Long> batchOperation(Flowable<MVCCEntry<K, V>> mv
                   log.trace("Writing batch to stores");
                }
 
-               return Flowable.fromIterable(stores)
-                     .filter(storeStatus -> !storeStatus.hasCharacteristic(Characteristic.READ_ONLY))
-                     .flatMapSingle(storeStatus -> {
-                        Flowable<MVCCEntry<K, V>> flowableToUse;
-                        boolean shared = storeStatus.config.shared();
-                        if (shared) {
-                           if (log.isTraceEnabled()) {
-                              log.tracef("Store %s is shared, checking skip shared stores and ignoring entries not" +
-                                    " primarily owned by this node", storeStatus.store);
-                           }
-                           flowableToUse = mvccEntryFlowable.filter(mvccEntry -> !mvccEntry.isSkipSharedStore());
-                        } else {
-                           flowableToUse = mvccEntryFlowable;
-                        }
-
-                        boolean segmented = storeStatus.config.segmented();
+               TieredStores currentTiers = tiers;
+               Flowable<StoreStatus> storeFlowable = Flowable.fromIterable(stores)
+                     .filter(storeStatus -> !storeStatus.hasCharacteristic(Characteristic.READ_ONLY));
+               Function<StoreStatus, Maybe<Long>> storeBatch = storeStatus -> {
+                  if (currentTiers != null && currentTiers.isCapacity(storeStatus)) {
+                     // The entries written to the hot tier are removed from the capacity tier, the tiers
+                     // are never shared so there is no need to filter the keys
+                     boolean segmented = storeStatus.config.segmented();
+                     Flowable<NonBlockingStore.SegmentedPublisher<Object>> removeFlowable =
+                           segmentedPublishers(mvccEntryFlowable.<Object>map(MVCCEntry::getKey), segmented);
+                     CompletionStage<Void> storeBatchStage = flowableHandler.handleFlowables(storeStatus.store(),
+                           segmentCount(segmented), removeFlowable, Flowable.empty());
+                     // Does not emit a count, the entries were counted when written to the hot tier
+                     return Completable.fromCompletionStage(storeBatchStage).toMaybe();
+                  }
+                  Flowable<MVCCEntry<K, V>> flowableToUse;
+                  boolean shared = storeStatus.config.shared();
+                  if (shared) {
+                     if (log.isTraceEnabled()) {
+                        log.tracef("Store %s is shared, checking skip shared stores and ignoring entries not" +
+                              " primarily owned by this node", storeStatus.store);
+                     }
+                     flowableToUse = mvccEntryFlowable.filter(mvccEntry -> !mvccEntry.isSkipSharedStore());
+                  } else {
+                     flowableToUse = mvccEntryFlowable;
+                  }
 
-                        // Now we have to split this stores' flowable into two (one for remove and one for put)
-                        flowableToUse = flowableToUse.publish().autoConnect(2);
+                  boolean segmented = storeStatus.config.segmented();
 
-                        Flowable<NonBlockingStore.SegmentedPublisher<Object>> removeFlowable = createRemoveFlowable(
-                              flowableToUse, shared, segmented, storeStatus);
+                  // Now we have to split this stores' flowable into two (one for remove and one for put)
+                  flowableToUse = flowableToUse.publish().autoConnect(2);
 
-                        ByRef.Long writeCount = new ByRef.Long(0);
+                  Flowable<NonBlockingStore.SegmentedPublisher<Object>> removeFlowable = createRemoveFlowable(
+                        flowableToUse, shared, segmented, storeStatus);
 
-                        Flowable<NonBlockingStore.SegmentedPublisher<MarshallableEntry<K, V>>> writeFlowable =
-                              createWriteFlowable(flowableToUse, ctx, shared, segmented, writeCount, storeStatus);
+                  ByRef.Long writeCount = new ByRef.Long(0);
 
-                        CompletionStage<Void> storeBatchStage = flowableHandler.handleFlowables(storeStatus.store(),
-                              segmentCount(segmented), removeFlowable, writeFlowable);
+                  Flowable<NonBlockingStore.SegmentedPublisher<MarshallableEntry<K, V>>> writeFlowable =
+                        createWriteFlowable(flowableToUse, ctx, shared, segmented, writeCount, storeStatus);
 
-                        return Single.fromCompletionStage(storeBatchStage
-                              .thenApply(ignore2 -> writeCount.get()));
-                        // Only take the last element for the count - ensures all stores are completed
-                     }).last(0L);
+                  CompletionStage<Void> storeBatchStage = flowableHandler.handleFlowables(storeStatus.store(),
+                        segmentCount(segmented), removeFlowable, writeFlowable);
 
+                  return Maybe.fromCompletionStage(storeBatchStage
+                        .thenApply(ignore2 -> writeCount.get()));
+               };
+               if (currentTiers == null) {
+                  // Only take the last element for the count - ensures all stores are completed
+                  return storeFlowable.flatMapMaybe(storeBatch).last(0L);
+               }
+               // The hot tier is written before the entries are removed from the capacity tier
+               return mvccEntryFlowable.map(MVCCEntry::getKey)
+                     .toList()
+                     .flatMap(keys -> {
+                        keys.forEach(currentTiers::recordAccess);
+                        return Single.fromCompletionStage(currentTiers.sequenceAll(keys,
+                              () -> storeFlowable.concatMapMaybe(storeBatch).last(0L).toCompletionStage()));
+                     });
             },
             this::releaseReadLock
       ).toCompletionStage();
@@ -1288,6 +1563,16 @@ private <K, V> Flowable<NonBlockingStore.SegmentedPublisher<Object>> createRemov
       return flowable;
    }
 
+   private Flowable<NonBlockingStore.SegmentedPublisher<Object>> segmentedPublishers(Flowable<Object> keys,
+         boolean segmented) {
+      if (segmented) {
+         return keys
+               .groupBy(keyPartitioner::getSegment)
+               .map(SegmentPublisherWrapper::wrap);
+      }
+      return Flowable.just(SingleSegmentPublisher.singleSegment(keys));
+   }
+
    private <K, V> Flowable<NonBlockingStore.SegmentedPublisher<MarshallableEntry<K, V>>> createWriteFlowable(
          Flowable<MVCCEntry<K, V>> flowableToUse, InvocationContext ctx, boolean shared, boolean segmented,
          ByRef.Long writeCount, StoreStatus storeStatus) {
@@ -1579,7 +1864,7 @@ <K, V> NonBlockingStore<K, V> store() {
          return (NonBlockingStore) store;
       }
 
-      private boolean hasCharacteristic(Characteristic characteristic) {
+      boolean hasCharacteristic(Characteristic characteristic) {
          return characteristics.contains(characteristic);
       }
    }
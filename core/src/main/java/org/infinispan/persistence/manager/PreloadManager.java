@@ -1,9 +1,13 @@
 package org.infinispan.persistence.manager;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 import java.lang.invoke.MethodHandles;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import jakarta.transaction.Transaction;
 import jakarta.transaction.TransactionManager;
@@ -12,11 +16,16 @@
 import org.infinispan.cache.impl.InvocationHelper;
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commons.dataconversion.internal.Json;
+import org.infinispan.commons.dataconversion.internal.JsonSerialization;
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.EnumUtil;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.IntSets;
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.InvocationContextFactory;
 import org.infinispan.context.impl.FlagBitSets;
@@ -28,6 +37,12 @@
 import org.infinispan.factories.impl.ComponentRef;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.Units;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.PersistenceException;
@@ -38,7 +53,6 @@
 import org.infinispan.util.concurrent.CompletionStages;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
-import org.reactivestreams.Publisher;
 
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Flowable;
@@ -46,9 +60,16 @@
 
 /**
  * Separate the preload into its own component
+ * <p>
+ * A segmented store is preloaded one segment at a time, with up to
+ * {@link org.infinispan.configuration.cache.PersistenceConfiguration#preloadParallelism()} segments loaded at the same
+ * time, so that the progress of the preload can be followed through JMX and the logs. The entries are written straight
+ * to the data container unless the cache is transactional, indexes the entries or backs them up to other sites, as
+ * those need the interceptors to see the writes.
  */
+@MBean(objectName = "Preload", description = "Loading of the preload store into memory when the cache starts")
 @Scope(Scopes.NAMED_CACHE)
-public class PreloadManager {
+public class PreloadManager implements JsonSerialization {
    public static final long PRELOAD_FLAGS = FlagBitSets.CACHE_MODE_LOCAL |
                                             FlagBitSets.SKIP_OWNERSHIP_CHECK |
                                             FlagBitSets.IGNORE_RETURN_VALUES |
@@ -60,6 +81,7 @@ public class PreloadManager {
          EnumUtil.mergeBitSets(PRELOAD_FLAGS, FlagBitSets.SKIP_INDEXING);
 
    private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
+   private static final long PROGRESS_LOG_INTERVAL_NANOS = SECONDS.toNanos(30);
 
    @Inject Configuration configuration;
    @Inject protected PersistenceManager persistenceManager;
@@ -72,9 +94,19 @@ public class PreloadManager {
    @Inject TransactionCoordinator transactionCoordinator;
    @Inject TransactionManager transactionManager;
    @Inject TransactionTable transactionTable;
+   @Inject InternalDataContainer<Object, Object> dataContainer;
 
    private volatile boolean fullyPreloaded;
 
+   // Progress of the current or last preload
+   private final AtomicLong preloadedEntries = new AtomicLong();
+   private final AtomicInteger preloadedSegments = new AtomicInteger();
+   private final AtomicLong lastProgressLog = new AtomicLong();
+   private volatile int totalSegments;
+   private volatile long startTime;
+   private volatile long endTime;
+   private volatile boolean preloading;
+
    @Start
    public void start() {
       fullyPreloaded = false;
@@ -82,26 +114,52 @@ public void start() {
    }
 
    private CompletionStage<Void> doPreload() {
-      Publisher<MarshallableEntry<Object, Object>> publisher = persistenceManager.preloadPublisher();
+      int parallelism = configuration.persistence().preloadParallelism();
+      // Preloading a store that is not segmented segment by segment would read the whole store for every segment
+      boolean bySegment = parallelism > 1 && persistenceManager.hasStore(c -> c.preload() && c.segmented());
+      int numSegments = configuration.clustering().hash().numSegments();
 
       long start = timeService.time();
+      preloadedEntries.set(0);
+      preloadedSegments.set(0);
+      totalSegments = bySegment ? numSegments : 1;
+      startTime = start;
+      lastProgressLog.set(start);
+      preloading = true;
 
       final long maxEntries = getMaxEntries();
       final long flags = getFlagsForStateInsertion();
+      final boolean direct = canWriteDirectly(flags);
       AdvancedCache<?,?> tmpCache = this.cache.wired().withStorageMediaType();
       DataConversion keyDataConversion = tmpCache.getKeyDataConversion();
       DataConversion valueDataConversion = tmpCache.getValueDataConversion();
+      // Entries beyond maxEntries are counted, but not inserted
+      AtomicLong readEntries = new AtomicLong();
 
       Transaction outerTransaction = suspendIfNeeded();
       try {
-         return Flowable.fromPublisher(publisher)
-                        .take(maxEntries)
-                        .concatMapSingle(me -> preloadEntry(flags, me, keyDataConversion, valueDataConversion))
-                        .count()
-                        .toCompletionStage()
-                        .thenAccept(insertAmount -> {
-                           this.fullyPreloaded = insertAmount < maxEntries;
-                           log.debugf("Preloaded %d keys in %s", insertAmount,
+         Flowable<IntSet> segments = bySegment ?
+               Flowable.range(0, numSegments).map(IntSets::immutableSet) :
+               Flowable.just(IntSets.immutableRangeSet(numSegments));
+         return segments.flatMapCompletable(segmentSet -> {
+                           Flowable<MarshallableEntry<Object, Object>> entries =
+                                 persistenceManager.preloadPublisher(segmentSet)
+                                                   .takeWhile(me -> readEntries.incrementAndGet() <= maxEntries);
+                           Flowable<?> preloaded = direct ?
+                                 entries.doOnNext(me -> preloadEntryDirectly(me, keyDataConversion, valueDataConversion)) :
+                                 entries.concatMapSingle(me -> preloadEntry(flags, me, keyDataConversion, valueDataConversion));
+                           return preloaded.doOnNext(ignore -> preloadedEntries.incrementAndGet())
+                                           .doOnComplete(this::segmentPreloaded)
+                                           .ignoreElements();
+                        }, false, parallelism)
+                        .doFinally(() -> {
+                           endTime = timeService.time();
+                           preloading = false;
+                        })
+                        .toCompletionStage(null)
+                        .thenAccept(ignore -> {
+                           this.fullyPreloaded = readEntries.get() <= maxEntries;
+                           log.debugf("Preloaded %d keys in %s", preloadedEntries.get(),
                                       Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
                         });
       } finally {
@@ -109,6 +167,40 @@ private CompletionStage<Void> doPreload() {
       }
    }
 
+   private void segmentPreloaded() {
+      int segments = preloadedSegments.incrementAndGet();
+      long now = timeService.time();
+      long lastLog = lastProgressLog.get();
+      if (segments < totalSegments && now - lastLog >= PROGRESS_LOG_INTERVAL_NANOS &&
+            lastProgressLog.compareAndSet(lastLog, now)) {
+         log.preloadProgress(cache.wired().getName(), segments, totalSegments, preloadedEntries.get(),
+                             Util.prettyPrintTime(getPreloadTime()), Util.prettyPrintTime(getEstimatedRemainingTime()));
+      }
+   }
+
+   /**
+    * The entries can be written straight to the data container only if none of the interceptors has something to do
+    * with them: transactions must be committed, indexed entries must be indexed and the cross-site metadata must be
+    * tracked.
+    */
+   private boolean canWriteDirectly(long flags) {
+      return !configuration.transaction().transactionMode().isTransactional() &&
+            (flags == PRELOAD_WITHOUT_INDEXING_FLAGS || !configuration.indexing().enabled()) &&
+            !configuration.sites().hasBackups();
+   }
+
+   private void preloadEntryDirectly(MarshallableEntry<Object, Object> me, DataConversion keyDataConversion, DataConversion valueDataConversion) {
+      Object key = keyDataConversion.toStorage(me.getKey());
+      Object value = valueDataConversion.toStorage(me.getValue());
+      Metadata metadata = me.getMetadata();
+      if (metadata == null) {
+         metadata = new EmbeddedMetadata.Builder().build();
+      }
+      // Same as the CallInterceptor, the timestamps of the store are preserved
+      dataContainer.put(keyPartitioner.getSegment(key), key, value, metadata, me.getInternalMetadata(), me.created(),
+                        me.lastUsed());
+   }
+
    private Single<?> preloadEntry(long flags, MarshallableEntry<Object, Object> me, DataConversion keyDataConversion, DataConversion valueDataConversion) {
       // CallInterceptor will preserve the timestamps if the metadata is an InternalMetadataImpl instance
       InternalMetadataImpl metadata = new InternalMetadataImpl(me.getMetadata(), me.created(), me.lastUsed());
@@ -192,7 +284,99 @@ private long getFlagsForStateInsertion() {
     * @return true if all entries from the store have been inserted to the cache. If the persistence/preload
     * is disabled or eviction limit was reached when preloading, returns false.
     */
+   @ManagedAttribute(
+         description = "Whether all the entries of the preload store were loaded into memory",
+         displayName = "Fully preloaded"
+   )
    public boolean isFullyPreloaded() {
       return fullyPreloaded;
    }
+
+   @ManagedAttribute(
+         description = "Whether the entries of the preload store are being loaded into memory",
+         displayName = "Preload in progress"
+   )
+   public boolean isPreloading() {
+      return preloading;
+   }
+
+   @ManagedAttribute(
+         description = "Number of entries loaded into memory by the current or last preload",
+         displayName = "Preloaded entries",
+         dataType = DataType.MEASUREMENT
+   )
+   public long getPreloadedEntries() {
+      return preloadedEntries.get();
+   }
+
+   @ManagedAttribute(
+         description = "Number of segments loaded into memory by the current or last preload",
+         displayName = "Preloaded segments",
+         dataType = DataType.MEASUREMENT
+   )
+   public int getPreloadedSegments() {
+      return preloadedSegments.get();
+   }
+
+   @ManagedAttribute(
+         description = "Number of segments to load, 1 if the preload store is not loaded segment by segment",
+         displayName = "Total segments to preload"
+   )
+   public int getTotalSegments() {
+      return totalSegments;
+   }
+
+   @ManagedAttribute(
+         description = "Percentage of the segments loaded into memory by the current or last preload",
+         displayName = "Preload progress",
+         units = Units.PERCENTAGE,
+         dataType = DataType.MEASUREMENT
+   )
+   public double getPreloadProgress() {
+      int total = totalSegments;
+      return total == 0 ? 0 : 100.0 * preloadedSegments.get() / total;
+   }
+
+   @ManagedAttribute(
+         description = "Duration of the current or last preload",
+         displayName = "Preload time",
+         units = Units.MILLISECONDS,
+         dataType = DataType.MEASUREMENT
+   )
+   public long getPreloadTime() {
+      if (totalSegments == 0) {
+         return 0;
+      }
+      long end = preloading ? timeService.time() : endTime;
+      return NANOSECONDS.toMillis(end - startTime);
+   }
+
+   @ManagedAttribute(
+         description = "Estimated time until the current preload completes, extrapolated from the loaded segments, or -1 if unknown",
+         displayName = "Preload estimated remaining time",
+         units = Units.MILLISECONDS,
+         dataType = DataType.MEASUREMENT
+   )
+   public long getEstimatedRemainingTime() {
+      if (!preloading) {
+         return 0;
+      }
+      int segments = preloadedSegments.get();
+      if (segments == 0) {
+         return -1;
+      }
+      return getPreloadTime() * (totalSegments - segments) / segments;
+   }
+
+   @Override
+   public Json toJson() {
+      return Json.object()
+            .set("in_progress", isPreloading())
+            .set("fully_preloaded", isFullyPreloaded())
+            .set("entries", getPreloadedEntries())
+            .set("segments", getPreloadedSegments())
+            .set("total_segments", getTotalSegments())
+            .set("time", getPreloadTime())
+            .set("remaining_time", getEstimatedRemainingTime());
+   }
 }
@@ -0,0 +1,325 @@
+package org.infinispan.persistence.manager;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import org.infinispan.commons.hash.MurmurHash3;
+import org.infinispan.commons.util.BloomFilter;
+import org.infinispan.commons.util.IntSets;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.persistence.manager.PersistenceManagerImpl.StoreStatus;
+import org.infinispan.persistence.spi.NonBlockingStore.Characteristic;
+import org.infinispan.util.concurrent.AggregateCompletionStage;
+import org.infinispan.util.concurrent.CompletionStages;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
+
+/**
+ * The two stores of a tiered persistence: the hot tier holds the recently accessed entries and the capacity tier holds
+ * the others, so that each entry is in one of them only.
+ * <p>
+ * The writes and the moves of the {@link PersistenceManagerImpl} on a key are sequenced through {@link
+ * #sequence(Object, Supplier)}, so that an entry moved from one tier to the other can't overwrite a concurrent write.
+ * The loads are sequenced through {@link #sequenceRead(Object, Supplier)}, they run concurrently with each other but
+ * not with a write or a move of the key, so they can't miss an entry that is being moved. A move writes the entry to
+ * its new tier before deleting it from the old one.
+ * <p>
+ * The accessed keys are tracked with two bloom filters that are rotated every demotion age, so the memory used does not
+ * depend on the size of the tiers. An entry of the hot tier that was not accessed since the last rotation is demoted,
+ * which happens between one and two demotion ages after its last access. A false positive only keeps an entry in the
+ * hot tier for longer. The filters use the hash code of the key and a MurmurHash3 of its bytes, so keys with the same
+ * hash code don't collide in both of them.
+ * <p>
+ * The demotion scans the hot tier without the lock of the {@link PersistenceManagerImpl}, and only takes it while a
+ * batch of entries is moved.
+ * <p>
+ * Demotions are suspended while the tiers are iterated, as an entry demoted while the iteration moves from one tier to
+ * the other would be missed. The iterations go through the capacity tier first, so that promotions can't hide entries
+ * from them, but an entry promoted during an iteration may be returned twice.
+ *
+ * @since 15.0
+ */
+class TieredStores {
+   private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
+   private static final int MIN_FILTER_BITS = 1 << 16;
+   private static final int MAX_FILTER_BITS = 1 << 27;
+   private static final int DEMOTION_BATCH_SIZE = 128;
+   // MurmurHash3 only falls back to the hash code for keys that are neither strings nor bytes
+   private static final List<ToIntFunction<Object>> HASH_FUNCTIONS = List.of(
+         key -> key.hashCode() & Integer.MAX_VALUE,
+         key -> MurmurHash3.getInstance().hash(key) & Integer.MAX_VALUE);
+
+   final StoreStatus hot;
+   final StoreStatus capacity;
+   private final String cacheName;
+   private final KeyPartitioner keyPartitioner;
+   private final int segmentCount;
+   // The operations enqueued for each key
+   private final ConcurrentMap<Object, Tail> tails = new ConcurrentHashMap<>();
+   private final LongAdder accessedKeys = new LongAdder();
+   private volatile BloomFilter<Object> currentAccesses = newFilter(0);
+   private volatile BloomFilter<Object> previousAccesses = newFilter(0);
+   private volatile boolean stopped;
+   // Guarded by this
+   private int iterations;
+   private CompletionStage<Void> demotion = CompletableFutures.completedNull();
+
+   TieredStores(StoreStatus hot, StoreStatus capacity, String cacheName, KeyPartitioner keyPartitioner,
+         int segmentCount) {
+      this.hot = hot;
+      this.capacity = capacity;
+      this.cacheName = cacheName;
+      this.keyPartitioner = keyPartitioner;
+      this.segmentCount = segmentCount;
+   }
+
+   private static BloomFilter<Object> newFilter(long expectedKeys) {
+      // About 10 bits per key
+      long bits = Math.max(MIN_FILTER_BITS, Math.min(MAX_FILTER_BITS, expectedKeys * 10));
+      return BloomFilter.createConcurrentFilter((int) bits, HASH_FUNCTIONS);
+   }
+
+   /**
+    * Invokes the operation once all the operations previously sequenced for the key are complete.
+    */
+   <T> CompletionStage<T> sequence(Object key, Supplier<? extends CompletionStage<T>> operation) {
+      CompletableFuture<Void> done = new CompletableFuture<>();
+      AggregateCompletionStage<Void> previousDone = CompletionStages.aggregateCompletionStage();
+      enqueue(key, done, previousDone);
+      return previousDone.freeze()
+            .thenCompose(ignore -> invoke(operation))
+            .whenComplete((ignore, t) -> {
+               done.complete(null);
+               dequeue(key, done);
+            });
+   }
+
+   /**
+    * Same as {@link #sequence(Object, Supplier)} for an operation on several keys.
+    */
+   <T> CompletionStage<T> sequenceAll(Collection<?> keys, Supplier<? extends CompletionStage<T>> operation) {
+      CompletableFuture<Void> done = new CompletableFuture<>();
+      AggregateCompletionStage<Void> previousDone = CompletionStages.aggregateCompletionStage();
+      // Two operations on several keys must be enqueued in the same order for all their keys, or they could wait on
+      // each other
+      synchronized (tails) {
+         for (Object key : keys) {
+            enqueue(key, done, previousDone);
+         }
+      }
+      return previousDone.freeze()
+            .thenCompose(ignore -> invoke(operation))
+            .whenComplete((ignore, t) -> {
+               done.complete(null);
+               for (Object key : keys) {
+                  dequeue(key, done);
+               }
+            });
+   }
+
+   /**
+    * Invokes the operation once the writes and the moves previously sequenced for the key are complete. The operation
+    * doesn't wait for the other reads, but the next write or move of the key waits for it.
+    */
+   <T> CompletionStage<T> sequenceRead(Object key, Supplier<? extends CompletionStage<T>> operation) {
+      CompletableFuture<Void> done = new CompletableFuture<>();
+      Tail tail = tails.compute(key, (k, current) -> {
+         if (current == null) {
+            current = new Tail(CompletableFutures.completedNull());
+         }
+         current.reads.add(done);
+         return current;
+      });
+      CompletableFuture<Void> previous = tail.exclusive;
+      CompletionStage<T> stage = previous.isDone() ? invoke(operation) : previous.thenCompose(ignore -> invoke(operation));
+      return stage.whenComplete((ignore, t) -> {
+         done.complete(null);
+         tails.computeIfPresent(key, (k, current) -> {
+            current.reads.remove(done);
+            return current.isIdle() ? null : current;
+         });
+      });
+   }
+
+   /**
+    * Makes the exclusive operation the tail of the key, after the previous exclusive operation and the reads sequenced
+    * after it.
+    */
+   private void enqueue(Object key, CompletableFuture<Void> done, AggregateCompletionStage<Void> previousDone) {
+      tails.compute(key, (k, previous) -> {
+         if (previous != null) {
+            // The key may be present more than once in an operation on several keys
+            if (previous.exclusive == done) {
+               return previous;
+            }
+            previousDone.dependsOn(previous.exclusive);
+            previous.reads.forEach(previousDone::dependsOn);
+         }
+         return new Tail(done);
+      });
+   }
+
+   private void dequeue(Object key, CompletableFuture<Void> done) {
+      tails.computeIfPresent(key, (k, current) -> current.exclusive == done && current.isIdle() ? null : current);
+   }
+
+   private static <T> CompletionStage<T> invoke(Supplier<? extends CompletionStage<T>> operation) {
+      try {
+         return operation.get();
+      } catch (Throwable t) {
+         return CompletableFuture.failedFuture(t);
+      }
+   }
+
+   boolean isHot(StoreStatus storeStatus) {
+      return storeStatus == hot;
+   }
+
+   boolean isCapacity(StoreStatus storeStatus) {
+      return storeStatus == capacity;
+   }
+
+   void recordAccess(Object key) {
+      if (currentAccesses.addToFilter(key)) {
+         accessedKeys.increment();
+      }
+   }
+
+   private boolean recentlyAccessed(Object key) {
+      return currentAccesses.possiblyPresent(key) || previousAccesses.possiblyPresent(key);
+   }
+
+   /**
+    * Moves the entry from the capacity tier to the hot tier in the background.
+    */
+   void promote(Object key, int segment) {
+      sequence(key, () -> stopped ? CompletableFutures.completedFalse() : move(capacity, hot, key, segment))
+            .whenComplete((moved, t) -> {
+               if (t != null) {
+                  log.failedToMoveEntryBetweenTiers(cacheName, t);
+               } else if (moved && log.isTraceEnabled()) {
+                  log.tracef("Promoted key %s to the hot tier of cache %s", key, cacheName);
+               }
+            });
+   }
+
+   /**
+    * Moves the entries of the hot tier that were not accessed since the previous invocation to the capacity tier.
+    *
+    * @param lockedInvoker invokes the demotion of a batch of entries with the lock of the {@link
+    *                      PersistenceManagerImpl} held, or returns a completed stage without invoking it if the stores
+    *                      are not available
+    */
+   CompletionStage<Void> demoteColdEntries(Function<Supplier<CompletionStage<Void>>, CompletionStage<Void>> lockedInvoker) {
+      previousAccesses = currentAccesses;
+      currentAccesses = newFilter(accessedKeys.sumThenReset());
+      LongAdder demoted = new LongAdder();
+      return Flowable.fromPublisher(hot.<Object, Object>store().publishKeys(IntSets.immutableRangeSet(segmentCount),
+                  key -> !recentlyAccessed(key)))
+            .takeWhile(key -> !stopped)
+            .buffer(DEMOTION_BATCH_SIZE)
+            .concatMapCompletable(keys -> Completable.fromCompletionStage(lockedInvoker.apply(() ->
+                  Flowable.fromIterable(keys)
+                        .takeWhile(key -> !stopped)
+                        .concatMapCompletable(key -> Completable.fromCompletionStage(sequence(key, () -> demote(key))
+                                    .thenAccept(moved -> {
+                                       if (moved) {
+                                          demoted.increment();
+                                       }
+                                    }))
+                              .doOnError(t -> log.failedToMoveEntryBetweenTiers(cacheName, t))
+                              .onErrorComplete())
+                        .toCompletionStage(null))))
+            .doOnComplete(() -> {
+               if (log.isTraceEnabled()) {
+                  log.tracef("Demoted %d entries to the capacity tier of cache %s", demoted.sum(), cacheName);
+               }
+            })
+            .toCompletionStage(null);
+   }
+
+   private CompletionStage<Boolean> demote(Object key) {
+      // The key may have been accessed since it was published
+      if (recentlyAccessed(key)) {
+         return CompletableFutures.completedFalse();
+      }
+      CompletableFuture<Void> moved = new CompletableFuture<>();
+      synchronized (this) {
+         if (iterations > 0) {
+            return CompletableFutures.completedFalse();
+         }
+         demotion = moved;
+      }
+      return move(hot, capacity, key, keyPartitioner.getSegment(key))
+            .whenComplete((ignore, t) -> moved.complete(null));
+   }
+
+   private CompletionStage<Boolean> move(StoreStatus from, StoreStatus to, Object key, int segment) {
+      return from.<Object, Object>store().load(segmentOf(from, segment), key)
+            .thenCompose(me -> {
+               if (me == null) {
+                  return CompletableFutures.completedFalse();
+               }
+               // The entry is written before it is deleted, so that it is always in one of the tiers
+               return to.store().write(segmentOf(to, segment), me)
+                     .thenCompose(ignore -> from.store().delete(segmentOf(from, segment), key))
+                     .thenApply(ignore -> Boolean.TRUE);
+            });
+   }
+
+   private static int segmentOf(StoreStatus storeStatus, int segment) {
+      return storeStatus.hasCharacteristic(Characteristic.SEGMENTABLE) ? segment : 0;
+   }
+
+   /**
+    * Suspends the demotions until {@link #endIteration()} is invoked.
+    *
+    * @return a stage that completes when the running demotion, if any, is complete
+    */
+   synchronized CompletionStage<Void> beginIteration() {
+      iterations++;
+      return demotion;
+   }
+
+   synchronized void endIteration() {
+      iterations--;
+   }
+
+   /**
+    * Interrupts the running demotion, if any, after the entry being moved.
+    */
+   void stop() {
+      stopped = true;
+   }
+
+   /**
+    * The last write or move enqueued for a key and the reads enqueued after it. Only modified while the key is locked
+    * in {@link #tails}.
+    */
+   private static final class Tail {
+      final CompletableFuture<Void> exclusive;
+      final List<CompletableFuture<Void>> reads = new ArrayList<>(2);
+
+      Tail(CompletableFuture<Void> exclusive) {
+         this.exclusive = exclusive;
+      }
+
+      boolean isIdle() {
+         return exclusive.isDone() && reads.isEmpty();
+      }
+   }
+}
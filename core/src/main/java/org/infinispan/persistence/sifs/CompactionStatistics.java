@@ -0,0 +1,104 @@
+package org.infinispan.persistence.sifs;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.Units;
+
+/**
+ * Statistics of the compaction of the soft-index file store data files.
+ *
+ * @since 15.0
+ */
+@MBean(objectName = "SoftIndexFileStoreCompactor", description = "Compaction of the soft-index file store data files")
+public class CompactionStatistics {
+   private final TimeService timeService;
+   private final IntSupplier pendingCompactions;
+   private final IntSupplier runningCompactions;
+   private final LongAdder compactedFiles = new LongAdder();
+   private final LongAdder reclaimedBytes = new LongAdder();
+   // These variables are guarded by this
+   private long rateSampleTime;
+   private long rateSampleBytes;
+   private double reclaimedBytesPerSecond;
+
+   CompactionStatistics(TimeService timeService, IntSupplier pendingCompactions, IntSupplier runningCompactions) {
+      this.timeService = timeService;
+      this.pendingCompactions = pendingCompactions;
+      this.runningCompactions = runningCompactions;
+      this.rateSampleTime = timeService.time();
+   }
+
+   void recordCompactedFile(long reclaimed) {
+      compactedFiles.increment();
+      reclaimedBytes.add(reclaimed);
+   }
+
+   @ManagedAttribute(
+         description = "Number of files waiting to be compacted",
+         displayName = "Pending compactions"
+   )
+   public int getPendingCompactions() {
+      return pendingCompactions.getAsInt();
+   }
+
+   @ManagedAttribute(
+         description = "Number of files being compacted",
+         displayName = "Running compactions"
+   )
+   public int getRunningCompactions() {
+      return runningCompactions.getAsInt();
+   }
+
+   @ManagedAttribute(
+         description = "Number of data files compacted and removed",
+         displayName = "Compacted files"
+   )
+   public long getCompactedFiles() {
+      return compactedFiles.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of bytes reclaimed by the compaction of data files",
+         displayName = "Reclaimed bytes",
+         units = Units.BYTES
+   )
+   public long getReclaimedBytes() {
+      return reclaimedBytes.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Bytes reclaimed per second by the compaction since the previous read of this attribute, " +
+               "sampled at most once per second",
+         displayName = "Reclaimed bytes per second",
+         units = Units.PER_SECOND
+   )
+   public synchronized double getReclaimedBytesPerSecond() {
+      long now = timeService.time();
+      long elapsed = now - rateSampleTime;
+      if (elapsed >= TimeUnit.SECONDS.toNanos(1)) {
+         long bytes = reclaimedBytes.sum();
+         reclaimedBytesPerSecond = (double) (bytes - rateSampleBytes) * TimeUnit.SECONDS.toNanos(1) / elapsed;
+         rateSampleTime = now;
+         rateSampleBytes = bytes;
+      }
+      return reclaimedBytesPerSecond;
+   }
+
+   @ManagedOperation(
+         description = "Resets the compaction statistics",
+         displayName = "Reset statistics"
+   )
+   public synchronized void resetStatistics() {
+      compactedFiles.reset();
+      reclaimedBytes.reset();
+      rateSampleTime = timeService.time();
+      rateSampleBytes = 0;
+      reclaimedBytesPerSecond = 0;
+   }
+}
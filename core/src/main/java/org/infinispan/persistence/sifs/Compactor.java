@@ -1,17 +1,22 @@
 package org.infinispan.persistence.sifs;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -39,6 +44,10 @@
  * Component keeping the data about log file usage - as soon as entries from some file are overwritten so that the file
  * becomes cluttered with old records, the valid records are moved to another file and the old ones are dropped.
  * Expired records are moved as tombstones without values (records of entry removal).
+ * <p>
+ * Up to {@code parallelism} files are compacted at the same time, each one into its own output file. Files waiting
+ * for compaction are ordered by their ratio of free space, so the files that reclaim the most space are compacted
+ * first. The bytes read from the compacted files can be limited per second to leave disk bandwidth to the writes.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
@@ -55,6 +64,17 @@ class Compactor {
    private final int maxFileSize;
    private final double compactionThreshold;
    private final Executor blockingExecutor;
+   private final List<CompactionWriter> writers;
+   private final RateLimiter rateLimiter;
+   private final CompactionStatistics statistics;
+
+   // The compactions waiting for a writer, the expiration ones first and then by descending ratio of free space
+   // These variables are guarded by this
+   private final PriorityQueue<CompactionRequest> pendingCompactions = new PriorityQueue<>(
+         Comparator.comparingDouble((CompactionRequest request) -> request.priority).reversed());
+   private final Deque<CompactionWriter> idleWriters = new ArrayDeque<>();
+   private int runningCompactions;
+   private CompletableFuture<Void> compactionsDone;
 
    // Initialize so we can enqueue operations until start begins
    private FlowableProcessor<CompletableFuture<Void>> processor = UnicastProcessor.<CompletableFuture<Void>>create().toSerialized();
@@ -67,17 +87,13 @@ class Compactor {
    // This variable is never to be null
    private volatile CompletableFuture<?> stopped = CompletableFutures.completedNull();
 
-   // This buffer is used by the compactor thread to avoid allocating buffers per entry written that are smaller
-   // than the header size
-   private final java.nio.ByteBuffer REUSED_BUFFER = java.nio.ByteBuffer.allocate(EntryHeader.HEADER_SIZE_11_0);
-
-   FileProvider.Log logFile = null;
-   long nextExpirationTime = -1;
-   int currentOffset = 0;
-
+   /**
+    * @param parallelism maximum number of files compacted at the same time
+    * @param rateLimit   maximum number of bytes read per second from the compacted files, 0 for no limit
+    */
    public Compactor(NonBlockingManager nonBlockingManager, FileProvider fileProvider, TemporaryTable temporaryTable,
          Marshaller marshaller, TimeService timeService, KeyPartitioner keyPartitioner, int maxFileSize,
-         double compactionThreshold, Executor blockingExecutor) {
+         double compactionThreshold, Executor blockingExecutor, int parallelism, long rateLimit) {
       this.nonBlockingManager = nonBlockingManager;
       this.fileProvider = fileProvider;
       this.temporaryTable = temporaryTable;
@@ -87,6 +103,14 @@ public Compactor(NonBlockingManager nonBlockingManager, FileProvider fileProvide
       this.maxFileSize = maxFileSize;
       this.compactionThreshold = compactionThreshold;
       this.blockingExecutor = blockingExecutor;
+      this.writers = new ArrayList<>(parallelism);
+      for (int i = 0; i < parallelism; ++i) {
+         CompactionWriter writer = new CompactionWriter();
+         writers.add(writer);
+         idleWriters.push(writer);
+      }
+      this.rateLimiter = rateLimit > 0 ? new RateLimiter(timeService, rateLimit) : null;
+      this.statistics = new CompactionStatistics(timeService, this::getPendingCompactions, this::getRunningCompactions);
    }
 
    public void setIndex(Index index) {
@@ -120,6 +144,18 @@ ConcurrentMap<Integer, Stats> getFileStats() {
       return fileStats;
    }
 
+   CompactionStatistics getStatistics() {
+      return statistics;
+   }
+
+   synchronized int getPendingCompactions() {
+      return pendingCompactions.size();
+   }
+
+   synchronized int getRunningCompactions() {
+      return runningCompactions;
+   }
+
    boolean addFreeFile(int file, int expectedSize, int freeSize, long expirationTime) {
       return addFreeFile(file, expectedSize, freeSize, expirationTime, true);
    }
@@ -150,15 +186,18 @@ public void start() {
       Scheduler scheduler = Schedulers.from(blockingExecutor);
       processor.observeOn(scheduler)
             .concatMapCompletable(stage -> {
-               processRequest(stage);
-               Completable completable = Completable.fromCompletionStage(stage);
-               // If stage is completed asynchronously it could be on a non blocking thread, make sure to resume
-               // on our blocking executor
-               if (!stage.isDone()) {
-                  completable = completable.observeOn(scheduler);
+               if (!(stage instanceof ClearFuture) || terminateSignal) {
+                  processRequest(stage);
+                  return Completable.complete();
                }
-               return completable;
+               // The output files can only be closed once all the running compactions are done
+               Completable completable = Completable.fromCompletionStage(cancelPendingCompactions());
+               // The stage is completed on a non blocking thread, make sure to resume on our blocking executor
+               return completable.observeOn(scheduler)
+                     .andThen(Completable.fromAction(() -> processRequest(stage)));
             })
+            // Stopped must only complete after the running compactions
+            .andThen(Completable.defer(() -> Completable.fromCompletionStage(cancelPendingCompactions())))
             .subscribe(() -> stopped.complete(null), error -> {
                log.compactorEncounteredException(error, -1);
                stopped.completeExceptionally(error);
@@ -351,11 +390,14 @@ public void stopOperations() {
       // The stopped CompletableFuture is completed in onComplete or onError callback for the processor, so this will
       // return after all compaction calls are completed
       stopped.join();
-      if (logFile != null) {
-         Util.close(logFile);
-         // Complete the file, this file should not be compacted
-         completeFile(logFile.fileId, currentOffset, nextExpirationTime, false);
-         logFile = null;
+      for (CompactionWriter writer : writers) {
+         if (writer.logFile != null) {
+            Util.close(writer.logFile);
+            // Complete the file, this file should not be compacted
+            completeFile(writer.logFile.fileId, writer.currentOffset, writer.nextExpirationTime, false);
+            writer.logFile = null;
+            writer.nextExpirationTime = -1;
+         }
       }
 
       // Reinitialize processor so it can be started again possibly
@@ -366,6 +408,7 @@ private static class CompactionRequest extends CompletableFuture<Void> {
       private final int fileId;
       private final boolean isLogFile;
       private final CompactionExpirationSubscriber subscriber;
+      private double priority;
 
       private CompactionRequest(int fileId) {
          this(fileId, false, null);
@@ -391,6 +434,130 @@ void completeFuture(CompletableFuture<Void> future) {
       nonBlockingManager.complete(future, null);
    }
 
+   /**
+    * Holds the file the compacted entries are written to. A writer is used by a single compaction at a time and is
+    * only released once the index points to the entries moved by its compaction.
+    */
+   private static class CompactionWriter {
+      // This buffer is used by the compaction to avoid allocating buffers per entry written that are smaller
+      // than the header size
+      private final java.nio.ByteBuffer reusedBuffer = java.nio.ByteBuffer.allocate(EntryHeader.HEADER_SIZE_11_0);
+      private FileProvider.Log logFile;
+      private long nextExpirationTime = -1;
+      private int currentOffset;
+   }
+
+   /**
+    * Limits the number of bytes read per second by the compactions, the callers sleep when they read more than the
+    * bytes allowed so far. Up to a second of unused budget is kept to absorb bursts.
+    */
+   private static class RateLimiter {
+      private final TimeService timeService;
+      private final long bytesPerSecond;
+      // These variables are guarded by this
+      private double available;
+      private long lastRefill;
+
+      private RateLimiter(TimeService timeService, long bytesPerSecond) {
+         this.timeService = timeService;
+         this.bytesPerSecond = bytesPerSecond;
+         this.available = bytesPerSecond;
+         this.lastRefill = timeService.time();
+      }
+
+      void acquire(int bytes) throws InterruptedException {
+         long waitNanos;
+         synchronized (this) {
+            long now = timeService.time();
+            available = Math.min(bytesPerSecond, available + (double) (now - lastRefill) * bytesPerSecond / TimeUnit.SECONDS.toNanos(1));
+            lastRefill = now;
+            available -= bytes;
+            waitNanos = available < 0 ? (long) (-available * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond) : 0;
+         }
+         if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+         }
+      }
+   }
+
+   private double priority(CompactionRequest request) {
+      // Expiration is done one file at a time, so it would wait behind every other compaction
+      if (request.subscriber != null) {
+         return Double.MAX_VALUE;
+      }
+      Stats stats = fileStats.get(request.fileId);
+      int total = stats != null ? stats.getTotal() : 0;
+      return total > 0 ? (double) stats.getFree() / total : 0;
+   }
+
+   private void enqueueCompaction(CompactionRequest request) {
+      request.priority = priority(request);
+      synchronized (this) {
+         pendingCompactions.add(request);
+      }
+      dispatchCompactions();
+   }
+
+   private void dispatchCompactions() {
+      while (true) {
+         CompactionRequest request;
+         CompactionWriter writer;
+         synchronized (this) {
+            if (pendingCompactions.isEmpty() || idleWriters.isEmpty()) {
+               return;
+            }
+            request = pendingCompactions.poll();
+            writer = idleWriters.pop();
+            runningCompactions++;
+         }
+         blockingExecutor.execute(() -> {
+            compact(request, writer);
+            request.whenComplete((ignore, t) -> releaseWriter(writer));
+         });
+      }
+   }
+
+   private void releaseWriter(CompactionWriter writer) {
+      CompletableFuture<Void> done = null;
+      synchronized (this) {
+         idleWriters.push(writer);
+         if (--runningCompactions == 0) {
+            done = compactionsDone;
+            compactionsDone = null;
+         }
+      }
+      if (done != null) {
+         completeFuture(done);
+      }
+      dispatchCompactions();
+   }
+
+   /**
+    * Completes the compactions that didn't start yet without compacting their file.
+    * @return a stage that is complete when the running compactions are done
+    */
+   private CompletionStage<Void> cancelPendingCompactions() {
+      List<CompactionRequest> cancelled;
+      CompletionStage<Void> done;
+      synchronized (this) {
+         cancelled = new ArrayList<>(pendingCompactions);
+         pendingCompactions.clear();
+         if (runningCompactions == 0) {
+            done = CompletableFutures.completedNull();
+         } else {
+            if (compactionsDone == null) {
+               compactionsDone = new CompletableFuture<>();
+            }
+            done = compactionsDone;
+         }
+      }
+      for (CompactionRequest request : cancelled) {
+         log.tracef("Ignoring compaction request %s as compactor is being cleared or stopped", request);
+         completeFuture(request);
+      }
+      return done;
+   }
+
    public void processRequest(CompletableFuture<Void> stageRequest) throws Throwable {
       if (terminateSignal) {
          log.tracef("Compactor already terminated, ignoring request " + stageRequest);
@@ -405,10 +572,12 @@ public void processRequest(CompletableFuture<Void> stageRequest) throws Throwabl
          if (stageRequest instanceof ClearFuture) {
             log.tracef("Compactor ignoring all future compactions until clear completes");
 
-            if (logFile != null) {
-               logFile.close();
-               logFile = null;
-               nextExpirationTime = -1;
+            for (CompactionWriter writer : writers) {
+               if (writer.logFile != null) {
+                  writer.logFile.close();
+                  writer.logFile = null;
+                  writer.nextExpirationTime = -1;
+               }
             }
 
             nonBlockingManager.complete(stageRequest, null);
@@ -419,7 +588,10 @@ public void processRequest(CompletableFuture<Void> stageRequest) throws Throwabl
          return;
       }
 
-      CompactionRequest request = (CompactionRequest) stageRequest;
+      enqueueCompaction((CompactionRequest) stageRequest);
+   }
+
+   private void compact(CompactionRequest request, CompactionWriter writer) {
       try {
          // Any other type submitted has to be a positive integer
          Stats stats = fileStats.get(request.fileId);
@@ -427,7 +599,7 @@ public void processRequest(CompletableFuture<Void> stageRequest) throws Throwabl
          // Double check that the file wasn't removed. If stats are null that means the file was previously removed
          // and also make sure the file wasn't marked for deletion, but hasn't yet
          if (stats != null && !stats.markedForDeletion()) {
-            compactSingleFile(request, timeService.wallClockTime());
+            compactSingleFile(request, writer, timeService.wallClockTime());
             if (request.isLogFile) {
                // Unschedule the compaction for log file as we can't remove it
                stats.scheduled.set(false);
@@ -455,11 +627,13 @@ public void processRequest(CompletableFuture<Void> stageRequest) throws Throwabl
     * of a non log file the expiration listener is notified and the entry is not moved, however if no expiration listener
     * is provided the expired entry is moved to the new file as is still expired.
     * @param compactionRequest the request containing the fileId and if it is a log file and optional subscriber
+    * @param writer            the writer of the file the entries are moved to
     * @throws IOException            thrown if there was an issue with reading or writing to a file
     * @throws ClassNotFoundException thrown if there is an issue deserializing the key for an entry
+    * @throws InterruptedException   thrown if the thread was interrupted while waiting for the rate limiter
     */
-   private void compactSingleFile(CompactionRequest compactionRequest,
-         long currentTimeMilliseconds) throws IOException, ClassNotFoundException {
+   private void compactSingleFile(CompactionRequest compactionRequest, CompactionWriter writer,
+         long currentTimeMilliseconds) throws IOException, ClassNotFoundException, InterruptedException {
       int scheduledFile = compactionRequest.fileId;
       assert scheduledFile >= 0;
 
@@ -480,6 +654,9 @@ private void compactSingleFile(CompactionRequest compactionRequest,
       // Store expired entries to remove after we update the index
       List<EntryPosition> expiredTemp = subscriber != null ? new ArrayList<>() : null;
       List<EntryRecord> expiredIndex = subscriber != null ? new ArrayList<>() : null;
+      // Output files filled by this compaction, completed once the index points to the moved entries
+      List<Runnable> completedFiles = new ArrayList<>(1);
+      long movedBytes = 0;
       FileProvider.Handle handle = fileProvider.getFile(scheduledFile);
       if (handle == null) {
          throw new IllegalStateException("Compactor should not get deleted file for compaction!");
@@ -489,6 +666,9 @@ private void compactSingleFile(CompactionRequest compactionRequest,
          AggregateCompletionStage<Void> aggregateCompletionStage = CompletionStages.aggregateCompletionStage();
          EntryHeader header;
          while ((header = EntryRecord.readEntryHeader(handle, scheduledOffset)) != null) {
+            if (rateLimiter != null) {
+               rateLimiter.acquire(header.totalLength());
+            }
             long remainingBytes = fileSize - scheduledOffset;
             if (header.totalLength() > remainingBytes) {
                if (isLogFile) {
@@ -626,15 +806,18 @@ private void compactSingleFile(CompactionRequest compactionRequest,
                }
                index.handleRequest(IndexRequest.dropped(segment, key, ByteBufferImpl.create(serializedKey), prevFile, prevOffset, scheduledFile, scheduledOffset));
             } else {
-               if (logFile == null || currentOffset + header.totalLength() > maxFileSize) {
-                  if (logFile != null) {
-                     logFile.close();
-                     completeFile(logFile.fileId, currentOffset, nextExpirationTime);
-                     nextExpirationTime = -1;
+               if (writer.logFile == null || writer.currentOffset + header.totalLength() > maxFileSize) {
+                  if (writer.logFile != null) {
+                     writer.logFile.close();
+                     int completedFile = writer.logFile.fileId;
+                     int completedSize = writer.currentOffset;
+                     long completedExpirationTime = writer.nextExpirationTime;
+                     completedFiles.add(() -> completeFile(completedFile, completedSize, completedExpirationTime));
+                     writer.nextExpirationTime = -1;
                   }
-                  currentOffset = 0;
-                  logFile = fileProvider.getFileForLog();
-                  log.debugf("Compacting to %d", (Object) logFile.fileId);
+                  writer.currentOffset = 0;
+                  writer.logFile = fileProvider.getFileForLog();
+                  log.debugf("Compacting to %d", (Object) writer.logFile.fileId);
                }
 
                byte[] serializedValue = null;
@@ -650,16 +833,16 @@ private void compactSingleFile(CompactionRequest compactionRequest,
                   if (header.internalMetadataLength() > 0) {
                      serializedInternalMetadata = EntryRecord.readInternalMetadata(handle, header, scheduledOffset);
                   }
-                  entryOffset = currentOffset;
+                  entryOffset = writer.currentOffset;
                   writtenLength = header.totalLength();
                   // Update the next expiration time only for entries that are not removed
-                  nextExpirationTime = ExpiryHelper.mostRecentExpirationTime(nextExpirationTime, header.expiryTime());
+                  writer.nextExpirationTime = ExpiryHelper.mostRecentExpirationTime(writer.nextExpirationTime, header.expiryTime());
                } else {
-                  entryOffset = ~currentOffset;
+                  entryOffset = ~writer.currentOffset;
                   writtenLength = header.getHeaderLength() + header.keyLength();
                }
-               EntryRecord.writeEntry(logFile.fileChannel, REUSED_BUFFER, serializedKey, metadata, serializedValue, serializedInternalMetadata, header.seqId(), header.expiryTime());
-               TemporaryTable.LockedEntry lockedEntry = temporaryTable.replaceOrLock(segment, key, logFile.fileId, entryOffset, scheduledFile, indexedOffset);
+               EntryRecord.writeEntry(writer.logFile.fileChannel, writer.reusedBuffer, serializedKey, metadata, serializedValue, serializedInternalMetadata, header.seqId(), header.expiryTime());
+               TemporaryTable.LockedEntry lockedEntry = temporaryTable.replaceOrLock(segment, key, writer.logFile.fileId, entryOffset, scheduledFile, indexedOffset);
                if (lockedEntry == null) {
                   if (log.isTraceEnabled()) {
                      log.trace("Found entry in temporary table");
@@ -679,7 +862,7 @@ private void compactSingleFile(CompactionRequest compactionRequest,
                      }
                   } finally {
                      if (update) {
-                        temporaryTable.updateAndUnlock(lockedEntry, logFile.fileId, entryOffset);
+                        temporaryTable.updateAndUnlock(lockedEntry, writer.logFile.fileId, entryOffset);
                      } else {
                         temporaryTable.removeAndUnlock(lockedEntry, segment, key);
                      }
@@ -687,45 +870,50 @@ private void compactSingleFile(CompactionRequest compactionRequest,
                }
                if (log.isTraceEnabled()) {
                   log.tracef("Update %d:%d -> %d:%d | %d,%d", scheduledFile, indexedOffset,
-                        logFile.fileId, entryOffset, logFile.fileChannel.position(), logFile.fileChannel.size());
+                        writer.logFile.fileId, entryOffset, writer.logFile.fileChannel.position(), writer.logFile.fileChannel.size());
                }
                IndexRequest indexRequest;
                ByteBuffer keyBuffer = ByteBufferImpl.create(serializedKey);
                if (isLogFile) {
                   // When it is a log file we are still keeping the original entry, we are just updating it to say
                   // it was expired
-                  indexRequest = IndexRequest.update(segment, key, keyBuffer, logFile.fileId, entryOffset, writtenLength);
+                  indexRequest = IndexRequest.update(segment, key, keyBuffer, writer.logFile.fileId, entryOffset, writtenLength);
                } else {
                   // entryFile cannot be used as we have to report the file due to free space statistics
-                  indexRequest = IndexRequest.moved(segment, key, keyBuffer, logFile.fileId, entryOffset, writtenLength,
+                  indexRequest = IndexRequest.moved(segment, key, keyBuffer, writer.logFile.fileId, entryOffset, writtenLength,
                         scheduledFile, indexedOffset);
                }
                aggregateCompletionStage.dependsOn(index.handleRequest(indexRequest));
 
-               currentOffset += writtenLength;
+               writer.currentOffset += writtenLength;
+               movedBytes += writtenLength;
             }
             scheduledOffset += header.totalLength();
          }
+         if (!isLogFile) {
+            statistics.recordCompactedFile(fileSize - movedBytes);
+         }
          if (!clearSignal.get()) {
-            // We delay the next operation until all prior moves are done. By moving it can trigger another
-            // compaction before the index has been fully updated. Thus we block any other compaction events
-            // until all entries have been moved for this file
+            // We delay the release of the writer until all prior moves are done. By moving it can trigger another
+            // compaction before the index has been fully updated. Thus the files filled by this compaction are only
+            // completed, and so can only be compacted, once all entries have been moved for this file
             CompletionStage<Void> aggregate = aggregateCompletionStage.freeze();
             if (!CompletionStages.isCompletedSuccessfully(aggregate)) {
-               log.tracef("Compactor paused, waiting for previous index updates to complete");
-               // We resume after completed, Note that we must complete the {@code paused} variable inside the compactor
-               // execution pipeline otherwise we can invoke compactor operations in the wrong thread
+               log.tracef("Compaction of %s waiting for previous index updates to complete", scheduledFile);
+               int outputFile = writer.logFile != null ? writer.logFile.fileId : -1;
                aggregate.whenComplete((ignore, t) -> {
                   if (t != null) {
-                     log.error("There was a problem moving indexes for compactor with file " + logFile.fileId, t);
+                     log.error("There was a problem moving indexes for compactor with file " + outputFile, t);
                      compactionRequest.completeExceptionally(t);
                   } else {
                      log.tracef("Compaction ended after index was updated for %s", scheduledFile);
+                     completedFiles.forEach(Runnable::run);
                      completeFuture(compactionRequest);
                   }
                });
             } else {
                log.tracef("Compaction ended synchronously for %s", scheduledFile);
+               completedFiles.forEach(Runnable::run);
                completeFuture(compactionRequest);
             }
          } else {
@@ -3,8 +3,10 @@
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.concurrent.CompletionStage;
 
 import org.infinispan.commons.util.Util;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
 
 /**
  * Helper for reading/writing entries into file.
@@ -171,6 +173,72 @@ public static byte[] readValue(FileProvider.Handle handle, EntryHeader header, l
       return value;
    }
 
+   /**
+    * Reads the whole entry with {@link FileProvider.Handle#readAsync(ByteBuffer, long)}, using one read for the header
+    * and one for the rest of the entry instead of one read per field.
+    *
+    * @return stage completed with the entry, or with null if the file ends before the header
+    */
+   public static CompletionStage<EntryRecord> readEntryAsync(FileProvider.Handle handle, long offset) {
+      ByteBuffer headerBuffer = ByteBuffer.allocate(EntryHeader.HEADER_SIZE_11_0);
+      return readAsync(handle, headerBuffer, offset).thenCompose(headerRead -> {
+         if (!headerRead) {
+            return CompletableFutures.completedNull();
+         }
+         headerBuffer.flip();
+         EntryHeader header;
+         try {
+            header = new EntryHeader(headerBuffer);
+         } catch (IllegalStateException e) {
+            throw new IllegalStateException("Error reading from " + handle.getFileId() + ":" + offset, e);
+         }
+         ByteBuffer body = ByteBuffer.allocate(header.keyLength() + header.metadataLength() +
+               Math.max(header.valueLength(), 0) + header.internalMetadataLength());
+         return readAsync(handle, body, offset + header.getHeaderLength()).thenApply(bodyRead -> {
+            if (!bodyRead) {
+               throw new IllegalStateException("Concurrent update to compacting file when reading entry on "
+                     + handle.getFileId() + ": " + offset + ": " + header);
+            }
+            body.flip();
+            return fromBody(header, body);
+         });
+      });
+   }
+
+   private static EntryRecord fromBody(EntryHeader header, ByteBuffer body) {
+      byte[] key = new byte[header.keyLength()];
+      body.get(key);
+      EntryRecord record = new EntryRecord(header, key);
+      if (header.metadataLength() > 0) {
+         byte[] metadata = new byte[header.metadataLength() - EntryMetadata.TIMESTAMP_BYTES];
+         body.get(metadata);
+         long created = body.getLong();
+         long lastUsed = body.getLong();
+         record.meta = new EntryMetadata(metadata, created, lastUsed);
+      }
+      if (header.valueLength() > 0) {
+         record.value = new byte[header.valueLength()];
+         body.get(record.value);
+      }
+      if (header.internalMetadataLength() > 0) {
+         record.internalMetadata = new byte[header.internalMetadataLength()];
+         body.get(record.internalMetadata);
+      }
+      return record;
+   }
+
+   private static CompletionStage<Boolean> readAsync(FileProvider.Handle handle, ByteBuffer buffer, long position) {
+      if (!buffer.hasRemaining()) {
+         return CompletableFutures.completedTrue();
+      }
+      return handle.readAsync(buffer, position).thenCompose(read -> {
+         if (read < 0) {
+            return CompletableFutures.completedFalse();
+         }
+         return readAsync(handle, buffer, position + read);
+      });
+   }
+
    private static int read(FileProvider.Handle handle, ByteBuffer buffer, long position, int length) throws IOException {
       int read = 0;
       do {
@@ -9,14 +9,19 @@
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
@@ -25,6 +30,7 @@
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.infinispan.commons.util.CloseableIterator;
+import org.infinispan.persistence.sifs.configuration.IOBackend;
 import org.infinispan.persistence.sifs.pmem.PmemUtilWrapper;
 import org.infinispan.util.logging.LogFactory;
 
@@ -40,8 +46,20 @@ public class FileProvider {
 
    private static final String REGEX_FORMAT = "^%s[0-9]+$";
    private static final boolean ATTEMPT_PMEM;
+   private static final CompletionHandler<Integer, CompletableFuture<Integer>> READ_HANDLER = new CompletionHandler<>() {
+      @Override
+      public void completed(Integer read, CompletableFuture<Integer> future) {
+         future.complete(read);
+      }
+
+      @Override
+      public void failed(Throwable t, CompletableFuture<Integer> future) {
+         future.completeExceptionally(t);
+      }
+   };
 
    private final File dataDir;
+   // The maximum number of data files open at the same time
    private final int openFileLimit;
    private final ArrayBlockingQueue<Record> recordQueue;
    private final ConcurrentMap<Integer, Record> openFiles = new ConcurrentHashMap<>();
@@ -51,6 +69,7 @@ public class FileProvider {
    private final Set<FileIterator> iterators = ConcurrentHashMap.newKeySet();
    private final String prefix;
    private final int maxFileSize;
+   private final IOBackend ioBackend;
 
    private boolean canTryPmem = true;
 
@@ -69,11 +88,17 @@ public class FileProvider {
    }
 
    public FileProvider(Path dataDir, int openFileLimit, String prefix, int maxFileSize) {
+      this(dataDir, openFileLimit, prefix, maxFileSize, IOBackend.FILE_CHANNEL);
+   }
+
+   public FileProvider(Path dataDir, int openFileLimit, String prefix, int maxFileSize, IOBackend ioBackend) {
+      // With the AIO backend each open file also holds an asynchronous channel, which is a second file descriptor
       this.openFileLimit = openFileLimit;
       this.recordQueue = new ArrayBlockingQueue<>(openFileLimit);
       this.dataDir = dataDir.toFile();
       this.prefix = prefix;
       this.maxFileSize = maxFileSize;
+      this.ioBackend = ioBackend;
       try {
          Files.createDirectories(dataDir);
       } catch (IOException e) {
@@ -81,6 +106,13 @@ public FileProvider(Path dataDir, int openFileLimit, String prefix, int maxFileS
       }
    }
 
+   /**
+    * @return true if {@link Handle#readAsync(ByteBuffer, long)} submits the reads without blocking the invoking thread
+    */
+   public boolean supportsAsyncReads() {
+      return ioBackend == IOBackend.AIO;
+   }
+
    public boolean isLogFile(int fileId) {
       lock.readLock().lock();
       try {
@@ -110,6 +142,7 @@ public Handle getFile(int fileId) throws IOException {
                // now we have either removed some other opened file or incremented the value below limit
                for (;;) {
                   FileChannel fileChannel;
+                  AsynchronousFileChannel asyncChannel;
                   try {
                      fileChannel = openChannel(fileId);
                   } catch (FileNotFoundException e) {
@@ -117,10 +150,21 @@ public Handle getFile(int fileId) throws IOException {
                      log.debugf(e, "File %d was not found", fileId);
                      return null;
                   }
-                  Record newRecord = new Record(fileChannel, fileId);
+                  try {
+                     asyncChannel = openAsyncChannel(fileId);
+                  } catch (IOException e) {
+                     fileChannel.close();
+                     currentOpenFiles.decrementAndGet();
+                     log.debugf(e, "File %d could not be opened for asynchronous reads", fileId);
+                     return null;
+                  }
+                  Record newRecord = new Record(fileChannel, asyncChannel, fileId);
                   Record other = openFiles.putIfAbsent(fileId, newRecord);
                   if (other != null) {
                      fileChannel.close();
+                     if (asyncChannel != null) {
+                        asyncChannel.close();
+                     }
                      synchronized (other) {
                         if (other.isOpen()) {
                            // we have allocated opening a new file but then we use an old one
@@ -157,6 +201,29 @@ public Handle getFile(int fileId) throws IOException {
       }
    }
 
+   /**
+    * Returns a handle to the file only if it is already open. Unlike {@link #getFile(int)} this never opens or closes
+    * files, so it can be invoked from a non-blocking thread.
+    *
+    * @return the handle, or null if the file is not open
+    */
+   public Handle getOpenFile(int fileId) {
+      lock.readLock().lock();
+      try {
+         Record record = openFiles.get(fileId);
+         if (record != null) {
+            synchronized (record) {
+               if (record.isOpen()) {
+                  return new Handle(record);
+               }
+            }
+         }
+         return null;
+      } finally {
+         lock.readLock().unlock();
+      }
+   }
+
    public long getFileSize(int file) {
       lock.readLock().lock();
       try {
@@ -226,6 +293,13 @@ protected FileChannel openChannel(File file, boolean create, boolean readSharedM
       return fileChannel;
    }
 
+   private AsynchronousFileChannel openAsyncChannel(int fileId) throws IOException {
+      if (ioBackend != IOBackend.AIO) {
+         return null;
+      }
+      return AsynchronousFileChannel.open(newFile(fileId).toPath(), StandardOpenOption.READ);
+   }
+
    public Log getFileForLog() throws IOException {
       lock.writeLock().lock();
       try {
@@ -317,7 +391,7 @@ public void deleteFile(int fileId) {
       lock.readLock().lock();
       try {
          for (;;) {
-            Record newRecord = new Record(null, fileId);
+            Record newRecord = new Record(null, null, fileId);
             Record record = openFiles.putIfAbsent(fileId, newRecord);
             if (record == null) {
                try {
@@ -400,6 +474,27 @@ public int read(ByteBuffer buffer, long offset) throws IOException {
          return record.getFileChannel().read(buffer, offset);
       }
 
+      /**
+       * Reads from the file like {@link #read(ByteBuffer, long)}, but with the {@link IOBackend#AIO} backend the read
+       * is only submitted and the returned stage is completed by an I/O thread, so callers must move to their own
+       * executor before doing any further work. With the {@link IOBackend#FILE_CHANNEL} backend the read is performed
+       * in the invoking thread. The handle must not be closed before the returned stage completes.
+       */
+      public CompletionStage<Integer> readAsync(ByteBuffer buffer, long offset) {
+         if (!usable) throw new IllegalStateException();
+         AsynchronousFileChannel asyncChannel = record.getAsyncChannel();
+         if (asyncChannel == null) {
+            try {
+               return CompletableFuture.completedFuture(record.getFileChannel().read(buffer, offset));
+            } catch (IOException e) {
+               return CompletableFuture.failedFuture(e);
+            }
+         }
+         CompletableFuture<Integer> future = new CompletableFuture<>();
+         asyncChannel.read(buffer, offset, future, READ_HANDLER);
+         return future;
+      }
+
       @Override
       public void close() throws IOException {
          usable = false;
@@ -420,11 +515,13 @@ public int getFileId() {
    private class Record {
       private final int fileId;
       private FileChannel fileChannel;
+      private AsynchronousFileChannel asyncChannel;
       private int handleCount;
       private boolean deleteOnClose = false;
 
-      private Record(FileChannel fileChannel, int fileId) {
+      private Record(FileChannel fileChannel, AsynchronousFileChannel asyncChannel, int fileId) {
          this.fileChannel = fileChannel;
+         this.asyncChannel = asyncChannel;
          this.fileId = fileId;
       }
 
@@ -432,6 +529,10 @@ FileChannel getFileChannel() {
          return fileChannel;
       }
 
+      AsynchronousFileChannel getAsyncChannel() {
+         return asyncChannel;
+      }
+
       void increaseHandleCount() {
          handleCount++;
       }
@@ -441,8 +542,7 @@ void decreaseHandleCount() throws IOException {
          if (handleCount == 0 && deleteOnClose) {
             // we cannot easily remove the record from queue - keep it there until collection,
             // but physically close and delete the file
-            fileChannel.close();
-            fileChannel = null;
+            closeChannels();
             openFiles.remove(fileId, this);
             delete();
          }
@@ -461,13 +561,24 @@ public int getFileId() {
       }
 
       public void close() throws IOException {
-         fileChannel.close();
-         fileChannel = null;
+         closeChannels();
          if (deleteOnClose) {
             delete();
          }
       }
 
+      private void closeChannels() throws IOException {
+         try {
+            fileChannel.close();
+         } finally {
+            fileChannel = null;
+            if (asyncChannel != null) {
+               asyncChannel.close();
+               asyncChannel = null;
+            }
+         }
+      }
+
       public void delete() throws IOException {
          log.debugf("Deleting file %s", fileIdToString(fileId));
          //noinspection ResultOfMethodCallIgnored
@@ -477,8 +588,7 @@ public void delete() throws IOException {
       public void deleteOnClose() throws IOException {
          if (handleCount == 0) {
             if (fileChannel != null) {
-               fileChannel.close();
-               fileChannel = null;
+               closeChannels();
             }
             openFiles.remove(fileId, this);
             delete();
@@ -0,0 +1,89 @@
+package org.infinispan.persistence.sifs;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.Units;
+
+/**
+ * Statistics of the commit groups of the soft-index file store, that is of the writes that are confirmed together by a
+ * single fsync of the log file when sync writes are enabled.
+ *
+ * @since 15.0
+ */
+@MBean(objectName = "SoftIndexFileStoreGroupCommit", description = "Group commit of the soft-index file store sync writes")
+public class GroupCommitStatistics {
+   private final LongAdder commits = new LongAdder();
+   private final LongAdder committedWrites = new LongAdder();
+   private final LongAdder fsyncNanos = new LongAdder();
+   private final AtomicLong maxGroupSize = new AtomicLong();
+   private final AtomicLong maxFsyncNanos = new AtomicLong();
+
+   void recordCommit(int groupSize, long durationNanos) {
+      commits.increment();
+      committedWrites.add(groupSize);
+      fsyncNanos.add(durationNanos);
+      maxGroupSize.accumulateAndGet(groupSize, Math::max);
+      maxFsyncNanos.accumulateAndGet(durationNanos, Math::max);
+   }
+
+   @ManagedAttribute(
+         description = "Number of fsyncs of the log files that confirmed writes",
+         displayName = "Number of commits"
+   )
+   public long getCommits() {
+      return commits.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Average number of writes confirmed by a single fsync",
+         displayName = "Average commit group size"
+   )
+   public double getAverageGroupSize() {
+      long commits = getCommits();
+      return commits == 0 ? 0 : (double) committedWrites.sum() / commits;
+   }
+
+   @ManagedAttribute(
+         description = "Maximum number of writes confirmed by a single fsync",
+         displayName = "Maximum commit group size"
+   )
+   public long getMaxGroupSize() {
+      return maxGroupSize.get();
+   }
+
+   @ManagedAttribute(
+         description = "Average duration of the fsync of a commit group",
+         displayName = "Average fsync time",
+         units = Units.MICROSECONDS
+   )
+   public long getAverageFsyncTime() {
+      long commits = getCommits();
+      return commits == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(fsyncNanos.sum() / commits);
+   }
+
+   @ManagedAttribute(
+         description = "Maximum duration of the fsync of a commit group",
+         displayName = "Maximum fsync time",
+         units = Units.MICROSECONDS
+   )
+   public long getMaxFsyncTime() {
+      return TimeUnit.NANOSECONDS.toMicros(maxFsyncNanos.get());
+   }
+
+   @ManagedOperation(
+         description = "Resets the group commit statistics",
+         displayName = "Reset statistics"
+   )
+   public void resetStatistics() {
+      commits.reset();
+      committedWrites.reset();
+      fsyncNanos.reset();
+      maxGroupSize.set(0);
+      maxFsyncNanos.set(0);
+   }
+}
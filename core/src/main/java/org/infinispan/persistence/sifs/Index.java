@@ -5,9 +5,11 @@
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -58,6 +60,8 @@ class Index {
    // 8 bytes free block offset
    // 8 bytes number of elements
    private static final int INDEX_FILE_HEADER_SIZE = 34;
+   // Size of the regions of the index file mapped in memory
+   private static final int MAPPED_REGION_SIZE = 1 << 20;
 
    private final NonBlockingManager nonBlockingManager;
    private final FileProvider fileProvider;
@@ -65,10 +69,14 @@ class Index {
    private final Compactor compactor;
    private final int minNodeSize;
    private final int maxNodeSize;
+   private final boolean memoryMapped;
+   private final IndexNodeCache nodeCache;
+   private final SegmentedKeyFilter keyFilter;
    private final ReadWriteLock lock = new ReentrantReadWriteLock();
    private final Segment[] segments;
    private final TimeService timeService;
    private final File indexSizeFile;
+   private final File keyFilterFile;
    public final AtomicLongArray sizePerSegment;
 
    private final FlowableProcessor<IndexRequest>[] flowableProcessors;
@@ -110,7 +118,7 @@ public void setOverwritten(IndexRequest request, int cacheSegment, boolean overw
 
    public Index(NonBlockingManager nonBlockingManager, FileProvider fileProvider, Path indexDir, int segments,
                 int cacheSegments, int minNodeSize, int maxNodeSize, TemporaryTable temporaryTable, Compactor compactor,
-                TimeService timeService) throws IOException {
+                TimeService timeService, boolean memoryMapped, int nodeCacheSize, int keyFilterBits) throws IOException {
       this.nonBlockingManager = nonBlockingManager;
       this.fileProvider = fileProvider;
       this.compactor = compactor;
@@ -118,9 +126,13 @@ public Index(NonBlockingManager nonBlockingManager, FileProvider fileProvider, P
       this.indexDir = indexDir;
       this.minNodeSize = minNodeSize;
       this.maxNodeSize = maxNodeSize;
+      this.memoryMapped = memoryMapped;
+      this.nodeCache = new IndexNodeCache(nodeCacheSize);
+      this.keyFilter = keyFilterBits > 0 ? new SegmentedKeyFilter(cacheSegments, keyFilterBits) : null;
       this.sizePerSegment = new AtomicLongArray(cacheSegments);
       indexDir.toFile().mkdirs();
       this.indexSizeFile = new File(indexDir.toFile(), "index-count");
+      this.keyFilterFile = new File(indexDir.toFile(), "index.bloom");
 
       this.segments = new Segment[segments];
       this.flowableProcessors = new FlowableProcessor[segments];
@@ -187,6 +199,13 @@ public boolean load() {
          return false;
       }
       try {
+         if (keyFilter == null) {
+            keyFilterFile.delete();
+         } else if (!keyFilter.load(keyFilterFile)) {
+            // The index has to be rebuilt to know which keys it holds
+            log.tracef("Key filter file %s is missing or doesn't match the configuration", keyFilterFile);
+            return false;
+         }
          File statsFile = new File(indexDir.toFile(), "index.stats");
          if (!statsFile.exists()) {
             return false;
@@ -227,6 +246,40 @@ public void reset() throws IOException {
       for (Segment segment : segments) {
          segment.reset();
       }
+      nodeCache.clear();
+      if (keyFilter != null) {
+         keyFilter.reset();
+      }
+   }
+
+   public IndexNodeCache getNodeCache() {
+      return nodeCache;
+   }
+
+   /**
+    * Records that the key is being written to the segment, must be invoked before the write is visible
+    */
+   public void addKey(int cacheSegment, org.infinispan.commons.io.ByteBuffer serializedKey) {
+      if (keyFilter != null) {
+         keyFilter.add(cacheSegment, serializedKey);
+      }
+   }
+
+   void addKey(int cacheSegment, byte[] serializedKey) {
+      if (keyFilter != null) {
+         keyFilter.add(cacheSegment, serializedKey);
+      }
+   }
+
+   public boolean hasKeyFilter() {
+      return keyFilter != null;
+   }
+
+   /**
+    * @return {@code false} if the key was for sure never written to the segment, so it doesn't have to be looked up
+    */
+   public boolean possiblyPresent(int cacheSegment, org.infinispan.commons.io.ByteBuffer serializedKey) {
+      return keyFilter == null || keyFilter.possiblyPresent(cacheSegment, serializedKey);
    }
 
    /**
@@ -292,6 +345,10 @@ public CompletionStage<Void> clear() {
          for (int i = 0; i < sizePerSegment.length(); ++i) {
             sizePerSegment.set(i, 0);
          }
+         // The log appender is paused while clearing, so no key can be added concurrently
+         if (keyFilter != null) {
+            keyFilter.reset();
+         }
          return stage.freeze();
       } finally {
          lock.writeLock().unlock();
@@ -371,6 +428,10 @@ public CompletionStage<Void> stop() throws InterruptedException {
                   buffer.flip();
                }
             }
+
+            if (keyFilter != null) {
+               keyFilter.store(keyFilterFile);
+            }
          } catch (IOException e) {
             throw CompletableFutures.asCompletionException(e);
          }
@@ -441,6 +502,10 @@ static class Segment extends CompletableFuture<Void> implements Consumer<IndexRe
       private final ReadWriteLock rootLock = new ReentrantReadWriteLock();
       private final FileChannel indexFile;
       private long indexFileSize;
+      // Regions of the index file mapped in memory, a region is only mapped once the file covers it completely
+      private volatile MappedByteBuffer[] mappedRegions = new MappedByteBuffer[0];
+      // The mapped regions are read with the read lock, the file is truncated with the write lock
+      private final ReadWriteLock mappingLock = new ReentrantReadWriteLock();
 
       private volatile IndexNode root;
 
@@ -470,7 +535,7 @@ boolean load() throws IOException {
             indexFileSize = freeBlocksOffset;
             loaded = true;
          } else {
-            this.indexFile.truncate(0);
+            truncate(0);
             root = IndexNode.emptyWithLeaves(this);
             loaded = false;
             // reserve space for shutdown
@@ -486,7 +551,7 @@ boolean load() throws IOException {
       }
 
       void reset() throws IOException {
-         this.indexFile.truncate(0);
+         truncate(0);
          root = IndexNode.emptyWithLeaves(this);
          // reserve space for shutdown
          indexFileSize = INDEX_FILE_HEADER_SIZE;
@@ -507,9 +572,10 @@ public void accept(IndexRequest request) throws Throwable {
          switch (request.getType()) {
             case CLEAR:
                root = IndexNode.emptyWithLeaves(this);
-               indexFile.truncate(0);
+               truncate(0);
                indexFileSize = INDEX_FILE_HEADER_SIZE;
                freeBlocks.clear();
+               index.nodeCache.clear();
                index.nonBlockingManager.complete(request, null);
                return;
             case SYNC_REQUEST:
@@ -638,6 +704,74 @@ public FileChannel getIndexFile() {
          return indexFile;
       }
 
+      IndexNodeCache getNodeCache() {
+         return index.nodeCache;
+      }
+
+      /**
+       * Returns the lock that must be held while a buffer returned by {@link #mappedNode(long, short)} is read.
+       */
+      Lock mappingReadLock() {
+         return mappingLock.readLock();
+      }
+
+      /**
+       * Returns a view of the node in the memory mapped index file, or null if the node is not in a mapped region.
+       */
+      ByteBuffer mappedNode(long offset, short length) throws IOException {
+         if (!index.memoryMapped) {
+            return null;
+         }
+         long regionIndex = offset / MAPPED_REGION_SIZE;
+         int regionOffset = (int) (offset % MAPPED_REGION_SIZE);
+         // Nodes crossing the end of a region are read with the file channel
+         if (regionOffset + length > MAPPED_REGION_SIZE || regionIndex >= Integer.MAX_VALUE) {
+            return null;
+         }
+         MappedByteBuffer[] regions = mappedRegions;
+         MappedByteBuffer region = regionIndex < regions.length ? regions[(int) regionIndex] : null;
+         if (region == null) {
+            region = mapRegion((int) regionIndex);
+            if (region == null) {
+               return null;
+            }
+         }
+         return region.slice(regionOffset, length);
+      }
+
+      private synchronized MappedByteBuffer mapRegion(int regionIndex) throws IOException {
+         MappedByteBuffer[] regions = mappedRegions;
+         if (regionIndex < regions.length && regions[regionIndex] != null) {
+            return regions[regionIndex];
+         }
+         long regionStart = (long) regionIndex * MAPPED_REGION_SIZE;
+         // The end of the file is read with the file channel until the file grows past the end of the region
+         if (regionStart + MAPPED_REGION_SIZE > indexFile.size()) {
+            return null;
+         }
+         MappedByteBuffer region = indexFile.map(FileChannel.MapMode.READ_ONLY, regionStart, MAPPED_REGION_SIZE);
+         // Copy on write, the readers don't synchronize
+         regions = Arrays.copyOf(regions, Math.max(regions.length, regionIndex + 1));
+         regions[regionIndex] = region;
+         mappedRegions = regions;
+         return region;
+      }
+
+      private void truncate(long size) throws IOException {
+         // Reading a mapped region past the end of the file fails, so no reader may use the regions being dropped
+         mappingLock.writeLock().lock();
+         try {
+            MappedByteBuffer[] regions = mappedRegions;
+            int keptRegions = (int) Math.min(regions.length, size / MAPPED_REGION_SIZE);
+            if (keptRegions < regions.length) {
+               mappedRegions = Arrays.copyOf(regions, keptRegions);
+            }
+            indexFile.truncate(size);
+         } finally {
+            mappingLock.writeLock().unlock();
+         }
+      }
+
       public FileProvider getFileProvider() {
          return index.fileProvider;
       }
@@ -702,7 +836,7 @@ void freeIndexSpace(long offset, short length) {
          } else {
             indexFileSize -= length;
             try {
-               indexFile.truncate(indexFileSize);
+               truncate(indexFileSize);
             } catch (IOException e) {
                log.cannotTruncateIndex(e);
             }
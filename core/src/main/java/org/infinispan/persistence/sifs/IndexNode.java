@@ -86,8 +86,29 @@ public enum RecordChange {
       this.offset = offset;
       this.occupiedSpace = occupiedSpace;
 
-      ByteBuffer buffer = loadBuffer(segment.getIndexFile(), offset, occupiedSpace);
+      ByteBuffer buffer;
+      // The mapped index file is parsed in place, without copying the node to a temporary buffer. The index file can't
+      // be truncated while the mapped node is parsed.
+      Lock mappingLock = segment.mappingReadLock();
+      mappingLock.lock();
+      try {
+         buffer = segment.mappedNode(offset, occupiedSpace);
+         if (buffer != null) {
+            parse(buffer);
+         }
+      } finally {
+         mappingLock.unlock();
+      }
+      if (buffer == null) {
+         parse(loadBuffer(segment.getIndexFile(), offset, occupiedSpace));
+      }
+
+      if (log.isTraceEnabled()) {
+         log.tracef("Loaded %08x from %d:%d (length %d)", System.identityHashCode(this), offset, occupiedSpace, length());
+      }
+   }
 
+   private void parse(ByteBuffer buffer) {
       prefix = new byte[buffer.getShort()];
       buffer.get(prefix);
 
@@ -116,10 +137,6 @@ public enum RecordChange {
       }
       assert (buffer.position() - afterHeaderPos) < Short.MAX_VALUE;
       contentLength = (short) (buffer.position() - afterHeaderPos);
-
-      if (log.isTraceEnabled()) {
-         log.tracef("Loaded %08x from %d:%d (length %d)", System.identityHashCode(this), offset, occupiedSpace, length());
-      }
    }
 
    private static ByteBuffer loadBuffer(FileChannel indexFile, long offset, int occupiedSpace) throws IOException {
@@ -1103,12 +1120,15 @@ IndexNode getIndexNode(Index.Segment segment) throws IOException {
                   // Is this okay?
                   node = new IndexNode(segment, offset, length);
                   reference = new SoftReference<>(node);
+                  segment.getNodeCache().miss(this, node);
                   if (log.isTraceEnabled()) {
                      log.trace("Loaded inner node from " + offset + " - " + length);
                   }
+                  return node;
                }
             }
          }
+         segment.getNodeCache().access(this, node);
          return node;
       }
    }
@@ -0,0 +1,112 @@
+package org.infinispan.persistence.sifs;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Keeps the most recently used index nodes in memory and counts how often the nodes are found in the cache.
+ * <p>
+ * The children of an {@link IndexNode} are only softly referenced, so the JVM may drop any of them when the heap
+ * fills up and the next lookup has to read them from the index file again. This cache holds strong references to a
+ * bounded number of nodes, so that the nodes used the most survive regardless of the GC. The cache is keyed by the
+ * identity of the reference to the node in its parent, which is dropped when the node is rewritten, so the cache never
+ * returns an outdated node: it is only used to keep the nodes reachable.
+ *
+ * @since 15.0
+ */
+@MBean(objectName = "SoftIndexFileStoreNodeCache", description = "Index nodes of the soft-index file store kept in memory")
+public class IndexNodeCache {
+   private final Cache<IndexNode.InnerNode, IndexNode> nodes;
+   private final LongAdder hits = new LongAdder();
+   private final LongAdder misses = new LongAdder();
+
+   /**
+    * @param maxNodes maximum number of nodes held by the cache, 0 only counts the misses
+    */
+   IndexNodeCache(int maxNodes) {
+      nodes = maxNodes > 0 ?
+            Caffeine.newBuilder().weakKeys().maximumSize(maxNodes).executor(new WithinThreadExecutor()).build() :
+            null;
+   }
+
+   /**
+    * Records an access to a node that was still in memory, which is only a hit if the cache held the node.
+    */
+   void access(IndexNode.InnerNode reference, IndexNode node) {
+      if (nodes == null) {
+         return;
+      }
+      if (nodes.getIfPresent(reference) != null) {
+         hits.increment();
+      } else {
+         // The node was evicted, but it is still softly reachable
+         nodes.put(reference, node);
+      }
+   }
+
+   /**
+    * Records that the node had to be read from the index file.
+    */
+   void miss(IndexNode.InnerNode reference, IndexNode node) {
+      misses.increment();
+      if (nodes != null) {
+         nodes.put(reference, node);
+      }
+   }
+
+   void clear() {
+      if (nodes != null) {
+         nodes.invalidateAll();
+      }
+   }
+
+   @ManagedAttribute(
+         description = "Number of index node lookups that found the node in the cache",
+         displayName = "Index node hits"
+   )
+   public long getHits() {
+      return hits.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of index node lookups that read the node from the index file",
+         displayName = "Index node misses"
+   )
+   public long getMisses() {
+      return misses.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Ratio of index node lookups that found the node in the cache",
+         displayName = "Index node hit ratio"
+   )
+   public double getHitRatio() {
+      long hits = getHits();
+      long total = hits + getMisses();
+      return total == 0 ? 0 : (double) hits / total;
+   }
+
+   @ManagedAttribute(
+         description = "Number of index nodes held in memory by the cache",
+         displayName = "Cached index nodes"
+   )
+   public long getNumberOfCachedNodes() {
+      return nodes == null ? 0 : nodes.estimatedSize();
+   }
+
+   @ManagedOperation(
+         description = "Resets the index node hit and miss counters",
+         displayName = "Reset statistics"
+   )
+   public void resetStatistics() {
+      hits.reset();
+      misses.reset();
+   }
+}
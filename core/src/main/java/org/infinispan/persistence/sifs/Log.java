@@ -92,4 +92,16 @@ public interface Log extends BasicLogger {
    @LogMessage(level = Logger.Level.WARN)
    @Message(value = "Compaction skipping a corrupted entry for key %s, at %s:%s|%s that doesn't have enough bytes for header %s", id = 29022)
    void compactedFileNotLongEnough(byte[] key, int file, long offset, long fileSize, EntryHeader record);
+
+   @Message(value = "The index node cache size must be 0 or greater, was %d.", id = 29023)
+   CacheConfigurationException invalidNodeCacheSize(int nodeCacheSize);
+
+   @Message(value = "The sync commit delay and size must be 0 or greater, were %d and %d.", id = 29024)
+   CacheConfigurationException invalidSyncCommit(long syncCommitDelay, int syncCommitSize);
+
+   @Message(value = "The compaction parallelism must be 1 or greater and the compaction rate limit 0 or greater, were %d and %d.", id = 29025)
+   CacheConfigurationException invalidCompaction(int compactionParallelism, long compactionRateLimit);
+
+   @Message(value = "The number of bits of the bloom filter must be 0 or greater, was %d.", id = 29026)
+   CacheConfigurationException invalidBloomFilterBits(int bloomFilterBits);
 }
@@ -1,5 +1,6 @@
 package org.infinispan.persistence.sifs;
 
+import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -7,15 +8,18 @@
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.Util;
 import org.infinispan.container.entries.ExpiryHelper;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.util.concurrent.NonBlockingManager;
 import org.infinispan.util.logging.LogFactory;
 
+import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.functions.Consumer;
 import io.reactivex.rxjava3.processors.FlowableProcessor;
 import io.reactivex.rxjava3.processors.UnicastProcessor;
@@ -23,6 +27,7 @@
 
 public class LogAppender implements Consumer<LogAppender.WriteOperation> {
    private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass(), Log.class);
+   private static final int MAX_COMMIT_GROUP_SIZE = 1000;
 
    private final NonBlockingManager nonBlockingManager;
    private final Index index;
@@ -31,6 +36,12 @@ public class LogAppender implements Consumer<LogAppender.WriteOperation> {
    private final FileProvider fileProvider;
    private final boolean syncWrites;
    private final int maxFileSize;
+   private final TimeService timeService;
+   // How long a sync write may wait for other writes to be forced along with it, 0 forces as soon as the writer catches up
+   private final long syncCommitDelayNanos;
+   // Bytes appended after which the pending sync writes are forced without waiting for the delay, 0 for no limit
+   private final int syncCommitSize;
+   private final GroupCommitStatistics groupCommitStatistics;
    // Used to keep track of how many log requests have been submitted. This way if the blocking thread has consumed
    // the same number of log requests it can immediately flush.
    private final AtomicInteger submittedCount = new AtomicInteger();
@@ -50,6 +61,10 @@ public class LogAppender implements Consumer<LogAppender.WriteOperation> {
    private List<LogRequest> delayedLogRequests;
    private FileProvider.Log logFile;
    private long nextExpirationTime = -1;
+   // The commit group is made of the requests in toSyncLogRequests, these track when it was started and its size
+   private long commitGroupStart;
+   private int commitGroupBytes;
+   private boolean commitScheduled;
 
    // This is volatile as it can be read from different threads when submitting
    private volatile FlowableProcessor<LogRequest> requestProcessor;
@@ -60,7 +75,8 @@ public class LogAppender implements Consumer<LogAppender.WriteOperation> {
 
    public LogAppender(NonBlockingManager nonBlockingManager, Index index,
                       TemporaryTable temporaryTable, Compactor compactor,
-                      FileProvider fileProvider, boolean syncWrites, int maxFileSize) {
+                      FileProvider fileProvider, boolean syncWrites, int maxFileSize, TimeService timeService,
+                      long syncCommitDelayMicros, int syncCommitSize, GroupCommitStatistics groupCommitStatistics) {
       this.nonBlockingManager = nonBlockingManager;
       this.index = index;
       this.temporaryTable = temporaryTable;
@@ -68,6 +84,10 @@ public LogAppender(NonBlockingManager nonBlockingManager, Index index,
       this.fileProvider = fileProvider;
       this.syncWrites = syncWrites;
       this.maxFileSize = maxFileSize;
+      this.timeService = timeService;
+      this.syncCommitDelayNanos = TimeUnit.MICROSECONDS.toNanos(syncCommitDelayMicros);
+      this.syncCommitSize = syncCommitSize;
+      this.groupCommitStatistics = groupCommitStatistics;
 
       this.toSyncLogRequests = syncWrites ? new ArrayList<>() : null;
    }
@@ -205,7 +225,11 @@ private static <I> CompletionStage<I> cast(CompletionStage stage) {
     * @param request the log request
     */
    private void callerAccept(LogRequest request) {
-      if (request.isPause()) {
+      if (request.isCommit()) {
+         // Writes submitted before a pause must still be forced
+         sendToWriteProcessor(request);
+         return;
+      } else if (request.isPause()) {
          delayedLogRequests = new ArrayList<>();
          // This request is created in the same thread - so there can be no dependents
          request.complete(null);
@@ -233,6 +257,10 @@ private void sendToWriteProcessor(LogRequest request) {
       if (syncWrites && request.getKey() != null) {
          submittedCount.incrementAndGet();
       }
+      if (request.isStore()) {
+         // The key must be in the filter before the entry can be found in the temporary table or index
+         index.addKey(request.getSegment(), request.getSerializedKey());
+      }
 
       writeProcessor.onNext(WriteOperation.fromLogRequest(request));
    }
@@ -241,6 +269,15 @@ private void sendToWriteProcessor(LogRequest request) {
    public void accept(WriteOperation writeOperation) {
       LogRequest actualRequest = writeOperation.logRequest;
       try {
+         if (actualRequest.isCommit()) {
+            commitScheduled = false;
+            if (logFile != null) {
+               commit();
+            }
+            // This request is created by the appender - so there can be no dependents
+            actualRequest.complete(null);
+            return;
+         }
          if (logFile == null) {
             logFile = fileProvider.getFileForLog();
             log.tracef("Appending records to %s", logFile.fileId);
@@ -258,8 +295,8 @@ public void accept(WriteOperation writeOperation) {
          int actualLength = actualRequest.length();
          if (currentOffset != 0 && currentOffset + actualLength > maxFileSize) {
             // switch to next file
+            commit();
             logFile.close();
-            completePendingLogRequests();
 
             final int fileId = logFile.fileId;
             final int offset = currentOffset;
@@ -288,9 +325,26 @@ public void accept(WriteOperation writeOperation) {
          } else {
             // This cannot be null when sync writes is true
             toSyncLogRequests.add(la -> la.handleRequestCompletion(actualRequest));
-            if (submittedCount.get() == ++receivedCount || toSyncLogRequests.size() == 1000) {
-               logFile.fileChannel.force(false);
-               completePendingLogRequests();
+            if (toSyncLogRequests.size() == 1) {
+               commitGroupStart = syncCommitDelayNanos > 0 ? timeService.time() : 0;
+            }
+            commitGroupBytes += actualLength;
+            boolean caughtUp = submittedCount.get() == ++receivedCount;
+            if (toSyncLogRequests.size() == MAX_COMMIT_GROUP_SIZE ||
+                  (syncCommitSize > 0 && commitGroupBytes >= syncCommitSize)) {
+               commit();
+            } else if (syncCommitDelayNanos == 0) {
+               if (caughtUp) {
+                  commit();
+               }
+            } else {
+               long remaining = syncCommitDelayNanos - timeService.timeDuration(commitGroupStart, TimeUnit.NANOSECONDS);
+               if (remaining <= 0) {
+                  commit();
+               } else if (caughtUp) {
+                  // No other write is coming for now, force the group when its delay is over
+                  scheduleCommit(remaining);
+               }
             }
          }
          currentOffset += actualLength;
@@ -300,6 +354,35 @@ public void accept(WriteOperation writeOperation) {
       }
    }
 
+   /**
+    * Forces the log file and completes the requests of the current commit group. Must only be invoked by
+    * {@link #accept(WriteOperation)} method.
+    */
+   private void commit() throws IOException {
+      if (toSyncLogRequests != null && !toSyncLogRequests.isEmpty()) {
+         int groupSize = toSyncLogRequests.size();
+         long start = timeService.time();
+         logFile.fileChannel.force(false);
+         groupCommitStatistics.recordCommit(groupSize, timeService.timeDuration(start, TimeUnit.NANOSECONDS));
+         log.tracef("Forced %d writes to %s", groupSize, logFile.fileId);
+      }
+      completePendingLogRequests();
+   }
+
+   private void scheduleCommit(long delayNanos) {
+      if (commitScheduled) {
+         return;
+      }
+      commitScheduled = true;
+      Completable.timer(delayNanos, TimeUnit.NANOSECONDS, nonBlockingManager.asScheduler())
+            .subscribe(() -> {
+               FlowableProcessor<LogRequest> processor = requestProcessor;
+               if (processor != null) {
+                  processor.onNext(LogRequest.commitRequest());
+               }
+            }, e -> log.warn("Exception encountered while scheduling the commit of the log appender", e));
+   }
+
    public void complete(Consumer<LogAppender> consumer) throws Throwable {
       consumer.accept(this);
    }
@@ -315,6 +398,7 @@ private void completePendingLogRequests() {
             completionProcessor.onNext(consumer);
          }
       }
+      commitGroupBytes = 0;
    }
 
    public void setSeqId(long seqId) {
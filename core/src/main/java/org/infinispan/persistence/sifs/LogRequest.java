@@ -18,7 +18,8 @@ enum Type {
       DELETE,
       CLEAR_ALL,
       PAUSE,
-      RESUME
+      RESUME,
+      COMMIT
    }
 
    private final Type type;
@@ -74,6 +75,10 @@ public static LogRequest resumeRequest() {
       return new LogRequest(Type.RESUME);
    }
 
+   public static LogRequest commitRequest() {
+      return new LogRequest(Type.COMMIT);
+   }
+
    public int length() {
       return EntryHeader.HEADER_SIZE_11_0 + serializedKey.getLength()
             + (serializedValue != null ? serializedValue.getLength() : 0)
@@ -117,6 +122,10 @@ public long getExpiration() {
       return expirationTime;
    }
 
+   public boolean isStore() {
+      return type == Type.STORE;
+   }
+
    public boolean isClear() {
       return type == Type.CLEAR_ALL;
    }
@@ -129,6 +138,10 @@ public boolean isResume() {
       return type == Type.RESUME;
    }
 
+   public boolean isCommit() {
+      return type == Type.COMMIT;
+   }
+
    public void setIndexRequest(IndexRequest indexRequest) {
       this.indexRequest = indexRequest;
    }
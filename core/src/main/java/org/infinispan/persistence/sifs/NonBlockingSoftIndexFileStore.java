@@ -14,6 +14,7 @@
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
@@ -36,6 +37,8 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.entries.ExpiryHelper;
 import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.jmx.CacheJmxRegistration;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.PrivateMetadata;
 import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration;
@@ -139,6 +142,9 @@
    public static final String PREFIX_12_0 = "ispn12.";
    public static final String PREFIX_LATEST = PREFIX_12_0;
 
+   // Maximum number of asynchronous reads of entries that are not indexed yet submitted at the same time by a publisher
+   private static final int MAX_READS_IN_FLIGHT = 64;
+
    private SoftIndexFileStoreConfiguration configuration;
    private TemporaryTable temporaryTable;
    private FileProvider fileProvider;
@@ -151,6 +157,7 @@
    private TimeService timeService;
    private int maxKeyLength;
    private BlockingManager blockingManager;
+   private Executor nonBlockingExecutor;
    private ActionSequencer sizeAndClearSequencer;
    private KeyPartitioner keyPartitioner;
    private InitializationContext ctx;
@@ -178,6 +185,7 @@ public CompletionStage<Void> start(InitializationContext ctx) {
 
       keyPartitioner = ctx.getKeyPartitioner();
       blockingManager = ctx.getBlockingManager();
+      nonBlockingExecutor = ctx.getNonBlockingExecutor();
       // TODO: I don't think we need to use blocking executor here
       sizeAndClearSequencer = new ActionSequencer(blockingManager.asExecutor("SIFS-sizeOrClear"),
             false, timeService);
@@ -194,20 +202,31 @@ public CompletionStage<Void> start(InitializationContext ctx) {
       temporaryTable.addSegments(IntSets.immutableRangeSet(cacheConfig.clustering().hash().numSegments()));
 
       fileProvider = new FileProvider(getDataLocation(), configuration.openFilesLimit(), PREFIX_LATEST,
-            configuration.maxFileSize());
+            configuration.maxFileSize(), configuration.ioBackend());
       compactor = new Compactor(ctx.getNonBlockingManager(), fileProvider, temporaryTable, marshaller, timeService,
             keyPartitioner, configuration.maxFileSize(), configuration.compactionThreshold(),
-            blockingManager.asExecutor("sifs-compactor"));
+            blockingManager.asExecutor("sifs-compactor"), configuration.compactionParallelism(),
+            configuration.compactionRateLimit());
       try {
          index = new Index(ctx.getNonBlockingManager(), fileProvider, getIndexLocation(), configuration.indexSegments(),
                cacheSegments, configuration.minNodeSize(), configuration.maxNodeSize(), temporaryTable, compactor,
-               timeService);
+               timeService, configuration.indexMemoryMapped(), configuration.indexNodeCacheSize(),
+               configuration.indexBloomFilterBits());
       } catch (IOException e) {
          throw log.cannotOpenIndex(configuration.indexLocation(), e);
       }
+      GroupCommitStatistics groupCommitStatistics = new GroupCommitStatistics();
+      if (cacheConfig.statistics().enabled()) {
+         registerMBean(index.getNodeCache());
+         registerMBean(compactor.getStatistics());
+         if (configuration.syncWrites()) {
+            registerMBean(groupCommitStatistics);
+         }
+      }
       compactor.setIndex(index);
       logAppender = new LogAppender(ctx.getNonBlockingManager(), index, temporaryTable, compactor, fileProvider,
-            configuration.syncWrites(), configuration.maxFileSize());
+            configuration.syncWrites(), configuration.maxFileSize(), timeService, configuration.syncCommitDelay(),
+            configuration.syncCommitSize(), groupCommitStatistics);
       logAppender.start(blockingManager.asExecutor("sifs-log-processor"));
       startIndex();
       final AtomicLong maxSeqId = new AtomicLong(0);
@@ -388,6 +407,9 @@ private void buildIndex(final AtomicLong maxSeqId) {
                   // Make sure to keep track of the lowest expiration that isn't -1
                   nextExpirationTime.set(ExpiryHelper.mostRecentExpirationTime(nextExpirationTime.get(), expiration));
                   int segment = keyPartitioner.getSegment(key);
+                  if (serializedValue != null) {
+                     index.addKey(segment, serializedKey);
+                  }
                   // We may check the seqId safely as we are the only thread writing to index
                   if (isSeqIdOld(seqId, segment, key, serializedKey)) {
                      index.handleRequest(IndexRequest.foundOld(segment, key, ByteBufferImpl.create(serializedKey), file, offset, size));
@@ -402,6 +424,18 @@ private void buildIndex(final AtomicLong maxSeqId) {
       CompletionStages.join(stage);
    }
 
+   private void registerMBean(Object mbean) {
+      CacheJmxRegistration jmxRegistration = ComponentRegistry.of(ctx.getCache()).getComponent(CacheJmxRegistration.class);
+      if (jmxRegistration != null && jmxRegistration.enabled()) {
+         try {
+            // Unregistered along with the other MBeans of the cache
+            jmxRegistration.registerMBean(mbean);
+         } catch (Exception e) {
+            log.debugf(e, "Unable to register the MBean %s", mbean);
+         }
+      }
+   }
+
    private Path getDataLocation() {
       return getQualifiedLocation(ctx.getGlobalConfiguration(), configuration.dataLocation(), ctx.getCache().getName(), "data");
    }
@@ -567,7 +601,11 @@ public CompletionStage<Boolean> containsKey(int segment, Object key) {
                   }, "soft-index-containsKey");
                }
             } else {
-               EntryPosition position = index.getPosition(key, segment, marshaller.objectToBuffer(key));
+               ByteBuffer serializedKey = marshaller.objectToBuffer(key);
+               if (!index.possiblyPresent(segment, serializedKey)) {
+                  return CompletableFutures.completedFalse();
+               }
+               EntryPosition position = index.getPosition(key, segment, serializedKey);
                return CompletableFutures.booleanStage(position != null);
             }
          }
@@ -578,6 +616,31 @@ public CompletionStage<Boolean> containsKey(int segment, Object key) {
 
    @Override
    public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
+      if (index.hasKeyFilter()) {
+         try {
+            // Keys that were never written are not looked up, so this doesn't need a blocking thread
+            if (!index.possiblyPresent(segment, marshaller.objectToBuffer(key))) {
+               log.tracef("Key %s is not present in the key filter of segment %d, returning null", key, segment);
+               return CompletableFutures.completedNull();
+            }
+         } catch (Exception e) {
+            return CompletableFuture.failedFuture(log.cannotLoadKeyFromIndex(key, e));
+         }
+      }
+      if (fileProvider.supportsAsyncReads()) {
+         EntryPosition entry = temporaryTable.get(segment, key);
+         if (entry != null) {
+            if (entry.offset < 0) {
+               log.tracef("Entry for key=%s found in temporary table on %d:%d but it is a tombstone", key, entry.file, entry.offset);
+               return CompletableFutures.completedNull();
+            }
+            // Opening a file blocks, so only the files that are already open are read from the invoking thread
+            FileProvider.Handle handle = fileProvider.getOpenFile(entry.file);
+            if (handle != null) {
+               return readValueFromFileOffsetAsync(key, entry, handle);
+            }
+         }
+      }
       return blockingManager.supplyBlocking(() -> {
          log.tracef("Loading key %s for segment %d", key, segment);
          try {
@@ -635,6 +698,39 @@ private MarshallableEntry<K, V> readValueFromFileOffset(Object key, EntryPositio
       return null;
    }
 
+   /**
+    * Reads the entry with {@link EntryRecord#readEntryAsync(FileProvider.Handle, long)} and closes the handle once
+    * the read is complete. The returned stage is completed on a non-blocking thread.
+    */
+   private CompletionStage<MarshallableEntry<K, V>> readValueFromFileOffsetAsync(Object key, EntryPosition entry,
+         FileProvider.Handle handle) {
+      return EntryRecord.readEntryAsync(handle, entry.offset).handleAsync((record, t) -> {
+         try {
+            handle.close();
+         } catch (IOException e) {
+            log.cannotCloseFile(e);
+         }
+         if (t != null) {
+            Throwable cause = CompletableFutures.extractException(t);
+            throw log.cannotLoadKeyFromIndex(key, cause instanceof Exception ? (Exception) cause : new CacheException(cause));
+         }
+         if (record == null) {
+            throw new IllegalStateException("Error reading from " + entry.file + ":" + entry.offset);
+         }
+         EntryHeader header = record.getHeader();
+         if (header.expiryTime() > 0 && header.expiryTime() <= timeService.wallClockTime()) {
+            log.tracef("Entry for key=%s found in temporary table on %d:%d but it is expired", key, entry.file, entry.offset);
+            return null;
+         }
+         if (header.valueLength() <= 0) {
+            log.tracef("Entry for key=%s found in temporary table on %d:%d but it is a tombstone in log", key, entry.file, entry.offset);
+            return null;
+         }
+         log.tracef("Entry for key=%s found in temporary table on %d:%d and loaded", key, entry.file, entry.offset);
+         return entryFromRecord(record);
+      }, nonBlockingExecutor);
+   }
+
    private MarshallableEntry<K, V> readEntry(FileProvider.Handle handle, EntryHeader header, int offset,
          Object key, boolean nonNull, EntryCreator<K, V> entryCreator, boolean includeExpired)
          throws IOException {
@@ -754,13 +850,21 @@ public Publisher<MarshallableEntry<K, V>> publishEntries(IntSet segments, Predic
             if (position.offset < 0) {
                return Maybe.empty();
             }
+            if (fileProvider.supportsAsyncReads()) {
+               // We are on a blocking thread, so the file can be opened here and only the reads are asynchronous
+               FileProvider.Handle handle = fileProvider.getFile(position.file);
+               if (handle != null) {
+                  return Maybe.fromCompletionStage(readValueFromFileOffsetAsync(entry.getKey(), position, handle));
+               }
+               return Maybe.fromCompletionStage(load(keyPartitioner.getSegment(entry.getKey()), entry.getKey()));
+            }
             MarshallableEntry<K, V> marshallableEntry = readValueFromFileOffset(entry.getKey(), position);
             if (marshallableEntry == null) {
                // Using the key partitioner here isn't the best, however this case should rarely happen
                return Maybe.fromCompletionStage(load(keyPartitioner.getSegment(entry.getKey()), entry.getKey()));
             }
             return Maybe.just(marshallableEntry);
-         });
+         }, false, MAX_READS_IN_FLIGHT);
          Flowable<MarshallableEntry<K, V>> indexFlowable = index.publish(segments, includeValues)
                .mapOptional(er -> {
                   if (er.getHeader().valueLength() == 0) {
@@ -0,0 +1,116 @@
+package org.infinispan.persistence.sifs;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.util.BloomFilter;
+import org.infinispan.commons.util.IntSets;
+import org.infinispan.commons.util.MurmurHash3BloomFilter;
+
+/**
+ * Bloom filters of the serialized keys written to each cache segment, so that reads of keys that were never written
+ * are answered without looking up the index.
+ * <p>
+ * Keys are added before they are written and are never removed: removed keys, and the keys of the segments the node no
+ * longer owns, only make the filter less selective. Segments without a filter, before the filters are loaded or reset,
+ * report all their keys as possibly present. The filters are persisted along with the index when the store is stopped,
+ * and the index is rebuilt if the persisted filters are not complete.
+ *
+ * @since 15.0
+ */
+class SegmentedKeyFilter {
+   private final int bitsPerSegment;
+   private final AtomicReferenceArray<BloomFilter<byte[]>> filters;
+
+   SegmentedKeyFilter(int cacheSegments, int bitsPerSegment) {
+      this.bitsPerSegment = bitsPerSegment;
+      this.filters = new AtomicReferenceArray<>(cacheSegments);
+   }
+
+   /**
+    * Replaces the filters of all the segments with empty ones, the keys must then be added again.
+    */
+   void reset() {
+      for (int i = 0; i < filters.length(); ++i) {
+         filters.set(i, MurmurHash3BloomFilter.createConcurrentFilter(bitsPerSegment));
+      }
+   }
+
+   void add(int segment, ByteBuffer serializedKey) {
+      add(segment, serializedKey.trim());
+   }
+
+   void add(int segment, byte[] serializedKey) {
+      BloomFilter<byte[]> filter = filters.get(segment);
+      if (filter != null) {
+         filter.addToFilter(serializedKey);
+      }
+   }
+
+   /**
+    * @return {@code false} if the key was for sure never written to the segment
+    */
+   boolean possiblyPresent(int segment, ByteBuffer serializedKey) {
+      BloomFilter<byte[]> filter = filters.get(segment);
+      return filter == null || filter.possiblyPresent(serializedKey.trim());
+   }
+
+   /**
+    * Loads the filters written by {@link #store(File)} and deletes the file, so that the filters are not used again
+    * if the store is not stopped cleanly.
+    * @return {@code true} if the filters of all the segments were loaded, otherwise the filters are left as they are
+    */
+   boolean load(File file) throws IOException {
+      if (!file.exists()) {
+         return false;
+      }
+      try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+         if (input.readInt() != filters.length() || input.readInt() != bitsPerSegment) {
+            return false;
+         }
+         BloomFilter<byte[]>[] loaded = new BloomFilter[filters.length()];
+         for (int i = 0; i < loaded.length; ++i) {
+            int length = input.readInt();
+            if (length < 0) {
+               // The keys of the segment are unknown
+               return false;
+            }
+            byte[] bits = new byte[length];
+            input.readFully(bits);
+            loaded[i] = MurmurHash3BloomFilter.createConcurrentFilter(bitsPerSegment);
+            loaded[i].setBits(IntSets.from(bits));
+         }
+         for (int i = 0; i < loaded.length; ++i) {
+            filters.set(i, loaded[i]);
+         }
+         return true;
+      } finally {
+         file.delete();
+      }
+   }
+
+   void store(File file) throws IOException {
+      try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+         output.writeInt(filters.length());
+         output.writeInt(bitsPerSegment);
+         for (int i = 0; i < filters.length(); ++i) {
+            BloomFilter<byte[]> filter = filters.get(i);
+            if (filter == null) {
+               output.writeInt(-1);
+            } else {
+               byte[] bits = filter.getIntSet().toBitSet();
+               output.writeInt(bits.length);
+               output.write(bits);
+            }
+         }
+      }
+   }
+}
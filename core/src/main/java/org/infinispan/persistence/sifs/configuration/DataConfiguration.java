@@ -10,9 +10,13 @@ public class DataConfiguration extends ConfigurationElement<DataConfiguration> {
    public static final AttributeDefinition<String> DATA_LOCATION = AttributeDefinition.builder(Attribute.PATH, null, String.class).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Integer> MAX_FILE_SIZE = AttributeDefinition.builder(Attribute.MAX_FILE_SIZE, 16 * 1024 * 1024).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Boolean> SYNC_WRITES = AttributeDefinition.builder(Attribute.SYNC_WRITES, false).immutable().autoPersist(false).build();
+   public static final AttributeDefinition<IOBackend> IO_BACKEND = AttributeDefinition.builder(Attribute.IO_BACKEND, IOBackend.FILE_CHANNEL).immutable().autoPersist(false).build();
+   public static final AttributeDefinition<Long> SYNC_COMMIT_DELAY = AttributeDefinition.builder(Attribute.SYNC_COMMIT_DELAY, 0L).immutable().autoPersist(false).build();
+   public static final AttributeDefinition<Integer> SYNC_COMMIT_SIZE = AttributeDefinition.builder(Attribute.SYNC_COMMIT_SIZE, 0).immutable().autoPersist(false).build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(DataConfiguration.class, DATA_LOCATION, MAX_FILE_SIZE, SYNC_WRITES);
+      return new AttributeSet(DataConfiguration.class, DATA_LOCATION, MAX_FILE_SIZE, SYNC_WRITES, IO_BACKEND, SYNC_COMMIT_DELAY,
+            SYNC_COMMIT_SIZE);
    }
 
    DataConfiguration(AttributeSet attributes) {
@@ -27,6 +31,26 @@ public boolean syncWrites() {
       return attributes.attribute(SYNC_WRITES).get();
    }
 
+   /**
+    * @return how long in microseconds the fsync of synchronous writes may be delayed to confirm more writes with it,
+    * 0 to force the log file as soon as all the submitted writes are appended
+    */
+   public long syncCommitDelay() {
+      return attributes.attribute(SYNC_COMMIT_DELAY).get();
+   }
+
+   /**
+    * @return the number of bytes appended after which synchronous writes are forced regardless of the commit delay,
+    * 0 for no limit
+    */
+   public int syncCommitSize() {
+      return attributes.attribute(SYNC_COMMIT_SIZE).get();
+   }
+
+   public IOBackend ioBackend() {
+      return attributes.attribute(IO_BACKEND).get();
+   }
+
    public String dataLocation() {
       return attributes.attribute(DATA_LOCATION).get();
    }
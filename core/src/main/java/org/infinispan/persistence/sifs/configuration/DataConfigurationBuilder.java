@@ -1,14 +1,20 @@
 package org.infinispan.persistence.sifs.configuration;
 
 import static org.infinispan.persistence.sifs.configuration.DataConfiguration.DATA_LOCATION;
+import static org.infinispan.persistence.sifs.configuration.DataConfiguration.IO_BACKEND;
 import static org.infinispan.persistence.sifs.configuration.DataConfiguration.MAX_FILE_SIZE;
+import static org.infinispan.persistence.sifs.configuration.DataConfiguration.SYNC_COMMIT_DELAY;
+import static org.infinispan.persistence.sifs.configuration.DataConfiguration.SYNC_COMMIT_SIZE;
 import static org.infinispan.persistence.sifs.configuration.DataConfiguration.SYNC_WRITES;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.persistence.sifs.Log;
+import org.infinispan.util.logging.LogFactory;
 
 public class DataConfigurationBuilder implements Builder<DataConfiguration> {
+   private static final Log log = LogFactory.getLog(DataConfigurationBuilder.class, Log.class);
 
    private final AttributeSet attributes;
 
@@ -35,6 +41,39 @@ public DataConfigurationBuilder syncWrites(boolean syncWrites) {
       return this;
    }
 
+   /**
+    * Sets how long in microseconds the fsync of synchronous writes may be delayed, so that the writes submitted in the
+    * meantime are confirmed by the same fsync. Defaults to 0, which forces the log file as soon as all the submitted
+    * writes are appended.
+    */
+   public DataConfigurationBuilder syncCommitDelay(long syncCommitDelay) {
+      attributes.attribute(SYNC_COMMIT_DELAY).set(syncCommitDelay);
+      return this;
+   }
+
+   /**
+    * Sets the number of bytes after which synchronous writes are forced without waiting for the rest of the
+    * {@link #syncCommitDelay(long)}. Defaults to 0, which doesn't limit the size of a commit.
+    */
+   public DataConfigurationBuilder syncCommitSize(int syncCommitSize) {
+      attributes.attribute(SYNC_COMMIT_SIZE).set(syncCommitSize);
+      return this;
+   }
+
+   public DataConfigurationBuilder ioBackend(IOBackend ioBackend) {
+      attributes.attribute(IO_BACKEND).set(ioBackend);
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      long syncCommitDelay = attributes.attribute(SYNC_COMMIT_DELAY).get();
+      int syncCommitSize = attributes.attribute(SYNC_COMMIT_SIZE).get();
+      if (syncCommitDelay < 0 || syncCommitSize < 0) {
+         throw log.invalidSyncCommit(syncCommitDelay, syncCommitSize);
+      }
+   }
+
    @Override
    public DataConfiguration create() {
       return new DataConfiguration(attributes.protect());
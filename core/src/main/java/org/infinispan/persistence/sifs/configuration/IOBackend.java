@@ -0,0 +1,30 @@
+package org.infinispan.persistence.sifs.configuration;
+
+/**
+ * Defines how the soft-index file store reads entries from its data files.
+ *
+ * @since 15.0
+ */
+public enum IOBackend {
+
+   /**
+    * Reads are performed with positional {@link java.nio.channels.FileChannel} reads from a blocking thread. This is
+    * the default.
+    */
+   FILE_CHANNEL,
+
+   /**
+    * Reads of single entries and of the entries that were not indexed yet go through an
+    * {@link java.nio.channels.AsynchronousFileChannel} and are completed on the non-blocking threads, so that waiting
+    * for a read does not hold a thread of the blocking executor. Index lookups and compaction keep using the
+    * {@link #FILE_CHANNEL} backend.
+    * <p>
+    * This is not kernel asynchronous I/O: on Linux the JDK performs each read as a blocking {@code pread} on the
+    * default thread pool of the {@link java.nio.channels.AsynchronousChannelGroup}, one system call per read and
+    * without any batching, so it does not make the reads cheaper than with {@link #FILE_CHANNEL}.
+    * <p>
+    * Each open data file also holds a second file descriptor for its asynchronous channel, so the store can use up to
+    * twice as many descriptors as its open files limit.
+    */
+   AIO
+}
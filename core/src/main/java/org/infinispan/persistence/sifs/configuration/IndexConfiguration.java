@@ -13,9 +13,13 @@ public class IndexConfiguration extends ConfigurationElement<IndexConfiguration>
    public static final AttributeDefinition<Integer> INDEX_SEGMENTS = AttributeDefinition.builder(Attribute.SEGMENTS, 3).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Integer> MIN_NODE_SIZE = AttributeDefinition.builder(Attribute.MIN_NODE_SIZE, 0).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Integer> MAX_NODE_SIZE = AttributeDefinition.builder(Attribute.MAX_NODE_SIZE, 4096).immutable().autoPersist(false).build();
+   public static final AttributeDefinition<Boolean> MEMORY_MAPPED = AttributeDefinition.builder(Attribute.MEMORY_MAPPED, false).immutable().autoPersist(false).build();
+   public static final AttributeDefinition<Integer> NODE_CACHE_SIZE = AttributeDefinition.builder(Attribute.NODE_CACHE_SIZE, 0).immutable().autoPersist(false).build();
+   public static final AttributeDefinition<Integer> BLOOM_FILTER_BITS = AttributeDefinition.builder(Attribute.BLOOM_FILTER_BITS, 0).immutable().autoPersist(false).build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(IndexConfiguration.class, INDEX_LOCATION, INDEX_QUEUE_LENGTH, INDEX_SEGMENTS, MIN_NODE_SIZE, MAX_NODE_SIZE);
+      return new AttributeSet(IndexConfiguration.class, INDEX_LOCATION, INDEX_QUEUE_LENGTH, INDEX_SEGMENTS, MIN_NODE_SIZE, MAX_NODE_SIZE,
+            MEMORY_MAPPED, NODE_CACHE_SIZE, BLOOM_FILTER_BITS);
    }
 
    public IndexConfiguration(AttributeSet attributes) {
@@ -45,4 +49,16 @@ public int maxNodeSize() {
    public int indexQueueLength() {
       return attributes.attribute(INDEX_QUEUE_LENGTH).get();
    }
+
+   public boolean memoryMapped() {
+      return attributes.attribute(MEMORY_MAPPED).get();
+   }
+
+   public int nodeCacheSize() {
+      return attributes.attribute(NODE_CACHE_SIZE).get();
+   }
+
+   public int bloomFilterBits() {
+      return attributes.attribute(BLOOM_FILTER_BITS).get();
+   }
 }
@@ -1,10 +1,13 @@
 package org.infinispan.persistence.sifs.configuration;
 
+import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.BLOOM_FILTER_BITS;
 import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.INDEX_LOCATION;
 import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.INDEX_QUEUE_LENGTH;
 import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.INDEX_SEGMENTS;
 import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.MAX_NODE_SIZE;
+import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.MEMORY_MAPPED;
 import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.MIN_NODE_SIZE;
+import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.NODE_CACHE_SIZE;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
@@ -55,6 +58,21 @@ public IndexConfigurationBuilder indexQueueLength(int indexQueueLength) {
       return this;
    }
 
+   public IndexConfigurationBuilder memoryMapped(boolean memoryMapped) {
+      attributes.attribute(MEMORY_MAPPED).set(memoryMapped);
+      return this;
+   }
+
+   public IndexConfigurationBuilder nodeCacheSize(int nodeCacheSize) {
+      attributes.attribute(NODE_CACHE_SIZE).set(nodeCacheSize);
+      return this;
+   }
+
+   public IndexConfigurationBuilder bloomFilterBits(int bloomFilterBits) {
+      attributes.attribute(BLOOM_FILTER_BITS).set(bloomFilterBits);
+      return this;
+   }
+
    @Override
    public IndexConfiguration create() {
       return new IndexConfiguration(attributes.protect());
@@ -75,6 +93,14 @@ public void validate() {
       } else if (minNodeSize < 0 || minNodeSize > maxNodeSize) {
          throw log.minNodeSizeMustBeLessOrEqualToMax(minNodeSize, maxNodeSize);
       }
+      int nodeCacheSize = attributes.attribute(NODE_CACHE_SIZE).get();
+      if (nodeCacheSize < 0) {
+         throw log.invalidNodeCacheSize(nodeCacheSize);
+      }
+      int bloomFilterBits = attributes.attribute(BLOOM_FILTER_BITS).get();
+      if (bloomFilterBits < 0) {
+         throw log.invalidBloomFilterBits(bloomFilterBits);
+      }
    }
 
    @Override
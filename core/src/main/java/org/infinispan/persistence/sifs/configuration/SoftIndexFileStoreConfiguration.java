@@ -19,11 +19,14 @@ public class SoftIndexFileStoreConfiguration extends AbstractStoreConfiguration<
 
    public static final AttributeDefinition<Integer> OPEN_FILES_LIMIT = AttributeDefinition.builder(Attribute.OPEN_FILES_LIMIT, 1000).immutable().build();
    public static final AttributeDefinition<Double> COMPACTION_THRESHOLD = AttributeDefinition.builder(Attribute.COMPACTION_THRESHOLD, 0.5d).immutable().build();
+   public static final AttributeDefinition<Integer> COMPACTION_PARALLELISM = AttributeDefinition.builder(Attribute.COMPACTION_PARALLELISM, 1).immutable().build();
+   public static final AttributeDefinition<Long> COMPACTION_RATE_LIMIT = AttributeDefinition.builder(Attribute.COMPACTION_RATE_LIMIT, 0L).immutable().build();
    private final IndexConfiguration index;
    private final DataConfiguration data;
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(SoftIndexFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), OPEN_FILES_LIMIT, COMPACTION_THRESHOLD);
+      return new AttributeSet(SoftIndexFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), OPEN_FILES_LIMIT, COMPACTION_THRESHOLD,
+            COMPACTION_PARALLELISM, COMPACTION_RATE_LIMIT);
    }
 
    public SoftIndexFileStoreConfiguration(AttributeSet attributes,
@@ -63,10 +66,34 @@ public int indexQueueLength() {
       return index.indexQueueLength();
    }
 
+   public boolean indexMemoryMapped() {
+      return index.memoryMapped();
+   }
+
+   public int indexNodeCacheSize() {
+      return index.nodeCacheSize();
+   }
+
+   public int indexBloomFilterBits() {
+      return index.bloomFilterBits();
+   }
+
    public boolean syncWrites() {
       return data.syncWrites();
    }
 
+   public long syncCommitDelay() {
+      return data.syncCommitDelay();
+   }
+
+   public int syncCommitSize() {
+      return data.syncCommitSize();
+   }
+
+   public IOBackend ioBackend() {
+      return data.ioBackend();
+   }
+
    public int openFilesLimit() {
       return attributes.attribute(OPEN_FILES_LIMIT).get();
    }
@@ -75,6 +102,14 @@ public double compactionThreshold() {
       return attributes.attribute(COMPACTION_THRESHOLD).get();
    }
 
+   public int compactionParallelism() {
+      return attributes.attribute(COMPACTION_PARALLELISM).get();
+   }
+
+   public long compactionRateLimit() {
+      return attributes.attribute(COMPACTION_RATE_LIMIT).get();
+   }
+
    public IndexConfiguration index() {
       return index;
    }
@@ -1,6 +1,8 @@
 package org.infinispan.persistence.sifs.configuration;
 
 import static org.infinispan.configuration.cache.AbstractStoreConfiguration.SEGMENTED;
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.COMPACTION_PARALLELISM;
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.COMPACTION_RATE_LIMIT;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.COMPACTION_THRESHOLD;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.OPEN_FILES_LIMIT;
 
@@ -111,6 +113,40 @@ public SoftIndexFileStoreConfigurationBuilder indexQueueLength ( int indexQueueL
          return this;
       }
 
+      /**
+       * If true, the index files are mapped in memory and the index nodes are parsed directly from the mapped region
+       * instead of being read into a temporary buffer. Index files larger than 2 GB are still read normally.
+       *
+       * Defaults to <code>false</code>.
+       */
+      public SoftIndexFileStoreConfigurationBuilder indexMemoryMapped ( boolean memoryMapped){
+         index.memoryMapped(memoryMapped);
+         return this;
+      }
+
+      /**
+       * Sets the maximum number of index nodes that are kept in memory regardless of the memory pressure. The other
+       * nodes are only softly referenced and may be dropped by the garbage collector.
+       *
+       * Defaults to <code>0</code>.
+       */
+      public SoftIndexFileStoreConfigurationBuilder indexNodeCacheSize ( int nodeCacheSize){
+         index.nodeCacheSize(nodeCacheSize);
+         return this;
+      }
+
+      /**
+       * Sets the number of bits of the bloom filter of the keys written to each cache segment. Reads of keys that
+       * were never written are then answered without looking up the index. Removed keys are not removed from the
+       * filter, so larger filters stay selective for longer.
+       *
+       * Defaults to <code>0</code>, which disables the filter.
+       */
+      public SoftIndexFileStoreConfigurationBuilder indexBloomFilterBits ( int bloomFilterBits){
+         index.bloomFilterBits(bloomFilterBits);
+         return this;
+      }
+
       /**
        * Sets whether writes shoud wait to be fsynced to disk.
        *
@@ -121,6 +157,42 @@ public SoftIndexFileStoreConfigurationBuilder syncWrites ( boolean syncWrites){
          return this;
       }
 
+      /**
+       * Sets how long in microseconds the fsync of synchronous writes may be delayed, so that more writes are
+       * confirmed by the same fsync. Only used when {@link #syncWrites(boolean)} is enabled.
+       *
+       * Defaults to <code>0</code>, which forces the log file as soon as all the submitted writes are appended.
+       */
+      public SoftIndexFileStoreConfigurationBuilder syncCommitDelay ( long syncCommitDelay){
+         data.syncCommitDelay(syncCommitDelay);
+         return this;
+      }
+
+      /**
+       * Sets the number of bytes after which synchronous writes are forced without waiting for the rest of the
+       * {@link #syncCommitDelay(long)}. Only used when {@link #syncWrites(boolean)} is enabled.
+       *
+       * Defaults to <code>0</code>, which doesn't limit the size of a commit.
+       */
+      public SoftIndexFileStoreConfigurationBuilder syncCommitSize ( int syncCommitSize){
+         data.syncCommitSize(syncCommitSize);
+         return this;
+      }
+
+      /**
+       * Sets how entries are read from the data files. With {@link IOBackend#AIO} the reads are completed on the
+       * non-blocking threads, while the default {@link IOBackend#FILE_CHANNEL} performs blocking reads. On Linux the
+       * reads of {@link IOBackend#AIO} are still blocking reads, run by the JDK thread pool of the asynchronous
+       * channels, and each open data file holds two file descriptors, so the store can use up to twice
+       * {@link #openFilesLimit(int)} descriptors.
+       *
+       * Defaults to <code>FILE_CHANNEL</code>.
+       */
+      public SoftIndexFileStoreConfigurationBuilder ioBackend (IOBackend ioBackend){
+         data.ioBackend(ioBackend);
+         return this;
+      }
+
       /**
        * Sets the maximum number of open files.
        *
@@ -141,6 +213,28 @@ public SoftIndexFileStoreConfigurationBuilder compactionThreshold ( double compa
          return this;
       }
 
+      /**
+       * Sets the maximum number of data files compacted at the same time, each one into its own new file. The files
+       * with the most unused space are compacted first.
+       *
+       * Defaults to <code>1</code>.
+       */
+      public SoftIndexFileStoreConfigurationBuilder compactionParallelism ( int compactionParallelism){
+         attributes.attribute(COMPACTION_PARALLELISM).set(compactionParallelism);
+         return this;
+      }
+
+      /**
+       * Sets the maximum number of bytes read per second from the data files being compacted, so that the compaction
+       * leaves disk bandwidth to the writes.
+       *
+       * Defaults to <code>0</code>, which doesn't limit the compaction.
+       */
+      public SoftIndexFileStoreConfigurationBuilder compactionRateLimit ( long compactionRateLimit){
+         attributes.attribute(COMPACTION_RATE_LIMIT).set(compactionRateLimit);
+         return this;
+      }
+
       @Override
       public SoftIndexFileStoreConfiguration create () {
          return new SoftIndexFileStoreConfiguration(attributes.protect(), async.create(), index.create(), data.create());
@@ -167,10 +261,16 @@ protected void validate ( boolean skipClassChecks){
          }
          super.validate(skipClassChecks);
          index.validate();
+         data.validate();
          double compactionThreshold = attributes.attribute(COMPACTION_THRESHOLD).get();
          if (compactionThreshold <= 0 || compactionThreshold > 1) {
             throw log.invalidCompactionThreshold(compactionThreshold);
          }
+         int compactionParallelism = attributes.attribute(COMPACTION_PARALLELISM).get();
+         long compactionRateLimit = attributes.attribute(COMPACTION_RATE_LIMIT).get();
+         if (compactionParallelism < 1 || compactionRateLimit < 0) {
+            throw log.invalidCompaction(compactionParallelism, compactionRateLimit);
+         }
       }
 
       @Override
@@ -21,6 +21,7 @@
 
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
 
 /**
  * The contract for defining how caches interface with external sources of data, such as databases or filesystems.
@@ -322,6 +323,56 @@ default CompletionStage<Boolean> containsKey(int segment, Object key) {
             .thenApply(Objects::nonNull);
    }
 
+   /**
+    * Publishes the entries of several keys, skipping the keys that are not present in the store. The entries may be
+    * published in any order. A store that can read several keys in a single operation, such as a database query,
+    * should implement this method so that a multi-key read avoids a round trip per key.
+    * <p>
+    * The {@code keyPublisher} publishes up to {@code publisherCount} publishers where each publisher is separated by
+    * the segment each key maps to, in the same way as the remove publisher of
+    * {@link #batch(int, Publisher, Publisher)}.
+    * <p>
+    * <h4>Summary of Characteristics Effects</h4>
+    * <table border="1" cellpadding="1" cellspacing="1" summary="Summary of Characteristics Effects">
+    *    <tr>
+    *       <th bgcolor="#CCCCFF" align="left">Characteristic</th>
+    *       <th bgcolor="#CCCCFF" align="left">Effect</th>
+    *    </tr>
+    *    <tr>
+    *       <td valign="top">{@link Characteristic#WRITE_ONLY}</td>
+    *       <td valign="top">This method will never be invoked.</td>
+    *    </tr>
+    *    <tr>
+    *       <td valign="top">{@link Characteristic#EXPIRATION}</td>
+    *       <td valign="top">When set this method must not publish expired entries.</td>
+    *    </tr>
+    *    <tr>
+    *       <td valign="top">{@link Characteristic#SEGMENTABLE}</td>
+    *       <td valign="top">If not set or segmentation is disabled in the
+    *       {@link StoreConfiguration#segmented() configuration},
+    *       the {@code publisherCount} parameter has a value of 1,
+    *       which means there is only be one {@code SegmentedPublisher} to subscribe to.</td>
+    *    </tr>
+    * </table>
+    * <p>
+    * If a problem is encountered, it is recommended to wrap any created/caught Throwable in a
+    * {@link PersistenceException} and the Publisher be completed exceptionally.
+    * <p>
+    * @implSpec
+    * The default implementation invokes {@link #load(int, Object)} concurrently for each of the keys.
+    * @param publisherCount the maximum number of {@code SegmentPublisher}s the key publisher will publish
+    * @param keyPublisher publishes the keys to load
+    * @return a Publisher of the entries found in the store
+    * @since 15.0
+    */
+   default Publisher<MarshallableEntry<K, V>> bulkLoad(int publisherCount, Publisher<SegmentedPublisher<Object>> keyPublisher) {
+      return Flowable.fromPublisher(keyPublisher)
+            .flatMap(sp ->
+                  Flowable.fromPublisher(sp)
+                        .flatMapMaybe(key -> Maybe.fromCompletionStage(load(sp.getSegment(), key)))
+                  , publisherCount);
+   }
+
    /**
     * Writes the entry to the store for the given segment returning a stage that completes normally when it is finished.
     * <p>
@@ -1,6 +1,7 @@
 package org.infinispan.persistence.support;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletionStage;
 import java.util.function.BiPredicate;
@@ -77,6 +78,11 @@ public Flowable<MarshallableEntry<Object, Object>> preloadPublisher() {
       return persistenceManager.preloadPublisher();
    }
 
+   @Override
+   public Flowable<MarshallableEntry<Object, Object>> preloadPublisher(IntSet segments) {
+      return persistenceManager.preloadPublisher(segments);
+   }
+
    @Override
    public CompletionStage<Void> disableStore(String storeType) {
       return persistenceManager.disableStore(storeType);
@@ -226,6 +232,12 @@ public <K, V> CompletionStage<MarshallableEntry<K, V>> loadFromAllStores(Object
       return persistenceManager.loadFromAllStores(key, segment, localInvocation, includeStores);
    }
 
+   @Override
+   public <K, V> CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAllFromAllStores(Collection<?> keys,
+         boolean localInvocation, boolean includeStores) {
+      return persistenceManager.loadAllFromAllStores(keys, localInvocation, includeStores);
+   }
+
    @Override
    public CompletionStage<Long> approximateSize(Predicate<? super StoreConfiguration> predicate, IntSet segments) {
       return persistenceManager.approximateSize(predicate, segments);
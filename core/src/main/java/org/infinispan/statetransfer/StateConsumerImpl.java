@@ -659,7 +659,8 @@ private CompletionStage<Void> applyChunk(Address sender, IntSet mySegments, Stat
          }
       }
       if (inboundTransfer != null) {
-         return doApplyState(sender, stateChunk.getSegmentId(), stateChunk.getCacheEntries())
+         return makeRoomForState(stateChunk)
+                   .thenCompose(v -> doApplyState(sender, stateChunk.getSegmentId(), stateChunk.getCacheEntries()))
                    .thenAccept(v -> {
                       boolean lastChunk = stateChunk.isLastChunk();
                       inboundTransfer.onStateReceived(stateChunk.getSegmentId(), lastChunk);
@@ -675,6 +676,15 @@ private CompletionStage<Void> applyChunk(Address sender, IntSet mySegments, Stat
       return CompletableFutures.completedNull();
    }
 
+   private CompletionStage<Void> makeRoomForState(StateChunk stateChunk) {
+      Collection<InternalCacheEntry<?, ?>> cacheEntries = stateChunk.getCacheEntries();
+      if (cacheEntries == null || cacheEntries.isEmpty() || !configuration.memory().isEvictionEnabled())
+         return CompletableFutures.completedNull();
+
+      // Evict from the heaviest segments first, so that the received entries don't go over the maximum size
+      return dataContainer.ensureCapacity(stateChunk.getSegmentId(), cacheEntries);
+   }
+
    private void onCompletedSegment(int segmentId, InboundTransferTask inboundTransfer) {
       synchronized (transferMapsLock) {
          List<InboundTransferTask> innerTransfers = transfersBySegment.get(segmentId);
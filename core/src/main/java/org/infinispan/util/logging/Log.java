@@ -2380,4 +2380,45 @@ CacheConfigurationException storeConfiguredHasBothReadAndWriteOnly(String storeC
    @Message(value = "Tracing collector endoint '%s' is not valid.", id = 972)
    CacheConfigurationException invalidTracingCollectorEndpoint(String collectorEndpoint, @Cause Throwable e);
 
+   @Message(value = "Cannot configure both maxCount and maxSize in L1 configuration", id = 973)
+   CacheConfigurationException l1CannotProvideBothSizeAndCount();
+
+   @Message(value = "SingleFileStore does not support max-entries with an off-heap index", id = 974)
+   CacheConfigurationException offHeapIndexSingleFileStoreDoesNotSupportMaxEntries();
+
+   @Message(value = "The maximum number of concurrent batches of the async store must be positive, was %d", id = 975)
+   CacheConfigurationException invalidAsyncStoreMaxConcurrentBatches(int maxConcurrentBatches);
+
+   @Message(value = "The target batch latency of the async store cannot be negative, was %d", id = 976)
+   CacheConfigurationException invalidAsyncStoreTargetBatchLatency(long targetBatchLatency);
+
+   @Message(value = "The preload parallelism must be positive, was %d", id = 977)
+   CacheConfigurationException invalidPreloadParallelism(int parallelism);
+
+   @LogMessage(level = INFO)
+   @Message(value = "Preloading cache '%s': %d of %d segments and %d entries loaded in %s, %s remaining", id = 978)
+   void preloadProgress(String cacheName, int preloadedSegments, int totalSegments, long preloadedEntries, String elapsed, String remaining);
+
+   @Message(value = "Tiered persistence requires exactly two stores, the hot tier followed by the capacity tier, but %d are configured", id = 979)
+   CacheConfigurationException tieredPersistenceRequiresTwoStores(int stores);
+
+   @Message(value = "Store %s cannot be a tier: the tiers must be local, readable, writable and not transactional stores that can iterate their entries", id = 980)
+   CacheConfigurationException invalidTierStore(String store);
+
+   @Message(value = "The tier demotion age must be positive, was %d", id = 981)
+   CacheConfigurationException invalidTierDemotionAge(long age);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Failed to move an entry between the tiers of cache '%s'", id = 982)
+   void failedToMoveEntryBetweenTiers(String cacheName, @Cause Throwable t);
+
+   @Message(value = "Size (bytes) based L1 bound needs a binary compatible storage configured in the cache encoding", id = 983)
+   CacheConfigurationException l1MaxSizeNotSupportedWithObject();
+
+   @Message(value = "Placing only the hot keys in L1 requires L1 to be enabled", id = 984)
+   CacheConfigurationException l1HotKeysOnlyRequiresL1();
+
+   @Message(value = "The L1 bound requires the heap storage without eviction, as the L1 entries otherwise share the data container of the owned entries", id = 985)
+   CacheConfigurationException l1BoundRequiresUnboundedHeapStorage();
+
 }
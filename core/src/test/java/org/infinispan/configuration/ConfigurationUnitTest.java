@@ -32,6 +32,7 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.MemoryConfiguration;
+import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.configuration.global.GlobalConfigurationBuilder;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.marshall.TestObjectStreamMarshaller;
@@ -302,6 +303,40 @@ public void testIndexingRequiresOptionalModule() {
       c.validate(GlobalConfigurationBuilder.defaultClusteredBuilder().build());
    }
 
+   @Test(expectedExceptions = CacheConfigurationException.class,
+         expectedExceptionsMessageRegExp = "ISPN(\\d)*: Size \\(bytes\\) based L1 bound needs a binary compatible storage.*")
+   public void testL1MaxSizeRequiresBinaryStorage() {
+      ConfigurationBuilder c = new ConfigurationBuilder();
+      c.clustering().cacheMode(CacheMode.DIST_SYNC).l1().enable().maxSize("10MB");
+      c.validate();
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class,
+         expectedExceptionsMessageRegExp = "ISPN(\\d)*: The L1 bound requires the heap storage without eviction.*")
+   public void testL1MaxCountWithOffHeap() {
+      ConfigurationBuilder c = new ConfigurationBuilder();
+      c.clustering().cacheMode(CacheMode.DIST_SYNC).l1().enable().maxCount(100);
+      c.memory().storage(StorageType.OFF_HEAP);
+      c.validate();
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class,
+         expectedExceptionsMessageRegExp = "ISPN(\\d)*: The L1 bound requires the heap storage without eviction.*")
+   public void testL1MaxCountWithEviction() {
+      ConfigurationBuilder c = new ConfigurationBuilder();
+      c.clustering().cacheMode(CacheMode.DIST_SYNC).l1().enable().maxCount(100);
+      c.memory().maxCount(1000);
+      c.validate();
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class,
+         expectedExceptionsMessageRegExp = "ISPN(\\d)*: Placing only the hot keys in L1 requires L1 to be enabled")
+   public void testL1HotKeysOnlyRequiresL1() {
+      ConfigurationBuilder c = new ConfigurationBuilder();
+      c.clustering().cacheMode(CacheMode.DIST_SYNC).l1().disable().hotKeysOnly(true);
+      c.validate();
+   }
+
    @Test(expectedExceptions = CacheConfigurationException.class,
          expectedExceptionsMessageRegExp = "ISPN(\\d)*: A cache configured with invocation batching can't have recovery enabled")
    public void testInvalidBatchingAndTransactionConfiguration() {
@@ -40,6 +40,7 @@
 import org.infinispan.configuration.cache.IndexingConfiguration;
 import org.infinispan.configuration.cache.IndexingMode;
 import org.infinispan.configuration.cache.MemoryConfiguration;
+import org.infinispan.configuration.cache.OffHeapAllocatorType;
 import org.infinispan.configuration.cache.PartitionHandlingConfiguration;
 import org.infinispan.configuration.cache.PersistenceConfiguration;
 import org.infinispan.configuration.cache.QueryConfiguration;
@@ -141,6 +142,8 @@ public void check(ConfigurationBuilderHolder holder, int schemaMajor, int schema
 
             configuration = getConfiguration(holder, "dist");
             assertThat(configuration.clustering().hash().keyPartitioner().getClass()).isEqualTo(HashFunctionPartitioner.class);
+            assertThat(configuration.clustering().l1().hotKeysOnly()).isTrue();
+            assertThat(getConfiguration(holder, "capedwarf-dist").clustering().l1().maxCount()).isEqualTo(5000);
 
             query = getConfiguration(holder, "custom-default-max-results").query();
             assertThat(query.hitCountAccuracy()).isEqualTo(1000);
@@ -153,6 +156,12 @@ public void check(ConfigurationBuilderHolder holder, int schemaMajor, int schema
             tracing = getConfiguration(holder, "disabled-tracing").tracing();
             assertThat(tracing).isNotNull();
             assertThat(tracing.enabled()).isFalse();
+
+            MemoryConfiguration memory = getConfiguration(holder, "off_heap_no_eviction").memory();
+            assertThat(memory.offHeapAllocator()).isEqualTo(OffHeapAllocatorType.POOLED);
+            assertThat(memory.compressionThreshold()).isEqualTo(256);
+            assertThat(memory.compressionDictionary()).isTrue();
+            assertThat(getConfiguration(holder, "minimal-object").memory().compactEntries()).isTrue();
          }
       },
       INFINISPAN_140(14, 0) {
@@ -0,0 +1,139 @@
+package org.infinispan.container.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.commons.util.IntSets;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.concurrent.CompletionStages;
+import org.testng.annotations.Test;
+
+/**
+ * @since 15.0
+ */
+@Test(groups = "functional", testName = "container.impl.BoundedSegmentedDataContainerTest")
+public class BoundedSegmentedDataContainerTest extends MultipleCacheManagersTest {
+   private static final String CACHE_NAME = "dist";
+   private static final String MEMORY_CACHE_NAME = "dist-memory";
+   private static final int MAX_COUNT = 100;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builderUsed = new ConfigurationBuilder();
+      builderUsed.clustering().cacheMode(CacheMode.DIST_SYNC);
+      builderUsed.memory().maxCount(MAX_COUNT);
+      createClusteredCaches(1, CACHE_NAME, builderUsed);
+
+      ConfigurationBuilder memoryBuilder = new ConfigurationBuilder();
+      memoryBuilder.clustering().cacheMode(CacheMode.DIST_SYNC);
+      memoryBuilder.encoding().mediaType(MediaType.APPLICATION_PROTOSTREAM_TYPE);
+      memoryBuilder.memory().maxSize("1MB");
+      defineConfigurationOnAllManagers(MEMORY_CACHE_NAME, memoryBuilder);
+   }
+
+   public void testSegmentEvictionSizes() {
+      Cache<Object, Object> cache = cache(0, CACHE_NAME);
+      InternalDataContainer<Object, Object> dc = dataContainer(cache);
+      cache.clear();
+      for (int i = 0; i < MAX_COUNT * 2; ++i) {
+         cache.put("key-" + i, "value-" + i);
+      }
+      dc.cleanUp();
+
+      int numSegments = cache.getCacheConfiguration().clustering().hash().numSegments();
+      long totalSize = 0;
+      for (int i = 0; i < numSegments; ++i) {
+         assertEquals(dc.sizeIncludingExpired(IntSets.immutableSet(i)), dc.evictionSize(i));
+         totalSize += dc.evictionSize(i);
+      }
+      assertEquals(dc.evictionSize(), totalSize);
+      assertEquals(MAX_COUNT, totalSize);
+   }
+
+   public void testSegmentEvictionSizesFollowUpdatesInPlace() {
+      Cache<Object, Object> cache = cache(0, MEMORY_CACHE_NAME);
+      InternalDataContainer<Object, Object> dc = dataContainer(cache);
+      cache.clear();
+
+      cache.put("key", "value");
+      assertSegmentEvictionSizesMatch(cache, dc);
+      long smallSize = dc.evictionSize();
+
+      // The existing entry is updated in place
+      cache.put("key", "value".repeat(100));
+      assertSegmentEvictionSizesMatch(cache, dc);
+      assertTrue(dc.evictionSize() > smallSize);
+
+      cache.put("key", "value");
+      assertSegmentEvictionSizesMatch(cache, dc);
+      assertEquals(smallSize, dc.evictionSize());
+
+      cache.remove("key");
+      assertSegmentEvictionSizesMatch(cache, dc);
+      assertEquals(0, dc.evictionSize());
+   }
+
+   private static void assertSegmentEvictionSizesMatch(Cache<Object, Object> cache, InternalDataContainer<Object, Object> dc) {
+      dc.cleanUp();
+      int numSegments = cache.getCacheConfiguration().clustering().hash().numSegments();
+      long totalSize = 0;
+      for (int i = 0; i < numSegments; ++i) {
+         assertTrue(dc.evictionSize(i) >= 0);
+         totalSize += dc.evictionSize(i);
+      }
+      assertEquals(dc.evictionSize(), totalSize);
+   }
+
+   public void testEnsureCapacityEvictsFromHeaviestSegment() {
+      Cache<Object, Object> cache = cache(0, CACHE_NAME);
+      InternalDataContainer<Object, Object> dc = dataContainer(cache);
+      KeyPartitioner keyPartitioner = TestingUtil.extractComponent(cache, KeyPartitioner.class);
+      cache.clear();
+
+      List<Object> heavyKeys = keysForSegment(keyPartitioner, 0, 90);
+      List<Object> lightKeys = keysForSegment(keyPartitioner, 1, 10);
+      heavyKeys.forEach(k -> cache.put(k, "value"));
+      lightKeys.forEach(k -> cache.put(k, "value"));
+      dc.cleanUp();
+      assertEquals(90, dc.evictionSize(0));
+      assertEquals(10, dc.evictionSize(1));
+
+      List<InternalCacheEntry<?, ?>> incoming = new ArrayList<>();
+      for (Object key : keysForSegment(keyPartitioner, 2, 20)) {
+         incoming.add(new ImmortalCacheEntry(key, "value"));
+      }
+      CompletionStages.join(dc.ensureCapacity(2, incoming));
+
+      assertEquals(70, dc.evictionSize(0));
+      assertEquals(10, dc.evictionSize(1));
+      assertEquals(MAX_COUNT - incoming.size(), dc.evictionSize());
+   }
+
+   private InternalDataContainer<Object, Object> dataContainer(Cache<Object, Object> cache) {
+      InternalDataContainer<Object, Object> dc = TestingUtil.extractComponent(cache, InternalDataContainer.class);
+      assertEquals(BoundedSegmentedDataContainer.class, dc.getClass());
+      return dc;
+   }
+
+   private static List<Object> keysForSegment(KeyPartitioner keyPartitioner, int segment, int count) {
+      List<Object> keys = new ArrayList<>(count);
+      for (int i = 0; keys.size() < count; ++i) {
+         String key = "key-" + i;
+         if (keyPartitioner.getSegment(key) == segment) {
+            keys.add(key);
+         }
+      }
+      return keys;
+   }
+}
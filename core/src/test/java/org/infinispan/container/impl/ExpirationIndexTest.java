@@ -0,0 +1,87 @@
+package org.infinispan.container.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.MortalCacheEntry;
+import org.infinispan.container.entries.TransientCacheEntry;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * @since 15.0
+ */
+@Test(groups = "unit", testName = "container.impl.ExpirationIndexTest")
+public class ExpirationIndexTest {
+   private static final long BUCKET_INTERVAL = 10;
+
+   private Map<String, InternalCacheEntry<String, String>> entries;
+   private ExpirationIndex<String> index;
+
+   @BeforeMethod
+   public void createIndex() {
+      entries = new HashMap<>();
+      index = new ExpirationIndex<>(2, BUCKET_INTERVAL);
+   }
+
+   private void put(int segment, InternalCacheEntry<String, String> entry, long now) {
+      InternalCacheEntry<String, String> prev = entries.put(entry.getKey(), entry);
+      if (prev != null) {
+         index.entryRemoved(segment, prev.getKey(), prev.getExpiryTime());
+      }
+      index.entryAdded(segment, entry.getKey(), entry.getExpiryTime(), now);
+   }
+
+   private List<InternalCacheEntry<String, String>> expired(int segment, long now) {
+      return index.expiredEntries(segment, now, entries::get);
+   }
+
+   public void testExpiredEntriesAreFoundOnceTheirBucketIsOver() {
+      put(0, new MortalCacheEntry("k1", "v", 25, 0), 0);
+      put(0, new MortalCacheEntry("k2", "v", 100, 0), 0);
+      put(1, new MortalCacheEntry("k3", "v", 25, 0), 0);
+
+      // The bucket of k1 is not over yet
+      assertTrue(expired(0, 26).isEmpty());
+      List<InternalCacheEntry<String, String>> expired = expired(0, 30);
+      assertEquals(1, expired.size());
+      assertEquals("k1", expired.get(0).getKey());
+      // Other segments are not affected
+      assertEquals(1, expired(1, 30).size());
+
+      // The key stays in the index until the entry is removed
+      assertEquals(1, expired(0, 40).size());
+      InternalCacheEntry<String, String> removed = entries.remove("k1");
+      index.entryRemoved(0, removed.getKey(), removed.getExpiryTime());
+      assertTrue(expired(0, 40).isEmpty());
+   }
+
+   public void testTouchedEntriesMoveToALaterBucket() {
+      TransientCacheEntry entry = new TransientCacheEntry("k", "v", 15, 0);
+      put(0, entry, 0);
+      entry.touch(20);
+
+      assertTrue(expired(0, 30).isEmpty());
+      assertTrue(expired(0, 40).isEmpty());
+      assertEquals(1, expired(0, 50).size());
+   }
+
+   public void testReplacedAndRemovedEntries() {
+      put(0, new MortalCacheEntry("replaced", "v", 15, 0), 0);
+      put(0, new MortalCacheEntry("replaced", "v2", 100, 10), 10);
+      put(0, new MortalCacheEntry("removed", "v", 15, 0), 0);
+      // Removed behind the back of the index, such as an eviction
+      entries.remove("removed");
+
+      assertTrue(expired(0, 50).isEmpty());
+      assertEquals(1, expired(0, 120).size());
+
+      index.clear(0);
+      assertTrue(expired(0, 120).isEmpty());
+   }
+}
@@ -0,0 +1,42 @@
+package org.infinispan.container.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.testng.annotations.Test;
+
+/**
+ * @since 15.0
+ */
+@Test(groups = "unit", testName = "container.impl.FrequencySketchTest")
+public class FrequencySketchTest {
+
+   public void testIncrementAndFrequency() {
+      FrequencySketch sketch = new FrequencySketch(512);
+      for (int i = 0; i < 5; ++i) {
+         sketch.increment(42);
+      }
+      assertEquals(5, sketch.frequency(42));
+      assertEquals(0, sketch.frequency(43));
+   }
+
+   public void testFrequencyIsCapped() {
+      FrequencySketch sketch = new FrequencySketch(512);
+      for (int i = 0; i < 100; ++i) {
+         sketch.increment(42);
+      }
+      assertEquals(15, sketch.frequency(42));
+   }
+
+   public void testFrequenciesAreHalvedAfterSample() {
+      FrequencySketch sketch = new FrequencySketch(64);
+      for (int i = 0; i < 10; ++i) {
+         sketch.increment(42);
+      }
+      // The sample size is 10 times the capacity, so this forces at least one reset
+      for (int i = 0; i < 640; ++i) {
+         sketch.increment(i + 1000);
+      }
+      assertTrue(sketch.frequency(42) < 10);
+   }
+}
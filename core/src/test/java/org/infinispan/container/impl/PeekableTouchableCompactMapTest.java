@@ -0,0 +1,115 @@
+package org.infinispan.container.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.TransientCacheEntry;
+import org.testng.annotations.Test;
+
+/**
+ * @since 15.0
+ */
+@Test(groups = "unit", testName = "container.impl.PeekableTouchableCompactMapTest")
+public class PeekableTouchableCompactMapTest {
+
+   public void testImmortalEntriesAreReturnedAsViews() {
+      PeekableTouchableCompactMap<String, String> map = new PeekableTouchableCompactMap<>();
+      InternalCacheEntry<String, String> entry = new ImmortalCacheEntry("k", "v");
+      assertNull(map.put("k", entry));
+
+      InternalCacheEntry<String, String> view = map.get("k");
+      assertEquals(entry, view);
+      assertEquals("v", view.getValue());
+      assertEquals(-1, view.getLifespan());
+      assertEquals(entry, map.put("k", new ImmortalCacheEntry("k", "v2")));
+      assertEquals("v2", map.peek("k").getValue());
+   }
+
+   public void testOtherEntriesAreStoredAsIs() {
+      PeekableTouchableCompactMap<String, String> map = new PeekableTouchableCompactMap<>();
+      InternalCacheEntry<String, String> entry = new TransientCacheEntry("k", "v", 1000, 0);
+      map.put("k", entry);
+
+      assertSame(entry, map.get("k"));
+      assertTrue(map.touchKey("k", 500));
+      assertEquals(500, entry.getLastUsed());
+      map.touchAll(700);
+      assertEquals(700, entry.getLastUsed());
+      assertFalse(map.touchKey("missing", 500));
+   }
+
+   public void testManyEntries() {
+      PeekableTouchableCompactMap<Integer, Integer> map = new PeekableTouchableCompactMap<>(4);
+      int count = 10_000;
+      for (int i = 0; i < count; ++i) {
+         map.put(i, new ImmortalCacheEntry(i, i));
+      }
+      assertEquals(count, map.size());
+      // Removing every other entry leaves tombstones in between the remaining ones
+      for (int i = 0; i < count; i += 2) {
+         assertEquals((Integer) i, map.remove(i).getValue());
+      }
+      assertEquals(count / 2, map.size());
+      for (int i = 0; i < count; ++i) {
+         assertEquals(i % 2 != 0, map.containsKey(i));
+      }
+
+      Set<Integer> keys = new HashSet<>();
+      for (InternalCacheEntry<Integer, Integer> entry : map.values()) {
+         assertEquals(entry.getKey(), entry.getValue());
+         assertTrue(keys.add(entry.getKey()));
+      }
+      assertEquals(count / 2, keys.size());
+
+      // Reinserting reuses the tombstones
+      for (int i = 0; i < count; i += 2) {
+         assertNull(map.putIfAbsent(i, new ImmortalCacheEntry(i, i)));
+      }
+      assertEquals(count, map.size());
+      assertEquals(count, map.values().stream().count());
+   }
+
+   public void testCompute() {
+      PeekableTouchableCompactMap<String, String> map = new PeekableTouchableCompactMap<>();
+      map.compute("k", (k, v) -> {
+         assertNull(v);
+         return new ImmortalCacheEntry(k, "v");
+      });
+      map.computeIfPresent("k", (k, v) -> new ImmortalCacheEntry(k, v.getValue() + "2"));
+      assertEquals("v2", map.get("k").getValue());
+      assertEquals("v2", map.computeIfAbsent("k", k -> new ImmortalCacheEntry(k, "other")).getValue());
+
+      assertFalse(map.replace("k", new ImmortalCacheEntry("k", "v"), new ImmortalCacheEntry("k", "v3")));
+      assertTrue(map.replace("k", new ImmortalCacheEntry("k", "v2"), new ImmortalCacheEntry("k", "v3")));
+      assertFalse(map.remove("k", new ImmortalCacheEntry("k", "v2")));
+      assertTrue(map.remove("k", new ImmortalCacheEntry("k", "v3")));
+
+      assertNull(map.compute("k", (k, v) -> null));
+      assertTrue(map.isEmpty());
+   }
+
+   public void testIteratorRemove() {
+      PeekableTouchableCompactMap<Integer, Integer> map = new PeekableTouchableCompactMap<>();
+      for (int i = 0; i < 100; ++i) {
+         map.put(i, new ImmortalCacheEntry(i, i));
+      }
+      for (Iterator<Integer> iterator = map.keySet().iterator(); iterator.hasNext(); ) {
+         if (iterator.next() < 50) {
+            iterator.remove();
+         }
+      }
+      assertEquals(50, map.size());
+      map.clear();
+      assertTrue(map.isEmpty());
+      assertFalse(map.entrySet().iterator().hasNext());
+   }
+}
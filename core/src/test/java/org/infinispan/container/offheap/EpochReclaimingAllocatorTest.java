@@ -0,0 +1,50 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.testng.annotations.Test;
+
+/**
+ * @since 15.0
+ */
+@Test(groups = "functional", testName = "container.offheap.EpochReclaimingAllocatorTest")
+public class EpochReclaimingAllocatorTest {
+
+   public void testMemoryNotFreedWhileReaderRegistered() {
+      UnpooledOffHeapMemoryAllocator delegate = new UnpooledOffHeapMemoryAllocator();
+      EpochReclaimingAllocator allocator = new EpochReclaimingAllocator(delegate);
+
+      int readerCounter = allocator.enterRead();
+      long expectedSize = 0;
+      for (int i = 0; i < 1000; ++i) {
+         long address = allocator.allocate(100);
+         allocator.deallocate(address, 100);
+         expectedSize += UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(100);
+      }
+      // Nothing can be freed as the reader may still reference any of the retired blocks
+      assertEquals(expectedSize, delegate.getAllocatedAmount());
+      assertEquals(1000 * 100, allocator.getRetiredAmount());
+
+      allocator.exitRead(readerCounter);
+      allocator.reclaimAll();
+      assertEquals(0, delegate.getAllocatedAmount());
+      assertEquals(0, allocator.getRetiredAmount());
+   }
+
+   public void testMemoryFreedWithoutReaders() {
+      UnpooledOffHeapMemoryAllocator delegate = new UnpooledOffHeapMemoryAllocator();
+      EpochReclaimingAllocator allocator = new EpochReclaimingAllocator(delegate);
+
+      for (int i = 0; i < 1000; ++i) {
+         long address = allocator.allocate(100);
+         allocator.deallocate(address, 100);
+      }
+      // Only the blocks retired in the last two epochs can still be pending
+      long pendingSize = delegate.getAllocatedAmount();
+      assertTrue(pendingSize < 1000 * UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(100));
+
+      allocator.reclaimAll();
+      assertEquals(0, delegate.getAllocatedAmount());
+   }
+}
@@ -2,12 +2,17 @@
 
 import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
 import static org.testng.AssertJUnit.assertTrue;
 
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
 
 import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.marshall.WrappedBytes;
@@ -22,6 +27,7 @@
 @Test(groups = "stress", testName = "container.offheap.OffHeapConcurrentMapTest")
 public class OffHeapConcurrentMapTest {
    private OffHeapConcurrentMap map;
+   private OffHeapEntryFactoryImpl offHeapEntryFactory;
    private WrappedByteArray valueByteArray = new WrappedByteArray(new byte[] { 0, 1, 2, 3, 4, 5 });
 
    private static final int RESIZE_LIMITATION = OffHeapConcurrentMap.computeThreshold(OffHeapConcurrentMap.INITIAL_SIZE);
@@ -29,7 +35,7 @@ public class OffHeapConcurrentMapTest {
    @BeforeMethod
    void initializeMap() {
       OffHeapMemoryAllocator allocator = new UnpooledOffHeapMemoryAllocator();
-      OffHeapEntryFactoryImpl offHeapEntryFactory = new OffHeapEntryFactoryImpl();
+      offHeapEntryFactory = new OffHeapEntryFactoryImpl();
       offHeapEntryFactory.allocator = allocator;
       offHeapEntryFactory.internalEntryFactory = new InternalEntryFactoryImpl();
       offHeapEntryFactory.configuration = new ConfigurationBuilder().build();
@@ -132,6 +138,61 @@ public void testIterationCreatedButNotUsedUntilAfterAResize() {
       assertEquals(RESIZE_LIMITATION, entriesFound);
    }
 
+   public void testResizeCompletedInBackground() throws InterruptedException {
+      map.close();
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+         OffHeapMemoryAllocator allocator = new UnpooledOffHeapMemoryAllocator();
+         OffHeapEntryFactoryImpl offHeapEntryFactory = new OffHeapEntryFactoryImpl();
+         offHeapEntryFactory.allocator = allocator;
+         offHeapEntryFactory.internalEntryFactory = new InternalEntryFactoryImpl();
+         offHeapEntryFactory.configuration = new ConfigurationBuilder().build();
+         offHeapEntryFactory.start();
+         map = new OffHeapConcurrentMap(allocator, offHeapEntryFactory, null, executor);
+
+         Set<WrappedBytes> keys = insertUpToResizeLimitation();
+         // Forces resize, which is completed by the executor
+         keys.add(putInMap(map, valueByteArray));
+
+         executor.shutdown();
+         assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+         assertEquals(1, map.getResizeCount());
+         assertEquals(0, map.getPendingResizeRegions());
+
+         for (WrappedBytes key : keys) {
+            assertNotNull(map.get(key));
+         }
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+
+   public void testOptimisticReadOfTornHeader() {
+      WrappedBytes key = randomBytes();
+      long address = offHeapEntryFactory.create(key, key.hashCode(), new ImmortalCacheEntry(key, valueByteArray));
+      long size = offHeapEntryFactory.getSize(address, false);
+      // The linked pointer, the metadata type and the hash code are before the key length
+      int keyLengthOffset = 8 + 1 + 4;
+      try {
+         StampedLock lock = new StampedLock();
+         long stamp = lock.tryOptimisticRead();
+         assertEquals(key, offHeapEntryFactory.fromMemory(address, lock, stamp).getKey());
+
+         // Lengths that can't belong to the entry are never used to allocate or copy
+         OffHeapMemory.INSTANCE.putInt(address, keyLengthOffset, -1);
+         assertNull(offHeapEntryFactory.fromMemory(address, lock, stamp));
+         OffHeapMemory.INSTANCE.putInt(address, keyLengthOffset, Integer.MAX_VALUE);
+         assertNull(offHeapEntryFactory.fromMemory(address, lock, stamp));
+
+         // Neither are the lengths read after a concurrent write
+         long writeStamp = lock.writeLock();
+         lock.unlockWrite(writeStamp);
+         assertNull(offHeapEntryFactory.fromMemory(address, lock, stamp));
+      } finally {
+         offHeapEntryFactory.allocator.deallocate(address, size);
+      }
+   }
+
    WrappedBytes putInMap(OffHeapConcurrentMap map, WrappedBytes value) {
       InternalCacheEntry<WrappedBytes, WrappedBytes> ice;
       WrappedBytes key;
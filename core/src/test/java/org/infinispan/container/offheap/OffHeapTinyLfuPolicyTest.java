@@ -0,0 +1,116 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.infinispan.container.impl.FrequencySketch;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * @since 15.0
+ */
+@Test(groups = "functional", testName = "container.offheap.OffHeapTinyLfuPolicyTest")
+public class OffHeapTinyLfuPolicyTest {
+   private static final int MAX_SIZE = 100;
+
+   private final UnpooledOffHeapMemoryAllocator allocator = new UnpooledOffHeapMemoryAllocator();
+   // The key each allocated node stands for, which is also used as its hash code
+   private Map<Long, Integer> keys;
+   private OffHeapTinyLfuPolicy policy;
+
+   @BeforeMethod
+   void createPolicy() {
+      keys = new HashMap<>();
+      policy = new OffHeapTinyLfuPolicy(address -> keys.get(address), address -> 1, MAX_SIZE);
+   }
+
+   @AfterMethod
+   void freeNodes() {
+      keys.keySet().forEach(address -> allocator.deallocate(address, 16));
+   }
+
+   public void testScanDoesNotEvictPopularEntries() {
+      Map<Integer, Long> hotEntries = new HashMap<>();
+      for (int i = 0; i < MAX_SIZE; ++i) {
+         hotEntries.put(i, add(i));
+      }
+      for (int j = 0; j < 3; ++j) {
+         hotEntries.values().forEach(policy::entryRetrieved);
+      }
+
+      for (int i = MAX_SIZE; i < MAX_SIZE * 10; ++i) {
+         add(i);
+         evictExceeding();
+      }
+
+      long hotEntriesKept = hotEntries.values().stream().filter(keys::containsKey).count();
+      assertTrue("Only " + hotEntriesKept + " popular entries were kept", hotEntriesKept >= MAX_SIZE - 5);
+   }
+
+   public void testQueueSizesMatchEntries() {
+      long[] addresses = new long[MAX_SIZE * 2];
+      for (int i = 0; i < addresses.length; ++i) {
+         addresses[i] = add(i);
+         // Only entries that were not evicted can be retrieved
+         if (i % 3 == 0 && keys.containsKey(addresses[i / 2])) {
+            policy.entryRetrieved(addresses[i / 2]);
+         }
+         evictExceeding();
+      }
+      assertEquals(MAX_SIZE, policy.entryCount());
+      assertEquals(MAX_SIZE, policy.queueSize(OffHeapTinyLfuPolicy.WINDOW) +
+            policy.queueSize(OffHeapTinyLfuPolicy.PROBATION) + policy.queueSize(OffHeapTinyLfuPolicy.PROTECTED));
+   }
+
+   public void testSelectVictimHasNoSideEffect() {
+      for (int i = 0; i < MAX_SIZE * 2; ++i) {
+         long address = add(i);
+         // Make the candidates more popular than the victims, so that they are admitted
+         for (int j = 0; j < i / 10; ++j) {
+            policy.entryRetrieved(address);
+         }
+         evictExceeding();
+      }
+      add(MAX_SIZE * 2);
+      long victim = policy.selectVictim();
+      for (int i = 0; i < 10; ++i) {
+         // Failing to remove the victim and asking again must not skip a candidate
+         assertEquals(victim, policy.selectVictim());
+      }
+      assertEquals(MAX_SIZE + 1, policy.entryCount());
+   }
+
+   public void testSketchGrowsWithEntries() {
+      policy = new OffHeapTinyLfuPolicy(address -> keys.get(address), address -> 1, 1L << 40);
+      for (int i = 0; i < 1000; ++i) {
+         add(i);
+      }
+      // The sketch is sized by the entries in the container, not by the maximum
+      FrequencySketch sketch = TestingUtil.extractField(policy, "sketch");
+      long[] table = TestingUtil.extractField(sketch, "table");
+      assertEquals(1024, table.length);
+   }
+
+   private long add(int key) {
+      long address = allocator.allocate(16);
+      keys.put(address, key);
+      policy.entryCreated(address, 1);
+      return address;
+   }
+
+   private void evictExceeding() {
+      while (policy.entryCount() > MAX_SIZE) {
+         long victim = policy.selectVictim();
+         assertTrue(victim != 0);
+         policy.entryRemoved(victim, 1);
+         keys.remove(victim);
+         allocator.deallocate(victim, 16);
+      }
+   }
+}
@@ -0,0 +1,84 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.testng.annotations.Test;
+
+/**
+ * @since 15.0
+ */
+@Test(groups = "unit", testName = "container.offheap.OffHeapValueCompressorTest")
+public class OffHeapValueCompressorTest {
+
+   public void testRoundTrip() {
+      OffHeapValueCompressor compressor = new OffHeapValueCompressor(64, false);
+      byte[] value = twoDocuments(0);
+      byte[] compressed = compressor.compress(new WrappedByteArray(value));
+      assertNotNull(compressed);
+      assertTrue(compressed.length < value.length);
+      assertTrue(Arrays.equals(value, compressor.decompress(compressed)));
+   }
+
+   public void testSmallAndIncompressibleValuesAreNotCompressed() {
+      OffHeapValueCompressor compressor = new OffHeapValueCompressor(64, false);
+      assertNull(compressor.compress(new WrappedByteArray(new byte[63])));
+
+      byte[] random = new byte[1024];
+      ThreadLocalRandom.current().nextBytes(random);
+      assertNull(compressor.compress(new WrappedByteArray(random)));
+   }
+
+   public void testDictionary() {
+      OffHeapValueCompressor compressor = new OffHeapValueCompressor(64, true);
+      OffHeapValueCompressor withoutDictionary = new OffHeapValueCompressor(64, false);
+      // Values compressed while the dictionary is sampled must still be readable once it is complete
+      byte[] first = twoDocuments(0);
+      byte[] firstCompressed = compressor.compress(new WrappedByteArray(first));
+      assertNotNull(firstCompressed);
+
+      int i = 1;
+      long samplesSize = first.length;
+      while (samplesSize < OffHeapValueCompressor.DICTIONARY_SIZE) {
+         byte[] value = document(i++);
+         compressor.compress(new WrappedByteArray(value));
+         samplesSize += Math.min(value.length, 1024);
+      }
+
+      byte[] value = document(i);
+      byte[] compressed = compressor.compress(new WrappedByteArray(value));
+      byte[] compressedWithoutDictionary = withoutDictionary.compress(new WrappedByteArray(value));
+      assertNotNull(compressed);
+      assertTrue(compressed.length < (compressedWithoutDictionary != null ? compressedWithoutDictionary.length : value.length));
+      assertTrue(Arrays.equals(value, compressor.decompress(compressed)));
+      assertTrue(Arrays.equals(first, compressor.decompress(firstCompressed)));
+   }
+
+   public void testUncompressedLengthIsKept() {
+      OffHeapValueCompressor compressor = new OffHeapValueCompressor(0, false);
+      byte[] value = new byte[10_000];
+      byte[] compressed = compressor.compress(new WrappedByteArray(value));
+      assertEquals(value.length, compressor.decompress(compressed).length);
+   }
+
+   private static byte[] document(int id) {
+      return ("{\"id\":" + id + ",\"name\":\"name-" + id + "\",\"description\":\"An entry used to test compression\"," +
+            "\"tags\":[\"compression\",\"off-heap\",\"dictionary\"],\"enabled\":true,\"owner\":\"user-" + (id % 7) + "\"}")
+            .getBytes(StandardCharsets.UTF_8);
+   }
+
+   private static byte[] twoDocuments(int id) {
+      byte[] first = document(id);
+      byte[] second = document(id + 1);
+      byte[] documents = Arrays.copyOf(first, first.length + second.length);
+      System.arraycopy(second, 0, documents, first.length, second.length);
+      return documents;
+   }
+}
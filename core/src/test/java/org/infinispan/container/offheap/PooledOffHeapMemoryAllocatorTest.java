@@ -0,0 +1,96 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * @since 15.0
+ */
+@Test(groups = "functional", testName = "container.offheap.PooledOffHeapMemoryAllocatorTest")
+public class PooledOffHeapMemoryAllocatorTest {
+
+   @DataProvider(name = "sizeClasses")
+   Object[][] sizeClasses() {
+      return new Object[][] {
+            { 1, 16 },
+            { 16, 16 },
+            { 17, 32 },
+            { 500, 512 },
+            { 512, 512 },
+            { 513, 640 },
+            { 641, 768 },
+            { 1024, 1024 },
+            { 1025, 1280 },
+            { 16384, 16384 },
+      };
+   }
+
+   @Test(dataProvider = "sizeClasses")
+   public void testSizeClasses(long requested, int expectedBlockSize) {
+      int sizeClass = PooledOffHeapMemoryAllocator.sizeClass(requested);
+      assertEquals(expectedBlockSize, PooledOffHeapMemoryAllocator.blockSize(sizeClass));
+   }
+
+   public void testSizeClassesAreIncreasing() {
+      for (int i = 1; i < PooledOffHeapMemoryAllocator.SIZE_CLASSES; ++i) {
+         int previous = PooledOffHeapMemoryAllocator.blockSize(i - 1);
+         int current = PooledOffHeapMemoryAllocator.blockSize(i);
+         assertTrue(current > previous);
+         // Every block size must map back to its own class
+         assertEquals(i, PooledOffHeapMemoryAllocator.sizeClass(current));
+      }
+   }
+
+   public void testAccounting() {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator();
+      try {
+         long address = allocator.allocate(20);
+         assertEquals(32, allocator.getAllocatedAmount());
+         assertEquals(12, allocator.getFragmentedAmount());
+         assertTrue(allocator.getFreeAmount() > 0);
+
+         long large = allocator.allocate(PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE + 1);
+         assertEquals(32 + UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE + 1),
+               allocator.getAllocatedAmount());
+
+         allocator.deallocate(large, PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE + 1);
+         allocator.deallocate(address, 20);
+         assertEquals(0, allocator.getAllocatedAmount());
+         assertEquals(0, allocator.getFragmentedAmount());
+      } finally {
+         allocator.stop();
+      }
+      assertEquals(0, allocator.getFreeAmount());
+   }
+
+   public void testBlocksAreReused() {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator();
+      try {
+         Set<Long> addresses = new HashSet<>();
+         for (int i = 0; i < 1000; ++i) {
+            assertTrue(addresses.add(allocator.allocate(100)));
+         }
+         long free = allocator.getFreeAmount();
+         for (long address : addresses) {
+            allocator.deallocate(address, 100);
+         }
+         addresses.clear();
+         for (int i = 0; i < 1000; ++i) {
+            assertTrue(addresses.add(allocator.allocate(100)));
+         }
+         // All the blocks must come from the previously reserved slabs
+         assertEquals(free, allocator.getFreeAmount());
+         for (long address : addresses) {
+            allocator.deallocate(address, 100);
+         }
+      } finally {
+         allocator.stop();
+      }
+   }
+}
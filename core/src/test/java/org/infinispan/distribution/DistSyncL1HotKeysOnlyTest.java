@@ -0,0 +1,47 @@
+package org.infinispan.distribution;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that only the keys read the most on a node are placed in its L1 cache when L1 is limited to the hot keys.
+ *
+ * @since 15.0
+ */
+@Test(groups = "functional", testName = "distribution.DistSyncL1HotKeysOnlyTest")
+public class DistSyncL1HotKeysOnlyTest extends BaseDistFunctionalTest<Object, String> {
+
+   @Override
+   protected ConfigurationBuilder buildConfiguration() {
+      ConfigurationBuilder builder = super.buildConfiguration();
+      builder.clustering().l1().hotKeysOnly(true);
+      return builder;
+   }
+
+   public void testOnlyHotKeysAreCachedInL1() {
+      MagicKey coldKey = new MagicKey("cold", c1, c2);
+      MagicKey hotKey = new MagicKey("hot", c1, c2);
+      c1.put(coldKey, "cold");
+      c1.put(hotKey, "hot");
+
+      // A key read once is not hot, so it is retrieved from its owners without being placed in L1
+      assertEquals("cold", c3.get(coldKey));
+      assertIsNotInL1(c3, coldKey);
+
+      // The reads are sampled, so the key only becomes hot after many reads
+      HotKeyDetector hotKeyDetector = TestingUtil.extractComponent(c3, HotKeyDetector.class);
+      for (int i = 0; i < 10_000 && !hotKeyDetector.isHot(hotKey); ++i) {
+         assertEquals("hot", c3.get(hotKey));
+      }
+      assertTrue(hotKeyDetector.isHot(hotKey));
+
+      // The next read of the hot key places it in L1
+      assertEquals("hot", c3.get(hotKey));
+      assertIsInL1(c3, hotKey);
+      assertIsNotInL1(c3, coldKey);
+   }
+}
@@ -0,0 +1,53 @@
+package org.infinispan.distribution.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * @since 15.0
+ */
+@Test(groups = "unit", testName = "distribution.impl.HotKeyDetectorImplTest")
+public class HotKeyDetectorImplTest {
+
+   public void testHotKeyIsDetected() {
+      HotKeyDetectorImpl detector = detector(true);
+      for (int i = 0; i < 100_000; ++i) {
+         detector.recordRead(i % 10 == 0 ? "hot" : "cold-" + i);
+      }
+      assertTrue(detector.isHot("hot"));
+      assertFalse(detector.isHot("never-read"));
+      assertTrue(detector.hotKeys().containsKey("hot"));
+      assertTrue(detector.getNumberOfHotKeys() <= HotKeyDetectorImpl.MAX_HOT_KEYS);
+
+      detector.resetHotKeys();
+      assertFalse(detector.isHot("hot"));
+      assertEquals(0, detector.getNumberOfHotKeys());
+   }
+
+   public void testHotKeysAreBounded() {
+      HotKeyDetectorImpl detector = detector(true);
+      for (int i = 0; i < 200_000; ++i) {
+         detector.recordRead("key-" + (i % (HotKeyDetectorImpl.MAX_HOT_KEYS * 2)));
+      }
+      assertTrue(detector.getNumberOfHotKeys() <= HotKeyDetectorImpl.MAX_HOT_KEYS);
+   }
+
+   public void testDisabledWithoutStatistics() {
+      HotKeyDetectorImpl detector = detector(false);
+      for (int i = 0; i < 10_000; ++i) {
+         detector.recordRead("hot");
+      }
+      assertFalse(detector.isHot("hot"));
+   }
+
+   private static HotKeyDetectorImpl detector(boolean statistics) {
+      HotKeyDetectorImpl detector = new HotKeyDetectorImpl();
+      detector.configuration = new ConfigurationBuilder().statistics().enabled(statistics).build();
+      detector.start();
+      return detector;
+   }
+}
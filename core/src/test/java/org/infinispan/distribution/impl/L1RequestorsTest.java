@@ -0,0 +1,56 @@
+package org.infinispan.distribution.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.infinispan.distribution.TestAddress;
+import org.infinispan.remoting.transport.Address;
+import org.testng.annotations.Test;
+
+/**
+ * @since 15.0
+ */
+@Test(groups = "unit", testName = "distribution.impl.L1RequestorsTest")
+public class L1RequestorsTest {
+   private static final TestAddress A = new TestAddress(0, "A");
+   private static final TestAddress B = new TestAddress(1, "B");
+   private static final TestAddress C = new TestAddress(2, "C");
+
+   public void testAddAndPrune() {
+      L1Requestors requestors = new L1Requestors(A, 100);
+      assertSame(requestors, requestors.add(B, 200));
+      requestors.add(C, 300);
+      // A is requested again, which updates its request time
+      requestors.add(A, 400);
+      assertEquals(3, requestors.size());
+      assertTrue(requestors.contains(A));
+
+      assertSame(requestors, requestors.prune(250));
+      assertEquals(2, requestors.size());
+      assertFalse(requestors.contains(B));
+      Set<Address> addresses = new HashSet<>();
+      requestors.addTo(addresses);
+      assertEquals(Set.of(A, C), addresses);
+
+      assertNull(requestors.prune(500));
+   }
+
+   public void testManyRequestors() {
+      L1Requestors requestors = new L1Requestors(new TestAddress(0), 0);
+      for (int i = 1; i < 100; ++i) {
+         requestors.add(new TestAddress(i), i);
+      }
+      assertEquals(100, requestors.size());
+      requestors.prune(50);
+      assertEquals(50, requestors.size());
+      for (int i = 0; i < 100; ++i) {
+         assertEquals(i >= 50, requestors.contains(new TestAddress(i)));
+      }
+   }
+}
@@ -16,6 +16,7 @@
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.expiration.ExpirationManager;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.protostream.annotations.ProtoFactory;
@@ -35,6 +36,7 @@ public class ExpirationFunctionalTest extends SingleCacheManagerTest {
    protected ControlledTimeService timeService = new ControlledTimeService();
    protected StorageType storage;
    protected CacheMode cacheMode;
+   protected boolean expirationIndexed;
    protected ExpirationManager<?, ?> expirationManager;
 
    @Factory
@@ -45,7 +47,9 @@ public Object[] factory() {
          new ExpirationFunctionalTest().cacheMode(CacheMode.LOCAL).withStorage(StorageType.OFF_HEAP),
          new ExpirationFunctionalTest().cacheMode(CacheMode.DIST_SYNC).withStorage(StorageType.BINARY),
          new ExpirationFunctionalTest().cacheMode(CacheMode.DIST_SYNC).withStorage(StorageType.OBJECT),
-         new ExpirationFunctionalTest().cacheMode(CacheMode.DIST_SYNC).withStorage(StorageType.OFF_HEAP)
+         new ExpirationFunctionalTest().cacheMode(CacheMode.DIST_SYNC).withStorage(StorageType.OFF_HEAP),
+         new ExpirationFunctionalTest().cacheMode(CacheMode.LOCAL).withStorage(StorageType.OBJECT).expirationIndexed(true),
+         new ExpirationFunctionalTest().cacheMode(CacheMode.DIST_SYNC).withStorage(StorageType.OBJECT).expirationIndexed(true)
       };
    }
 
@@ -54,9 +58,14 @@ protected ExpirationFunctionalTest cacheMode(CacheMode mode) {
       return this;
    }
 
+   protected ExpirationFunctionalTest expirationIndexed(boolean expirationIndexed) {
+      this.expirationIndexed = expirationIndexed;
+      return this;
+   }
+
    @Override
    protected String parameters() {
-      return "[" + cacheMode + ", " + storage + "]";
+      return "[" + cacheMode + ", " + storage + (expirationIndexed ? ", indexed" : "") + "]";
    }
 
    protected EmbeddedCacheManager createCacheManager() throws Exception {
@@ -92,6 +101,10 @@ protected void configure(ConfigurationBuilder config) {
       config.clustering().cacheMode(cacheMode)
             .expiration().disableReaper()
             .memory().storage(storage);
+      if (expirationIndexed) {
+         // The index needs the reaper, which must not run on its own
+         config.expiration().enableReaper().wakeUpInterval(1, TimeUnit.DAYS).indexed(true);
+      }
    }
 
    protected void afterCacheCreated(EmbeddedCacheManager cm) {
@@ -111,6 +124,11 @@ public StorageType getStorageType() {
       return storage;
    }
 
+   public void testExpirationIndexIsOptIn() {
+      InternalDataContainer<?, ?> container = TestingUtil.extractComponent(cache, InternalDataContainer.class);
+      assertEquals(expirationIndexed, container.hasExpirationIndex());
+   }
+
    public void testSimpleExpirationLifespan() throws Exception {
       for (int i = 0; i < SIZE; i++) {
          cache.put("key-" + i, "value-" + i, 1, TimeUnit.MILLISECONDS);
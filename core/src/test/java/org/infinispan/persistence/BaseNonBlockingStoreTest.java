@@ -681,6 +681,25 @@ private void testBatch(int numberOfEntries, Runnable createBatch) {
       assertNull(store.loadEntry(keyToStorage("20")));
    }
 
+   public void testBulkLoad() {
+      assertIsEmpty();
+      int numberOfEntries = 20;
+      for (int i = 0; i < numberOfEntries; i++) {
+         store.write(marshalledEntry(Integer.toString(i), "Val" + i));
+      }
+      // Half of the loaded keys have no entry
+      List<Object> keys = IntStream.range(numberOfEntries / 2, numberOfEntries + numberOfEntries / 2)
+            .mapToObj(Integer::toString).map(this::keyToStorage).collect(Collectors.toList());
+      List<MarshallableEntry<Object, Object>> entries = Flowable.fromPublisher(store.bulkLoad(segmentCount,
+                  TestingUtil.multipleSegmentPublisher(Flowable.fromIterable(keys), Function.identity(), keyPartitioner)))
+            .toList().blockingGet();
+      assertEquals(numberOfEntries / 2, entries.size());
+      for (MarshallableEntry<Object, Object> entry : entries) {
+         assertTrue(keys.contains(entry.getKey()));
+         assertEquals(store.loadEntry(entry.getKey()).getValue(), entry.getValue());
+      }
+   }
+
    public void testIsAvailable() {
       assertTrue(store.checkAvailable());
    }
@@ -0,0 +1,97 @@
+package org.infinispan.persistence;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PreloadManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the progress reported by the {@link PreloadManager}.
+ *
+ * @since 15.0
+ */
+@Test(groups = "functional", testName = "persistence.PreloadManagerTest")
+public class PreloadManagerTest extends SingleCacheManagerTest {
+   private static final int NUM_SEGMENTS = 16;
+   private static final int NUM_ENTRIES = 100;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      return TestCacheManagerFactory.createCacheManager(false);
+   }
+
+   private Cache<String, String> preloadedCache(String name, boolean segmented, int maxCount) {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().hash().numSegments(NUM_SEGMENTS);
+      if (maxCount > 0) {
+         builder.memory().maxCount(maxCount);
+      }
+      builder.persistence()
+            .preloadParallelism(4)
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+               .segmented(segmented)
+               .preload(true)
+               .storeName(getClass().getName() + name);
+      cacheManager.defineConfiguration(name, builder.build());
+      Cache<String, String> cache = cacheManager.getCache(name);
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         cache.put("k" + i, "v" + i);
+      }
+      cache.put("mortal", "v", 10, TimeUnit.MINUTES);
+      cache.stop();
+      cache.start();
+      return cache;
+   }
+
+   public void testPreloadSegmentedStore() {
+      Cache<String, String> cache = preloadedCache("segmented", true, 0);
+      PreloadManager preloadManager = TestingUtil.extractComponent(cache, PreloadManager.class);
+
+      assertEquals(NUM_ENTRIES + 1, cache.getAdvancedCache().getDataContainer().size());
+      assertEquals("v0", cache.getAdvancedCache().getDataContainer().peek("k0").getValue());
+      CacheEntry<String, String> mortal = cache.getAdvancedCache().getCacheEntry("mortal");
+      assertEquals(TimeUnit.MINUTES.toMillis(10), mortal.getLifespan());
+
+      assertTrue(preloadManager.isFullyPreloaded());
+      assertFalse(preloadManager.isPreloading());
+      assertEquals(NUM_ENTRIES + 1, preloadManager.getPreloadedEntries());
+      assertEquals(NUM_SEGMENTS, preloadManager.getPreloadedSegments());
+      assertEquals(NUM_SEGMENTS, preloadManager.getTotalSegments());
+      assertEquals(100.0, preloadManager.getPreloadProgress());
+      assertEquals(0, preloadManager.getEstimatedRemainingTime());
+   }
+
+   public void testPreloadNonSegmentedStore() {
+      Cache<String, String> cache = preloadedCache("non-segmented", false, 0);
+      PreloadManager preloadManager = TestingUtil.extractComponent(cache, PreloadManager.class);
+
+      assertEquals(NUM_ENTRIES + 1, cache.getAdvancedCache().getDataContainer().size());
+      assertTrue(preloadManager.isFullyPreloaded());
+      assertEquals(NUM_ENTRIES + 1, preloadManager.getPreloadedEntries());
+      // The store is read once
+      assertEquals(1, preloadManager.getTotalSegments());
+      assertEquals(1, preloadManager.getPreloadedSegments());
+   }
+
+   public void testPreloadUpToMaxCount() {
+      int maxCount = 10;
+      Cache<String, String> cache = preloadedCache("max-count", true, maxCount);
+      PreloadManager preloadManager = TestingUtil.extractComponent(cache, PreloadManager.class);
+
+      assertEquals(maxCount, cache.getAdvancedCache().getDataContainer().size());
+      assertFalse(preloadManager.isFullyPreloaded());
+      assertEquals(maxCount, preloadManager.getPreloadedEntries());
+   }
+}
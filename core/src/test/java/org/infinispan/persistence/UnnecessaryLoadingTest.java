@@ -2,6 +2,8 @@
 
 import static org.testng.Assert.assertEquals;
 
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 
@@ -146,6 +148,24 @@ public void testSkipCacheFlagUsage() throws PersistenceException {
       cache.endBatch(true);
    }
 
+   public void testGetAllLoadsInBulk() throws PersistenceException {
+      CountingStore countingCS = getCountingCacheStore();
+      store.write(MarshalledEntryUtil.create("k1", "v1", cache));
+      store.write(MarshalledEntryUtil.create("k2", "v2", cache));
+      store.clearStats();
+
+      // The keys missing from the data container are handed to each store in a single bulk load
+      assertEquals(cache.getAdvancedCache().getAll(Set.of("k1", "k2", "k3")), Map.of("k1", "v1", "k2", "v2"));
+      assertEquals(countingCS.numLoads, 3);
+      assertEquals((int) store.stats().get("bulkLoad"), 1);
+
+      // Only the key that is still missing is loaded again
+      assertEquals(cache.getAdvancedCache().getAll(Set.of("k1", "k2", "k3")), Map.of("k1", "v1", "k2", "v2"));
+      assertEquals(countingCS.numLoads, 4);
+      assertEquals((int) store.stats().get("bulkLoad"), 2);
+      assertEquals((int) store.stats().get("load"), 4);
+   }
+
    private CountingStore getCountingCacheStore() {
       CountingStore countingCS = TestingUtil.getFirstLoader(cache);
       reset(cache, countingCS);
@@ -268,6 +268,14 @@ public CompletionStage<MarshallableEntry> load(int segment, Object key) {
       return CompletableFuture.completedFuture(me);
    }
 
+   @Override
+   public Publisher<MarshallableEntry> bulkLoad(int publisherCount,
+         Publisher<NonBlockingStore.SegmentedPublisher<Object>> keyPublisher) {
+      assertRunning();
+      record("bulkLoad");
+      return WaitNonBlockingStore.super.bulkLoad(publisherCount, keyPublisher);
+   }
+
    private boolean isExpired(MarshallableEntry me, long now) {
       return me.isExpired(now);
    }
@@ -1,6 +1,8 @@
 package org.infinispan.persistence.file;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 import java.util.concurrent.CompletionStage;
@@ -14,10 +16,12 @@
 import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
 import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.offheap.OffHeapMemoryAllocator;
 import org.infinispan.marshall.persistence.impl.MarshalledEntryUtil;
 import org.infinispan.persistence.BaseNonBlockingStoreTest;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.NonBlockingStore;
+import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestInternalCacheEntryFactory;
 import org.infinispan.util.concurrent.CompletionStages;
 import org.testng.annotations.AfterClass;
@@ -29,6 +33,7 @@ public class SingleFileStoreTest extends BaseNonBlockingStoreTest {
 
    private String tmpDirectory = CommonsTestingUtil.tmpDirectory(this.getClass());
    private boolean segmented;
+   private boolean offHeapIndex;
 
    @AfterClass(alwaysRun = true)
    protected void clearTempDir() {
@@ -40,17 +45,24 @@ public SingleFileStoreTest segmented(boolean segmented) {
       return this;
    }
 
+   public SingleFileStoreTest offHeapIndex(boolean offHeapIndex) {
+      this.offHeapIndex = offHeapIndex;
+      return this;
+   }
+
    @Factory
    public Object[] factory() {
       return new Object[] {
               new SingleFileStoreTest().segmented(false),
               new SingleFileStoreTest().segmented(true),
+              new SingleFileStoreTest().segmented(false).offHeapIndex(true),
+              new SingleFileStoreTest().segmented(true).offHeapIndex(true),
       };
    }
 
    @Override
    protected String parameters() {
-      return "[" + segmented + "]";
+      return "[" + segmented + ", " + offHeapIndex + "]";
    }
 
    @Override
@@ -64,6 +76,7 @@ protected SingleFileStoreConfigurationBuilder createCacheStoreConfig(Persistence
       cfg.segmented(segmented);
       cfg.location(tmpDirectory);
       cfg.fragmentationFactor(0.5f);
+      cfg.offHeapIndex(offHeapIndex);
       return cfg;
    }
 
@@ -110,6 +123,51 @@ public void testSegmentsRemovedAndAdded() {
       assertTrue(store.contains(key));
    }
 
+   public void testReplaceAndRemoveManyEntries() {
+      int numEntries = 1000;
+      for (int i = 0; i < numEntries; i++) {
+         writeEntry("key-" + i, "value-" + i);
+      }
+      // Replace half of the entries and remove a quarter, so that the index has to skip the removed keys
+      for (int i = 0; i < numEntries; i += 2) {
+         writeEntry("key-" + i, "new-value-" + i);
+      }
+      for (int i = 1; i < numEntries; i += 4) {
+         assertTrue(store.delete("key-" + i));
+      }
+
+      for (int i = 0; i < numEntries; i++) {
+         MarshallableEntry<Object, Object> loaded = store.loadEntry("key-" + i);
+         if (i % 4 == 1) {
+            assertNull(loaded);
+         } else {
+            assertEquals(loaded.getValue(), (i % 2 == 0 ? "new-value-" : "value-") + i);
+         }
+      }
+      assertEquals(store.sizeWait(IntSets.immutableRangeSet(segmentCount)), numEntries * 3 / 4);
+   }
+
+   private void writeEntry(Object key, Object value) {
+      InternalCacheEntry entry = TestInternalCacheEntryFactory.create(key, value);
+      store.write(MarshalledEntryUtil.create(entry, getMarshaller()));
+   }
+
+   public void testOffHeapIndexMemoryFreedOnStop() {
+      if (!offHeapIndex) {
+         return;
+      }
+      for (int i = 0; i < 1000; i++) {
+         writeEntry("key-" + i, "value-" + i);
+      }
+      OffHeapMemoryAllocator indexAllocator = TestingUtil.extractField(store.delegate(), "indexAllocator");
+      assertTrue(indexAllocator.getAllocatedAmount() > 0);
+
+      store.stopAndWait();
+      // The tables replaced by the rehashes were freed already, so nothing is left once the indexes are closed
+      assertEquals(indexAllocator.getAllocatedAmount(), 0);
+      startStore(store);
+   }
+
    public void testStopDuringClear() {
       InternalCacheEntry entry = TestInternalCacheEntryFactory.create("key", "value");
       MarshallableEntry me = MarshalledEntryUtil.create(entry, getMarshaller());
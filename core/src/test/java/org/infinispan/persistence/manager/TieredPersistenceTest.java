@@ -0,0 +1,175 @@
+package org.infinispan.persistence.manager;
+
+import static org.infinispan.test.TestingUtil.extractComponent;
+import static org.infinispan.test.TestingUtil.extractField;
+import static org.infinispan.test.TestingUtil.getStore;
+import static org.infinispan.util.concurrent.CompletionStages.join;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.commons.test.Exceptions;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the movement of the entries between the hot and the capacity tiers of a tiered persistence.
+ *
+ * @since 15.0
+ */
+@Test(groups = "functional", testName = "persistence.manager.TieredPersistenceTest")
+@CleanupAfterMethod
+public class TieredPersistenceTest extends SingleCacheManagerTest {
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence()
+            .tiered(true)
+            // The test demotes the entries itself
+            .tierDemotionAge(TimeUnit.DAYS.toMillis(1))
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+               .storeName(getClass().getName() + "-hot")
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+               .storeName(getClass().getName() + "-capacity");
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   private DummyInMemoryStore hot() {
+      return getStore(cache, 0, true);
+   }
+
+   private DummyInMemoryStore capacity() {
+      return getStore(cache, 1, true);
+   }
+
+   private TieredStores tiers() {
+      PersistenceManager persistenceManager = extractComponent(cache, PersistenceManager.class);
+      return extractField(PersistenceManagerImpl.class, persistenceManager, "tiers");
+   }
+
+   private void demoteColdEntries() {
+      join(tiers().demoteColdEntries(Supplier::get));
+   }
+
+   public void testWriteToHotTier() {
+      cache.put("k1", "v1");
+      assertTrue(hot().keySet().contains("k1"));
+      assertFalse(capacity().keySet().contains("k1"));
+
+      cache.remove("k1");
+      assertTrue(hot().isEmpty());
+      assertTrue(capacity().isEmpty());
+   }
+
+   public void testDemotionAndPromotion() {
+      cache.put("k1", "v1");
+      // The first rotation of the access filters keeps the entry that was just written
+      demoteColdEntries();
+      assertTrue(hot().keySet().contains("k1"));
+      demoteColdEntries();
+      assertFalse(hot().keySet().contains("k1"));
+      assertTrue(capacity().keySet().contains("k1"));
+      assertEquals(1, cache.size());
+
+      // Loading the entry from the capacity tier moves it back to the hot tier
+      cache.evict("k1");
+      assertEquals("v1", cache.get("k1"));
+      eventually(() -> hot().keySet().contains("k1") && !capacity().keySet().contains("k1"));
+
+      cache.put("k1", "v2");
+      cache.evict("k1");
+      assertEquals("v2", cache.get("k1"));
+   }
+
+   public void testWriteRemovesEntryFromCapacityTier() {
+      Map<String, String> entries = new HashMap<>();
+      for (int i = 0; i < 10; i++) {
+         entries.put("k" + i, "v" + i);
+      }
+      cache.putAll(entries);
+      demoteColdEntries();
+      demoteColdEntries();
+      assertEquals(10, capacity().size());
+      assertTrue(hot().isEmpty());
+
+      cache.put("k0", "v0-2");
+      cache.putAll(Map.of("k1", "v1-2", "k2", "v2-2"));
+      assertEquals(3, hot().size());
+      assertEquals(7, capacity().size());
+      assertEquals(10, cache.size());
+      assertEquals(10, cache.keySet().size());
+   }
+
+   public void testAccessFiltersDontCollideOnHashCode() {
+      // Both keys have the same hash code
+      assertEquals("Aa".hashCode(), "BB".hashCode());
+      cache.put("Aa", "v1");
+      cache.put("BB", "v2");
+      demoteColdEntries();
+      cache.put("Aa", "v1-2");
+      demoteColdEntries();
+      assertTrue(hot().keySet().contains("Aa"));
+      assertFalse(hot().keySet().contains("BB"));
+      assertTrue(capacity().keySet().contains("BB"));
+   }
+
+   public void testReadsOfKeyAreNotSequenced() {
+      TieredStores tiers = tiers();
+      CompletableFuture<Void> firstRead = new CompletableFuture<>();
+      CompletionStage<Void> first = tiers.sequenceRead("k1", () -> firstRead);
+      // A read doesn't wait for the previous read of the key
+      CompletionStage<Void> second = tiers.sequenceRead("k1", CompletableFutures::completedNull);
+      assertTrue(second.toCompletableFuture().isDone());
+
+      // A write waits for the previous reads, and the next reads wait for the write
+      AtomicBoolean written = new AtomicBoolean();
+      CompletionStage<Boolean> write = tiers.sequence("k1", () -> {
+         written.set(true);
+         return CompletableFutures.completedTrue();
+      });
+      CompletionStage<Void> third = tiers.sequenceRead("k1", CompletableFutures::completedNull);
+      assertFalse(written.get());
+      assertFalse(third.toCompletableFuture().isDone());
+
+      firstRead.complete(null);
+      assertTrue(first.toCompletableFuture().isDone());
+      assertTrue(join(write));
+      assertTrue(written.get());
+      assertTrue(third.toCompletableFuture().isDone());
+   }
+
+   public void testInvalidConfiguration() {
+      ConfigurationBuilder singleStore = new ConfigurationBuilder();
+      singleStore.persistence().tiered(true).addStore(DummyInMemoryStoreConfigurationBuilder.class);
+      Exceptions.expectException(CacheConfigurationException.class, singleStore::build);
+
+      ConfigurationBuilder sharedStore = new ConfigurationBuilder();
+      sharedStore.persistence().tiered(true)
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class).shared(true);
+      Exceptions.expectException(CacheConfigurationException.class, sharedStore::build);
+
+      ConfigurationBuilder invalidAge = new ConfigurationBuilder();
+      invalidAge.persistence().tiered(true).tierDemotionAge(0)
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class);
+      Exceptions.expectException(CacheConfigurationException.class, invalidAge::build);
+   }
+}
@@ -0,0 +1,94 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.io.ByteBufferImpl;
+import org.infinispan.commons.test.CommonsTestingUtil;
+import org.infinispan.commons.util.Util;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * @since 15.0
+ */
+@Test(groups = "unit", testName = "persistence.sifs.SegmentedKeyFilterTest")
+public class SegmentedKeyFilterTest {
+   private static final int BITS = 1024;
+
+   private File tmpDirectory;
+
+   @BeforeClass
+   public void createTmpDirectory() {
+      tmpDirectory = new File(CommonsTestingUtil.tmpDirectory(getClass()));
+      tmpDirectory.mkdirs();
+   }
+
+   @AfterClass(alwaysRun = true)
+   public void removeTmpDirectory() {
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   private static ByteBuffer key(String key) {
+      return ByteBufferImpl.create(key.getBytes(StandardCharsets.UTF_8));
+   }
+
+   public void testAddedKeysArePossiblyPresent() {
+      SegmentedKeyFilter filter = new SegmentedKeyFilter(2, BITS);
+      // Segments without a filter can't rule out any key
+      assertTrue(filter.possiblyPresent(0, key("k0")));
+
+      filter.reset();
+      assertFalse(filter.possiblyPresent(0, key("k0")));
+      filter.add(0, key("k0"));
+      filter.add(1, "k1".getBytes(StandardCharsets.UTF_8));
+      assertTrue(filter.possiblyPresent(0, key("k0")));
+      assertTrue(filter.possiblyPresent(1, key("k1")));
+      assertFalse(filter.possiblyPresent(1, key("k0")));
+   }
+
+   public void testStoreAndLoad() throws IOException {
+      File file = new File(tmpDirectory, "store-and-load.bloom");
+      SegmentedKeyFilter filter = new SegmentedKeyFilter(2, BITS);
+      filter.reset();
+      filter.add(0, key("k0"));
+      filter.add(1, key("k1"));
+      filter.store(file);
+
+      SegmentedKeyFilter loaded = new SegmentedKeyFilter(2, BITS);
+      assertTrue(loaded.load(file));
+      assertTrue(loaded.possiblyPresent(0, key("k0")));
+      assertTrue(loaded.possiblyPresent(1, key("k1")));
+      assertFalse(loaded.possiblyPresent(0, key("other")));
+      assertFalse(loaded.possiblyPresent(1, key("other")));
+      // The file is only used once
+      assertFalse(file.exists());
+      assertFalse(loaded.load(file));
+   }
+
+   public void testIncompleteFiltersAreNotLoaded() throws IOException {
+      File file = new File(tmpDirectory, "incomplete.bloom");
+      // The filters were never reset, so the keys of the segments are unknown
+      new SegmentedKeyFilter(2, BITS).store(file);
+
+      SegmentedKeyFilter loaded = new SegmentedKeyFilter(2, BITS);
+      assertFalse(loaded.load(file));
+      assertTrue(loaded.possiblyPresent(0, key("other")));
+   }
+
+   public void testLoadWithDifferentConfiguration() throws IOException {
+      File file = new File(tmpDirectory, "different-configuration.bloom");
+      SegmentedKeyFilter filter = new SegmentedKeyFilter(2, BITS);
+      filter.reset();
+      filter.store(file);
+
+      assertFalse(new SegmentedKeyFilter(2, BITS * 2).load(file));
+      assertFalse(file.exists());
+   }
+}
@@ -3,6 +3,9 @@
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertNull;
@@ -11,6 +14,8 @@
 
 import java.nio.file.Paths;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CountDownLatch;
@@ -20,19 +25,27 @@
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.test.CommonsTestingUtil;
 import org.infinispan.commons.test.Exceptions;
+import org.infinispan.commons.util.IntSets;
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.persistence.BaseNonBlockingStoreTest;
+import org.infinispan.persistence.sifs.configuration.IOBackend;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.NonBlockingStore;
 import org.infinispan.test.Mocks;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.CheckPoint;
+import org.infinispan.util.concurrent.AggregateCompletionStage;
+import org.infinispan.util.concurrent.BlockingManager;
+import org.infinispan.util.concurrent.CompletionStages;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Factory;
 import org.testng.annotations.Test;
 
 import io.reactivex.rxjava3.internal.subscriptions.AsyncSubscription;
@@ -44,6 +57,60 @@
 public class SoftIndexFileStoreTest extends BaseNonBlockingStoreTest {
 
    protected String tmpDirectory;
+   private IOBackend ioBackend = IOBackend.FILE_CHANNEL;
+   private boolean indexMemoryMapped;
+   private int indexNodeCacheSize;
+   private boolean syncWrites;
+   private int compactionParallelism = 1;
+   private int indexBloomFilterBits;
+
+   public SoftIndexFileStoreTest ioBackend(IOBackend ioBackend) {
+      this.ioBackend = ioBackend;
+      return this;
+   }
+
+   public SoftIndexFileStoreTest indexMemoryMapped(boolean indexMemoryMapped) {
+      this.indexMemoryMapped = indexMemoryMapped;
+      return this;
+   }
+
+   public SoftIndexFileStoreTest indexNodeCacheSize(int indexNodeCacheSize) {
+      this.indexNodeCacheSize = indexNodeCacheSize;
+      return this;
+   }
+
+   public SoftIndexFileStoreTest syncWrites(boolean syncWrites) {
+      this.syncWrites = syncWrites;
+      return this;
+   }
+
+   public SoftIndexFileStoreTest compactionParallelism(int compactionParallelism) {
+      this.compactionParallelism = compactionParallelism;
+      return this;
+   }
+
+   public SoftIndexFileStoreTest indexBloomFilterBits(int indexBloomFilterBits) {
+      this.indexBloomFilterBits = indexBloomFilterBits;
+      return this;
+   }
+
+   @Factory
+   public Object[] factory() {
+      return new Object[] {
+            new SoftIndexFileStoreTest(),
+            new SoftIndexFileStoreTest().ioBackend(IOBackend.AIO),
+            new SoftIndexFileStoreTest().indexMemoryMapped(true).indexNodeCacheSize(16),
+            new SoftIndexFileStoreTest().syncWrites(true),
+            new SoftIndexFileStoreTest().compactionParallelism(4),
+            new SoftIndexFileStoreTest().indexBloomFilterBits(4096),
+      };
+   }
+
+   @Override
+   protected String parameters() {
+      return "[" + ioBackend + ", " + indexMemoryMapped + ", " + indexNodeCacheSize + ", " + syncWrites + ", " +
+            compactionParallelism + ", " + indexBloomFilterBits + "]";
+   }
 
    @BeforeClass(alwaysRun = true)
    protected void setUpTempDir() {
@@ -68,6 +135,14 @@ protected Configuration buildConfig(ConfigurationBuilder configurationBuilder) {
             .indexLocation(Paths.get(tmpDirectory, "index").toString())
             .indexSegments(1)
             .maxFileSize(1000)
+            .ioBackend(ioBackend)
+            .indexMemoryMapped(indexMemoryMapped)
+            .indexNodeCacheSize(indexNodeCacheSize)
+            .syncWrites(syncWrites)
+            .syncCommitDelay(syncWrites ? 500 : 0)
+            .syncCommitSize(syncWrites ? 600 : 0)
+            .compactionParallelism(compactionParallelism)
+            .indexBloomFilterBits(indexBloomFilterBits)
             .build();
    }
 
@@ -265,4 +340,152 @@ public void onError(Throwable t) {
       // Only a single entry was expired.
       assertThat(expired.get()).isEqualTo(1);
    }
+
+   public void testKeyFilterSkipsLookupsOfAbsentKeys() throws Exception {
+      int numKeys = 10;
+      for (int i = 0; i < numKeys; ++i) {
+         store.write(marshalledEntry(internalCacheEntry("key" + i, "value" + i, -1)));
+      }
+      Index index = TestingUtil.extractField(store.delegate(), "index");
+      Marshaller marshaller = TestingUtil.extractField(store.delegate(), "marshaller");
+      assertEquals(indexBloomFilterBits > 0, index.hasKeyFilter());
+
+      // The data of a removed segment stays in the files, so its filter must be kept as well
+      int removedSegment = keyPartitioner.getSegment("key0");
+      CompletionStages.join(store.removeSegments(IntSets.immutableSet(removedSegment)));
+      CompletionStages.join(store.addSegments(IntSets.immutableSet(removedSegment)));
+      assertEquals(indexBloomFilterBits > 0, index.hasKeyFilter());
+      for (int i = 0; i < numKeys; ++i) {
+         Object key = "key" + i;
+         assertTrue(index.possiblyPresent(keyPartitioner.getSegment(key), marshaller.objectToBuffer(key)));
+      }
+
+      BlockingManager blockingManager = spyBlockingManager();
+      int numAbsentKeys = 100;
+      int possiblyPresent = 0;
+      for (int i = 0; i < numAbsentKeys; ++i) {
+         Object key = "absent" + i;
+         if (index.possiblyPresent(keyPartitioner.getSegment(key), marshaller.objectToBuffer(key))) {
+            possiblyPresent++;
+         }
+         assertNull(store.loadEntry(key));
+      }
+      // Only the false positives of the filter are looked up in the index on a blocking thread
+      verify(blockingManager, times(possiblyPresent)).supplyBlocking(any(), any());
+      if (indexBloomFilterBits > 0) {
+         assertTrue("False positives: " + possiblyPresent, possiblyPresent < numAbsentKeys / 10);
+      } else {
+         assertEquals(numAbsentKeys, possiblyPresent);
+      }
+   }
+
+   public void testIndexNodesStayInMemory() throws Exception {
+      // Enough keys for the index to need inner nodes
+      int numKeys = 1000;
+      for (int i = 0; i < numKeys; ++i) {
+         store.write(marshalledEntry(internalCacheEntry("key" + i, "value" + i, -1)));
+      }
+      // The index is updated in order, once the last key left the temporary table all the keys are in the index
+      TemporaryTable temporaryTable = TestingUtil.extractField(store.delegate(), "temporaryTable");
+      Object lastKey = "key" + (numKeys - 1);
+      eventuallyEquals(null, () -> temporaryTable.get(keyPartitioner.getSegment(lastKey), lastKey));
+
+      Index index = TestingUtil.extractField(store.delegate(), "index");
+      IndexNodeCache nodeCache = index.getNodeCache();
+      assertEquals("value0", store.loadEntry("key0").getValue());
+      long misses = nodeCache.getMisses();
+      long hits = nodeCache.getHits();
+      for (int i = 0; i < 10; ++i) {
+         assertEquals("value0", store.loadEntry("key0").getValue());
+      }
+      // The nodes used by the first lookup are not read from the index file again
+      assertEquals(misses, nodeCache.getMisses());
+      // Only the lookups served by the node cache count as hits
+      if (indexNodeCacheSize > 0) {
+         assertTrue(nodeCache.getHits() > hits);
+      } else {
+         assertEquals(0, nodeCache.getHits());
+      }
+      assertEquals(indexNodeCacheSize > 0, nodeCache.getNumberOfCachedNodes() > 0);
+   }
+
+   public void testConcurrentSyncWritesShareCommit() throws Exception {
+      LogAppender logAppender = TestingUtil.extractField(store.delegate(), "logAppender");
+      GroupCommitStatistics statistics = TestingUtil.extractField(logAppender, "groupCommitStatistics");
+      int numWrites = 20;
+      List<MarshallableEntry<Object, Object>> entries = new ArrayList<>(numWrites);
+      for (int i = 0; i < numWrites; ++i) {
+         entries.add(marshalledEntry(internalCacheEntry("key" + i, "value" + i, -1)));
+      }
+      // Submit all the writes before waiting for any of them
+      AggregateCompletionStage<Void> writes = CompletionStages.aggregateCompletionStage();
+      for (MarshallableEntry<Object, Object> entry : entries) {
+         writes.dependsOn(store.delegate().write(keyPartitioner.getSegment(entry.getKey()), entry));
+      }
+      writes.freeze().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+      if (syncWrites) {
+         assertTrue("Largest commit group: " + statistics.getMaxGroupSize(), statistics.getMaxGroupSize() > 1);
+         assertTrue("Commits: " + statistics.getCommits(), statistics.getCommits() < numWrites);
+      } else {
+         assertEquals(0, statistics.getCommits());
+      }
+      for (int i = 0; i < numWrites; ++i) {
+         assertEquals("value" + i, store.loadEntry("key" + i).getValue());
+      }
+   }
+
+   public void testCompactionsRunConcurrently() throws Exception {
+      Compactor compactor = TestingUtil.extractField(store.delegate(), "compactor");
+      FileProvider fileProvider = TestingUtil.extractField(store.delegate(), "fileProvider");
+      int numKeys = 100;
+      for (int i = 0; i < numKeys; ++i) {
+         store.write(marshalledEntry(internalCacheEntry("key" + i, "value" + i, -1)));
+      }
+      eventually(() -> compactor.getFiles().stream().filter(file -> !fileProvider.isLogFile(file)).count() >= 2);
+
+      // Each compaction looks up the entries of its file in the temporary table, block them there
+      CheckPoint checkPoint = new CheckPoint();
+      checkPoint.triggerForever(Mocks.AFTER_RELEASE);
+      Mocks.blockingFieldMock(checkPoint, TemporaryTable.class, compactor, Compactor.class, "temporaryTable",
+            (stubber, table) -> stubber.when(table).get(anyInt(), any()));
+
+      CompletionStage<Void> compactions = compactor.forceCompactionForAllNonLogFiles();
+      int concurrentCompactions = Math.min(2, compactionParallelism);
+      checkPoint.awaitStrict(Mocks.BEFORE_INVOCATION, concurrentCompactions, 10, TimeUnit.SECONDS);
+      assertThat(compactor.getRunningCompactions()).isBetween(concurrentCompactions, compactionParallelism);
+
+      checkPoint.triggerForever(Mocks.BEFORE_RELEASE);
+      compactions.toCompletableFuture().get(10, TimeUnit.SECONDS);
+      for (int i = 0; i < numKeys; ++i) {
+         assertEquals("value" + i, store.loadEntry("key" + i).getValue());
+      }
+   }
+
+   public void testLoadFromOpenFileUsesAsyncRead() throws Exception {
+      store.write(marshalledEntry(internalCacheEntry("key", "value", -1)));
+      Index index = TestingUtil.extractField(store.delegate(), "index");
+      TemporaryTable temporaryTable = TestingUtil.extractField(store.delegate(), "temporaryTable");
+      FileProvider fileProvider = TestingUtil.extractField(store.delegate(), "fileProvider");
+      Marshaller marshaller = TestingUtil.extractField(store.delegate(), "marshaller");
+      int segment = keyPartitioner.getSegment("key");
+      ByteBuffer serializedKey = marshaller.objectToBuffer("key");
+      eventually(() -> index.getPosition("key", segment, serializedKey) != null);
+
+      // Only the entries in the temporary table whose file is already open are read without a blocking thread
+      EntryPosition position = index.getPosition("key", segment, serializedKey);
+      temporaryTable.set(segment, "key", position.file, position.offset);
+      fileProvider.getFile(position.file).close();
+      assertEquals(ioBackend == IOBackend.AIO, fileProvider.supportsAsyncReads());
+
+      BlockingManager blockingManager = spyBlockingManager();
+      assertEquals("value", store.loadEntry("key").getValue());
+      verify(blockingManager, times(ioBackend == IOBackend.AIO ? 0 : 1)).supplyBlocking(any(), any());
+   }
+
+   private BlockingManager spyBlockingManager() {
+      BlockingManager blockingManager = spy(TestingUtil.<BlockingManager>extractField(store.delegate(), "blockingManager"));
+      TestingUtil.replaceField(blockingManager, "blockingManager", store.delegate(), NonBlockingSoftIndexFileStore.class);
+      return blockingManager;
+   }
 }
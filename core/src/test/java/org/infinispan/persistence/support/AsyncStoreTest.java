@@ -10,6 +10,7 @@
 import static org.testng.AssertJUnit.fail;
 
 import java.lang.reflect.Method;
+import java.util.List;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
@@ -40,10 +41,13 @@
 import org.infinispan.util.concurrent.CompletionStages;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
+import org.reactivestreams.Publisher;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import io.reactivex.rxjava3.core.Flowable;
+
 @Test(groups = "unit", testName = "persistence.support.AsyncStoreTest")
 public class AsyncStoreTest extends AbstractInfinispanTest {
    private static final Log log = LogFactory.getLog(AsyncStoreTest.class);
@@ -282,6 +286,115 @@ public void testModificationQueueSize(final Method m) throws Exception {
       }
    }
 
+   public void testBulkLoadSubscribedTwice(final Method m) throws Exception {
+      DelayStore underlying = new DelayStore();
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+
+      builder.persistence()
+             .addStore(DelayStore.ConfigurationBuilder.class)
+             .async();
+
+      store = new AsyncNonBlockingStore<>(underlying);
+      InitializationContext ctx = PersistenceMockUtil.createContext(getClass(), builder.build(), marshaller);
+      CompletionStages.join(store.start(ctx));
+      // Keep the modifications in the async store until we complete this future
+      underlying.delayAfterModification(1);
+      try {
+         int number = 5;
+         for (int i = 0; i < number; i++) {
+            store.write(0, MarshalledEntryUtil.create(k(m, i), v(m, i), marshaller));
+         }
+
+         Publisher<MarshallableEntry<Object, Object>> publisher = store.bulkLoad(1,
+               Flowable.just(SingleSegmentPublisher.singleSegment(0, Flowable.range(0, number).map(i -> (Object) k(m, i)))));
+         // Every subscription loads the pending entries again, and only once
+         for (int i = 0; i < 2; i++) {
+            List<MarshallableEntry<Object, Object>> entries = Flowable.fromPublisher(publisher).toList().blockingGet();
+            assertEquals(number, entries.size());
+         }
+      } finally {
+         underlying.endDelay();
+         CompletionStages.join(store.stop());
+      }
+   }
+
+   public void testConcurrentBatches(final Method m) throws Exception {
+      DelayStore underlying = new DelayStore();
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+
+      builder.persistence()
+             .addStore(DelayStore.ConfigurationBuilder.class)
+             // The modifications are written to made up segments
+             .segmented(false)
+             .async()
+             .maxConcurrentBatches(2);
+
+      store = new AsyncNonBlockingStore<>(underlying);
+      InitializationContext ctx = PersistenceMockUtil.createContext(getClass(), builder.build(), marshaller);
+      CompletionStages.join(store.start(ctx));
+      // Delay the completion of the first batch until we complete this future
+      underlying.delayAfterModification(1);
+      try {
+         CompletionStages.join(store.write(0, MarshalledEntryUtil.create(k(m, 0), v(m, 0), marshaller)));
+
+         // Another segment is replicated by a second batch while the first one is still running
+         CompletionStages.join(store.write(1, MarshalledEntryUtil.create(k(m, 1), v(m, 1), marshaller)));
+         eventually(() -> underlying.loadEntry(k(m, 1)) != null);
+         assertEquals(1, store.getStatistics().getRunningBatches());
+
+         // The segment of the first batch is only replicated once the first batch completes
+         CompletionStages.join(store.write(0, MarshalledEntryUtil.create(k(m, 2), v(m, 2), marshaller)));
+         CompletionStages.join(store.write(0, MarshalledEntryUtil.create(k(m, 2), v(m, 3), marshaller)));
+         Thread.sleep(50);
+         assertNull(underlying.loadEntry(k(m, 2)));
+         assertEquals(v(m, 3), CompletionStages.join(store.load(0, k(m, 2))).getValue());
+         assertEquals(2, store.getStatistics().getQueueDepth());
+         assertEquals(1, store.getStatistics().getCoalescedWrites());
+
+         underlying.endDelay();
+
+         eventually(() -> underlying.loadEntry(k(m, 2)) != null);
+         assertEquals(v(m, 3), underlying.loadEntry(k(m, 2)).getValue());
+         assertEquals(3, underlying.size());
+      } finally {
+         underlying.endDelay();
+         CompletionStages.join(store.stop());
+      }
+      assertEquals(0, store.getStatistics().getQueueDepth());
+      assertEquals(3, store.getStatistics().getBatches());
+   }
+
+   public void testBatchSizeAdaptsToLatency(final Method m) throws Exception {
+      int queueSize = 8;
+      DelayStore underlying = new DelayStore();
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+
+      builder.persistence()
+             .addStore(DelayStore.ConfigurationBuilder.class)
+             .segmented(false)
+             .async()
+             .modificationQueueSize(queueSize)
+             .targetBatchLatency(10);
+
+      store = new AsyncNonBlockingStore<>(underlying);
+      InitializationContext ctx = PersistenceMockUtil.createContext(getClass(), builder.build(), marshaller);
+      CompletionStages.join(store.start(ctx));
+      assertEquals(queueSize, store.getStatistics().getBatchSizeLimit());
+      underlying.delayAfterModification(1);
+      try {
+         CompletionStages.join(store.write(0, MarshalledEntryUtil.create(k(m, 0), v(m, 0), marshaller)));
+         // The batch takes longer than the target latency
+         Thread.sleep(50);
+         underlying.endDelay();
+
+         eventually(() -> store.getStatistics().getBatchSizeLimit() == queueSize / 2);
+         eventually(() -> underlying.loadEntry(k(m, 0)) != null);
+      } finally {
+         underlying.endDelay();
+         CompletionStages.join(store.stop());
+      }
+   }
+
    private static abstract class OneEntryCacheManagerCallable extends CacheManagerCallable {
       protected final Cache<String, String> cache;
       protected final DelayStore store;
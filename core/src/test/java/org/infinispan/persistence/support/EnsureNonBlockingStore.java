@@ -103,6 +103,14 @@ public Publisher<K> publishKeys(IntSet segments, Predicate<? super K> filter) {
       );
    }
 
+   @Override
+   public Publisher<MarshallableEntry<K, V>> bulkLoad(int publisherCount, Publisher<NonBlockingStore.SegmentedPublisher<Object>> keyPublisher) {
+      return BlockHoundHelper.ensureNonBlocking(() ->
+            Flowable.fromPublisher(delegate().bulkLoad(publisherCount, keyPublisher))
+                  .subscribeOn(Schedulers.from(BlockHoundHelper.ensureNonBlockingExecutor()))
+      );
+   }
+
    @Override
    public Publisher<MarshallableEntry<K, V>> purgeExpired() {
       return BlockHoundHelper.ensureNonBlocking(() -> delegate().purgeExpired());
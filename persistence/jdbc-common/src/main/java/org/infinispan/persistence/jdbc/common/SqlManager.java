@@ -15,6 +15,14 @@
 public interface SqlManager {
    String getSelectStatement(List<String> keyColumns, List<String> allColumns);
 
+   /**
+    * Returns the statement selecting the rows of {@code keyCount} keys at once. Its parameters are always positional:
+    * the key columns of the first key, then the key columns of the second key and so on.
+    *
+    * @since 15.0
+    */
+   String getSelectStatement(List<String> keyColumns, List<String> allColumns, int keyCount);
+
    String getSelectAllStatement(List<String> allColumns);
 
    String getDeleteStatement(List<String> keyColumns);
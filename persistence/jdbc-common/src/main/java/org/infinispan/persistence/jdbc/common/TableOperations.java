@@ -2,6 +2,8 @@
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -19,6 +21,14 @@
 public interface TableOperations<K, V> {
    MarshallableEntry<K, V> loadEntry(Connection connection, int segment, Object key) throws SQLException;
 
+   /**
+    * Loads the entries of the given keys, with as few statements as possible. The keys without an entry, or with an
+    * expired one, are not part of the returned list.
+    *
+    * @since 15.0
+    */
+   List<MarshallableEntry<K, V>> loadEntries(Connection connection, Collection<?> keys) throws SQLException;
+
    default Flowable<K> publishKeys(Supplier<Connection> connectionSupplier, Consumer<Connection> connectionCloser,
          IntSet segments, Predicate<? super K> filter) {
       return publishEntries(connectionSupplier, connectionCloser, segments, filter, false)
@@ -28,6 +38,16 @@ default Flowable<K> publishKeys(Supplier<Connection> connectionSupplier, Consume
    Flowable<MarshallableEntry<K, V>> publishEntries(Supplier<Connection> connectionSupplier,
          Consumer<Connection> connectionCloser, IntSet segments, Predicate<? super K> filter, boolean fetchValue);
 
+   /**
+    * Returns whether {@link #publishEntries(Supplier, Consumer, IntSet, Predicate, boolean)} only reads the rows of the
+    * given segments, so that the segments can be published in parallel.
+    *
+    * @since 15.0
+    */
+   default boolean isSegmented() {
+      return false;
+   }
+
    boolean deleteEntry(Connection connection, int segment, Object key) throws SQLException;
 
    void deleteAllRows(Connection connection) throws SQLException;
@@ -1,5 +1,7 @@
 package org.infinispan.persistence.jdbc.common.configuration;
 
+import static org.infinispan.commons.configuration.attributes.AttributeValidator.greaterThanZero;
+
 import org.infinispan.commons.configuration.attributes.Attribute;
 import org.infinispan.commons.configuration.attributes.AttributeDefinition;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
@@ -11,15 +13,18 @@
    static final AttributeDefinition<DatabaseType> DIALECT = AttributeDefinition.builder(org.infinispan.persistence.jdbc.common.configuration.Attribute.DIALECT, null, DatabaseType.class).immutable().build();
    static final AttributeDefinition<Integer> READ_QUERY_TIMEOUT = AttributeDefinition.builder(org.infinispan.persistence.jdbc.common.configuration.Attribute.READ_QUERY_TIMEOUT, 0, Integer.class).build();
    static final AttributeDefinition<Integer> WRITE_QUERY_TIMEOUT = AttributeDefinition.builder(org.infinispan.persistence.jdbc.common.configuration.Attribute.WRITE_QUERY_TIMEOUT, 0, Integer.class).build();
+   static final AttributeDefinition<Integer> PUBLISH_PARALLELISM = AttributeDefinition.builder(org.infinispan.persistence.jdbc.common.configuration.Attribute.PUBLISH_PARALLELISM, 1, Integer.class)
+         .validator(greaterThanZero(org.infinispan.persistence.jdbc.common.configuration.Attribute.PUBLISH_PARALLELISM)).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
       return new AttributeSet(AbstractJdbcStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(),
-            DIALECT, READ_QUERY_TIMEOUT, WRITE_QUERY_TIMEOUT);
+            DIALECT, READ_QUERY_TIMEOUT, WRITE_QUERY_TIMEOUT, PUBLISH_PARALLELISM);
    }
 
    private final Attribute<DatabaseType> dialect;
    private final Attribute<Integer> readQueryTimeout;
    private final Attribute<Integer> writeQueryTimeout;
+   private final Attribute<Integer> publishParallelism;
    private final ConnectionFactoryConfiguration connectionFactory;
 
    protected AbstractJdbcStoreConfiguration(Enum<?> element, AttributeSet attributes, AsyncStoreConfiguration async, ConnectionFactoryConfiguration connectionFactory) {
@@ -28,6 +33,7 @@ protected AbstractJdbcStoreConfiguration(Enum<?> element, AttributeSet attribute
       dialect = attributes.attribute(DIALECT);
       readQueryTimeout = attributes.attribute(READ_QUERY_TIMEOUT);
       writeQueryTimeout = attributes.attribute(WRITE_QUERY_TIMEOUT);
+      publishParallelism = attributes.attribute(PUBLISH_PARALLELISM);
    }
 
    public ConnectionFactoryConfiguration connectionFactory() {
@@ -68,4 +74,13 @@ public Integer readQueryTimeout() {
    public Integer writeQueryTimeout() {
       return writeQueryTimeout.get();
    }
+
+   /**
+    * @return the number of segment ranges of a segmented store that are read in parallel, each with its own connection,
+    * when publishing the entries or the keys of the store
+    * @since 15.0
+    */
+   public int publishParallelism() {
+      return publishParallelism.get();
+   }
 }
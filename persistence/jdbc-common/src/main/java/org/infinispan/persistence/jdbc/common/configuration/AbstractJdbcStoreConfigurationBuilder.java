@@ -117,6 +117,18 @@ public S writeQueryTimeout(Integer queryTimeout) {
       return self();
    }
 
+   /**
+    * Sets the number of segment ranges of a segmented store that are read in parallel when iterating over or preloading
+    * the store. Each range uses its own connection, so the connection pool should have more connections than this.
+    * Defaults to 1, which reads all the segments with a single query.
+    *
+    * @since 15.0
+    */
+   public S publishParallelism(int publishParallelism) {
+      attributes.attribute(AbstractJdbcStoreConfiguration.PUBLISH_PARALLELISM).set(publishParallelism);
+      return self();
+   }
+
    @Override
    public void validate() {
       super.validate();
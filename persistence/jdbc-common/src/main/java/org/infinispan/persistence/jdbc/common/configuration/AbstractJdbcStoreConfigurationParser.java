@@ -24,6 +24,9 @@ protected boolean handleCommonAttributes(ConfigurationReader reader,
          case WRITE_QUERY_TIMEOUT:
             builder.writeQueryTimeout(Integer.parseInt(value));
             break;
+         case PUBLISH_PARALLELISM:
+            builder.publishParallelism(Integer.parseInt(value));
+            break;
          default:
             return false;
       }
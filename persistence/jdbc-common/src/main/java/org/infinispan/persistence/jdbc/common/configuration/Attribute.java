@@ -12,6 +12,8 @@
 public enum Attribute {
    // must be first
    UNKNOWN(null),
+   ABSENT_KEY_CACHE_LIFESPAN,
+   ABSENT_KEY_CACHE_SIZE,
    ANNOTATION,
    BATCH_SIZE,
    CONNECTION_URL,
@@ -37,6 +39,7 @@ public enum Attribute {
    PASSWORD,
    PREFIX,
    PROPERTIES_FILE,
+   PUBLISH_PARALLELISM,
    READ_QUERY_TIMEOUT,
    SELECT_ALL,
    SELECT_SINGLE,
@@ -5,15 +5,18 @@
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import jakarta.transaction.Transaction;
 
 import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.IntSets;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.persistence.jdbc.common.TableOperations;
 import org.infinispan.persistence.jdbc.common.configuration.AbstractJdbcStoreConfiguration;
@@ -137,6 +140,28 @@ public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
       }, "jdbcstore-load");
    }
 
+   @Override
+   public Publisher<MarshallableEntry<K, V>> bulkLoad(int publisherCount,
+         Publisher<SegmentedPublisher<Object>> keyPublisher) {
+      return Flowable.fromPublisher(keyPublisher)
+            .concatMapEager(Functions.identity(), publisherCount, publisherCount)
+            .toList()
+            .filter(keys -> !keys.isEmpty())
+            .flatMapPublisher(keys -> Flowable.fromCompletionStage(blockingManager.supplyBlocking(() -> {
+               Connection conn = null;
+               try {
+                  conn = connectionFactory.getConnection();
+                  return tableOperations.loadEntries(conn, keys);
+               } catch (SQLException e) {
+                  throw new PersistenceException(String.format(
+                        "SQL error while fetching the stored entries of %d keys", keys.size()), e);
+               } finally {
+                  connectionFactory.releaseConnection(conn);
+               }
+            }, "jdbcstore-bulk-load")))
+            .flatMapIterable(entries -> entries);
+   }
+
    @Override
    public CompletionStage<Void> write(int segment, MarshallableEntry<? extends K, ? extends V> entry) {
       return blockingManager.runBlocking(() -> {
@@ -270,14 +295,29 @@ protected void destroyTxConnection(Transaction tx) {
 
    @Override
    public Publisher<MarshallableEntry<K, V>> publishEntries(IntSet segments, Predicate<? super K> filter, boolean includeValues) {
-      return blockingManager.blockingPublisher(tableOperations.publishEntries(connectionFactory::getConnection,
-            connectionFactory::releaseConnection, segments, filter, includeValues));
+      return publishSegmentRanges(segments, range -> tableOperations.publishEntries(connectionFactory::getConnection,
+            connectionFactory::releaseConnection, range, filter, includeValues));
    }
 
    @Override
    public Publisher<K> publishKeys(IntSet segments, Predicate<? super K> filter) {
-      return blockingManager.blockingPublisher(tableOperations.publishKeys(connectionFactory::getConnection,
-            connectionFactory::releaseConnection, segments, filter));
+      return publishSegmentRanges(segments, range -> tableOperations.publishKeys(connectionFactory::getConnection,
+            connectionFactory::releaseConnection, range, filter));
+   }
+
+   /**
+    * Splits the segments in up to publish-parallelism ranges, which are read in parallel with a connection each, when
+    * the table operations can read the rows of some segments only.
+    */
+   private <E> Publisher<E> publishSegmentRanges(IntSet segments, Function<IntSet, Flowable<E>> publisher) {
+      int parallelism = config.publishParallelism();
+      if (parallelism == 1 || segments == null || segments.size() <= 1 || !tableOperations.isSegmented()) {
+         return blockingManager.blockingPublisher(publisher.apply(segments));
+      }
+      List<IntSet> ranges = IntSets.split(segments, parallelism);
+      // Each range is read lazily from its own cursor, so the backpressure of the subscriber limits what is fetched
+      return Flowable.fromIterable(ranges)
+            .flatMap(r -> blockingManager.blockingPublisher(publisher.apply(r)), ranges.size());
    }
 
    @Override
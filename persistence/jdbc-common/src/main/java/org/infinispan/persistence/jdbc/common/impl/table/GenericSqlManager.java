@@ -1,5 +1,6 @@
 package org.infinispan.persistence.jdbc.common.impl.table;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 
@@ -28,6 +29,25 @@ public String getSelectStatement(List<String> keyColumns, List<String> allColumn
       return select.toString();
    }
 
+   @Override
+   public String getSelectStatement(List<String> keyColumns, List<String> allColumns, int keyCount) {
+      StringBuilder select = new StringBuilder("SELECT ");
+      appendStrings(select, allColumns, Function.identity(), ", ");
+      select.append(" FROM ").append(tableName);
+      select.append(" WHERE ");
+      if (keyColumns.size() == 1) {
+         select.append(keyColumns.get(0)).append(" IN (");
+         appendStrings(select, Collections.nCopies(keyCount, keyColumns.get(0)), key -> "?", ", ");
+         select.append(')');
+      } else {
+         StringBuilder keyCondition = new StringBuilder("(");
+         appendStrings(keyCondition, keyColumns, key -> key + " = ?", " AND ");
+         keyCondition.append(')');
+         appendStrings(select, Collections.nCopies(keyCount, keyCondition.toString()), Function.identity(), " OR ");
+      }
+      return select.toString();
+   }
+
    @Override
    public String getSelectAllStatement(List<String> allColumns) {
       StringBuilder selectAll = new StringBuilder("SELECT ");
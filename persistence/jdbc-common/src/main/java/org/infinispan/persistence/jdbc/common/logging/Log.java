@@ -280,4 +280,14 @@ CacheConfigurationException deleteAndSelectQueryMismatchArguments(String paramNa
    @LogMessage(level = WARN)
    @Message(value = "There was no JDBC metadata present in table %s, unable to confirm if segments are properly configured! Segments are assumed to be properly configured.", id = 8072)
    void sqlMetadataNotPresent(String tableName);
+
+   @Message(value = "The absent key cache lifespan must not be negative", id = 8073)
+   CacheConfigurationException absentKeyCacheLifespanNegative();
+
+   @Message(value = "The absent key cache can't be enabled on a shared store, as the writes applied by the other nodes would not invalidate it", id = 8074)
+   CacheConfigurationException absentKeyCacheNotSupportedWithSharedStore();
+
+   @LogMessage(level = WARN)
+   @Message(value = "Unable to register the statistics MBean of the store %s", id = 8075)
+   void unableToRegisterStoreMBean(String storeName, @Cause Throwable cause);
 }
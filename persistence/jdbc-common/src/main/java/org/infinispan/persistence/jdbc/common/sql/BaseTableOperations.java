@@ -8,6 +8,11 @@
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -28,7 +33,6 @@
 import org.infinispan.util.logging.LogFactory;
 import org.reactivestreams.Publisher;
 
-import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Flowable;
 
 public abstract class BaseTableOperations<K, V> implements TableOperations<K, V> {
@@ -44,6 +48,14 @@ public BaseTableOperations(AbstractJdbcStoreConfiguration<?> configuration) {
 
    public abstract String getSelectAllSql(IntSet segments);
 
+   /**
+    * Returns the statement selecting the rows of {@code keyCount} keys at once, or {@code null} if the rows can only be
+    * selected one at a time with {@link #getSelectRowSql()}.
+    */
+   public String getSelectRowsSql(int keyCount) {
+      return null;
+   }
+
    public abstract String getDeleteRowSql();
 
    public abstract String getDeleteAllSql();
@@ -57,6 +69,22 @@ protected abstract MarshallableEntry<K, V> entryFromResultSet(ResultSet rs, Obje
 
    protected abstract void prepareKeyStatement(PreparedStatement ps, Object key) throws SQLException;
 
+   protected void prepareKeysStatement(PreparedStatement ps, List<?> keys) throws SQLException {
+      throw new UnsupportedOperationException();
+   }
+
+   /**
+    * Returns the identifier of the given key, which must be equal to the {@link #rowKeyIdentifier(ResultSet)} of its
+    * row when selected with {@link #getSelectRowsSql(int)}.
+    */
+   protected Object keyIdentifier(Object key) {
+      return key;
+   }
+
+   protected Object rowKeyIdentifier(ResultSet rs) throws SQLException {
+      throw new UnsupportedOperationException();
+   }
+
    protected abstract void prepareValueStatement(PreparedStatement ps, int segment, MarshallableEntry<? extends K, ? extends V> entry) throws SQLException;
 
    protected void prepareSizeStatement(PreparedStatement ps) throws SQLException {
@@ -67,6 +95,14 @@ protected void preparePublishStatement(PreparedStatement ps, IntSet segments) th
       // Do nothing by default
    }
 
+   /**
+    * Returns the number of rows fetched from the database at a time when publishing the entries, so that the driver
+    * streams the rows with a cursor instead of reading all of them in memory.
+    */
+   protected int getFetchSize() {
+      return configuration.maxBatchSize();
+   }
+
    @Override
    public MarshallableEntry<K, V> loadEntry(Connection connection, int segment, Object key) throws SQLException {
       PreparedStatement ps = null;
@@ -90,6 +126,88 @@ public MarshallableEntry<K, V> loadEntry(Connection connection, int segment, Obj
       return null;
    }
 
+   @Override
+   public List<MarshallableEntry<K, V>> loadEntries(Connection connection, Collection<?> keys) throws SQLException {
+      List<MarshallableEntry<K, V>> entries = new ArrayList<>(keys.size());
+      if (getSelectRowsSql(1) == null) {
+         loadEntriesOneByOne(connection, keys, entries);
+         return entries;
+      }
+      List<?> keyList = keys instanceof List ? (List<?>) keys : new ArrayList<>(keys);
+      int maxKeyCount = Math.max(1, configuration.maxBatchSize());
+      for (int i = 0; i < keyList.size(); i += maxKeyCount) {
+         loadEntries(connection, keyList.subList(i, Math.min(keyList.size(), i + maxKeyCount)), maxKeyCount, entries);
+      }
+      return entries;
+   }
+
+   private void loadEntriesOneByOne(Connection connection, Collection<?> keys,
+         List<MarshallableEntry<K, V>> entries) throws SQLException {
+      PreparedStatement ps = null;
+      try {
+         String selectSql = getSelectRowSql();
+         if (log.isTraceEnabled()) {
+            log.tracef("Running select row sql '%s' for %d keys", selectSql, keys.size());
+         }
+         // The statement is prepared once and executed for each key
+         ps = connection.prepareStatement(selectSql);
+         ps.setQueryTimeout(configuration.readQueryTimeout());
+         for (Object key : keys) {
+            prepareKeyStatement(ps, key);
+            try (ResultSet rs = ps.executeQuery()) {
+               if (rs.next()) {
+                  MarshallableEntry<K, V> entry = entryFromResultSet(rs, key, true, null);
+                  if (entry != null) {
+                     entries.add(entry);
+                  }
+               }
+            }
+         }
+      } finally {
+         JdbcUtil.safeClose(ps);
+      }
+   }
+
+   private void loadEntries(Connection connection, List<?> keys, int maxKeyCount,
+         List<MarshallableEntry<K, V>> entries) throws SQLException {
+      Map<Object, Object> keysByIdentifier = new HashMap<>();
+      for (Object key : keys) {
+         keysByIdentifier.put(keyIdentifier(key), key);
+      }
+      // The key count is rounded up to a power of two by repeating the last key, so that the database only sees a
+      // few distinct statements
+      int keyCount = Math.min(maxKeyCount, keys.size() == 1 ? 1 : Integer.highestOneBit(keys.size() - 1) << 1);
+      List<Object> paddedKeys = new ArrayList<>(keyCount);
+      paddedKeys.addAll(keys);
+      while (paddedKeys.size() < keyCount) {
+         paddedKeys.add(keys.get(keys.size() - 1));
+      }
+      PreparedStatement ps = null;
+      ResultSet rs = null;
+      try {
+         String selectSql = getSelectRowsSql(keyCount);
+         if (log.isTraceEnabled()) {
+            log.tracef("Running select rows sql '%s' for %d keys", selectSql, keys.size());
+         }
+         ps = connection.prepareStatement(selectSql);
+         ps.setQueryTimeout(configuration.readQueryTimeout());
+         prepareKeysStatement(ps, paddedKeys);
+         rs = ps.executeQuery();
+         while (rs.next()) {
+            Object key = keysByIdentifier.remove(rowKeyIdentifier(rs));
+            if (key != null) {
+               MarshallableEntry<K, V> entry = entryFromResultSet(rs, key, true, null);
+               if (entry != null) {
+                  entries.add(entry);
+               }
+            }
+         }
+      } finally {
+         JdbcUtil.safeClose(rs);
+         JdbcUtil.safeClose(ps);
+      }
+   }
+
    @Override
    public boolean deleteEntry(Connection connection, int segment, Object key) throws SQLException {
       PreparedStatement ps = null;
@@ -177,39 +295,122 @@ public void batchUpdates(Connection connection, int writePublisherCount, Publish
            PreparedStatement deleteBatch = connection.prepareStatement(deleteSql)) {
 
          // Note this one is non blocking as we need to subscribe to both Publishers before anything is processed.
-         CompletionStage<Void> removeStage = Flowable.fromPublisher(removePublisher)
+         // The deletes are only executed after the upserts, as a bulk upsert can hold the connection until it
+         // completes, which is fine as the keys of a batch are distinct.
+         CompletionStage<Long> removeStage = Flowable.fromPublisher(removePublisher)
                .doOnNext(key -> {
                   prepareKeyStatement(deleteBatch, key);
                   deleteBatch.addBatch();
-               }).lastElement()
-               .doAfterSuccess(ignore -> deleteBatch.executeBatch())
-               .flatMapCompletable(ignore -> Completable.complete())
-               .toCompletionStage(null);
+               }).count()
+               .toCompletionStage();
 
          ByRef<Throwable> throwableRef = new ByRef<>(null);
-         ByRef<Object> hadValue = new ByRef<>(null);
-         Flowable.fromPublisher(writePublisher)
-               .concatMapEager(sp ->
-                     Flowable.fromPublisher(sp)
-                           .doOnNext(me -> {
-                              prepareValueStatement(upsertBatch, sp.getSegment(), me);
-                              upsertBatch.addBatch();
-                           }), writePublisherCount, writePublisherCount
-               ).lastElement()
-               .blockingSubscribe(hadValue::set, throwableRef::set);
-         if (hadValue.get() != null) {
-            upsertBatch.executeBatch();
+         try (Upserts upserts = new Upserts(connection, upsertBatch)) {
+            Flowable.fromPublisher(writePublisher)
+                  .concatMapEager(sp ->
+                        Flowable.fromPublisher(sp)
+                              .doOnNext(me -> upserts.add(sp.getSegment(), me)), writePublisherCount, writePublisherCount
+                  ).lastElement()
+                  .blockingSubscribe(ignore -> {}, throwableRef::set);
+
+            Throwable t = throwableRef.get();
+            if (t != null) {
+               if (t instanceof SQLException) {
+                  throw (SQLException) t;
+               }
+               throw Util.rewrapAsCacheException(t);
+            }
+            long removes = CompletionStages.join(removeStage);
+            upserts.complete();
+            if (removes > 0) {
+               deleteBatch.executeBatch();
+            }
          }
+      }
+   }
+
+   /**
+    * Returns a {@link BulkUpsert} writing the entries to the table faster than a JDBC batch, or {@code null} if the
+    * database has no such bulk path. It is only used for the batches with more than max-batch-size entries, as it has a
+    * higher fixed cost than a JDBC batch.
+    */
+   protected BulkUpsert<K, V> createBulkUpsert(Connection connection) throws SQLException {
+      return null;
+   }
+
+   /**
+    * Upserts the entries of a batch through a database specific bulk path. The entries must have distinct keys.
+    * <p>
+    * The bulk upsert is created after the JDBC batch of the first upserts is executed, and it can hold the connection
+    * until {@link #complete()} returns, as the deletes of the batch are only executed afterwards.
+    *
+    * @since 15.0
+    */
+   public interface BulkUpsert<K, V> extends AutoCloseable {
+      void upsert(int segment, MarshallableEntry<? extends K, ? extends V> entry) throws SQLException;
+
+      /**
+       * Writes all the upserted entries to the table.
+       */
+      void complete() throws SQLException;
+
+      /**
+       * Releases the resources of the bulk upsert, discarding the upserted entries if it is not complete.
+       */
+      @Override
+      void close();
+   }
 
-         Throwable t = throwableRef.get();
-         if (t != null) {
-            if (t instanceof SQLException) {
-               throw (SQLException) t;
+   /**
+    * The upserts of a batch, written with a JDBC batch until there are more than max-batch-size of them and with a
+    * {@link BulkUpsert} afterwards, if there is one.
+    */
+   private class Upserts implements AutoCloseable {
+      private final Connection connection;
+      private final PreparedStatement upsertBatch;
+      private int batchedEntries;
+      private boolean bulkUnavailable;
+      private BulkUpsert<K, V> bulkUpsert;
+
+      Upserts(Connection connection, PreparedStatement upsertBatch) {
+         this.connection = connection;
+         this.upsertBatch = upsertBatch;
+      }
+
+      void add(int segment, MarshallableEntry<K, V> entry) throws SQLException {
+         if (bulkUpsert == null && !bulkUnavailable && batchedEntries >= configuration.maxBatchSize()) {
+            // The bulk upsert can take over the connection, so the entries batched so far are written first
+            upsertBatch.executeBatch();
+            if (log.isTraceEnabled()) {
+               log.tracef("Executed %d batched entries before switching to a bulk upsert", batchedEntries);
             }
-            throw Util.rewrapAsCacheException(t);
+            batchedEntries = 0;
+            bulkUpsert = createBulkUpsert(connection);
+            bulkUnavailable = bulkUpsert == null;
+         }
+         if (bulkUpsert != null) {
+            bulkUpsert.upsert(segment, entry);
+         } else {
+            prepareValueStatement(upsertBatch, segment, entry);
+            upsertBatch.addBatch();
+            batchedEntries++;
          }
+      }
 
-         CompletionStages.join(removeStage);
+      void complete() throws SQLException {
+         if (batchedEntries > 0) {
+            upsertBatch.executeBatch();
+         }
+         if (bulkUpsert != null) {
+            bulkUpsert.complete();
+         }
+      }
+
+      @Override
+      public void close() {
+         if (bulkUpsert != null) {
+            bulkUpsert.close();
+         }
       }
    }
 
@@ -225,7 +426,7 @@ public Flowable<MarshallableEntry<K, V>> publishEntries(Supplier<Connection> con
       }, fc -> {
          PreparedStatement ps = fc.statement;
          preparePublishStatement(ps, segments);
-         ps.setFetchSize(configuration.maxBatchSize());
+         ps.setFetchSize(getFetchSize());
          ResultSet rs = ps.executeQuery();
          return Flowable.fromIterable(() -> new ResultSetEntryIterator(rs, filter, fetchValue))
                .doFinally(() -> JdbcUtil.safeClose(rs));
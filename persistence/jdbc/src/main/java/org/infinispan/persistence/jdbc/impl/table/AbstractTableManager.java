@@ -12,6 +12,8 @@
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.PrimitiveIterator;
 import java.util.function.Predicate;
@@ -424,6 +426,12 @@ public String getSelectRowSql() {
       return selectRowSql;
    }
 
+   @Override
+   public String getSelectRowsSql(int keyCount) {
+      return String.format("SELECT %s, %s FROM %s WHERE %s IN (%s)", config.dataColumnName(), config.idColumnName(),
+            dataTableName, config.idColumnName(), String.join(",", Collections.nCopies(keyCount, "?")));
+   }
+
    protected String initSelectIdRowSql() {
       return String.format("SELECT %s FROM %s WHERE %s = ?", config.idColumnName(), dataTableName, config.idColumnName());
    }
@@ -610,12 +618,34 @@ public String getSelectAllSql(IntSet segments) {
       }
    }
 
+   @Override
+   public boolean isSegmented() {
+      return !dbMetadata.isSegmentedDisabled();
+   }
+
    @Override
    protected void prepareKeyStatement(PreparedStatement ps, Object key) throws SQLException {
       String lockingKey = key2Str(key);
       ps.setString(1, lockingKey);
    }
 
+   @Override
+   protected void prepareKeysStatement(PreparedStatement ps, List<?> keys) throws SQLException {
+      for (int i = 0; i < keys.size(); i++) {
+         ps.setString(i + 1, key2Str(keys.get(i)));
+      }
+   }
+
+   @Override
+   protected Object keyIdentifier(Object key) {
+      return key2Str(key);
+   }
+
+   @Override
+   protected Object rowKeyIdentifier(ResultSet rs) throws SQLException {
+      return rs.getString(2);
+   }
+
    @Override
    protected MarshallableEntry<K, V> entryFromResultSet(ResultSet rs, Object keyIfPresent, boolean fetchValue,
          Predicate<? super K> keyPredicate) throws SQLException {
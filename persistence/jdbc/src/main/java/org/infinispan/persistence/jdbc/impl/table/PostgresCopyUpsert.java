@@ -0,0 +1,140 @@
+package org.infinispan.persistence.jdbc.impl.table;
+
+import static org.infinispan.persistence.jdbc.common.JdbcUtil.marshall;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.persistence.jdbc.common.JdbcUtil;
+import org.infinispan.persistence.jdbc.common.sql.BaseTableOperations;
+import org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+/**
+ * Upserts the entries of a batch by streaming them to a temporary staging table with a binary {@code COPY}, and then
+ * merging the staging table into the data table with a single {@code INSERT ... ON CONFLICT} statement.
+ * <p>
+ * The staging table has fixed column types, which are cast to the configured ones by the merge, so that the binary
+ * format of the rows does not depend on the configuration. It is created once per session and emptied after each
+ * batch.
+ * <p>
+ * The {@code COPY} is started when the bulk upsert is created and holds the connection until {@link #complete()}, and
+ * the rows are sent in chunks as they are encoded, so the memory used does not depend on the size of the batch.
+ *
+ * @since 15.0
+ */
+class PostgresCopyUpsert<K, V> implements BaseTableOperations.BulkUpsert<K, V> {
+   private static final String STAGING_TABLE = "ispn_bulk_upsert";
+   private static final byte[] HEADER = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0,
+         // Flags
+         0, 0, 0, 0,
+         // Header extension length
+         0, 0, 0, 0};
+   private static final int FLUSH_SIZE = 64 * 1024;
+
+   private final AbstractTableManager<K, V> tableManager;
+   private final Connection connection;
+   private final CopyIn copyIn;
+   private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(FLUSH_SIZE * 2);
+   private final DataOutputStream rows = new DataOutputStream(buffer);
+
+   PostgresCopyUpsert(AbstractTableManager<K, V> tableManager, Connection connection) throws SQLException {
+      this.tableManager = tableManager;
+      this.connection = connection;
+      executeUpdate(String.format("CREATE TEMP TABLE IF NOT EXISTS %s (id TEXT, data BYTEA, ts BIGINT, seg INTEGER)",
+            STAGING_TABLE));
+      // The staging table still holds the rows of a batch that failed before its merge
+      executeUpdate("TRUNCATE " + STAGING_TABLE);
+      copyIn = connection.unwrap(PGConnection.class).getCopyAPI()
+            .copyIn(String.format("COPY %s (id, data, ts, seg) FROM STDIN (FORMAT binary)", STAGING_TABLE));
+      buffer.writeBytes(HEADER);
+   }
+
+   static boolean isSupported(Connection connection) throws SQLException {
+      return connection.isWrapperFor(PGConnection.class);
+   }
+
+   @Override
+   public void upsert(int segment, MarshallableEntry<? extends K, ? extends V> entry) throws SQLException {
+      byte[] key = tableManager.key2Str(entry.getKey()).getBytes(StandardCharsets.UTF_8);
+      ByteBuffer value = marshall(entry.getMarshalledValue(), tableManager.marshaller);
+      try {
+         rows.writeShort(4);
+         rows.writeInt(key.length);
+         rows.write(key);
+         rows.writeInt(value.getLength());
+         rows.write(value.getBuf(), value.getOffset(), value.getLength());
+         rows.writeInt(Long.BYTES);
+         rows.writeLong(entry.expiryTime());
+         rows.writeInt(Integer.BYTES);
+         rows.writeInt(segment);
+      } catch (IOException e) {
+         // Never thrown by a ByteArrayOutputStream
+         throw new IllegalStateException(e);
+      }
+      if (buffer.size() >= FLUSH_SIZE) {
+         flush();
+      }
+   }
+
+   @Override
+   public void complete() throws SQLException {
+      // Trailer
+      buffer.write(0xff);
+      buffer.write(0xff);
+      flush();
+      copyIn.endCopy();
+
+      TableManipulationConfiguration config = tableManager.config;
+      String merge;
+      if (tableManager.dbMetadata.isSegmentedDisabled()) {
+         merge = String.format("INSERT INTO %1$s (%2$s, %3$s, %4$s) " +
+                     "SELECT data, cast(ts as %5$s), cast(id as %6$s) FROM %7$s " +
+                     "ON CONFLICT (%4$s) DO UPDATE SET %2$s = EXCLUDED.%2$s, %3$s = EXCLUDED.%3$s",
+               tableManager.dataTableName, config.dataColumnName(), config.timestampColumnName(),
+               config.idColumnName(), config.timestampColumnType(), config.idColumnType(), STAGING_TABLE);
+      } else {
+         merge = String.format("INSERT INTO %1$s (%2$s, %3$s, %4$s, %5$s) " +
+                     "SELECT data, cast(ts as %6$s), cast(id as %7$s), cast(seg as %8$s) FROM %9$s " +
+                     "ON CONFLICT (%4$s) DO UPDATE SET %2$s = EXCLUDED.%2$s, %3$s = EXCLUDED.%3$s",
+               tableManager.dataTableName, config.dataColumnName(), config.timestampColumnName(),
+               config.idColumnName(), config.segmentColumnName(), config.timestampColumnType(),
+               config.idColumnType(), config.segmentColumnType(), STAGING_TABLE);
+      }
+      executeUpdate(merge);
+      executeUpdate("TRUNCATE " + STAGING_TABLE);
+   }
+
+   @Override
+   public void close() {
+      if (copyIn.isActive()) {
+         try {
+            copyIn.cancelCopy();
+         } catch (SQLException e) {
+            // The connection is released with the failure of the batch anyway
+         }
+      }
+   }
+
+   private void flush() throws SQLException {
+      copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+      buffer.reset();
+   }
+
+   private void executeUpdate(String sql) throws SQLException {
+      Statement statement = connection.createStatement();
+      try {
+         statement.executeUpdate(sql);
+      } finally {
+         JdbcUtil.safeClose(statement);
+      }
+   }
+}
@@ -1,6 +1,9 @@
 package org.infinispan.persistence.jdbc.impl.table;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
 
 import org.infinispan.persistence.jdbc.common.connectionfactory.ConnectionFactory;
 import org.infinispan.persistence.jdbc.common.logging.Log;
@@ -15,11 +18,31 @@
 class PostgresTableManager extends AbstractTableManager {
 
    private static final Log log = LogFactory.getLog(PostgresTableManager.class, Log.class);
+   // The driver is only needed for the bulk upserts
+   private static final boolean COPY_AVAILABLE = isCopyAvailable();
 
    PostgresTableManager(InitializationContext ctx, ConnectionFactory connectionFactory, JdbcStringBasedStoreConfiguration config, DbMetaData metaData, String cacheName) {
       super(ctx, connectionFactory, config, metaData, cacheName, log);
    }
 
+   private static boolean isCopyAvailable() {
+      try {
+         Class.forName("org.postgresql.PGConnection", false, PostgresTableManager.class.getClassLoader());
+         return true;
+      } catch (ClassNotFoundException | LinkageError e) {
+         return false;
+      }
+   }
+
+   @Override
+   protected BulkUpsert createBulkUpsert(Connection connection) throws SQLException {
+      // The merge of the staging table relies on ON CONFLICT
+      if (!COPY_AVAILABLE || !isUpsertSupported() || !PostgresCopyUpsert.isSupported(connection)) {
+         return null;
+      }
+      return new PostgresCopyUpsert<>(this, connection);
+   }
+
    @Override
    protected void dropIndex(Connection conn, String indexName) throws PersistenceException {
       String dropIndexDdl = String.format("DROP INDEX IF EXISTS  %s", getIndexName(dbMetadata.getMaxTableNameLength(), true, indexName));
@@ -40,6 +63,23 @@ public String initSelectRowSql() {
             config.idColumnName(), config.idColumnType());
    }
 
+   @Override
+   public String getSelectRowsSql(int keyCount) {
+      // The keys are bound as a single array, so the statement is the same whatever the number of keys
+      return String.format("SELECT %s, %s FROM %s WHERE %s = ANY(cast(? as %s[]))",
+            config.dataColumnName(), config.idColumnName(), dataTableName,
+            config.idColumnName(), config.idColumnType());
+   }
+
+   @Override
+   protected void prepareKeysStatement(PreparedStatement ps, List<?> keys) throws SQLException {
+      String[] keyStrings = new String[keys.size()];
+      for (int i = 0; i < keyStrings.length; i++) {
+         keyStrings[i] = key2Str(keys.get(i));
+      }
+      ps.setArray(1, ps.getConnection().createArrayOf("varchar", keyStrings));
+   }
+
    @Override
    public String initSelectIdRowSql() {
       return String.format("SELECT %s FROM %s WHERE %s = cast(? as %s)",
@@ -4,6 +4,7 @@
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collections;
 
 import org.infinispan.persistence.jdbc.common.JdbcUtil;
 import org.infinispan.persistence.jdbc.common.connectionfactory.ConnectionFactory;
@@ -42,6 +43,13 @@ protected String initSelectRowSql() {
                                    config.idColumnName(), config.idColumnType());
    }
 
+   @Override
+   public String getSelectRowsSql(int keyCount) {
+      String key = String.format("convert(%s,?)", config.idColumnType());
+      return String.format("SELECT %s, %s FROM %s WHERE %s IN (%s)", config.dataColumnName(), config.idColumnName(),
+            dataTableName, config.idColumnName(), String.join(",", Collections.nCopies(keyCount, key)));
+   }
+
    @Override
    protected String initSelectIdRowSql() {
       return String.format("SELECT %s FROM %s WHERE %s = convert(%s,?)",
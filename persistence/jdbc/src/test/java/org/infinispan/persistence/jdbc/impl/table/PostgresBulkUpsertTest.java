@@ -0,0 +1,97 @@
+package org.infinispan.persistence.jdbc.impl.table;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+
+import java.util.function.Function;
+
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.persistence.BaseNonBlockingStoreTest;
+import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfigurationBuilder;
+import org.infinispan.persistence.jdbc.stringbased.JdbcStringBasedStore;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.infinispan.test.TestingUtil;
+import org.postgresql.Driver;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import io.reactivex.rxjava3.core.Flowable;
+
+/**
+ * Tests the batches with more upserts than max-batch-size, which are written with a {@code COPY} on PostgreSQL.
+ * <p>
+ * The test is skipped unless a PostgreSQL database is provided with
+ * {@code -Dorg.infinispan.test.jdbc.postgres.url=jdbc:postgresql://host:5432/dbname
+ * -Dorg.infinispan.test.jdbc.postgres.username=username -Dorg.infinispan.test.jdbc.postgres.password=password}
+ *
+ * @since 15.0
+ */
+@Test(groups = "functional", testName = "persistence.jdbc.impl.table.PostgresBulkUpsertTest")
+public class PostgresBulkUpsertTest extends BaseNonBlockingStoreTest {
+   private static final String JDBC_URL = System.getProperty("org.infinispan.test.jdbc.postgres.url");
+   private static final String JDBC_USERNAME = System.getProperty("org.infinispan.test.jdbc.postgres.username");
+   private static final String JDBC_PASSWORD = System.getProperty("org.infinispan.test.jdbc.postgres.password");
+   private static final int MAX_BATCH_SIZE = 10;
+
+   @Override
+   protected JdbcStringBasedStore createStore() {
+      return new JdbcStringBasedStore();
+   }
+
+   @Override
+   protected Configuration buildConfig(ConfigurationBuilder configurationBuilder) {
+      if (JDBC_URL == null) {
+         throw new SkipException("No PostgreSQL database configured");
+      }
+      JdbcStringBasedStoreConfigurationBuilder storeBuilder = configurationBuilder
+            .persistence()
+            .addStore(JdbcStringBasedStoreConfigurationBuilder.class)
+            .maxBatchSize(MAX_BATCH_SIZE);
+      storeBuilder.segmented(true);
+      storeBuilder.connectionPool()
+            .driverClass(Driver.class)
+            .connectionUrl(JDBC_URL)
+            .username(JDBC_USERNAME)
+            .password(JDBC_PASSWORD);
+      storeBuilder.table()
+            .tableNamePrefix("ISPN_BULK")
+            .idColumnName("ID_COLUMN")
+            .idColumnType("VARCHAR(255)")
+            .dataColumnName("DATA_COLUMN")
+            .dataColumnType("BYTEA")
+            .timestampColumnName("TIMESTAMP_COLUMN")
+            .timestampColumnType("BIGINT")
+            .segmentColumnName("SEGMENT_COLUMN")
+            .segmentColumnType("INTEGER");
+      return configurationBuilder.build();
+   }
+
+   public void testBatchWithDeletesLargerThanMaxBatchSize() {
+      int numberOfEntries = MAX_BATCH_SIZE * 10;
+      int numberOfDeletes = MAX_BATCH_SIZE * 2;
+      for (int i = 0; i < numberOfDeletes; i++) {
+         store.write(marshalledEntry("removed" + i, "Val" + i));
+      }
+
+      // The deletes and the upserts share the connection, and most upserts are written after the switch to COPY
+      store.batchUpdate(segmentCount,
+            TestingUtil.multipleSegmentPublisher(Flowable.range(0, numberOfDeletes).map(i -> "removed" + i),
+                  Function.identity(), keyPartitioner),
+            TestingUtil.multipleSegmentPublisher(Flowable.range(0, numberOfEntries).map(i -> marshalledEntry(i.toString(), "Val" + i)),
+                  MarshallableEntry::getKey, keyPartitioner));
+
+      assertEquals(numberOfEntries, store.sizeWait(segments));
+      for (int i = 0; i < numberOfEntries; i++) {
+         assertEquals("Val" + i, store.loadEntry(Integer.toString(i)).getValue());
+      }
+      assertNull(store.loadEntry("removed0"));
+
+      // Upserting existing keys through COPY updates them
+      store.batchUpdate(segmentCount, Flowable.empty(),
+            TestingUtil.multipleSegmentPublisher(Flowable.range(0, numberOfEntries).map(i -> marshalledEntry(i.toString(), "NewVal" + i)),
+                  MarshallableEntry::getKey, keyPartitioner));
+      assertEquals(numberOfEntries, store.sizeWait(segments));
+      assertEquals("NewVal" + (numberOfEntries - 1), store.loadEntry(Integer.toString(numberOfEntries - 1)).getValue());
+   }
+}
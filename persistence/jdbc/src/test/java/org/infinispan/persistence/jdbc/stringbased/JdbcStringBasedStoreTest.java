@@ -17,23 +17,30 @@
 public class JdbcStringBasedStoreTest extends BaseNonBlockingStoreTest {
 
    boolean segmented;
+   int publishParallelism = 1;
 
    public JdbcStringBasedStoreTest segmented(boolean segmented) {
       this.segmented = segmented;
       return this;
    }
 
+   public JdbcStringBasedStoreTest publishParallelism(int publishParallelism) {
+      this.publishParallelism = publishParallelism;
+      return this;
+   }
+
    @Factory
    public Object[] factory() {
       return new Object[] {
             new JdbcStringBasedStoreTest().segmented(false),
             new JdbcStringBasedStoreTest().segmented(true),
+            new JdbcStringBasedStoreTest().segmented(true).publishParallelism(4),
       };
    }
 
    @Override
    protected String parameters() {
-      return "[" + segmented + "]";
+      return "[" + segmented + ", " + publishParallelism + "]";
    }
 
    @Override
@@ -47,6 +54,7 @@ protected Configuration buildConfig(ConfigurationBuilder configurationBuilder) {
             .persistence()
             .addStore(JdbcStringBasedStoreConfigurationBuilder.class);
       storeBuilder.segmented(segmented);
+      storeBuilder.publishParallelism(publishParallelism);
       UnitTestDatabaseManager.configureUniqueConnectionFactory(storeBuilder);
       UnitTestDatabaseManager.buildTableManipulation(storeBuilder.table());
       return configurationBuilder.build();
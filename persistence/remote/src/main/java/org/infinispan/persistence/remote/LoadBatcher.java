@@ -0,0 +1,100 @@
+package org.infinispan.persistence.remote;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import net.jcip.annotations.GuardedBy;
+
+/**
+ * Gathers the loads of different keys that happen within a window in a single get all operation, so that concurrent
+ * loads share a round trip to the remote cache.
+ * <p>
+ * The window starts with the first load of a batch, and the batch is sent when the window ends or as soon as it has
+ * the maximum number of keys. Loads of a key that is already in the pending batch share its result.
+ *
+ * @since 15.0
+ */
+class LoadBatcher {
+   private final Function<Collection<Object>, CompletionStage<Map<Object, Object>>> getAll;
+   private final long windowMicros;
+   private final int maxBatchSize;
+   private final ScheduledExecutorService timeoutExecutor;
+   private final Executor executor;
+
+   @GuardedBy("this")
+   private Map<Object, CompletableFuture<Object>> pending;
+
+   /**
+    * @param getAll          the operation returning the values of the given keys, without the keys that are absent
+    * @param timeoutExecutor the executor ending the windows, which only hands the batches over to {@code executor}
+    * @param executor        the executor sending the batches
+    */
+   LoadBatcher(Function<Collection<Object>, CompletionStage<Map<Object, Object>>> getAll, long windowMicros,
+         int maxBatchSize, ScheduledExecutorService timeoutExecutor, Executor executor) {
+      this.getAll = getAll;
+      this.windowMicros = windowMicros;
+      this.maxBatchSize = maxBatchSize;
+      this.timeoutExecutor = timeoutExecutor;
+      this.executor = executor;
+   }
+
+   /**
+    * @return a stage completed with the value of the key, or {@code null} if it is absent
+    */
+   CompletionStage<Object> get(Object key) {
+      CompletableFuture<Object> value;
+      Map<Object, CompletableFuture<Object>> full = null;
+      synchronized (this) {
+         if (pending == null) {
+            Map<Object, CompletableFuture<Object>> batch = new HashMap<>();
+            pending = batch;
+            timeoutExecutor.schedule(() -> executor.execute(() -> flush(batch)), windowMicros, TimeUnit.MICROSECONDS);
+         }
+         value = pending.computeIfAbsent(key, k -> new CompletableFuture<>());
+         if (pending.size() >= maxBatchSize) {
+            full = pending;
+            pending = null;
+         }
+      }
+      if (full != null) {
+         send(full);
+      }
+      return value;
+   }
+
+   private void flush(Map<Object, CompletableFuture<Object>> batch) {
+      synchronized (this) {
+         // The batch was already sent when it became full
+         if (pending != batch) {
+            return;
+         }
+         pending = null;
+      }
+      send(batch);
+   }
+
+   private void send(Map<Object, CompletableFuture<Object>> batch) {
+      CompletionStage<Map<Object, Object>> stage;
+      try {
+         stage = getAll.apply(batch.keySet());
+      } catch (Throwable t) {
+         stage = CompletableFuture.failedFuture(t);
+      }
+      stage.whenComplete((values, t) -> {
+         for (Map.Entry<Object, CompletableFuture<Object>> entry : batch.entrySet()) {
+            if (t != null) {
+               entry.getValue().completeExceptionally(t);
+            } else {
+               entry.getValue().complete(values.get(entry.getKey()));
+            }
+         }
+      });
+   }
+}
@@ -0,0 +1,116 @@
+package org.infinispan.persistence.remote;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryCreated;
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryModified;
+import org.infinispan.client.hotrod.annotation.ClientCacheFailover;
+import org.infinispan.client.hotrod.annotation.ClientListener;
+import org.infinispan.client.hotrod.event.ClientCacheEntryCreatedEvent;
+import org.infinispan.client.hotrod.event.ClientCacheEntryModifiedEvent;
+import org.infinispan.client.hotrod.event.ClientCacheFailoverEvent;
+import org.infinispan.commons.hash.MurmurHash3;
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.util.BloomFilter;
+import org.infinispan.persistence.remote.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import io.reactivex.rxjava3.core.Flowable;
+
+/**
+ * A bloom filter of the keys of the remote cache, so that the loads of the keys that are certainly absent from it don't
+ * need a round trip.
+ * <p>
+ * The filter is registered as a client listener of the remote cache and then populated by iterating over the remote
+ * keys, and it is only used once the iteration is complete. The keys created afterwards are added by the store before
+ * it writes them and by the events of the listener for the other clients, so a key written by another client is only
+ * found once its event is received. A removed key can't be removed from a bloom filter and remains possibly present.
+ * <p>
+ * Events may be lost when the listener fails over to another server, so the filter is then rebuilt from scratch.
+ *
+ * @since 15.0
+ */
+@ClientListener
+class RemoteKeyFilter {
+   private static final Log log = LogFactory.getLog(RemoteKeyFilter.class, Log.class);
+   private static final List<ToIntFunction<Object>> HASH_FUNCTIONS = List.of(
+         key -> key.hashCode() & Integer.MAX_VALUE,
+         key -> MurmurHash3.getInstance().hash(key) & Integer.MAX_VALUE);
+
+   private final String cacheName;
+   private final int bits;
+   private final Supplier<Flowable<Object>> remoteKeys;
+   private volatile BloomFilter<Object> filter;
+   // Whether the filter holds all the keys of the remote cache
+   private volatile boolean populated;
+
+   /**
+    * @param expectedKeys the expected number of keys of the remote cache
+    * @param remoteKeys   publishes all the keys of the remote cache, in the form of the keys of the store
+    */
+   RemoteKeyFilter(String cacheName, int expectedKeys, Supplier<Flowable<Object>> remoteKeys) {
+      this.cacheName = cacheName;
+      // About 10 bits per key
+      this.bits = (int) Math.min(Integer.MAX_VALUE, expectedKeys * 10L);
+      this.remoteKeys = remoteKeys;
+   }
+
+   /**
+    * Replaces the filter with an empty one and populates it with the keys of the remote cache in the background.
+    */
+   void populate() {
+      BloomFilter<Object> newFilter = BloomFilter.createConcurrentFilter(bits, HASH_FUNCTIONS);
+      populated = false;
+      filter = newFilter;
+      remoteKeys.get()
+            .subscribe(newFilter::addToFilter,
+                  t -> log.failedToPopulateKeyFilter(cacheName, t),
+                  () -> {
+                     // A failover may have replaced the filter during the iteration
+                     if (filter == newFilter) {
+                        populated = true;
+                        if (log.isTraceEnabled()) {
+                           log.tracef("Populated the key filter of the remote store of cache %s", cacheName);
+                        }
+                     }
+                  });
+   }
+
+   /**
+    * @return {@code false} if the key is certainly absent from the remote cache
+    */
+   boolean possiblyPresent(Object key) {
+      return !populated || filter.possiblyPresent(key);
+   }
+
+   /**
+    * Adds a key of the store, which must be invoked before the key is written to the remote cache.
+    */
+   void add(Object key) {
+      filter.addToFilter(key);
+   }
+
+   @ClientCacheEntryCreated
+   public void entryCreated(ClientCacheEntryCreatedEvent<Object> event) {
+      add(wrap(event.getKey()));
+   }
+
+   @ClientCacheEntryModified
+   public void entryModified(ClientCacheEntryModifiedEvent<Object> event) {
+      add(wrap(event.getKey()));
+   }
+
+   @ClientCacheFailover
+   public void failover(ClientCacheFailoverEvent event) {
+      if (log.isTraceEnabled()) {
+         log.tracef("Rebuilding the key filter of the remote store of cache %s after a failover", cacheName);
+      }
+      populate();
+   }
+
+   private static Object wrap(Object key) {
+      return key instanceof byte[] ? new WrappedByteArray((byte[]) key) : key;
+   }
+}
@@ -1,12 +1,16 @@
 package org.infinispan.persistence.remote;
 
+import java.util.Collection;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -31,6 +35,7 @@
 import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.util.EnumUtil;
 import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.IntSets;
 import org.infinispan.commons.util.Util;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.configuration.cache.ClusteringConfiguration;
@@ -40,6 +45,7 @@
 import org.infinispan.context.impl.FlagBitSets;
 import org.infinispan.encoding.impl.StorageConfigurationManager;
 import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.factories.impl.BasicComponentRegistry;
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.metadata.Metadata;
@@ -97,6 +103,12 @@
    private BlockingManager blockingManager;
    private int segmentCount;
    private boolean supportsSegmentation;
+   // The number of segments of the remote cache, or null if unknown
+   private Integer remoteSegmentCount;
+   // Null if the loads are not batched
+   private LoadBatcher loadBatcher;
+   // Null if the keys of the remote cache are not tracked
+   private RemoteKeyFilter keyFilter;
 
    @Override
    public CompletionStage<Void> start(InitializationContext ctx) {
@@ -154,6 +166,7 @@ public CompletionStage<Void> start(InitializationContext ctx) {
 
                DataFormat.Builder dataFormatBuilder = DataFormat.builder().from(remoteCache.getDataFormat());
                Integer numSegments = remoteCache.getCacheTopologyInfo().getNumSegments();
+               remoteSegmentCount = numSegments;
                boolean segmentsMatch;
                if (numSegments == null) {
                   log.debugf("Remote Store for cache %s cannot support segmentation as the number of segments was not found from the remote cache", cacheName);
@@ -202,6 +215,24 @@ public CompletionStage<Void> start(InitializationContext ctx) {
                   log.tracef("Data format for RemoteStore on cache %s is %s", cacheName, dataFormat);
                }
                remoteCache = remoteCache.withDataFormat(dataFormat);
+               if (configuration.loadBatchWindow() > 0 && !configuration.rawValues()) {
+                  ScheduledExecutorService timeoutExecutor = ComponentRegistry.componentOf(ctx.getCache(),
+                        ScheduledExecutorService.class, KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR);
+                  loadBatcher = new LoadBatcher(this::getAll, configuration.loadBatchWindow(),
+                        configuration.maxBatchSize(), timeoutExecutor, nonBlockingExecutor);
+               }
+            }).thenCompose(ignore -> {
+               if (configuration.keyFilterCapacity() == 0) {
+                  return CompletableFutures.completedNull();
+               }
+               RemoteKeyFilter filter = new RemoteKeyFilter(ctx.getCache().getName(), configuration.keyFilterCapacity(),
+                     () -> publishKeys(IntSets.immutableRangeSet(segmentCount), null).map(k -> k));
+               // The listener must be registered before the iteration, so that no key created meanwhile is missed
+               return blockingManager.runBlocking(() -> remoteCache.addClientListener(filter), "RemoteStore-addListener")
+                     .thenRun(() -> {
+                        filter.populate();
+                        keyFilter = filter;
+                     });
             });
    }
 
@@ -222,6 +253,10 @@ public Set<Characteristic> characteristics() {
    @Override
    public CompletionStage<Void> stop() {
       return blockingManager.runBlocking(() -> {
+         if (keyFilter != null) {
+            remoteCache.removeClientListener(keyFilter);
+            keyFilter = null;
+         }
          // when it failed to start
          if (remoteCacheManager != null) {
             remoteCacheManager.stop();
@@ -239,8 +274,27 @@ public CompletionStage<Boolean> isAvailable() {
       }
    }
 
+   private boolean possiblyPresent(Object key) {
+      RemoteKeyFilter filter = keyFilter;
+      return filter == null || filter.possiblyPresent(key);
+   }
+
+   private void addToKeyFilter(Object key) {
+      RemoteKeyFilter filter = keyFilter;
+      if (filter != null) {
+         filter.add(key);
+      }
+   }
+
    @Override
    public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
+      if (!possiblyPresent(key)) {
+         return CompletableFutures.completedNull();
+      }
+      if (loadBatcher != null) {
+         return loadBatcher.get(key)
+               .thenApplyAsync(value -> value == null ? null : createEntry(key, value), nonBlockingExecutor);
+      }
       if (configuration.rawValues()) {
          Object unwrappedKey = unwrap(key);
          return remoteCache.getWithMetadataAsync(unwrappedKey).thenApplyAsync(metadataValue -> {
@@ -259,20 +313,54 @@ public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
       } else {
          Object unwrappedKey = unwrap(key);
          return remoteCache.getAsync(unwrappedKey)
-               .thenApplyAsync(value -> {
-                  if (value == null) {
-                     return null;
-                  }
-                  if (value instanceof MarshalledValue) {
-                     return entryFactory.create(key, (MarshalledValue) value);
-                  }
-                  return entryFactory.create(key, value);
-               }, nonBlockingExecutor);
+               .thenApplyAsync(value -> value == null ? null : createEntry(key, value), nonBlockingExecutor);
+      }
+   }
+
+   private MarshallableEntry<K, V> createEntry(Object key, Object value) {
+      if (value instanceof MarshalledValue) {
+         return entryFactory.create(key, (MarshalledValue) value);
       }
+      return entryFactory.create(key, value);
+   }
+
+   /**
+    * Returns the values of the given keys, in the form of the keys of the store, without the absent keys.
+    */
+   private CompletionStage<Map<Object, Object>> getAll(Collection<Object> keys) {
+      Set<Object> unwrappedKeys = new HashSet<>(keys.size());
+      for (Object key : keys) {
+         unwrappedKeys.add(unwrap(key));
+      }
+      return remoteCache.getAllAsync(unwrappedKeys).thenApply(values -> {
+         Map<Object, Object> wrappedValues = new HashMap<>(values.size());
+         values.forEach((k, v) -> wrappedValues.put(wrap(k), v));
+         return wrappedValues;
+      });
+   }
+
+   @Override
+   public Publisher<MarshallableEntry<K, V>> bulkLoad(int publisherCount,
+         Publisher<SegmentedPublisher<Object>> keyPublisher) {
+      if (configuration.rawValues()) {
+         // Get all does not return the metadata of the entries
+         return NonBlockingStore.super.bulkLoad(publisherCount, keyPublisher);
+      }
+      return Flowable.fromPublisher(keyPublisher)
+            .flatMap(Flowable::fromPublisher, publisherCount)
+            .filter(this::possiblyPresent)
+            .buffer(configuration.maxBatchSize())
+            .flatMap(keys -> Flowable.fromCompletionStage(getAll(keys)), publisherCount)
+            .observeOn(Schedulers.from(nonBlockingExecutor))
+            .flatMapIterable(Map::entrySet)
+            .map(e -> createEntry(e.getKey(), e.getValue()));
    }
 
    @Override
    public CompletionStage<Boolean> containsKey(int segment, Object key) {
+      if (!possiblyPresent(key)) {
+         return CompletableFutures.completedFalse();
+      }
       key = unwrap(key);
       return remoteCache.containsKeyAsync(key)
             .thenApplyAsync(Function.identity(), nonBlockingExecutor);
@@ -282,8 +370,8 @@ public CompletionStage<Boolean> containsKey(int segment, Object key) {
    public Flowable<K> publishKeys(IntSet segments, Predicate<? super K> filter) {
       // We assume our segments don't map to the remote node when segmentation is disabled
       IntSet segmentsToUse = configuration.segmented() ? segments : null;
-      Flowable<K> keyFlowable = Flowable.fromPublisher(remoteCache.publishEntries(Codec27.EMPTY_VALUE_CONVERTER,
-                  null, segmentsToUse, 512))
+      Flowable<K> keyFlowable = this.<Map.Entry<Object, Object>>publishSegmentRanges(segmentsToUse,
+                  range -> remoteCache.publishEntries(Codec27.EMPTY_VALUE_CONVERTER, null, range, 512))
             .observeOn(Schedulers.from(nonBlockingExecutor))
             .map(Map.Entry::getKey)
             .map(RemoteStore::wrap);
@@ -299,7 +387,8 @@ public Publisher<MarshallableEntry<K, V>> publishEntries(IntSet segments, Predic
       // We assume our segments don't map to the remote node when segmentation is disabled
       IntSet segmentsToUse = configuration.segmented() ? segments : null;
       if (configuration.rawValues()) {
-         Flowable<Map.Entry<Object, MetadataValue<Object>>> entryFlowable = Flowable.fromPublisher(remoteCache.publishEntriesWithMetadata(segmentsToUse, 512));
+         Flowable<Map.Entry<Object, MetadataValue<Object>>> entryFlowable = publishSegmentRanges(segmentsToUse,
+               range -> remoteCache.publishEntriesWithMetadata(range, 512));
          if (filter != null) {
             entryFlowable = entryFlowable.filter(e -> filter.test(wrap(e.getKey())));
          }
@@ -315,8 +404,8 @@ public Publisher<MarshallableEntry<K, V>> publishEntries(IntSet segments, Predic
             return entryFactory.create(wrap(e.getKey()), wrap(realValue), metadata, null, created, lastUsed);
          });
       } else {
-         Flowable<Map.Entry<Object, Object>> entryFlowable = Flowable.fromPublisher(
-               remoteCache.publishEntries(null, null, segmentsToUse, 512));
+         Flowable<Map.Entry<Object, Object>> entryFlowable = publishSegmentRanges(segmentsToUse,
+               range -> remoteCache.publishEntries(null, null, range, 512));
          if (filter != null) {
             entryFlowable = entryFlowable.filter(e -> filter.test(wrap(e.getKey())));
          }
@@ -326,6 +415,25 @@ public Publisher<MarshallableEntry<K, V>> publishEntries(IntSet segments, Predic
       }
    }
 
+   /**
+    * Splits the segments in up to publish-parallelism ranges that are iterated in parallel. The Hot Rod client already
+    * iterates each remote server in parallel, so each range adds an iteration per server.
+    *
+    * @param segments the segments of the remote cache to iterate, or {@code null} for all of them
+    */
+   private <E> Flowable<E> publishSegmentRanges(IntSet segments, Function<IntSet, Publisher<E>> publisher) {
+      int parallelism = configuration.publishParallelism();
+      if (parallelism > 1 && segments == null && remoteSegmentCount != null) {
+         segments = IntSets.immutableRangeSet(remoteSegmentCount);
+      }
+      if (parallelism == 1 || segments == null || segments.size() <= 1) {
+         return Flowable.fromPublisher(publisher.apply(segments));
+      }
+      List<IntSet> ranges = IntSets.split(segments, parallelism);
+      return Flowable.fromIterable(ranges)
+            .flatMap(publisher::apply, ranges.size());
+   }
+
    private static <T> T wrap(Object obj) {
       if (obj instanceof byte[]) {
          obj = new WrappedByteArray((byte[]) obj);
@@ -380,6 +488,7 @@ public CompletionStage<Void> write(int segment, MarshallableEntry<? extends K, ?
       long maxIdle = metadata != null ? toSeconds(metadata.maxIdle(), entry.getKey(), MAXIDLE) : -1;
       Object key = getKey(entry);
       Object value = getValue(entry);
+      addToKeyFilter(entry.getKey());
 
       return remoteCache.putAsync(key, value, lifespan, TimeUnit.SECONDS, maxIdle, TimeUnit.SECONDS)
             .thenApplyAsync(CompletableFutures.toNullFunction(), nonBlockingExecutor);
@@ -406,6 +515,7 @@ public CompletionStage<Void> batch(int publisherCount, Publisher<SegmentedPublis
 
       Completable putCompletable = Flowable.fromPublisher(writePublisher)
             .flatMap(Flowable::fromPublisher, publisherCount)
+            .doOnNext(me -> addToKeyFilter(me.getKey()))
             .groupBy(MarshallableEntry::getMetadata)
             .flatMapCompletable(meFlowable -> meFlowable.buffer(configuration.maxBatchSize())
                   .flatMapCompletable(meList -> {
@@ -22,9 +22,11 @@ public enum Attribute {
    FORCE_RETURN_VALUES("force-return-values"),
    HOST("host"),
    HOTROD_WRAPPING("hotrod-wrapping"),
+   LOAD_BATCH_WINDOW("load-batch-window"),
    FILENAME("filename"),
    CERTIFICATE_PASSWORD("certificate-password"),
    KEY_ALIAS("key-alias"),
+   KEY_FILTER_CAPACITY("key-filter-capacity"),
    TYPE("type"),
    MARSHALLER("marshaller"),
    MAX_ACTIVE("max-active"),
@@ -45,6 +47,7 @@ public enum Attribute {
    PORT("port"),
    PROTOCOL("protocol"),
    PROTOCOL_VERSION("protocol-version"),
+   PUBLISH_PARALLELISM("publish-parallelism"),
    RAW_VALUES("raw-values"),
    REALM("realm"),
    REMOTE_CACHE_CONTAINER("remote-cache-container"),
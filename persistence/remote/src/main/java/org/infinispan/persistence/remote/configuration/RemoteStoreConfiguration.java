@@ -1,5 +1,7 @@
 package org.infinispan.persistence.remote.configuration;
 
+import static org.infinispan.commons.configuration.attributes.AttributeValidator.greaterThanZero;
+
 import java.util.List;
 
 import org.infinispan.client.hotrod.ProtocolVersion;
@@ -44,10 +46,15 @@ public class RemoteStoreConfiguration extends AbstractStoreConfiguration<RemoteS
 
    static final AttributeDefinition<Long> SOCKET_TIMEOUT = AttributeDefinition.builder(org.infinispan.persistence.remote.configuration.Attribute.SOCKET_TIMEOUT, (long) ConfigurationProperties.DEFAULT_SO_TIMEOUT).build();
    static final AttributeDefinition<Boolean> TCP_NO_DELAY = AttributeDefinition.builder(org.infinispan.persistence.remote.configuration.Attribute.TCP_NO_DELAY, true).build();
+   static final AttributeDefinition<Long> LOAD_BATCH_WINDOW = AttributeDefinition.builder(org.infinispan.persistence.remote.configuration.Attribute.LOAD_BATCH_WINDOW, 0L).immutable().build();
+   static final AttributeDefinition<Integer> PUBLISH_PARALLELISM = AttributeDefinition.builder(org.infinispan.persistence.remote.configuration.Attribute.PUBLISH_PARALLELISM, 1)
+         .validator(greaterThanZero(org.infinispan.persistence.remote.configuration.Attribute.PUBLISH_PARALLELISM)).immutable().build();
+   static final AttributeDefinition<Integer> KEY_FILTER_CAPACITY = AttributeDefinition.builder(org.infinispan.persistence.remote.configuration.Attribute.KEY_FILTER_CAPACITY, 0).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
       return new AttributeSet(RemoteStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), BALANCING_STRATEGY, CONNECTION_TIMEOUT, FORCE_RETURN_VALUES,
-            HOTROD_WRAPPING, RAW_VALUES, KEY_SIZE_ESTIMATE, MARSHALLER, PROTOCOL_VERSION, REMOTE_CACHE_CONTAINER, REMOTE_CACHE_NAME, SOCKET_TIMEOUT, TCP_NO_DELAY, VALUE_SIZE_ESTIMATE, URI);
+            HOTROD_WRAPPING, RAW_VALUES, KEY_SIZE_ESTIMATE, MARSHALLER, PROTOCOL_VERSION, REMOTE_CACHE_CONTAINER, REMOTE_CACHE_NAME, SOCKET_TIMEOUT, TCP_NO_DELAY, VALUE_SIZE_ESTIMATE, URI,
+            LOAD_BATCH_WINDOW, PUBLISH_PARALLELISM, KEY_FILTER_CAPACITY);
    }
 
    private final ConnectionPoolConfiguration connectionPool;
@@ -141,6 +148,29 @@ public boolean tcpNoDelay() {
       return attributes.attribute(TCP_NO_DELAY).get();
    }
 
+   /**
+    * @return the time in microseconds during which the concurrent loads are gathered in a single remote get all, or 0
+    * if each load is sent on its own
+    */
+   public long loadBatchWindow() {
+      return attributes.attribute(LOAD_BATCH_WINDOW).get();
+   }
+
+   /**
+    * @return the number of segment ranges of the remote cache that are iterated in parallel
+    */
+   public int publishParallelism() {
+      return attributes.attribute(PUBLISH_PARALLELISM).get();
+   }
+
+   /**
+    * @return the expected number of keys of the remote cache tracked by the bloom filter that skips the loads of absent
+    * keys, or 0 if the loads are always sent to the remote cache
+    */
+   public int keyFilterCapacity() {
+      return attributes.attribute(KEY_FILTER_CAPACITY).get();
+   }
+
    /**
     * @deprecated Since 12.0, does nothing and will be removed in 15.0
     */
@@ -2,13 +2,17 @@
 
 import static org.infinispan.configuration.cache.AbstractStoreConfiguration.PROPERTIES;
 import static org.infinispan.configuration.cache.AbstractStoreConfiguration.SEGMENTED;
+import static org.infinispan.configuration.cache.AbstractStoreConfiguration.SHARED;
 import static org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration.BALANCING_STRATEGY;
 import static org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration.CONNECTION_TIMEOUT;
 import static org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration.FORCE_RETURN_VALUES;
 import static org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration.HOTROD_WRAPPING;
+import static org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration.KEY_FILTER_CAPACITY;
 import static org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration.KEY_SIZE_ESTIMATE;
+import static org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration.LOAD_BATCH_WINDOW;
 import static org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration.MARSHALLER;
 import static org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration.PROTOCOL_VERSION;
+import static org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration.PUBLISH_PARALLELISM;
 import static org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration.RAW_VALUES;
 import static org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration.REMOTE_CACHE_CONTAINER;
 import static org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration.REMOTE_CACHE_NAME;
@@ -21,6 +25,7 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.client.hotrod.ProtocolVersion;
 import org.infinispan.client.hotrod.impl.ConfigurationProperties;
@@ -163,6 +168,38 @@ public RemoteStoreConfigurationBuilder tcpNoDelay(boolean tcpNoDelay) {
       return this;
    }
 
+   /**
+    * Gathers the loads of the store that happen within the given window in a single get all operation, so that the
+    * concurrent loads of different keys share a round trip to the remote cache. The first load of a batch waits for up to
+    * the window, and a batch is sent as soon as it has max-batch-size keys. Defaults to 0, which sends each load on its
+    * own. Ignored when raw values are enabled, as get all does not return the metadata of the entries.
+    */
+   public RemoteStoreConfigurationBuilder loadBatchWindow(long window, TimeUnit unit) {
+      attributes.attribute(LOAD_BATCH_WINDOW).set(unit.toMicros(window));
+      return this;
+   }
+
+   /**
+    * The number of segment ranges of the remote cache that are iterated in parallel when iterating over or preloading
+    * the store, each range with its own iteration on each remote server. Defaults to 1.
+    */
+   public RemoteStoreConfigurationBuilder publishParallelism(int publishParallelism) {
+      attributes.attribute(PUBLISH_PARALLELISM).set(publishParallelism);
+      return this;
+   }
+
+   /**
+    * Tracks the keys of the remote cache in a bloom filter sized for the given number of keys, so that the loads of
+    * the keys that are not in the remote cache don't need a round trip. The filter is populated by iterating over the
+    * remote keys on start and then kept up to date with a client listener, so a key written by another client is only
+    * found once its event is received. The filter can't be enabled on a shared store, as the other nodes write to the
+    * same remote cache, so only local caches can use it. Defaults to 0, which disables the filter.
+    */
+   public RemoteStoreConfigurationBuilder keyFilterCapacity(int keyFilterCapacity) {
+      attributes.attribute(KEY_FILTER_CAPACITY).set(keyFilterCapacity);
+      return this;
+   }
+
    /**
     * @deprecated Since 12.0, does nothing and will be removed in 15.0
     */
@@ -244,6 +281,18 @@ public void validate() {
          throw CONFIG.segmentationNotSupportedWithGroups();
       }
 
+      if (attributes.attribute(LOAD_BATCH_WINDOW).get() < 0) {
+         throw CONFIG.negativeLoadBatchWindow();
+      }
+
+      if (attributes.attribute(KEY_FILTER_CAPACITY).get() < 0) {
+         throw CONFIG.negativeKeyFilterCapacity();
+      }
+
+      if (attributes.attribute(KEY_FILTER_CAPACITY).get() > 0 && attributes.attribute(SHARED).get()) {
+         throw CONFIG.keyFilterNotSupportedWithSharedStore();
+      }
+
       ProtocolVersion version = attributes.attribute(PROTOCOL_VERSION).get();
       ProtocolVersion minimumVersion = ProtocolVersion.PROTOCOL_VERSION_23;
       if (attributes.attribute(SEGMENTED).get() && version.compareTo(minimumVersion) < 0) {
@@ -3,6 +3,8 @@
 import static org.infinispan.persistence.remote.configuration.RemoteStoreConfigurationParser.NAMESPACE;
 import static org.infinispan.persistence.remote.logging.Log.CONFIG;
 
+import java.util.concurrent.TimeUnit;
+
 import org.infinispan.client.hotrod.ProtocolVersion;
 import org.infinispan.commons.configuration.io.ConfigurationReader;
 import org.infinispan.commons.util.Util;
@@ -480,6 +482,18 @@ private void parseRemoteStoreAttributes(ConfigurationReader reader, RemoteStoreC
                builder.uri(value);
                break;
             }
+            case LOAD_BATCH_WINDOW: {
+               builder.loadBatchWindow(Long.parseLong(value), TimeUnit.MICROSECONDS);
+               break;
+            }
+            case PUBLISH_PARALLELISM: {
+               builder.publishParallelism(Integer.parseInt(value));
+               break;
+            }
+            case KEY_FILTER_CAPACITY: {
+               builder.keyFilterCapacity(Integer.parseInt(value));
+               break;
+            }
             default: {
                Parser.parseStoreAttribute(reader, i, builder);
                break;
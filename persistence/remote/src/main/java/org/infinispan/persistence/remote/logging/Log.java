@@ -2,6 +2,7 @@
 
 import static org.infinispan.util.logging.Log.LOG_ROOT;
 import static org.jboss.logging.Logger.Level.INFO;
+import static org.jboss.logging.Logger.Level.WARN;
 
 import org.infinispan.client.hotrod.ProtocolVersion;
 import org.infinispan.commons.CacheConfigurationException;
@@ -10,6 +11,7 @@
 import org.infinispan.commons.marshall.Marshaller;
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.Logger;
+import org.jboss.logging.annotations.Cause;
 import org.jboss.logging.annotations.LogMessage;
 import org.jboss.logging.annotations.Message;
 import org.jboss.logging.annotations.MessageLogger;
@@ -68,4 +70,17 @@ public interface Log extends BasicLogger {
 
    @Message(value = "The remote cache container with name '%s' was not found", id = 10015)
    CacheConfigurationException unknownRemoteCacheManagerContainer(String name);
+
+   @Message(value = "The key filter capacity of a RemoteStore must not be negative", id = 10016)
+   CacheConfigurationException negativeKeyFilterCapacity();
+
+   @Message(value = "The load batch window of a RemoteStore must not be negative", id = 10017)
+   CacheConfigurationException negativeLoadBatchWindow();
+
+   @LogMessage(level = WARN)
+   @Message(value = "Unable to populate the key filter of the RemoteStore of cache %s, all the loads will query the remote cache", id = 10018)
+   void failedToPopulateKeyFilter(String cacheName, @Cause Throwable cause);
+
+   @Message(value = "The key filter of a RemoteStore can't be enabled on a shared store, as a node would not find the keys written by the other nodes until it receives their events", id = 10019)
+   CacheConfigurationException keyFilterNotSupportedWithSharedStore();
 }
@@ -5,6 +5,7 @@
 import org.infinispan.client.hotrod.ProtocolVersion;
 import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
 import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
 import org.infinispan.manager.EmbeddedCacheManager;
@@ -75,6 +76,17 @@ public void testSegmentedWithGroups() {
       cb.build();
    }
 
+   @Test(expectedExceptions = CacheConfigurationException.class, expectedExceptionsMessageRegExp = ".*ISPN010019.*")
+   public void testKeyFilterWithSharedStore() {
+      ConfigurationBuilder cb = new ConfigurationBuilder();
+      cb.clustering().cacheMode(CacheMode.DIST_SYNC);
+      cb.persistence()
+            .addStore(RemoteStoreConfigurationBuilder.class)
+            .shared(true)
+            .keyFilterCapacity(1000);
+      cb.build();
+   }
+
    @Override
    public void testPurgeWithConcurrentUpdate() {
       // This test doesn't work as RemoteStore expiration is only on access and purgeExpired does nothing
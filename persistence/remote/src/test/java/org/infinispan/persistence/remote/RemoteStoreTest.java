@@ -1,15 +1,30 @@
 package org.infinispan.persistence.remote;
 
 import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertNull;
 import static org.testng.AssertJUnit.assertTrue;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.function.ToIntBiFunction;
 
 import org.infinispan.AdvancedCache;
+import org.infinispan.client.hotrod.impl.InternalRemoteCache;
 import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
 import org.infinispan.commons.dataconversion.MediaType;
 import org.infinispan.commons.marshall.ProtoStreamMarshaller;
@@ -30,12 +45,15 @@
 import org.infinispan.persistence.BaseNonBlockingStoreTest;
 import org.infinispan.persistence.internal.PersistenceUtil;
 import org.infinispan.persistence.remote.configuration.RemoteStoreConfigurationBuilder;
+import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.NonBlockingStore;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.protostream.ProtobufUtil;
 import org.infinispan.server.hotrod.HotRodServer;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.concurrent.CompletionStages;
+import org.mockito.ArgumentCaptor;
 import org.testng.SkipException;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.Factory;
@@ -57,6 +75,8 @@ public class RemoteStoreTest extends BaseNonBlockingStoreTest {
    private boolean segmented;
    private MediaType cacheMediaType;
    private boolean isRawValues;
+   private boolean batchedAccess;
+   private boolean keyFilter;
 
    private ProtoStreamMarshaller marshaller = new ProtoStreamMarshaller(ProtobufUtil.newSerializationContext());
 
@@ -75,6 +95,16 @@ public RemoteStoreTest rawValues(boolean isRawValues) {
       return this;
    }
 
+   public RemoteStoreTest batchedAccess(boolean batchedAccess) {
+      this.batchedAccess = batchedAccess;
+      return this;
+   }
+
+   public RemoteStoreTest keyFilter(boolean keyFilter) {
+      this.keyFilter = keyFilter;
+      return this;
+   }
+
    @Factory
    public Object[] factory() {
       return new Object[] {
@@ -86,12 +116,15 @@ public Object[] factory() {
             new RemoteStoreTest().segmented(true).cacheMediaType(MediaType.APPLICATION_OBJECT).rawValues(false),
             new RemoteStoreTest().segmented(true).cacheMediaType(MediaType.APPLICATION_PROTOSTREAM).rawValues(true),
             new RemoteStoreTest().segmented(true).cacheMediaType(MediaType.APPLICATION_PROTOSTREAM).rawValues(false),
+            new RemoteStoreTest().segmented(false).cacheMediaType(MediaType.APPLICATION_PROTOSTREAM).rawValues(false).batchedAccess(true),
+            new RemoteStoreTest().segmented(true).cacheMediaType(MediaType.APPLICATION_PROTOSTREAM).rawValues(false).batchedAccess(true),
+            new RemoteStoreTest().segmented(false).cacheMediaType(MediaType.APPLICATION_PROTOSTREAM).rawValues(false).keyFilter(true),
       };
    }
 
    @Override
    protected String parameters() {
-      return "[" + segmented + ", " + cacheMediaType + ", " + isRawValues + "]";
+      return "[" + segmented + ", " + cacheMediaType + ", " + isRawValues + ", " + batchedAccess + ", " + keyFilter + "]";
    }
 
    @Override
@@ -134,7 +167,18 @@ protected Configuration buildConfig(ConfigurationBuilder cb) {
             .port(hrServer.getPort());
 
       storeConfigurationBuilder.segmented(segmented);
-      storeConfigurationBuilder.shared(true);
+      if (keyFilter) {
+         // The key filter would miss the keys written by the other nodes to a shared store, which a clustered cache requires
+         cb.clustering().cacheMode(CacheMode.LOCAL);
+         storeConfigurationBuilder.keyFilterCapacity(1000);
+      } else {
+         storeConfigurationBuilder.shared(true);
+      }
+      if (batchedAccess) {
+         storeConfigurationBuilder
+               .loadBatchWindow(1, TimeUnit.MILLISECONDS)
+               .publishParallelism(4);
+      }
 
       return cb.build();
    }
@@ -280,6 +324,58 @@ public void testApproximateSize() {
       assertEquals(-1L, store.approximateSizeWait(segments));
    }
 
+   public void testConcurrentLoadsShareGetAll() {
+      if (!batchedAccess) {
+         throw new SkipException("The loads are only batched with a load batch window");
+      }
+      int numKeys = 5;
+      for (int i = 0; i < numKeys; ++i) {
+         store.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, -1)));
+      }
+      InternalRemoteCache<Object, Object> remoteCache = spyRemoteCache();
+      // The window only ends when the test runs the task scheduled by the first load
+      ScheduledExecutorService timeoutExecutor = mock(ScheduledExecutorService.class);
+      LoadBatcher loadBatcher = TestingUtil.extractField(store.delegate(), "loadBatcher");
+      TestingUtil.replaceField(timeoutExecutor, "timeoutExecutor", loadBatcher, LoadBatcher.class);
+
+      List<CompletionStage<MarshallableEntry<Object, Object>>> loads = new ArrayList<>(numKeys);
+      for (int i = 0; i < numKeys; ++i) {
+         loads.add(store.delegate().load(getKeySegment("k" + i), keyToStorage("k" + i)));
+      }
+      ArgumentCaptor<Runnable> endOfWindow = ArgumentCaptor.forClass(Runnable.class);
+      verify(timeoutExecutor).schedule(endOfWindow.capture(), anyLong(), eq(TimeUnit.MICROSECONDS));
+      endOfWindow.getValue().run();
+
+      for (int i = 0; i < numKeys; ++i) {
+         assertEquals(valueToStorage("v" + i), CompletionStages.join(loads.get(i)).getValue());
+      }
+      verify(remoteCache).getAllAsync(anySet());
+      verify(remoteCache, never()).getAsync(any());
+   }
+
+   public void testLoadsOfAbsentKeysDontReachServer() {
+      if (!keyFilter) {
+         throw new SkipException("The remote keys are only tracked with a key filter");
+      }
+      store.write(marshalledEntry(internalCacheEntry("k0", "v0", -1)));
+      RemoteKeyFilter keyFilter = TestingUtil.extractField(store.delegate(), "keyFilter");
+      eventually(() -> TestingUtil.<Boolean>extractField(keyFilter, "populated"));
+      InternalRemoteCache<Object, Object> remoteCache = spyRemoteCache();
+
+      for (int i = 0; i < 100; ++i) {
+         assertNull(store.loadEntry(keyToStorage("absent" + i)));
+      }
+      verifyNoInteractions(remoteCache);
+      assertEquals(valueToStorage("v0"), store.loadEntry(keyToStorage("k0")).getValue());
+   }
+
+   private InternalRemoteCache<Object, Object> spyRemoteCache() {
+      InternalRemoteCache<Object, Object> remoteCache = spy(
+            TestingUtil.<InternalRemoteCache<Object, Object>>extractField(store.delegate(), "remoteCache"));
+      TestingUtil.replaceField(remoteCache, "remoteCache", store.delegate(), RemoteStore.class);
+      return remoteCache;
+   }
+
    @Override
    protected void purgeExpired(InternalCacheEntry... expiredEntries) {
       // RemoteStore does nothing for purgeExpired
@@ -11,8 +11,10 @@
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -35,6 +37,7 @@
 import org.infinispan.commons.util.AbstractIterator;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
+import org.infinispan.commons.util.ProcessorInfo;
 import org.infinispan.commons.util.Util;
 import org.infinispan.commons.util.Version;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
@@ -55,6 +58,7 @@
 import org.infinispan.protostream.annotations.ProtoFactory;
 import org.infinispan.protostream.annotations.ProtoField;
 import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.infinispan.util.concurrent.AggregateCompletionStage;
 import org.infinispan.util.concurrent.BlockingManager;
 import org.infinispan.util.concurrent.CompletionStages;
 import org.infinispan.util.logging.LogFactory;
@@ -73,7 +77,6 @@
 import org.rocksdb.WriteOptions;
 
 import io.reactivex.rxjava3.core.Flowable;
-import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.processors.FlowableProcessor;
 import io.reactivex.rxjava3.processors.UnicastProcessor;
 
@@ -88,6 +91,8 @@
    static final String COLUMN_FAMILY_PROPERTY_NAME_WITH_SUFFIX = "data.";
    static final byte[] META_COLUMN_FAMILY = "meta-cf".getBytes();
    static final byte[] META_COLUMN_FAMILY_KEY = "metadata".getBytes();
+   // Number of expired keys loaded with a single multiGet when purging
+   private static final int PURGE_MULTI_GET_SIZE = 64;
 
    protected RocksDBStoreConfiguration configuration;
    private RocksDB db;
@@ -244,7 +249,8 @@ private Path getExpirationLocation() {
 
    private WriteOptions dataWriteOptions() {
       if (dataWriteOptions == null)
-         dataWriteOptions = new WriteOptions().setDisableWAL(false);
+         // The data is discarded on restart anyway, so the write-ahead log is only overhead
+         dataWriteOptions = new WriteOptions().setDisableWAL(configuration.purgeOnStartup());
       return dataWriteOptions;
    }
 
@@ -351,20 +357,35 @@ public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
       return handler.load(segment, key);
    }
 
+   /**
+    * The modifications are split in one {@link WriteBatch} per column family, that is per segment when the store is
+    * segmented, and the batches are written in parallel. The expiration entries are added once all the batches are
+    * written.
+    */
    @Override
    public CompletionStage<Void> batch(int publisherCount, Publisher<SegmentedPublisher<Object>> removePublisher,
          Publisher<SegmentedPublisher<MarshallableEntry<K, V>>> writePublisher) {
-      WriteBatch batch = new WriteBatch();
+      Map<ColumnFamilyHandle, WriteBatch> batches = new IdentityHashMap<>();
       Set<MarshallableEntry<K, V>> expirableEntries = new HashSet<>();
       Flowable.fromPublisher(removePublisher)
             .subscribe(sp -> {
                ColumnFamilyHandle handle = handler.getHandle(sp.getSegment());
+               if (handle == null) {
+                  log.tracef("Ignoring removes of segment %d as handle is not currently configured", sp.getSegment());
+                  return;
+               }
+               WriteBatch batch = batches.computeIfAbsent(handle, ignore -> new WriteBatch());
                Flowable.fromPublisher(sp)
                      .subscribe(removed -> batch.delete(handle, marshall(removed)));
             });
       Flowable.fromPublisher(writePublisher)
             .subscribe(sp -> {
                ColumnFamilyHandle handle = handler.getHandle(sp.getSegment());
+               if (handle == null) {
+                  log.tracef("Ignoring writes of segment %d as handle is not currently configured", sp.getSegment());
+                  return;
+               }
+               WriteBatch batch = batches.computeIfAbsent(handle, ignore -> new WriteBatch());
                Flowable.fromPublisher(sp)
                      .subscribe(me -> {
                         batch.put(handle, marshall(me.getKey()), marshall(me.getMarshalledValue()));
@@ -373,20 +394,34 @@ public CompletionStage<Void> batch(int publisherCount, Publisher<SegmentedPublis
                         }
                      });
             });
-      if (batch.count() <= 0) {
-         batch.close();
-         return CompletableFutures.completedNull();
-      }
-      return blockingManager.runBlocking(() -> {
-         try {
-            db.write(dataWriteOptions(), batch);
-            for (MarshallableEntry<K, V> me : expirableEntries) {
-               addNewExpiry(expiredDb, me);
-            }
-         } catch (RocksDBException e) {
-            throw new PersistenceException(e);
+      AggregateCompletionStage<Void> batchesWritten = CompletionStages.aggregateCompletionStage();
+      for (WriteBatch batch : batches.values()) {
+         if (batch.count() > 0) {
+            batchesWritten.dependsOn(blockingManager.runBlocking(() -> {
+               try {
+                  db.write(dataWriteOptions(), batch);
+               } catch (RocksDBException e) {
+                  throw new PersistenceException(e);
+               }
+            }, "rocksdb-batch"));
          }
-      }, "rocksdb-batch").whenComplete((ignore, t) -> batch.close());
+      }
+      return batchesWritten.freeze()
+            .thenCompose(ignore -> {
+               if (expirableEntries.isEmpty()) {
+                  return CompletableFutures.completedNull();
+               }
+               return blockingManager.runBlocking(() -> {
+                  try {
+                     for (MarshallableEntry<K, V> me : expirableEntries) {
+                        addNewExpiry(expiredDb, me);
+                     }
+                  } catch (RocksDBException e) {
+                     throw new PersistenceException(e);
+                  }
+               }, "rocksdb-batch-expiry");
+            })
+            .whenComplete((ignore, t) -> batches.values().forEach(WriteBatch::close));
    }
 
    @Override
@@ -451,22 +486,17 @@ protected byte[] getNext() {
          }
       });
 
-      Flowable<MarshallableEntry<K, V>> expiredEntryFlowable = expiredFlowable.flatMap(expiredBytes -> {
+      Flowable<MarshallableEntry<K, V>> expiredEntryFlowable = expiredFlowable.concatMapIterable(expiredBytes -> {
          Object bucketKey = unmarshall(expiredBytes);
          if (bucketKey instanceof ExpiryBucket) {
-            return Flowable.fromIterable(((ExpiryBucket) bucketKey).entries)
-                  .flatMapMaybe(marshalledKey -> {
-                     ColumnFamilyHandle columnFamilyHandle = handler.getHandleForMarshalledKey(marshalledKey);
-                     MarshalledValue mv = handlePossiblyExpiredKey(columnFamilyHandle, marshalledKey, now);
-                     return mv == null ? Maybe.empty() : Maybe.just(entryFactory.create(unmarshall(marshalledKey), mv));
-                  });
-         } else {
-            // The bucketKey is an actual key
-            ColumnFamilyHandle columnFamilyHandle = handler.getHandle(bucketKey);
-            MarshalledValue mv = handlePossiblyExpiredKey(columnFamilyHandle, marshall(bucketKey), now);
-            return mv == null ? Flowable.empty() : Flowable.just(entryFactory.create(bucketKey, mv));
+            return ((ExpiryBucket) bucketKey).entries;
          }
-      });
+         // The bucketKey is an actual key
+         return Collections.singletonList(expiredBytes);
+      })
+            // The values of the possibly expired keys are read with a single multiGet per chunk
+            .buffer(PURGE_MULTI_GET_SIZE)
+            .concatMapIterable(marshalledKeys -> removeExpiredKeys(marshalledKeys, now));
 
       if (log.isTraceEnabled()) {
          // Note this tracing only works properly for one subscriber
@@ -481,23 +511,39 @@ protected byte[] getNext() {
       return expiredEntryFlowable;
    }
 
-   private MarshalledValue handlePossiblyExpiredKey(ColumnFamilyHandle columnFamilyHandle, byte[] marshalledKey,
-         long now) throws RocksDBException {
-      byte[] valueBytes = db.get(columnFamilyHandle, marshalledKey);
-      if (valueBytes == null) {
-         return null;
+   private List<MarshallableEntry<K, V>> removeExpiredKeys(List<byte[]> possiblyExpiredKeys, long now) throws RocksDBException {
+      List<ColumnFamilyHandle> handles = new ArrayList<>(possiblyExpiredKeys.size());
+      List<byte[]> marshalledKeys = new ArrayList<>(possiblyExpiredKeys.size());
+      for (byte[] marshalledKey : possiblyExpiredKeys) {
+         ColumnFamilyHandle columnFamilyHandle = handler.getHandleForMarshalledKey(marshalledKey);
+         // The segment may have been removed since the entry was written
+         if (columnFamilyHandle != null) {
+            handles.add(columnFamilyHandle);
+            marshalledKeys.add(marshalledKey);
+         }
       }
-      MarshalledValue mv = unmarshall(valueBytes);
-      if (mv != null) {
-         // TODO race condition: the entry could be updated between the get and delete!
-         Metadata metadata = unmarshall(MarshallUtil.toByteArray(mv.getMetadataBytes()));
-         if (MarshallableEntryImpl.isExpired(metadata, now, mv.getCreated(), mv.getLastUsed())) {
-            // somewhat inefficient to FIND then REMOVE... but required if the value is updated
-            db.delete(columnFamilyHandle, marshalledKey);
-            return mv;
+      if (marshalledKeys.isEmpty()) {
+         return Collections.emptyList();
+      }
+      List<byte[]> values = db.multiGetAsList(handles, marshalledKeys);
+      List<MarshallableEntry<K, V>> expiredEntries = new ArrayList<>();
+      for (int i = 0; i < values.size(); ++i) {
+         byte[] valueBytes = values.get(i);
+         if (valueBytes == null) {
+            continue;
+         }
+         MarshalledValue mv = unmarshall(valueBytes);
+         if (mv != null) {
+            // TODO race condition: the entry could be updated between the get and delete!
+            Metadata metadata = unmarshall(MarshallUtil.toByteArray(mv.getMetadataBytes()));
+            if (MarshallableEntryImpl.isExpired(metadata, now, mv.getCreated(), mv.getLastUsed())) {
+               // somewhat inefficient to FIND then REMOVE... but required if the value is updated
+               db.delete(handles.get(i), dataWriteOptions(), marshalledKeys.get(i));
+               expiredEntries.add(entryFactory.create(unmarshall(marshalledKeys.get(i)), mv));
+            }
          }
       }
-      return null;
+      return expiredEntries;
    }
 
    @Override
@@ -793,7 +839,7 @@ CompletionStage<Void> write(int segment, MarshallableEntry<? extends K, ? extend
             byte[] marshalledValue = marshall(me.getMarshalledValue());
             return blockingManager.runBlocking(() -> {
                try {
-                  db.put(handle, marshalledKey, marshalledValue);
+                  db.put(handle, dataWriteOptions(), marshalledKey, marshalledValue);
                   if (me.expiryTime() > -1) {
                      addNewExpiry(expiredDb, me);
                   }
@@ -813,7 +859,7 @@ CompletionStage<Boolean> delete(int segment, Object key) {
             ColumnFamilyHandle handle = getHandle(segment);
             return blockingManager.supplyBlocking(() -> {
                try {
-                  db.delete(handle, keyBytes);
+                  db.delete(handle, dataWriteOptions(), keyBytes);
                   return null;
                } catch (RocksDBException e) {
                   throw new PersistenceException(e);
@@ -1082,8 +1128,10 @@ <R> Publisher<R> handleIteratorFunction(Function<RocksIterator, Flowable<R>> fun
             return publish(segments.iterator().nextInt(), function);
          }
          IntSet segmentsToUse = segments == null ? IntSets.immutableRangeSet(handles.length()) : segments;
+         // The column families are iterated concurrently, each one on its own blocking thread, but the entries are
+         // still emitted one column family after the other
          return Flowable.fromStream(segmentsToUse.intStream().mapToObj(i -> publish(i, function)))
-               .concatMap(RxJavaInterop.identityFunction());
+               .concatMapEager(RxJavaInterop.identityFunction(), ProcessorInfo.availableProcessors(), Flowable.bufferSize());
       }
 
       @Override
@@ -8,6 +8,7 @@
 import static org.testng.AssertJUnit.assertTrue;
 import static org.testng.AssertJUnit.fail;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -30,6 +31,7 @@
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.NonBlockingStore;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestInternalCacheEntryFactory;
 import org.testng.AssertJUnit;
 import org.testng.annotations.AfterClass;
@@ -199,6 +201,24 @@ public void testClear() {
       assertEmpty(null);
    }
 
+   public void testBatchAndPurgeExpiredAcrossSegments() {
+      long lifespan = 1000;
+      int numEntries = 100;
+      // The entries expire at the same time, so their keys share an expiry bucket
+      List<MarshallableEntry<Object, Object>> entries = new ArrayList<>(numEntries);
+      for (int i = 0; i < numEntries; i++) {
+         InternalCacheEntry<Object, Object> ice = internalCacheEntry("k" + i, "v" + i, lifespan);
+         entries.add(marshalledEntry(ice));
+      }
+      store.batchUpdate(segmentCount, Flowable.empty(),
+            TestingUtil.multipleSegmentPublisher(Flowable.fromIterable(entries), MarshallableEntry::getKey, keyPartitioner));
+      assertEquals(numEntries, store.sizeWait(segments));
+
+      timeService.advance(lifespan + 1);
+      assertEquals(numEntries, store.purge().size());
+      assertEmpty(null);
+   }
+
    private void assertEmpty(IntSet segments) {
       assertEquals(0, (long) join(store.size(segments)));
 
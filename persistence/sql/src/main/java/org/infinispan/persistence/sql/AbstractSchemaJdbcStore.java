@@ -617,6 +617,17 @@ protected MarshallableEntry<K, V> entryFromResultSet(ResultSet rs, Object keyIfP
 
       @Override
       protected void prepareKeyStatement(PreparedStatement ps, Object key) throws SQLException {
+         prepareKeyStatement(ps, key, 0);
+      }
+
+      @Override
+      protected void prepareKeysStatement(PreparedStatement ps, List<?> keys) throws SQLException {
+         for (int i = 0; i < keys.size(); ++i) {
+            prepareKeyStatement(ps, keys.get(i), i * schemaOptions.keyParameters.length);
+         }
+      }
+
+      private void prepareKeyStatement(PreparedStatement ps, Object key, int offset) throws SQLException {
          Object jsonString = schemaOptions.keyConversion.fromStorage(key);
          Json json = Json.read((String) jsonString);
          for (int i = 0; i < schemaOptions.keyParameters.length; ++i) {
@@ -626,11 +637,39 @@ protected void prepareKeyStatement(PreparedStatement ps, Object key) throws SQLE
             }
             Json innerJson = parameter.unwrapJsonKey.apply(json);
             if (innerJson != null) {
-               setParameter(ps, parameter.getType(), i + 1, innerJson);
+               setParameter(ps, parameter.getType(), offset + i + 1, innerJson);
             } else {
-               ps.setNull(i + 1, parameter.getSqlType());
+               ps.setNull(offset + i + 1, parameter.getSqlType());
+            }
+         }
+      }
+
+      @Override
+      protected Object keyIdentifier(Object key) {
+         return keyIdentifier(Json.read((String) schemaOptions.keyConversion.fromStorage(key)));
+      }
+
+      @Override
+      protected Object rowKeyIdentifier(ResultSet rs) throws SQLException {
+         Json keyJson = Json.object();
+         Parameter[] valueParameters = schemaOptions.valueParameters;
+         for (int i = 0; i < valueParameters.length; ++i) {
+            if (valueParameters[i].isPrimaryIdentifier()) {
+               updateJsonWithParameter(rs, valueParameters[i], i + 1, keyJson, true);
+            }
+         }
+         return keyIdentifier(keyJson);
+      }
+
+      // The values are compared as strings, as the numbers read from a key and from a row may not have the same type
+      private List<String> keyIdentifier(Json keyJson) {
+         List<String> identifier = new ArrayList<>(schemaOptions.keyParameters.length);
+         for (Parameter parameter : schemaOptions.keyParameters) {
+            if (parameter.primaryIdentifier) {
+               identifier.add(String.valueOf(parameter.unwrapJsonKey.apply(keyJson)));
             }
          }
+         return identifier;
       }
 
       @Override
@@ -0,0 +1,14 @@
+package org.infinispan.persistence.sql;
+
+import org.infinispan.factories.annotations.InfinispanModule;
+import org.infinispan.lifecycle.ModuleLifecycle;
+
+/**
+ * {@code InfinispanModule} annotation is required for component annotation processing, which generates the metadata
+ * of the {@link QueriesJdbcStoreStatistics} MBean.
+ *
+ * @since 15.0
+ */
+@InfinispanModule(name = "cachestore-sql", requiredModules = "core")
+public class LifecycleCallbacks implements ModuleLifecycle {
+}
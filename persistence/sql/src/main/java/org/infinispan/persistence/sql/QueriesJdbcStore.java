@@ -5,22 +5,150 @@
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import jakarta.transaction.Transaction;
 
 import org.infinispan.commons.configuration.ConfiguredBy;
+import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.jmx.CacheJmxRegistration;
 import org.infinispan.persistence.jdbc.common.TableOperations;
 import org.infinispan.persistence.jdbc.common.connectionfactory.ConnectionFactory;
+import org.infinispan.persistence.spi.InitializationContext;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.infinispan.persistence.spi.NonBlockingStore;
+import org.infinispan.persistence.sql.QueriesJdbcStoreStatistics.Query;
 import org.infinispan.persistence.sql.configuration.QueriesJdbcConfiguration;
 import org.infinispan.persistence.sql.configuration.QueriesJdbcConfigurationBuilder;
 import org.infinispan.persistence.sql.configuration.QueriesJdbcStoreConfiguration;
 import org.infinispan.persistence.sql.configuration.QueriesJdbcStoreConfigurationBuilder;
+import org.infinispan.persistence.support.SingleSegmentPublisher;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.reactivestreams.Publisher;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.reactivex.rxjava3.core.Flowable;
 
 @ConfiguredBy(QueriesJdbcStoreConfigurationBuilder.class)
 public class QueriesJdbcStore<K, V> extends AbstractSchemaJdbcStore<K, V, QueriesJdbcStoreConfiguration> {
+   // Incremented after each write to the table, so that a load that raced with a write doesn't cache its key as absent
+   private final AtomicLong writeGeneration = new AtomicLong();
+   private TimeService timeService;
+   // Null if the statistics are disabled
+   private QueriesJdbcStoreStatistics statistics;
+   // Null if the absent keys are not cached
+   private Cache<Object, Boolean> absentKeys;
+
+   @Override
+   public CompletionStage<Void> start(InitializationContext ctx) {
+      QueriesJdbcStoreConfiguration configuration = ctx.getConfiguration();
+      timeService = ctx.getTimeService();
+      if (configuration.absentKeyCacheLifespan() > 0) {
+         absentKeys = Caffeine.newBuilder()
+               .expireAfterWrite(configuration.absentKeyCacheLifespan(), TimeUnit.MILLISECONDS)
+               .maximumSize(configuration.absentKeyCacheSize())
+               .ticker(timeService::time)
+               .executor(new WithinThreadExecutor())
+               .build();
+      }
+      if (ctx.getCache().getCacheConfiguration().statistics().enabled()) {
+         statistics = new QueriesJdbcStoreStatistics();
+         registerMBean(ctx);
+      }
+      return super.start(ctx);
+   }
+
+   private void registerMBean(InitializationContext ctx) {
+      CacheJmxRegistration jmxRegistration = ComponentRegistry.of(ctx.getCache()).getComponent(CacheJmxRegistration.class);
+      if (jmxRegistration != null && jmxRegistration.enabled()) {
+         try {
+            // Unregistered along with the other MBeans of the cache
+            jmxRegistration.registerMBean(statistics);
+         } catch (Exception e) {
+            log.unableToRegisterStoreMBean(ctx.getCache().getName(), e);
+         }
+      }
+   }
+
+   /**
+    * @return the query latencies and the absent key cache hits of this store, or {@code null} if the statistics of the
+    * cache are disabled
+    */
+   public QueriesJdbcStoreStatistics getStatistics() {
+      return statistics;
+   }
+
+   @Override
+   public CompletionStage<Void> commit(Transaction tx) {
+      // The keys written by the transaction are not known anymore, and the loads since its prepare could not see them
+      return super.commit(tx).whenComplete((ignore, t) -> invalidateAbsentKeys());
+   }
+
+   private boolean isKnownAbsent(Object key) {
+      if (absentKeys == null) {
+         return false;
+      }
+      boolean absent = absentKeys.getIfPresent(key) != null;
+      if (statistics != null) {
+         if (absent) {
+            statistics.recordAbsentKeyHit();
+         } else {
+            statistics.recordAbsentKeyMiss();
+         }
+      }
+      return absent;
+   }
+
+   private void cacheAbsentKey(Object key, long generation) {
+      if (absentKeys != null) {
+         absentKeys.put(key, Boolean.TRUE);
+         // A write that completed after the select may have invalidated the key before it was cached
+         if (writeGeneration.get() != generation) {
+            absentKeys.invalidate(key);
+         }
+      }
+   }
+
+   private void invalidateAbsentKeys(Collection<?> keys) {
+      if (absentKeys != null) {
+         writeGeneration.incrementAndGet();
+         absentKeys.invalidateAll(keys);
+      }
+   }
+
+   private void invalidateAbsentKeys() {
+      if (absentKeys != null) {
+         writeGeneration.incrementAndGet();
+         absentKeys.invalidateAll();
+      }
+   }
+
+   private void recordLatency(Query query, long startNanos) {
+      if (statistics != null) {
+         statistics.recordLatency(query, timeService.time() - startNanos);
+      }
+   }
+
    @Override
    protected TableOperations<K, V> actualCreateTableOperations(ProtoSchemaOptions<K, V, QueriesJdbcStoreConfiguration> options) {
       QueriesJdbcConfigurationBuilder<?> builder = new QueriesJdbcConfigurationBuilder<>(new ConfigurationBuilder().persistence().addStore(QueriesJdbcStoreConfigurationBuilder.class));
@@ -190,5 +318,131 @@ public String getDeleteAllSql() {
       public String getSizeSql() {
          return modifiedQueryConfig.size();
       }
+
+      @Override
+      public MarshallableEntry<K, V> loadEntry(Connection connection, int segment, Object key) throws SQLException {
+         if (isKnownAbsent(key)) {
+            return null;
+         }
+         long generation = writeGeneration.get();
+         long start = timeService.time();
+         MarshallableEntry<K, V> entry;
+         try {
+            entry = super.loadEntry(connection, segment, key);
+         } finally {
+            recordLatency(Query.SELECT, start);
+         }
+         if (entry == null) {
+            cacheAbsentKey(key, generation);
+         }
+         return entry;
+      }
+
+      @Override
+      public List<MarshallableEntry<K, V>> loadEntries(Connection connection, Collection<?> keys) throws SQLException {
+         Collection<?> keysToLoad = keys;
+         if (absentKeys != null) {
+            List<Object> unknownKeys = new ArrayList<>(keys.size());
+            for (Object key : keys) {
+               if (!isKnownAbsent(key)) {
+                  unknownKeys.add(key);
+               }
+            }
+            if (unknownKeys.isEmpty()) {
+               return new ArrayList<>();
+            }
+            keysToLoad = unknownKeys;
+         }
+         long generation = writeGeneration.get();
+         long start = timeService.time();
+         List<MarshallableEntry<K, V>> entries;
+         try {
+            entries = super.loadEntries(connection, keysToLoad);
+         } finally {
+            recordLatency(Query.SELECT_MANY, start);
+         }
+         if (absentKeys != null && entries.size() < keysToLoad.size()) {
+            Set<Object> foundKeys = new HashSet<>();
+            for (MarshallableEntry<K, V> entry : entries) {
+               foundKeys.add(entry.getKey());
+            }
+            for (Object key : keysToLoad) {
+               if (!foundKeys.contains(key)) {
+                  cacheAbsentKey(key, generation);
+               }
+            }
+         }
+         return entries;
+      }
+
+      @Override
+      public Flowable<MarshallableEntry<K, V>> publishEntries(Supplier<Connection> connectionSupplier,
+            Consumer<Connection> connectionCloser, IntSet segments, Predicate<? super K> filter, boolean fetchValue) {
+         return Flowable.defer(() -> {
+            long start = timeService.time();
+            return super.publishEntries(connectionSupplier, connectionCloser, segments, filter, fetchValue)
+                  .doFinally(() -> recordLatency(Query.SELECT_ALL, start));
+         });
+      }
+
+      @Override
+      public boolean deleteEntry(Connection connection, int segment, Object key) throws SQLException {
+         long start = timeService.time();
+         try {
+            return super.deleteEntry(connection, segment, key);
+         } finally {
+            recordLatency(Query.DELETE, start);
+         }
+      }
+
+      @Override
+      public void deleteAllRows(Connection connection) throws SQLException {
+         long start = timeService.time();
+         try {
+            super.deleteAllRows(connection);
+         } finally {
+            recordLatency(Query.DELETE_ALL, start);
+         }
+      }
+
+      @Override
+      public void upsertEntry(Connection connection, int segment, MarshallableEntry<? extends K, ? extends V> entry)
+            throws SQLException {
+         long start = timeService.time();
+         try {
+            super.upsertEntry(connection, segment, entry);
+         } finally {
+            recordLatency(Query.UPSERT, start);
+            invalidateAbsentKeys(List.of(entry.getKey()));
+         }
+      }
+
+      @Override
+      public long size(Connection connection) throws SQLException {
+         long start = timeService.time();
+         try {
+            return super.size(connection);
+         } finally {
+            recordLatency(Query.SIZE, start);
+         }
+      }
+
+      @Override
+      public void batchUpdates(Connection connection, int writePublisherCount, Publisher<Object> removePublisher,
+            Publisher<NonBlockingStore.SegmentedPublisher<MarshallableEntry<K, V>>> writePublisher) throws SQLException {
+         Queue<Object> writtenKeys = new ConcurrentLinkedQueue<>();
+         Publisher<NonBlockingStore.SegmentedPublisher<MarshallableEntry<K, V>>> writes = writePublisher;
+         if (absentKeys != null) {
+            writes = Flowable.fromPublisher(writePublisher).map(sp -> SingleSegmentPublisher.singleSegment(
+                  sp.getSegment(), Flowable.fromPublisher(sp).doOnNext(entry -> writtenKeys.add(entry.getKey()))));
+         }
+         long start = timeService.time();
+         try {
+            super.batchUpdates(connection, writePublisherCount, removePublisher, writes);
+         } finally {
+            recordLatency(Query.BATCH, start);
+            invalidateAbsentKeys(writtenKeys);
+         }
+      }
    }
 }
@@ -0,0 +1,262 @@
+package org.infinispan.persistence.sql;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.Parameter;
+import org.infinispan.jmx.annotations.Units;
+
+/**
+ * Latencies of the queries run by the {@link QueriesJdbcStore} and hits of its absent key cache.
+ * <p>
+ * The latencies of each query are recorded in a histogram with power of two buckets in microseconds, so the
+ * percentiles are only accurate to a factor of two.
+ *
+ * @since 15.0
+ */
+@MBean(objectName = "QueriesJdbcStore", description = "Query latencies and absent key cache of the queries JDBC store")
+public class QueriesJdbcStoreStatistics {
+   /**
+    * The queries of the store, the name of each one being its lower case name.
+    */
+   enum Query {
+      SELECT,
+      SELECT_MANY,
+      SELECT_ALL,
+      UPSERT,
+      DELETE,
+      DELETE_ALL,
+      SIZE,
+      BATCH;
+
+      static Query forName(String name) {
+         return valueOf(name.toUpperCase(Locale.ROOT).replace('-', '_'));
+      }
+   }
+
+   private final Map<Query, LatencyHistogram> latencies = new EnumMap<>(Query.class);
+   private final LongAdder absentKeyHits = new LongAdder();
+   private final LongAdder absentKeyMisses = new LongAdder();
+
+   QueriesJdbcStoreStatistics() {
+      for (Query query : Query.values()) {
+         latencies.put(query, new LatencyHistogram());
+      }
+   }
+
+   void recordLatency(Query query, long durationNanos) {
+      latencies.get(query).record(durationNanos);
+   }
+
+   void recordAbsentKeyHit() {
+      absentKeyHits.increment();
+   }
+
+   void recordAbsentKeyMiss() {
+      absentKeyMisses.increment();
+   }
+
+   @ManagedAttribute(
+         description = "Number of loads answered by the absent key cache without querying the database",
+         displayName = "Absent key cache hits"
+   )
+   public long getAbsentKeyHits() {
+      return absentKeyHits.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of loads that were not in the absent key cache and queried the database",
+         displayName = "Absent key cache misses"
+   )
+   public long getAbsentKeyMisses() {
+      return absentKeyMisses.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of select queries run for a single key",
+         displayName = "Number of selects"
+   )
+   public long getSelects() {
+      return latencies.get(Query.SELECT).count();
+   }
+
+   @ManagedAttribute(
+         description = "Average duration of a select query for a single key",
+         displayName = "Average select latency",
+         units = Units.MICROSECONDS
+   )
+   public long getAverageSelectLatency() {
+      return latencies.get(Query.SELECT).averageMicros();
+   }
+
+   @ManagedAttribute(
+         description = "99th percentile of the duration of a select query for a single key",
+         displayName = "99th percentile select latency",
+         units = Units.MICROSECONDS
+   )
+   public long getSelectLatencyP99() {
+      return latencies.get(Query.SELECT).percentileMicros(99);
+   }
+
+   @ManagedAttribute(
+         description = "Number of upsert queries, excluding the ones of batches",
+         displayName = "Number of upserts"
+   )
+   public long getUpserts() {
+      return latencies.get(Query.UPSERT).count();
+   }
+
+   @ManagedAttribute(
+         description = "Average duration of an upsert query",
+         displayName = "Average upsert latency",
+         units = Units.MICROSECONDS
+   )
+   public long getAverageUpsertLatency() {
+      return latencies.get(Query.UPSERT).averageMicros();
+   }
+
+   @ManagedAttribute(
+         description = "99th percentile of the duration of an upsert query",
+         displayName = "99th percentile upsert latency",
+         units = Units.MICROSECONDS
+   )
+   public long getUpsertLatencyP99() {
+      return latencies.get(Query.UPSERT).percentileMicros(99);
+   }
+
+   @ManagedAttribute(
+         description = "Number of delete queries, excluding the ones of batches",
+         displayName = "Number of deletes"
+   )
+   public long getDeletes() {
+      return latencies.get(Query.DELETE).count();
+   }
+
+   @ManagedAttribute(
+         description = "Average duration of a delete query",
+         displayName = "Average delete latency",
+         units = Units.MICROSECONDS
+   )
+   public long getAverageDeleteLatency() {
+      return latencies.get(Query.DELETE).averageMicros();
+   }
+
+   @ManagedAttribute(
+         description = "99th percentile of the duration of a delete query",
+         displayName = "99th percentile delete latency",
+         units = Units.MICROSECONDS
+   )
+   public long getDeleteLatencyP99() {
+      return latencies.get(Query.DELETE).percentileMicros(99);
+   }
+
+   @ManagedOperation(
+         description = "Returns a percentile of the duration of a query, in microseconds",
+         displayName = "Query latency percentile"
+   )
+   public long latencyPercentile(
+         @Parameter(name = "query", description = "One of select, select-many, select-all, upsert, delete, delete-all, size and batch") String query,
+         @Parameter(name = "percentile", description = "The percentile, between 0 and 100") double percentile) {
+      return latencies.get(Query.forName(query)).percentileMicros(percentile);
+   }
+
+   @ManagedOperation(
+         description = "Returns the number of runs of a query by upper bound of their duration, in microseconds",
+         displayName = "Query latency histogram"
+   )
+   public String latencyHistogram(
+         @Parameter(name = "query", description = "One of select, select-many, select-all, upsert, delete, delete-all, size and batch") String query) {
+      return latencies.get(Query.forName(query)).toString();
+   }
+
+   @ManagedOperation(
+         description = "Resets the queries JDBC store statistics",
+         displayName = "Reset statistics"
+   )
+   public void resetStatistics() {
+      latencies.values().forEach(LatencyHistogram::reset);
+      absentKeyHits.reset();
+      absentKeyMisses.reset();
+   }
+
+   static class LatencyHistogram {
+      // Bucket i holds the durations up to 2^i - 1 microseconds, the last one holds the longer ones too
+      private static final int BUCKETS = 40;
+
+      private final LongAdder[] buckets = new LongAdder[BUCKETS];
+      private final LongAdder totalNanos = new LongAdder();
+      private final AtomicLong maxNanos = new AtomicLong();
+
+      LatencyHistogram() {
+         Arrays.setAll(buckets, i -> new LongAdder());
+      }
+
+      void record(long durationNanos) {
+         long micros = TimeUnit.NANOSECONDS.toMicros(durationNanos);
+         buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros))].increment();
+         totalNanos.add(durationNanos);
+         maxNanos.accumulateAndGet(durationNanos, Math::max);
+      }
+
+      long count() {
+         long count = 0;
+         for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+         }
+         return count;
+      }
+
+      long averageMicros() {
+         long count = count();
+         return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalNanos.sum() / count);
+      }
+
+      long percentileMicros(double percentile) {
+         long count = count();
+         if (count == 0) {
+            return 0;
+         }
+         long rank = (long) Math.ceil(count * percentile / 100);
+         long seen = 0;
+         for (int i = 0; i < BUCKETS - 1; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) {
+               // The maximum is a better bound for the slowest bucket
+               return Math.min((1L << i) - 1, TimeUnit.NANOSECONDS.toMicros(maxNanos.get()));
+            }
+         }
+         return TimeUnit.NANOSECONDS.toMicros(maxNanos.get());
+      }
+
+      void reset() {
+         for (LongAdder bucket : buckets) {
+            bucket.reset();
+         }
+         totalNanos.reset();
+         maxNanos.set(0);
+      }
+
+      @Override
+      public String toString() {
+         StringBuilder sb = new StringBuilder("{");
+         for (int i = 0; i < BUCKETS; i++) {
+            long count = buckets[i].sum();
+            if (count > 0) {
+               if (sb.length() > 1) {
+                  sb.append(", ");
+               }
+               sb.append(i == BUCKETS - 1 ? "more" : String.valueOf((1L << i) - 1)).append('=').append(count);
+            }
+         }
+         return sb.append('}').toString();
+      }
+   }
+}
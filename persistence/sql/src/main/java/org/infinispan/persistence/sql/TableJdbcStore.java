@@ -36,6 +36,9 @@ public class TableTableOperations extends SchemaTableOperations<K, V, TableJdbcS
       private final String deleteAllSql;
       private final String upsertSql;
       private final String sizeSql;
+      private final SqlManager statements;
+      private final List<String> keyNames;
+      private final List<String> allNames;
 
       public TableTableOperations(ProtoSchemaOptions<K, V, TableJdbcStoreConfiguration> options, Parameter[] upsertParameters) {
          super(options, upsertParameters);
@@ -55,10 +58,10 @@ public TableTableOperations(ProtoSchemaOptions<K, V, TableJdbcStoreConfiguration
                connectionFactory.releaseConnection(connection);
             }
          }
-         SqlManager statements = SqlManager.fromDatabaseType(type, config.tableName());
-         List<String> keyNames = Arrays.stream(options.keyParameters)
+         statements = SqlManager.fromDatabaseType(type, config.tableName());
+         keyNames = Arrays.stream(options.keyParameters)
                .map(Parameter::getName).collect(Collectors.toList());
-         List<String> allNames = Arrays.stream(options.valueParameters)
+         allNames = Arrays.stream(options.valueParameters)
                .map(Parameter::getName).collect(Collectors.toList());
          selectSql = statements.getSelectStatement(keyNames, allNames);
          selectAllSql = statements.getSelectAllStatement(allNames);
@@ -73,6 +76,11 @@ public String getSelectRowSql() {
          return selectSql;
       }
 
+      @Override
+      public String getSelectRowsSql(int keyCount) {
+         return statements.getSelectStatement(keyNames, allNames, keyCount);
+      }
+
       @Override
       public String getDeleteRowSql() {
          return deleteSql;
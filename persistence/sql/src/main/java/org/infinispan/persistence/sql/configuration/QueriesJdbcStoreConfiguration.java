@@ -1,5 +1,7 @@
 package org.infinispan.persistence.sql.configuration;
 
+import static org.infinispan.commons.configuration.attributes.AttributeValidator.greaterThanZero;
+
 import org.infinispan.commons.configuration.BuiltBy;
 import org.infinispan.commons.configuration.ConfigurationFor;
 import org.infinispan.commons.configuration.attributes.Attribute;
@@ -16,14 +18,20 @@
 @SerializedWith(QueriesJdbcStoreConfigurationSerializer.class)
 public class QueriesJdbcStoreConfiguration extends AbstractSchemaJdbcConfiguration<QueriesJdbcStoreConfiguration> {
    static final AttributeDefinition<String> KEY_COLUMNS = AttributeDefinition.builder(org.infinispan.persistence.jdbc.common.configuration.Attribute.KEY_COLUMNS, null, String.class).immutable().build();
+   static final AttributeDefinition<Long> ABSENT_KEY_CACHE_LIFESPAN = AttributeDefinition.builder(org.infinispan.persistence.jdbc.common.configuration.Attribute.ABSENT_KEY_CACHE_LIFESPAN, 0L).immutable().build();
+   static final AttributeDefinition<Integer> ABSENT_KEY_CACHE_SIZE = AttributeDefinition.builder(org.infinispan.persistence.jdbc.common.configuration.Attribute.ABSENT_KEY_CACHE_SIZE, 10_000)
+         .validator(greaterThanZero(org.infinispan.persistence.jdbc.common.configuration.Attribute.ABSENT_KEY_CACHE_SIZE)).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(QueriesJdbcStoreConfiguration.class, AbstractSchemaJdbcConfiguration.attributeDefinitionSet(), KEY_COLUMNS);
+      return new AttributeSet(QueriesJdbcStoreConfiguration.class, AbstractSchemaJdbcConfiguration.attributeDefinitionSet(), KEY_COLUMNS,
+            ABSENT_KEY_CACHE_LIFESPAN, ABSENT_KEY_CACHE_SIZE);
    }
 
    private final QueriesJdbcConfiguration queriesJdbcConfiguration;
 
    private final Attribute<String> keyColumns;
+   private final Attribute<Long> absentKeyCacheLifespan;
+   private final Attribute<Integer> absentKeyCacheSize;
 
    public QueriesJdbcStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async,
          ConnectionFactoryConfiguration connectionFactory, SchemaJdbcConfiguration schemaJdbcConfiguration,
@@ -31,12 +39,29 @@ public QueriesJdbcStoreConfiguration(AttributeSet attributes, AsyncStoreConfigur
       super(Element.QUERY_JDBC_STORE, attributes, async, connectionFactory, schemaJdbcConfiguration);
       this.queriesJdbcConfiguration = queriesJdbcConfiguration;
       keyColumns = attributes.attribute(KEY_COLUMNS);
+      absentKeyCacheLifespan = attributes.attribute(ABSENT_KEY_CACHE_LIFESPAN);
+      absentKeyCacheSize = attributes.attribute(ABSENT_KEY_CACHE_SIZE);
    }
 
    public String keyColumns() {
       return keyColumns.get();
    }
 
+   /**
+    * @return the time in milliseconds during which a key that was not found by the select query is known to be absent,
+    * or 0 if the absent keys are not cached
+    */
+   public long absentKeyCacheLifespan() {
+      return absentKeyCacheLifespan.get();
+   }
+
+   /**
+    * @return the maximum number of absent keys that are cached
+    */
+   public int absentKeyCacheSize() {
+      return absentKeyCacheSize.get();
+   }
+
    public QueriesJdbcConfiguration getQueriesJdbcConfiguration() {
       return queriesJdbcConfiguration;
    }
@@ -1,5 +1,7 @@
 package org.infinispan.persistence.sql.configuration;
 
+import java.util.concurrent.TimeUnit;
+
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
 import org.infinispan.commons.configuration.attributes.Attribute;
@@ -40,6 +42,13 @@ public void validate() {
       if (!keyAttr.isModified() || keyAttr.isNull() || keyAttr.get().isEmpty()) {
          throw org.infinispan.persistence.jdbc.common.logging.Log.CONFIG.keyColumnsRequired();
       }
+      long absentKeyCacheLifespan = attributes.attribute(QueriesJdbcStoreConfiguration.ABSENT_KEY_CACHE_LIFESPAN).get();
+      if (absentKeyCacheLifespan < 0) {
+         throw org.infinispan.persistence.jdbc.common.logging.Log.CONFIG.absentKeyCacheLifespanNegative();
+      }
+      if (absentKeyCacheLifespan > 0 && attributes.attribute(AbstractStoreConfiguration.SHARED).get()) {
+         throw org.infinispan.persistence.jdbc.common.logging.Log.CONFIG.absentKeyCacheNotSupportedWithSharedStore();
+      }
    }
 
    /**
@@ -59,6 +68,29 @@ public QueriesJdbcStoreConfigurationBuilder keyColumns(String keyColumns) {
       return this;
    }
 
+   /**
+    * Caches the keys that were not found by the select query for the given time, so that the loads of absent keys don't
+    * query the database every time. The store invalidates the keys it writes, but a row inserted in the table by
+    * another application is only seen after the lifespan. The cache can't be enabled on a shared store, where the
+    * writes to most keys are only applied by their primary owners. Defaults to 0, which disables the cache.
+    */
+   public QueriesJdbcStoreConfigurationBuilder absentKeyCacheLifespan(long lifespan, TimeUnit unit) {
+      return absentKeyCacheLifespan(unit.toMillis(lifespan));
+   }
+
+   public QueriesJdbcStoreConfigurationBuilder absentKeyCacheLifespan(long lifespanMillis) {
+      attributes.attribute(QueriesJdbcStoreConfiguration.ABSENT_KEY_CACHE_LIFESPAN).set(lifespanMillis);
+      return this;
+   }
+
+   /**
+    * The maximum number of absent keys that are cached. Defaults to 10000.
+    */
+   public QueriesJdbcStoreConfigurationBuilder absentKeyCacheSize(int size) {
+      attributes.attribute(QueriesJdbcStoreConfiguration.ABSENT_KEY_CACHE_SIZE).set(size);
+      return this;
+   }
+
    @Override
    public QueriesJdbcStoreConfiguration create() {
       return new QueriesJdbcStoreConfiguration(attributes.protect(), async.create(),
@@ -75,10 +75,19 @@ private void parseQueryJdbcStore(ConfigurationReader reader, PersistenceConfigur
          String value = reader.getAttributeValue(i);
          Attribute attribute = Attribute.forName(reader.getAttributeName(i));
          if (!handleCommonAttributes(reader, builder, attribute, value)) {
-            if (attribute == Attribute.KEY_COLUMNS) {
-               builder.keyColumns(value);
-            } else {
-               CacheParser.parseStoreAttribute(reader, i, builder);
+            switch (attribute) {
+               case KEY_COLUMNS:
+                  builder.keyColumns(value);
+                  break;
+               case ABSENT_KEY_CACHE_LIFESPAN:
+                  builder.absentKeyCacheLifespan(ParseUtils.parseLong(reader, i, value));
+                  break;
+               case ABSENT_KEY_CACHE_SIZE:
+                  builder.absentKeyCacheSize(ParseUtils.parseInt(reader, i, value));
+                  break;
+               default:
+                  CacheParser.parseStoreAttribute(reader, i, builder);
+                  break;
             }
          }
       }
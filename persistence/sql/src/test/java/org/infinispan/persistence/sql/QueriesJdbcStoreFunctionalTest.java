@@ -1,14 +1,32 @@
 package org.infinispan.persistence.sql;
 
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.commons.jmx.MBeanServerLookup;
+import org.infinispan.commons.jmx.TestMBeanServerLookup;
+import org.infinispan.commons.test.CommonsTestingUtil;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.persistence.jdbc.common.DatabaseType;
 import org.infinispan.persistence.jdbc.common.SqlManager;
 import org.infinispan.persistence.sql.configuration.QueriesJdbcStoreConfigurationBuilder;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.testng.SkipException;
 import org.testng.annotations.Factory;
 import org.testng.annotations.Test;
@@ -60,6 +78,12 @@ protected PersistenceConfigurationBuilder createCacheStoreConfig(PersistenceConf
             .deleteAll("DELETE FROM " + tableName)
             .size("SELECT COUNT(*) FROM " + tableName);
       storeBuilder.keyColumns(KEY_COLUMN);
+      if (cacheName.equalsIgnoreCase("testAbsentKeyCache")) {
+         storeBuilder.absentKeyCacheLifespan(10, TimeUnit.MINUTES);
+      } else if (cacheName.equalsIgnoreCase("testAbsentKeyCacheNotAllowedWithSharedStore")) {
+         storeBuilder.absentKeyCacheLifespan(10, TimeUnit.MINUTES);
+         storeBuilder.shared(true);
+      }
       if (cacheName.equalsIgnoreCase("testKeyWithNullFields")) {
          String upsert = manager.getUpsertStatement(Arrays.asList("street", "city"), Arrays.asList("name", "street", "city", "zip"));
          storeBuilder.keyColumns("street, city");
@@ -151,6 +175,67 @@ protected PersistenceConfigurationBuilder createCacheStoreConfig(PersistenceConf
       return persistence;
    }
 
+   public void testAbsentKeyCache(Method m) throws Exception {
+      String cacheName = m.getName();
+      MBeanServerLookup mBeanServerLookup = TestMBeanServerLookup.create();
+      GlobalConfigurationBuilder global = new GlobalConfigurationBuilder();
+      global.globalState().persistentLocation(CommonsTestingUtil.tmpDirectory(this.getClass()));
+      global.serialization().addContextInitializer(getSerializationContextInitializer());
+      TestCacheManagerFactory.configureJmx(global, getClass().getSimpleName(), mBeanServerLookup);
+      ConfigurationBuilder cb = getDefaultCacheConfiguration();
+      cb.statistics().enable();
+      createCacheStoreConfig(cb.persistence(), cacheName, false);
+      EmbeddedCacheManager local = createCacheManager(true, global, cb);
+      try {
+         local.defineConfiguration(cacheName, local.getDefaultCacheConfiguration());
+         Cache<Object, Object> cache = local.getCache(cacheName);
+         QueriesJdbcStore<Object, Object> store = TestingUtil.getFirstStore(cache);
+         assertAbsentKeyCache(cache, store.getStatistics());
+
+         // The statistics are exposed along with the other MBeans of the cache
+         ObjectName storeObjectName = TestingUtil.getCacheObjectName(getClass().getSimpleName(), cacheName + "(local)", "QueriesJdbcStore");
+         MBeanServer mBeanServer = mBeanServerLookup.getMBeanServer();
+         assertTrue(mBeanServer.isRegistered(storeObjectName));
+         cache.get("k2");
+         assertEquals(1L, mBeanServer.getAttribute(storeObjectName, "Selects"));
+      } finally {
+         TestingUtil.killCacheManagers(local);
+      }
+   }
+
+   private void assertAbsentKeyCache(Cache<Object, Object> cache, QueriesJdbcStoreStatistics statistics) {
+      assertNull(cache.get("k1"));
+      assertEquals(1, statistics.getSelects());
+      // The key is known to be absent, so the database is not queried again
+      assertNull(cache.get("k1"));
+      assertEquals(1, statistics.getSelects());
+      assertEquals(1, statistics.getAbsentKeyHits());
+
+      // Writing the key invalidates it
+      cache.put("k1", "v1");
+      cache.evict("k1");
+      assertEquals("v1", cache.get("k1"));
+
+      cache.remove("k1");
+      assertNull(cache.get("k1"));
+      cache.put("k1", "v2");
+      cache.evict("k1");
+      assertEquals("v2", cache.get("k1"));
+
+      assertTrue(statistics.getSelectLatencyP99() >= statistics.latencyPercentile("select", 50));
+      assertTrue(statistics.latencyHistogram("select").contains("="));
+      statistics.resetStatistics();
+      assertEquals(0, statistics.getSelects());
+      assertEquals(0, statistics.getAbsentKeyHits());
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class, expectedExceptionsMessageRegExp = ".*ISPN008074.*")
+   public void testAbsentKeyCacheNotAllowedWithSharedStore(Method m) {
+      ConfigurationBuilder cb = getDefaultCacheConfiguration();
+      createCacheStoreConfig(cb.persistence(), m.getName(), false);
+      cb.build();
+   }
+
    @Override
    public void testNumericColumns(Method m) {
       if (DB_TYPE.equals(DatabaseType.SQLITE))
@@ -90,6 +90,7 @@
 import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
 import org.infinispan.partitionhandling.AvailabilityMode;
 import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.manager.PreloadManager;
 import org.infinispan.persistence.remote.RemoteStore;
 import org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration;
 import org.infinispan.persistence.remote.upgrade.SerializationUtils;
@@ -706,12 +707,16 @@ private RestResponse getDetailResponse(RestRequest request, Cache<?, ?> cache, b
       GlobalConfiguration globalConfiguration = SecurityActions.getCacheManagerConfiguration(cacheManager);
       PersistenceManager persistenceManager = SecurityActions.getPersistenceManager(cacheManager, cache.getName());
       Stats stats = null;
+      PreloadManager preloadManager = null;
       Boolean rehashInProgress = null;
       Boolean indexingInProgress = null;
       Boolean queryable = null;
 
       try {
          stats = SecurityActions.getCacheComponentRegistry(cache.getAdvancedCache()).getComponent(ClusterCacheStats.class);
+         if (configuration.persistence().preload()) {
+            preloadManager = SecurityActions.getCacheComponentRegistry(cache.getAdvancedCache()).getComponent(PreloadManager.class);
+         }
          DistributionManager distributionManager = cache.getAdvancedCache().getDistributionManager();
          rehashInProgress = distributionManager != null && distributionManager.isRehashInProgress();
       } catch (SecurityException ex) {
@@ -746,6 +751,7 @@ private RestResponse getDetailResponse(RestRequest request, Cache<?, ?> cache, b
 
       CacheFullDetail fullDetail = new CacheFullDetail();
       fullDetail.stats = stats;
+      fullDetail.preload = preloadManager;
       StringBuilderWriter sw = new StringBuilderWriter();
       try (ConfigurationWriter w = ConfigurationWriter.to(sw).withType(APPLICATION_JSON).prettyPrint(pretty).build()) {
          invocationHelper.getParserRegistry().serialize(w, cache.getName(), configuration);
@@ -1047,6 +1053,7 @@ private CompletionStage<RestResponse> reinitializeCache(RestRequest request) {
 
    private static class CacheFullDetail implements JsonSerialization {
       public Stats stats;
+      public PreloadManager preload;
       public Integer size;
       public String configuration;
       public Boolean rehashInProgress;
@@ -1079,6 +1086,10 @@ public Json toJson() {
             json.set("size", size);
          }
 
+         if (preload != null) {
+            json.set("preload", preload.toJson());
+         }
+
          if (rehashInProgress != null) {
             json.set("rehash_in_progress", rehashInProgress);
          }